@@ -7,8 +7,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
-import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -16,6 +16,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 /**
  * 多功能工具应用主类
@@ -101,33 +102,26 @@ public class MainApp extends Application {
             
             // 在应用程序完全启动后显示欢迎气泡
             // 使用一个更长的延迟，确保UI完全初始化
-            Thread delayedWelcomeThread = new Thread(() -> {
+            // 等待2秒，确保UI完全加载；在JavaFX线程中计时，不占用额外线程
+            PauseTransition welcomeDelay = new PauseTransition(Duration.seconds(2));
+            welcomeDelay.setOnFinished(event -> {
                 try {
-                    // 等待2秒，确保UI完全加载
-                    Thread.sleep(2000);
-                    
-                    // 在JavaFX线程中运行
-                    Platform.runLater(() -> {
-                        if (mainController != null) {
-                            // 显示欢迎气泡
-                            mainController.showWelcomeBubble();
-                            
-                            // 启动工作时长提醒定时器
-                            mainController.startWorkTimeReminder();
-                            
-                            AppLogger.info("已启动欢迎气泡和工作时间提醒");
-                        } else {
-                            AppLogger.warning("无法获取主控制器，无法显示欢迎气泡");
-                        }
-                    });
+                    if (mainController != null) {
+                        // 显示欢迎气泡
+                        mainController.showWelcomeBubble();
+                        
+                        // 启动工作时长提醒定时器
+                        mainController.startWorkTimeReminder();
+                        
+                        AppLogger.info("已启动欢迎气泡和工作时间提醒");
+                    } else {
+                        AppLogger.warning("无法获取主控制器，无法显示欢迎气泡");
+                    }
                 } catch (Exception e) {
                     AppLogger.error("显示欢迎气泡时发生异常: " + e.getMessage(), e);
                 }
             });
-            
-            // 设置为守护线程，不阻止JVM退出
-            delayedWelcomeThread.setDaemon(true);
-            delayedWelcomeThread.start();
+            welcomeDelay.play();
             
             AppLogger.info("应用程序启动完成");
         } catch (Exception e) {
@@ -161,6 +155,11 @@ public class MainApp extends Application {
         // 在这里可以添加应用程序关闭时的清理逻辑
         // 例如保存未保存的数据、释放资源等
         
+        // 停止提醒定时任务，写入排队的项目修改，之后再关闭数据库连接池
+        com.timelordtty.projectCalendar.service.ReminderEngine.shutdown();
+        com.timelordtty.projectCalendar.service.ProjectService.shutdown();
+        com.timelordtty.projectCalendar.utils.DatabaseManager.shutdown();
+        
         super.stop();
     }
     
@@ -3,7 +3,6 @@ package com.timelordtty;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Timer;
 
 import com.timelordtty.projectCalendar.ProjectCalendarController;
 import com.timelordtty.ui.SimpleTooltip;
@@ -57,8 +56,8 @@ public class MainController {
     // 当前加载的工具
     private String currentTool = null;
     
-    // 工作时间提醒定时器
-    private Timer workTimeReminderTimer;
+    // 工作时间提醒计时器，在JavaFX应用线程上循环触发，不依赖项目数据
+    private Timeline workTimeReminderTimeline;
     private final long ONE_HOUR_IN_MS = 60 * 60 * 1000; // 一小时的毫秒数
     
     // 测试用短时间
@@ -109,27 +108,15 @@ public class MainController {
         try {
             AppLogger.info("启动工作时间提醒计时器");
             
-            // 创建定时器线程
-            Thread reminderThread = new Thread(() -> {
-                try {
-                    // 开始计时循环
-                    while (true) {
-                        // 等待一小时
-                        Thread.sleep(60 * 60 * 1000); // 60分钟 * 60秒 * 1000毫秒
-                        
-                        // 在JavaFX应用线程中显示提醒
-                        javafx.application.Platform.runLater(() -> {
-                            showWorkTimeReminder();
-                        });
-                    }
-                } catch (InterruptedException e) {
-                    AppLogger.warning("工作时间提醒线程被中断: " + e.getMessage());
-                }
-            });
+            if (workTimeReminderTimeline != null) {
+                return;
+            }
             
-            // 设置为守护线程，不阻止JVM退出
-            reminderThread.setDaemon(true);
-            reminderThread.start();
+            // 每隔一小时在JavaFX应用线程中显示提醒，不再单独占用一个休眠线程
+            workTimeReminderTimeline = new Timeline(
+                    new KeyFrame(Duration.millis(ONE_HOUR_IN_MS), event -> showWorkTimeReminder()));
+            workTimeReminderTimeline.setCycleCount(Timeline.INDEFINITE);
+            workTimeReminderTimeline.play();
             
             AppLogger.info("工作时间提醒计时器已启动");
         } catch (Exception e) {
@@ -19,29 +19,38 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.docgen.UIHelper;
+import com.timelordtty.docgen.service.BatchDocumentGenerator;
 import com.timelordtty.docgen.service.ExcelTemplateService;
 import com.timelordtty.docgen.service.WordTemplateService;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.concurrent.Task;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Insets;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
+import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.Tooltip;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
 
 /**
  * 文档生成器控制器
@@ -1405,6 +1414,173 @@ public class DocumentGeneratorController {
         }
     }
 
+    /**
+     * 处理批量生成文档：从Excel数据表中每行读取一条记录，按当前模板各生成一份文档
+     */
+    @FXML
+    private void handleBatchGenerate() {
+        try {
+            // 批量生成使用已保存的模板文件
+            String expectedExtension = isWordMode ? ".docx" : ".xlsx";
+            if (currentTemplateFile == null || !currentTemplateFile.exists()
+                    || !currentTemplateFile.getName().toLowerCase().endsWith(expectedExtension)) {
+                UIHelper.showError("批量生成失败", "请先导入或生成" + (isWordMode ? "Word" : "Excel") + "模板");
+                return;
+            }
+            
+            // 选择数据表
+            FileChooser dataChooser = new FileChooser();
+            dataChooser.setTitle("选择批量数据表");
+            dataChooser.getExtensionFilters().add(new ExtensionFilter("Excel文件", "*.xlsx"));
+            File initialDir = lastDirectory != null && lastDirectory.isDirectory() ? lastDirectory : new File(baseDir);
+            dataChooser.setInitialDirectory(initialDir);
+            File dataFile = dataChooser.showOpenDialog(wordEditor.getScene().getWindow());
+            if (dataFile == null) {
+                return;
+            }
+            lastDirectory = dataFile.getParentFile();
+            
+            List<BatchDocumentGenerator.Record> records = BatchDocumentGenerator.readRecords(dataFile);
+            if (records.isEmpty()) {
+                UIHelper.showError("批量生成失败", "数据表中没有记录：第一行应为字段名，之后每行一条记录");
+                return;
+            }
+            
+            // 选择输出目录
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            directoryChooser.setTitle("选择输出目录");
+            File documentsDir = new File(baseDir, "documents");
+            if (!documentsDir.exists()) {
+                documentsDir.mkdirs();
+            }
+            directoryChooser.setInitialDirectory(documentsDir);
+            File outputDir = directoryChooser.showDialog(wordEditor.getScene().getWindow());
+            if (outputDir == null) {
+                return;
+            }
+            
+            // 输入文件名模式
+            TextInputDialog patternDialog = new TextInputDialog("document_{{" + BatchDocumentGenerator.INDEX_FIELD + "}}");
+            patternDialog.setTitle("批量生成文档");
+            patternDialog.setHeaderText("共 " + records.size() + " 条记录，模板: " + currentTemplateFile.getName()
+                    + "\n文件名中可用{{字段名}}引用数据表中的列，{{" + BatchDocumentGenerator.INDEX_FIELD + "}}为记录序号"
+                    + "\n可用字段: " + String.join("、", records.get(0).getFields().keySet()));
+            patternDialog.setContentText("文件名模式:");
+            String pattern = patternDialog.showAndWait().map(String::trim).orElse(null);
+            if (pattern == null || pattern.isEmpty()) {
+                return;
+            }
+            
+            // 共用数据复制一份，生成过程中界面上的修改不影响本次生成
+            Map<String, String> baseFields = new HashMap<>(fieldManager.getFieldDataMap());
+            Map<String, List<Map<String, String>>> lists = new HashMap<>();
+            for (Map.Entry<String, List<Map<String, String>>> entry : fieldManager.getListFieldDataMap().entrySet()) {
+                lists.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+            
+            startBatchGeneration(new BatchDocumentGenerator(currentTemplateFile, outputDir, pattern),
+                    records, baseFields, lists, outputDir);
+        } catch (Exception e) {
+            AppLogger.error("批量生成文档失败", e);
+            UIHelper.showError("批量生成失败", "批量生成文档时发生错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 在后台执行批量生成，显示进度窗口，完成后汇总结果并输出错误报告
+     */
+    private void startBatchGeneration(BatchDocumentGenerator generator, List<BatchDocumentGenerator.Record> records,
+            Map<String, String> baseFields, Map<String, List<Map<String, String>>> lists, File outputDir) {
+        
+        Task<BatchDocumentGenerator.Result> batchTask = new Task<BatchDocumentGenerator.Result>() {
+            @Override
+            protected BatchDocumentGenerator.Result call() throws Exception {
+                return generator.generate(records, baseFields, lists, (completed, failed, total) -> {
+                    updateProgress(completed, total);
+                    updateMessage("已完成 " + completed + " / " + total + (failed > 0 ? "，失败 " + failed : ""));
+                });
+            }
+        };
+        
+        // 进度窗口
+        Stage progressStage = new Stage();
+        progressStage.initOwner(wordEditor.getScene().getWindow());
+        progressStage.initModality(Modality.WINDOW_MODAL);
+        progressStage.setTitle("批量生成文档");
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(320);
+        progressBar.progressProperty().bind(batchTask.progressProperty());
+        Label progressLabel = new Label("准备生成 " + records.size() + " 份文档...");
+        batchTask.messageProperty().addListener((obs, oldValue, newValue) -> progressLabel.setText(newValue));
+        Button cancelButton = new Button("取消");
+        cancelButton.setOnAction(e -> {
+            generator.cancel();
+            cancelButton.setDisable(true);
+            cancelButton.setText("正在取消...");
+        });
+        progressStage.setOnCloseRequest(e -> generator.cancel());
+        VBox content = new VBox(10, progressLabel, progressBar, cancelButton);
+        content.setPadding(new Insets(16));
+        progressStage.setScene(new Scene(content));
+        
+        batchTask.setOnSucceeded(event -> {
+            progressStage.close();
+            showBatchResult(batchTask.getValue(), outputDir);
+        });
+        batchTask.setOnFailed(event -> {
+            progressStage.close();
+            Throwable error = batchTask.getException();
+            AppLogger.error("批量生成文档失败", error);
+            UIHelper.showError("批量生成失败", "批量生成文档时发生错误: " + (error != null ? error.getMessage() : ""));
+        });
+        
+        progressStage.show();
+        Thread thread = new Thread(batchTask, "batch-docgen");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * 显示批量生成结果，有失败时在输出目录写入错误报告
+     */
+    private void showBatchResult(BatchDocumentGenerator.Result result, File outputDir) {
+        StringBuilder message = new StringBuilder();
+        message.append("成功 ").append(result.getSucceeded()).append(" 份");
+        if (!result.getFailures().isEmpty()) {
+            message.append("，失败 ").append(result.getFailures().size()).append(" 份");
+        }
+        if (result.isCancelled()) {
+            int skipped = result.getTotal() - result.getSucceeded() - result.getFailures().size();
+            message.append("，已取消 ").append(skipped).append(" 份");
+        }
+        message.append("，耗时 ").append(String.format("%.1f", result.getElapsedMillis() / 1000.0)).append(" 秒");
+        message.append("\n输出目录: ").append(outputDir.getAbsolutePath());
+        
+        if (result.getFailures().isEmpty()) {
+            UIHelper.showInfo(result.isCancelled() ? "批量生成已取消" : "批量生成完成", message.toString());
+            return;
+        }
+        
+        File reportFile = new File(outputDir, "批量生成错误报告_" + getCurrentTimeString() + ".csv");
+        try {
+            result.writeReport(reportFile);
+            message.append("\n错误报告: ").append(reportFile.getName());
+        } catch (Exception e) {
+            AppLogger.error("写入批量生成错误报告失败", e);
+        }
+        // 只列出前几条失败原因，完整信息见错误报告
+        int shown = Math.min(5, result.getFailures().size());
+        for (int i = 0; i < shown; i++) {
+            BatchDocumentGenerator.Failure failure = result.getFailures().get(i);
+            message.append("\n第").append(failure.getRowNumber()).append("行 ")
+                    .append(failure.getFileName()).append(": ").append(failure.getMessage());
+        }
+        if (result.getFailures().size() > shown) {
+            message.append("\n...");
+        }
+        UIHelper.showWarning("批量生成完成", message.toString());
+    }
+
     /**
      * 处理添加字段到列表的请求
      * 
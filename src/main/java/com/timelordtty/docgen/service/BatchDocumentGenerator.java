@@ -0,0 +1,416 @@
+package com.timelordtty.docgen.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.timelordtty.AppLogger;
+
+/**
+ * 批量文档生成器
+ *
+ * 从Excel数据表读取记录（第一个工作表，第一行为字段名，之后每行一条记录），每条记录按模板生成一份Word或Excel文档，
+ * 文件名由文件名模式中的{{字段名}}替换得到。模板只读取一次，各工作线程重复使用同一份模板字节；
+ * 工作线程数默认为CPU核数。支持进度回调、取消，每份文档的失败原因记录在结果中。
+ */
+public class BatchDocumentGenerator {
+
+    // 系统属性：批量生成的工作线程数
+    static final String THREADS_PROPERTY = "docgen.batch.threads";
+
+    // 记录序号字段，可用于文件名模式和模板，从1开始
+    public static final String INDEX_FIELD = "序号";
+
+    private static final Pattern NAME_PLACEHOLDER = Pattern.compile("\\{\\{([^{}]+)\\}\\}");
+    private static final Pattern ILLEGAL_NAME_CHARS = Pattern.compile("[\\\\/:*?\"<>|\\r\\n\\t]");
+
+    /**
+     * 生成进度监听器，在工作线程中调用
+     */
+    public interface ProgressListener {
+        /**
+         * @param completed 已处理的文档数（含失败）
+         * @param failed 失败的文档数
+         * @param total 文档总数
+         */
+        void onProgress(int completed, int failed, int total);
+    }
+
+    /**
+     * 把一条记录渲染为文档
+     */
+    private interface Renderer {
+        void render(Map<String, String> fields, Map<String, List<Map<String, String>>> lists, OutputStream out)
+                throws IOException;
+    }
+
+    /**
+     * 数据表中的一条记录
+     */
+    public static final class Record {
+        private final int rowNumber;
+        private final Map<String, String> fields;
+
+        public Record(int rowNumber, Map<String, String> fields) {
+            this.rowNumber = rowNumber;
+            this.fields = fields;
+        }
+
+        /**
+         * 数据表中的行号，从1开始
+         */
+        public int getRowNumber() {
+            return rowNumber;
+        }
+
+        public Map<String, String> getFields() {
+            return fields;
+        }
+    }
+
+    /**
+     * 一份文档的失败信息
+     */
+    public static final class Failure {
+        private final int rowNumber;
+        private final String fileName;
+        private final String message;
+
+        private Failure(int rowNumber, String fileName, String message) {
+            this.rowNumber = rowNumber;
+            this.fileName = fileName;
+            this.message = message;
+        }
+
+        public int getRowNumber() {
+            return rowNumber;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * 批量生成结果
+     */
+    public static final class Result {
+        private final int total;
+        private final int succeeded;
+        private final List<Failure> failures;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        private Result(int total, int succeeded, List<Failure> failures, boolean cancelled, long elapsedMillis) {
+            this.total = total;
+            this.succeeded = succeeded;
+            this.failures = failures;
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getSucceeded() {
+            return succeeded;
+        }
+
+        /**
+         * 失败的文档，按行号排序
+         */
+        public List<Failure> getFailures() {
+            return failures;
+        }
+
+        /**
+         * 是否被取消，取消后未开始的文档不再生成
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * 把失败信息写入CSV报告（UTF-8，带BOM以便Excel直接打开）
+         * @param reportFile 报告文件
+         * @throws IOException 写入失败时抛出
+         */
+        public void writeReport(File reportFile) throws IOException {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8))) {
+                writer.print('\uFEFF');
+                writer.println("行号,文件名,错误信息");
+                for (Failure failure : failures) {
+                    writer.println(failure.getRowNumber() + "," + csv(failure.getFileName()) + "," + csv(failure.getMessage()));
+                }
+            }
+        }
+
+        private static String csv(String value) {
+            String text = value == null ? "" : value;
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    private final File templateFile;
+    private final File outputDir;
+    private final String fileNamePattern;
+    private final boolean wordTemplate;
+    private final int threads;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * 构造函数
+     * @param templateFile 模板文件，.docx或.xlsx
+     * @param outputDir 输出目录
+     * @param fileNamePattern 文件名模式，如"合同_{{项目名称}}_{{序号}}"，不含扩展名
+     */
+    public BatchDocumentGenerator(File templateFile, File outputDir, String fileNamePattern) {
+        this.templateFile = templateFile;
+        this.outputDir = outputDir;
+        this.fileNamePattern = fileNamePattern;
+        this.wordTemplate = templateFile.getName().toLowerCase(Locale.ROOT).endsWith(".docx");
+        this.threads = Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * 读取数据表：第一个工作表的第一行为字段名，之后每个非空行为一条记录，单元格按显示格式转为文本
+     * @param dataFile Excel数据文件
+     * @return 记录列表
+     * @throws IOException 读取失败时抛出
+     */
+    public static List<Record> readRecords(File dataFile) throws IOException {
+        try (FileInputStream fis = new FileInputStream(dataFile);
+             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+
+            Sheet sheet = workbook.getSheetAt(0);
+            DataFormatter formatter = new DataFormatter();
+            FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+
+            Row headerRow = sheet.getRow(sheet.getFirstRowNum());
+            if (headerRow == null) {
+                return Collections.emptyList();
+            }
+            List<String> headers = new ArrayList<>();
+            for (int j = 0; j < headerRow.getLastCellNum(); j++) {
+                headers.add(formatter.formatCellValue(headerRow.getCell(j), evaluator).trim());
+            }
+
+            List<Record> records = new ArrayList<>();
+            for (int i = headerRow.getRowNum() + 1; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null) {
+                    continue;
+                }
+                Map<String, String> fields = new LinkedHashMap<>();
+                boolean empty = true;
+                for (int j = 0; j < headers.size(); j++) {
+                    if (headers.get(j).isEmpty()) {
+                        continue;
+                    }
+                    Cell cell = row.getCell(j);
+                    String value = cell == null ? "" : formatter.formatCellValue(cell, evaluator);
+                    fields.put(headers.get(j), value);
+                    empty &= value.trim().isEmpty();
+                }
+                if (!empty) {
+                    records.add(new Record(i + 1, fields));
+                }
+            }
+            return records;
+        }
+    }
+
+    /**
+     * 生成所有文档，阻塞直到完成或取消。同名文件会被覆盖
+     * @param records 数据记录
+     * @param baseFields 所有文档共用的字段数据，记录中的同名字段优先
+     * @param lists 所有文档共用的列表数据
+     * @param listener 进度监听器，可以为null
+     * @return 生成结果
+     * @throws IOException 模板无法读取或输出目录无法创建时抛出
+     */
+    public Result generate(List<Record> records, Map<String, String> baseFields,
+                           Map<String, List<Map<String, String>>> lists, ProgressListener listener) throws IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(outputDir.toPath());
+        Renderer renderer = createRenderer();
+        List<String> fileNames = resolveFileNames(records, baseFields);
+
+        int total = records.size();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        int poolSize = Math.max(1, Math.min(threads, total));
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-docgen-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        AppLogger.info("开始批量生成文档: " + total + " 份，模板 " + templateFile.getName() + "，线程数 " + poolSize);
+        try {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                Record record = records.get(i);
+                String fileName = fileNames.get(i);
+                int index = i + 1;
+                futures.add(executor.submit(() -> {
+                    if (cancelled.get()) {
+                        return;
+                    }
+                    Path outputFile = outputDir.toPath().resolve(fileName);
+                    boolean opened = false;
+                    try {
+                        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
+                            opened = true;
+                            renderer.render(recordFields(record, baseFields, index), lists, out);
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (Exception | OutOfMemoryError e) {
+                        AppLogger.error("批量生成文档失败: 第" + record.getRowNumber() + "行 " + fileName, e);
+                        failures.add(new Failure(record.getRowNumber(), fileName,
+                                e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                        // 只删除本次写了一半的文件
+                        if (opened) {
+                            try {
+                                Files.deleteIfExists(outputFile);
+                            } catch (IOException deleteError) {
+                                AppLogger.warning("删除未完成的文档失败: " + outputFile);
+                            }
+                        }
+                    }
+                    int done = completed.incrementAndGet();
+                    if (listener != null) {
+                        listener.onProgress(done, failures.size(), total);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    AppLogger.error("批量生成任务异常", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Failure> sortedFailures = new ArrayList<>(failures);
+        sortedFailures.sort((a, b) -> Integer.compare(a.getRowNumber(), b.getRowNumber()));
+        Result result = new Result(total, succeeded.get(), Collections.unmodifiableList(sortedFailures),
+                cancelled.get(), System.currentTimeMillis() - start);
+        AppLogger.info("批量生成文档结束: 成功 " + result.getSucceeded() + " 份，失败 " + sortedFailures.size()
+                + " 份" + (result.isCancelled() ? "（已取消）" : "") + "，耗时 " + result.getElapsedMillis() + " ms");
+        return result;
+    }
+
+    /**
+     * 取消生成，正在生成的文档会完成，未开始的文档不再生成
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * 输出文件扩展名
+     */
+    public String getExtension() {
+        return wordTemplate ? ".docx" : ".xlsx";
+    }
+
+    private Renderer createRenderer() throws IOException {
+        if (wordTemplate) {
+            CompiledWordTemplate template = WordTemplateCompiler.getInstance().compile(templateFile.getAbsolutePath());
+            return template::render;
+        }
+        byte[] templateBytes = Files.readAllBytes(templateFile.toPath());
+        ExcelTemplateService excelTemplateService = new ExcelTemplateService();
+        return (fields, lists, out) -> excelTemplateService.generateDocument(templateBytes, out, fields, lists);
+    }
+
+    private static Map<String, String> recordFields(Record record, Map<String, String> baseFields, int index) {
+        Map<String, String> fields = new HashMap<>(baseFields);
+        fields.putAll(record.getFields());
+        fields.putIfAbsent(INDEX_FIELD, String.valueOf(index));
+        return fields;
+    }
+
+    /**
+     * 按文件名模式生成每条记录的文件名，去掉非法字符，重名时追加编号
+     */
+    private List<String> resolveFileNames(List<Record> records, Map<String, String> baseFields) {
+        String extension = getExtension();
+        Set<String> used = new HashSet<>();
+        List<String> fileNames = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, String> fields = recordFields(records.get(i), baseFields, i + 1);
+            Matcher matcher = NAME_PLACEHOLDER.matcher(fileNamePattern);
+            StringBuffer buffer = new StringBuffer();
+            while (matcher.find()) {
+                String value = fields.get(matcher.group(1).trim());
+                matcher.appendReplacement(buffer, Matcher.quoteReplacement(value != null ? value : ""));
+            }
+            matcher.appendTail(buffer);
+
+            String baseName = ILLEGAL_NAME_CHARS.matcher(buffer.toString()).replaceAll("_").trim();
+            if (baseName.isEmpty() || baseName.matches("\\.+")) {
+                baseName = "document_" + (i + 1);
+            }
+            String name = baseName + extension;
+            for (int n = 2; !used.add(name.toLowerCase(Locale.ROOT)); n++) {
+                name = baseName + "_" + n + extension;
+            }
+            fileNames.add(name);
+        }
+        return fileNames;
+    }
+}
@@ -0,0 +1,58 @@
+package com.timelordtty.docgen.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 单个工作簿的单元格样式缓存
+ *
+ * Excel一个工作簿最多约64000个样式，为每个单元格新建样式会很快超出限制，样式表和文件也随行数增长。
+ * 复制模板样式时按源样式索引缓存，每个模板样式最多复制一次；按名称创建的样式（表头、日期等）每个工作簿只创建一次。
+ * 不是线程安全的，一个工作簿只在一个线程中处理。
+ */
+final class CellStyleCache {
+
+    private final Workbook workbook;
+    // 源样式索引 -> 复制出的样式
+    private final Map<Short, CellStyle> clones = new HashMap<>();
+    // 样式名称 -> 样式
+    private final Map<String, CellStyle> named = new HashMap<>();
+
+    CellStyleCache(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * 获取源样式的副本，同一个源样式只复制一次
+     * @param source 源样式
+     * @return 本工作簿中的样式
+     */
+    CellStyle cloneOf(CellStyle source) {
+        return clones.computeIfAbsent(source.getIndex(), index -> {
+            CellStyle style = workbook.createCellStyle();
+            style.cloneStyleFrom(source);
+            return style;
+        });
+    }
+
+    /**
+     * 获取指定名称的样式，不存在时用factory创建
+     * @param name 样式名称
+     * @param factory 样式创建方法
+     * @return 样式
+     */
+    CellStyle get(String name, Function<Workbook, CellStyle> factory) {
+        return named.computeIfAbsent(name, key -> factory.apply(workbook));
+    }
+
+    /**
+     * 工作簿中的样式总数
+     */
+    int getStyleCount() {
+        return workbook.getNumCellStyles();
+    }
+}
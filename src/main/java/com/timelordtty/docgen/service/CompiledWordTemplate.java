@@ -0,0 +1,457 @@
+package com.timelordtty.docgen.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+
+/**
+ * 编译后的Word模板
+ *
+ * 模板只解析一次：记录含占位符的段落位置（正文段落或表格单元格中的段落）、每个占位符所在的Run
+ * （跨多个Run的占位符也能识别）以及列表区域{{#list}}...{{/list}}。占位符使用开始位置所在Run的样式，
+ * 被占位符覆盖的后续Run中的文字被移除，不含占位符的Run保持原样。
+ * 渲染时从模板字节重新打开文档，只按位置直接访问需要修改的段落和Run，每个占位符只查一次字段表。
+ * 创建后不再修改，可以在多个线程中同时渲染。
+ */
+public final class CompiledWordTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{([^{}]*)\\}\\}");
+
+    private final byte[] templateBytes;
+    private final List<ParagraphPlan> paragraphs;
+    private final Set<String> fieldNames;
+    private final Set<String> listNames;
+
+    private CompiledWordTemplate(byte[] templateBytes, List<ParagraphPlan> paragraphs,
+                                 Set<String> fieldNames, Set<String> listNames) {
+        this.templateBytes = templateBytes;
+        this.paragraphs = paragraphs;
+        this.fieldNames = fieldNames;
+        this.listNames = listNames;
+    }
+
+    /**
+     * 解析模板
+     * @param templateBytes .docx文件内容，调用方之后不能再修改
+     * @return 编译后的模板
+     * @throws IOException 模板无法解析时抛出
+     */
+    public static CompiledWordTemplate compile(byte[] templateBytes) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(templateBytes))) {
+            Compiler compiler = new Compiler();
+
+            // 与原来的处理范围一致：正文段落和正文表格单元格中的段落
+            List<XWPFParagraph> bodyParagraphs = document.getParagraphs();
+            for (int i = 0; i < bodyParagraphs.size(); i++) {
+                compiler.compileParagraph(bodyParagraphs.get(i), -1, 0, 0, i);
+            }
+            List<XWPFTable> tables = document.getTables();
+            for (int t = 0; t < tables.size(); t++) {
+                List<XWPFTableRow> rows = tables.get(t).getRows();
+                for (int r = 0; r < rows.size(); r++) {
+                    List<XWPFTableCell> cells = rows.get(r).getTableCells();
+                    for (int c = 0; c < cells.size(); c++) {
+                        List<XWPFParagraph> cellParagraphs = cells.get(c).getParagraphs();
+                        for (int p = 0; p < cellParagraphs.size(); p++) {
+                            compiler.compileParagraph(cellParagraphs.get(p), t, r, c, p);
+                        }
+                    }
+                }
+            }
+
+            return new CompiledWordTemplate(templateBytes, Collections.unmodifiableList(compiler.paragraphs),
+                    Collections.unmodifiableSet(compiler.fieldNames), Collections.unmodifiableSet(compiler.listNames));
+        }
+    }
+
+    /**
+     * 模板中的普通字段名（不含列表项字段）
+     */
+    public Set<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * 模板中的列表名
+     */
+    public Set<String> getListNames() {
+        return listNames;
+    }
+
+    /**
+     * 含占位符的段落数
+     */
+    public int getPlaceholderParagraphCount() {
+        return paragraphs.size();
+    }
+
+    /**
+     * 用数据渲染模板并写入输出流
+     * @param fieldDataMap 普通字段数据，没有的字段保留占位符，值为null时替换为空字符串
+     * @param listFieldDataMap 列表字段数据，没有数据的列表保留原样
+     * @param out 输出流，不会被关闭
+     * @throws IOException 读写失败时抛出
+     */
+    public void render(Map<String, String> fieldDataMap, Map<String, List<Map<String, String>>> listFieldDataMap,
+                       OutputStream out) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(templateBytes))) {
+            StringBuilder buffer = new StringBuilder();
+            for (ParagraphPlan plan : paragraphs) {
+                List<XWPFRun> runs = plan.locate(document).getRuns();
+                for (RunPlan runPlan : plan.runs) {
+                    buffer.setLength(0);
+                    for (Part part : runPlan.parts) {
+                        part.render(buffer, fieldDataMap, listFieldDataMap, null);
+                    }
+                    setRunText(runs.get(runPlan.runIndex), buffer.toString());
+                }
+            }
+            document.write(out);
+        }
+    }
+
+    /**
+     * 替换Run的全部文字，保留Run的样式
+     */
+    private static void setRunText(XWPFRun run, String text) {
+        CTR ctr = run.getCTR();
+        for (int i = ctr.sizeOfTArray() - 1; i >= 0; i--) {
+            ctr.removeT(i);
+        }
+        for (int i = ctr.sizeOfTabArray() - 1; i >= 0; i--) {
+            ctr.removeTab(i);
+        }
+        for (int i = ctr.sizeOfBrArray() - 1; i >= 0; i--) {
+            ctr.removeBr(i);
+        }
+        for (int i = ctr.sizeOfCrArray() - 1; i >= 0; i--) {
+            ctr.removeCr(i);
+        }
+        if (!text.isEmpty()) {
+            run.setText(text);
+        }
+    }
+
+    /**
+     * 解析过程中的状态
+     */
+    private static final class Compiler {
+        private final List<ParagraphPlan> paragraphs = new ArrayList<>();
+        private final Set<String> fieldNames = new LinkedHashSet<>();
+        private final Set<String> listNames = new LinkedHashSet<>();
+
+        private void compileParagraph(XWPFParagraph paragraph, int table, int row, int cell, int index) {
+            List<XWPFRun> runs = paragraph.getRuns();
+            int[] runStarts = new int[runs.size() + 1];
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < runs.size(); i++) {
+                runStarts[i] = builder.length();
+                builder.append(runs.get(i).text());
+            }
+            runStarts[runs.size()] = builder.length();
+            String text = builder.toString();
+            if (text.indexOf("{{") < 0) {
+                return;
+            }
+
+            List<Span> spans = parseSpans(text);
+            if (spans.stream().allMatch(span -> span.part instanceof Literal)) {
+                return;
+            }
+
+            // 文字按Run边界切分保留原样式，占位符整体放在开始位置所在的Run
+            List<List<Part>> partsByRun = new ArrayList<>(runs.size());
+            boolean[] touched = new boolean[runs.size()];
+            for (int i = 0; i < runs.size(); i++) {
+                partsByRun.add(new ArrayList<>());
+            }
+            for (Span span : spans) {
+                int startRun = runAt(runStarts, span.start);
+                if (span.part instanceof Literal) {
+                    for (int r = startRun; r < runs.size() && runStarts[r] < span.end; r++) {
+                        int from = Math.max(span.start, runStarts[r]);
+                        int to = Math.min(span.end, runStarts[r + 1]);
+                        if (from < to) {
+                            partsByRun.get(r).add(new Literal(text.substring(from, to)));
+                        }
+                    }
+                } else {
+                    partsByRun.get(startRun).add(span.part);
+                    for (int r = startRun; r < runs.size() && runStarts[r] < span.end; r++) {
+                        touched[r] = true;
+                    }
+                }
+            }
+
+            List<RunPlan> runPlans = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i++) {
+                if (touched[i]) {
+                    runPlans.add(new RunPlan(i, partsByRun.get(i)));
+                }
+            }
+            paragraphs.add(new ParagraphPlan(table, row, cell, index, runPlans));
+        }
+
+        private static int runAt(int[] runStarts, int offset) {
+            int run = 0;
+            while (run < runStarts.length - 2 && runStarts[run + 1] <= offset) {
+                run++;
+            }
+            return run;
+        }
+
+        /**
+         * 把段落文字切分为文字、字段和列表区域
+         */
+        private List<Span> parseSpans(String text) {
+            List<int[]> matches = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            Matcher matcher = PLACEHOLDER.matcher(text);
+            while (matcher.find()) {
+                matches.add(new int[] {matcher.start(), matcher.end()});
+                names.add(matcher.group(1));
+            }
+
+            List<Span> spans = new ArrayList<>();
+            int position = 0;
+            int i = 0;
+            while (i < matches.size()) {
+                int[] match = matches.get(i);
+                String name = names.get(i);
+                int end = name.startsWith("#") ? indexOf(names, "/" + name.substring(1), i + 1) : -1;
+                if (match[0] > position) {
+                    spans.add(new Span(position, match[0], new Literal(text.substring(position, match[0]))));
+                }
+                if (end >= 0) {
+                    String listName = name.substring(1);
+                    listNames.add(listName);
+                    List<Part> inner = new ArrayList<>();
+                    int innerPosition = match[1];
+                    for (int j = i + 1; j < end; j++) {
+                        int[] innerMatch = matches.get(j);
+                        if (innerMatch[0] > innerPosition) {
+                            inner.add(new Literal(text.substring(innerPosition, innerMatch[0])));
+                        }
+                        inner.add(innerField(listName, names.get(j)));
+                        innerPosition = innerMatch[1];
+                    }
+                    int[] endMatch = matches.get(end);
+                    if (endMatch[0] > innerPosition) {
+                        inner.add(new Literal(text.substring(innerPosition, endMatch[0])));
+                    }
+                    spans.add(new Span(match[0], endMatch[1], new ListRegion(listName, inner)));
+                    position = endMatch[1];
+                    i = end + 1;
+                } else {
+                    fieldNames.add(name);
+                    spans.add(new Span(match[0], match[1], new Field(name)));
+                    position = match[1];
+                    i++;
+                }
+            }
+            if (position < text.length()) {
+                spans.add(new Span(position, text.length(), new Literal(text.substring(position))));
+            }
+            return spans;
+        }
+
+        private Part innerField(String listName, String name) {
+            String prefix = listName + ".";
+            if (name.startsWith(prefix)) {
+                return new ItemField(name, name.substring(prefix.length()));
+            }
+            fieldNames.add(name);
+            return new Field(name);
+        }
+
+        private static int indexOf(List<String> names, String name, int from) {
+            for (int i = from; i < names.size(); i++) {
+                if (names.get(i).equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 段落文字中的一段及其对应的模板片段
+     */
+    private static final class Span {
+        private final int start;
+        private final int end;
+        private final Part part;
+
+        private Span(int start, int end, Part part) {
+            this.start = start;
+            this.end = end;
+            this.part = part;
+        }
+    }
+
+    /**
+     * 含占位符的段落：位置和需要改写的Run
+     */
+    private static final class ParagraphPlan {
+        // 正文段落时为-1
+        private final int table;
+        private final int row;
+        private final int cell;
+        private final int index;
+        private final List<RunPlan> runs;
+
+        private ParagraphPlan(int table, int row, int cell, int index, List<RunPlan> runs) {
+            this.table = table;
+            this.row = row;
+            this.cell = cell;
+            this.index = index;
+            this.runs = runs;
+        }
+
+        private XWPFParagraph locate(XWPFDocument document) {
+            if (table < 0) {
+                return document.getParagraphs().get(index);
+            }
+            return document.getTables().get(table).getRows().get(row).getTableCells().get(cell).getParagraphs().get(index);
+        }
+    }
+
+    /**
+     * 需要改写的Run及其新内容
+     */
+    private static final class RunPlan {
+        private final int runIndex;
+        private final List<Part> parts;
+
+        private RunPlan(int runIndex, List<Part> parts) {
+            this.runIndex = runIndex;
+            this.parts = parts;
+        }
+    }
+
+    /**
+     * 模板片段
+     */
+    private interface Part {
+        /**
+         * @param item 列表区域中当前的列表项，区域外为null
+         */
+        void render(StringBuilder out, Map<String, String> fields, Map<String, List<Map<String, String>>> lists,
+                    Map<String, String> item);
+    }
+
+    private static final class Literal implements Part {
+        private final String text;
+
+        private Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(StringBuilder out, Map<String, String> fields, Map<String, List<Map<String, String>>> lists,
+                           Map<String, String> item) {
+            out.append(text);
+        }
+    }
+
+    /**
+     * 普通字段{{name}}
+     */
+    private static final class Field implements Part {
+        private final String name;
+
+        private Field(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(StringBuilder out, Map<String, String> fields, Map<String, List<Map<String, String>>> lists,
+                           Map<String, String> item) {
+            if (fields.containsKey(name)) {
+                String value = fields.get(name);
+                out.append(value != null ? value : "");
+            } else {
+                out.append("{{").append(name).append("}}");
+            }
+        }
+    }
+
+    /**
+     * 列表项字段{{list.key}}，同名的普通字段优先
+     */
+    private static final class ItemField implements Part {
+        private final String name;
+        private final String key;
+
+        private ItemField(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+
+        @Override
+        public void render(StringBuilder out, Map<String, String> fields, Map<String, List<Map<String, String>>> lists,
+                           Map<String, String> item) {
+            if (fields.containsKey(name)) {
+                String value = fields.get(name);
+                out.append(value != null ? value : "");
+            } else if (item != null && item.containsKey(key)) {
+                String value = item.get(key);
+                out.append(value != null ? value : "");
+            } else {
+                out.append("{{").append(name).append("}}");
+            }
+        }
+    }
+
+    /**
+     * 列表区域{{#list}}...{{/list}}，每个列表项重复一次中间的内容
+     */
+    private static final class ListRegion implements Part {
+        private final String name;
+        private final List<Part> inner;
+
+        private ListRegion(String name, List<Part> inner) {
+            this.name = name;
+            this.inner = inner;
+        }
+
+        @Override
+        public void render(StringBuilder out, Map<String, String> fields, Map<String, List<Map<String, String>>> lists,
+                           Map<String, String> item) {
+            List<Map<String, String>> items = lists.get(name);
+            if (items == null || items.isEmpty()) {
+                // 没有数据时保留列表标记，其中的普通字段照常替换
+                out.append("{{#").append(name).append("}}");
+                renderItem(out, fields, lists, null);
+                out.append("{{/").append(name).append("}}");
+                return;
+            }
+            for (Map<String, String> listItem : items) {
+                renderItem(out, fields, lists, listItem);
+            }
+        }
+
+        private void renderItem(StringBuilder out, Map<String, String> fields,
+                                Map<String, List<Map<String, String>>> lists, Map<String, String> item) {
+            for (Part part : inner) {
+                part.render(out, fields, lists, item);
+            }
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.timelordtty.docgen.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaShifter;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -24,6 +28,9 @@ import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.timelordtty.AppLogger;
@@ -33,6 +40,13 @@ import com.timelordtty.AppLogger;
  */
 public class ExcelTemplateService {
 
+    // 系统属性：列表展开后的总行数达到该值时使用SXSSF流式生成
+    static final String STREAMING_THRESHOLD_PROPERTY = "docgen.excel.streaming.threshold";
+    // 系统属性：流式生成时内存中保留的行数
+    static final String STREAMING_WINDOW_PROPERTY = "docgen.excel.streaming.window";
+    private static final int DEFAULT_STREAMING_THRESHOLD = 5000;
+    private static final int DEFAULT_STREAMING_WINDOW = 200;
+
     /**
      * 读取Excel表格内容
      * 
@@ -151,21 +165,240 @@ public class ExcelTemplateService {
             Map<String, List<Map<String, String>>> listFieldDataMap) throws IOException {
         
         try (FileInputStream fis = new FileInputStream(templatePath);
-             Workbook workbook = WorkbookFactory.create(fis)) {
+             Workbook workbook = WorkbookFactory.create(fis);
+             FileOutputStream fos = new FileOutputStream(outputPath)) {
             
-            // 处理所有工作表
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                processSheet(sheet, fieldDataMap, listFieldDataMap);
+            // 处理所有工作表并保存生成的文档
+            generate(workbook, fieldDataMap, listFieldDataMap, fos);
+        }
+        
+        AppLogger.info("生成Excel文档: " + outputPath);
+    }
+    
+    /**
+     * 根据已读入内存的模板和数据生成文档，批量生成时同一份模板字节可在多个线程中重复使用
+     * 
+     * @param templateBytes 模板文件内容，不会被修改
+     * @param out 输出流，不会被关闭
+     * @param fieldDataMap 普通字段数据
+     * @param listFieldDataMap 列表字段数据
+     * @throws IOException IO异常
+     */
+    public void generateDocument(
+            byte[] templateBytes, 
+            OutputStream out, 
+            Map<String, String> fieldDataMap,
+            Map<String, List<Map<String, String>>> listFieldDataMap) throws IOException {
+        
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(templateBytes))) {
+            generate(workbook, fieldDataMap, listFieldDataMap, out);
+        }
+    }
+    
+    /**
+     * 处理模板并写出文档：列表总行数达到阈值时改用SXSSF流式写出列表行，内存占用不随行数增长
+     */
+    private void generate(
+            Workbook workbook, 
+            Map<String, String> fieldDataMap,
+            Map<String, List<Map<String, String>>> listFieldDataMap,
+            OutputStream out) throws IOException {
+        
+        if (workbook instanceof XSSFWorkbook) {
+            long listRows = countListRows(workbook, listFieldDataMap);
+            if (listRows >= getStreamingThreshold()) {
+                AppLogger.info("列表共 " + listRows + " 行，使用流式方式生成Excel文档");
+                generateStreaming((XSSFWorkbook) workbook, fieldDataMap, listFieldDataMap, out);
+                return;
             }
+        }
+        processWorkbook(workbook, fieldDataMap, listFieldDataMap);
+        workbook.write(out);
+        AppLogger.info("Excel文档样式数: " + workbook.getNumCellStyles());
+    }
+    
+    /**
+     * 统计所有列表区域展开后的行数
+     */
+    private long countListRows(Workbook workbook, Map<String, List<Map<String, String>>> listFieldDataMap) {
+        long rows = 0;
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            for (ListSectionInfo section : findListSections(workbook.getSheetAt(i))) {
+                List<Map<String, String>> items = listFieldDataMap.get(section.getListName());
+                if (items != null) {
+                    rows += items.size();
+                }
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * 流式生成文档
+     * 
+     * 普通字段仍在内存中的模板里替换；每个含列表数据的工作表从第一个列表区域开始的行被记录后移除，
+     * 再通过SXSSF按顺序写出：列表区域之间的行、展开的列表行、列表之后的行。
+     * 列表之后的行、合并区域和引用这些行的公式只按最终位置调整一次。
+     */
+    private void generateStreaming(
+            XSSFWorkbook workbook, 
+            Map<String, String> fieldDataMap,
+            Map<String, List<Map<String, String>>> listFieldDataMap,
+            OutputStream out) throws IOException {
+        
+        int sheetCount = workbook.getNumberOfSheets();
+        List<List<ListSectionInfo>> sectionsBySheet = new ArrayList<>(sheetCount);
+        List<FormulaShifter> shifters = new ArrayList<>();
+        for (int i = 0; i < sheetCount; i++) {
+            Sheet sheet = workbook.getSheetAt(i);
+            List<ListSectionInfo> listSections = findListSections(sheet);
+            replaceCellPlaceholders(sheet, listSections, fieldDataMap, listFieldDataMap);
             
-            // 保存生成的文档
-            try (FileOutputStream fos = new FileOutputStream(outputPath)) {
-                workbook.write(fos);
+            // 没有数据的列表区域保持原样
+            List<ListSectionInfo> expanded = new ArrayList<>();
+            for (ListSectionInfo section : listSections) {
+                if (listFieldDataMap.containsKey(section.getListName())) {
+                    expanded.add(section);
+                }
+            }
+            sectionsBySheet.add(expanded);
+            
+            // 从后往前移动，前面区域的移动不影响后面区域的边界
+            for (int j = expanded.size() - 1; j >= 0; j--) {
+                ListSectionInfo section = expanded.get(j);
+                int delta = listFieldDataMap.get(section.getListName()).size() - section.getRowCount();
+                if (delta != 0) {
+                    shifters.add(FormulaShifter.createForRowShift(i, workbook.getSheetName(i), section.getEndRow() + 1,
+                            SpreadsheetVersion.EXCEL2007.getLastRowIndex(), delta, SpreadsheetVersion.EXCEL2007));
+                }
             }
         }
         
-        AppLogger.info("生成Excel文档: " + outputPath);
+        // 模板中保留的行里引用了被移动行的公式
+        for (int i = 0; i < sheetCount && !shifters.isEmpty(); i++) {
+            SheetTail.FormulaAdjuster adjuster = new SheetTail.FormulaAdjuster(workbook, i, shifters);
+            List<ListSectionInfo> sections = sectionsBySheet.get(i);
+            int keptRows = sections.isEmpty() ? Integer.MAX_VALUE : sections.get(0).getStartRow();
+            for (Row row : workbook.getSheetAt(i)) {
+                if (row.getRowNum() >= keptRows) {
+                    break;
+                }
+                for (Cell cell : row) {
+                    if (cell.getCellType() == CellType.FORMULA) {
+                        cell.setCellFormula(adjuster.adjust(cell.getCellFormula()));
+                    }
+                }
+            }
+        }
+        
+        List<SheetTail> tails = new ArrayList<>(sheetCount);
+        for (int i = 0; i < sheetCount; i++) {
+            List<ListSectionInfo> sections = sectionsBySheet.get(i);
+            tails.add(sections.isEmpty() ? null : SheetTail.detach(workbook.getSheetAt(i), sections.get(0).getStartRow()));
+        }
+        
+        SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook(workbook, getStreamingWindow(), true);
+        try {
+            for (int i = 0; i < sheetCount; i++) {
+                SheetTail tail = tails.get(i);
+                if (tail != null) {
+                    writeStreamingSheet(streamingWorkbook.getSheetAt(i), tail, sectionsBySheet.get(i), listFieldDataMap,
+                            new SheetTail.FormulaAdjuster(workbook, i, shifters));
+                }
+            }
+            streamingWorkbook.write(out);
+            AppLogger.info("Excel文档样式数: " + streamingWorkbook.getNumCellStyles());
+        } finally {
+            // 删除临时文件
+            streamingWorkbook.dispose();
+        }
+    }
+    
+    /**
+     * 通过SXSSF写出一个工作表中从第一个列表区域开始的所有行
+     */
+    private void writeStreamingSheet(
+            Sheet sheet, 
+            SheetTail tail, 
+            List<ListSectionInfo> sections,
+            Map<String, List<Map<String, String>>> listFieldDataMap,
+            SheetTail.FormulaAdjuster adjuster) {
+        
+        int source = tail.getFirstRow();
+        int target = tail.getFirstRow();
+        for (ListSectionInfo section : sections) {
+            for (; source < section.getStartRow(); source++, target++) {
+                tail.copyRow(sheet, source, target, adjuster);
+            }
+            
+            // 模板样式就在同一个工作簿中，直接使用
+            SheetTail.RowSnapshot templateRow = tail.getRow(section.getTemplateRow());
+            for (Map<String, String> item : listFieldDataMap.get(section.getListName())) {
+                writeListRow(sheet, templateRow, target++, section.getListName(), item, null);
+            }
+            source = section.getEndRow() + 1;
+        }
+        for (; source <= tail.getLastRow(); source++, target++) {
+            tail.copyRow(sheet, source, target, adjuster);
+        }
+        
+        tail.restoreMergedRegions(sheet, rowIndex -> {
+            int offset = 0;
+            for (ListSectionInfo section : sections) {
+                if (rowIndex > section.getEndRow()) {
+                    offset += listFieldDataMap.get(section.getListName()).size() - section.getRowCount();
+                } else if (rowIndex >= section.getStartRow()) {
+                    return -1;
+                }
+            }
+            return rowIndex + offset;
+        });
+    }
+    
+    /**
+     * 替换列表项占位符{{listName.key}}
+     */
+    private String replaceListItemPlaceholders(String value, String listName, Map<String, String> item) {
+        if (value == null || !value.contains("{{")) {
+            return value;
+        }
+        for (Map.Entry<String, String> entry : item.entrySet()) {
+            String placeholder = "{{" + listName + "." + entry.getKey() + "}}";
+            if (value.contains(placeholder)) {
+                String fieldValue = entry.getValue() != null ? entry.getValue() : "";
+                value = value.replace(placeholder, fieldValue);
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * 流式生成的列表行阈值
+     */
+    private static int getStreamingThreshold() {
+        return Math.max(1, Integer.getInteger(STREAMING_THRESHOLD_PROPERTY, DEFAULT_STREAMING_THRESHOLD));
+    }
+    
+    /**
+     * 流式生成时内存中保留的行数
+     */
+    private static int getStreamingWindow() {
+        return Math.max(1, Integer.getInteger(STREAMING_WINDOW_PROPERTY, DEFAULT_STREAMING_WINDOW));
+    }
+    
+    /**
+     * 处理工作簿中所有工作表的占位符
+     */
+    private void processWorkbook(
+            Workbook workbook, 
+            Map<String, String> fieldDataMap,
+            Map<String, List<Map<String, String>>> listFieldDataMap) {
+        
+        CellStyleCache styleCache = new CellStyleCache(workbook);
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            Sheet sheet = workbook.getSheetAt(i);
+            processSheet(sheet, fieldDataMap, listFieldDataMap, styleCache);
+        }
     }
     
     /**
@@ -174,10 +407,33 @@ public class ExcelTemplateService {
      * @param sheet 工作表
      * @param fieldDataMap 字段数据
      * @param listFieldDataMap 列表数据
+     * @param styleCache 工作簿的样式缓存
      */
     private void processSheet(
             Sheet sheet, 
             Map<String, String> fieldDataMap,
+            Map<String, List<Map<String, String>>> listFieldDataMap,
+            CellStyleCache styleCache) {
+        
+        List<ListSectionInfo> listSections = findListSections(sheet);
+        replaceCellPlaceholders(sheet, listSections, fieldDataMap, listFieldDataMap);
+        
+        // 查找并处理列表行区域
+        processListSections(sheet, listSections, listFieldDataMap, styleCache);
+    }
+    
+    /**
+     * 替换单元格中的普通字段占位符，列表区域之外的列表字段占位符用第一个含该字段的列表项替换
+     * 
+     * @param sheet 工作表
+     * @param listSections 列表区域，其中的列表字段占位符留给列表展开时替换
+     * @param fieldDataMap 字段数据
+     * @param listFieldDataMap 列表数据
+     */
+    private void replaceCellPlaceholders(
+            Sheet sheet, 
+            List<ListSectionInfo> listSections,
+            Map<String, String> fieldDataMap,
             Map<String, List<Map<String, String>>> listFieldDataMap) {
         
         // 遍历所有行
@@ -186,6 +442,7 @@ public class ExcelTemplateService {
             if (row == null) {
                 continue;
             }
+            boolean inListSection = isInListSection(listSections, i);
             
             // 遍历所有列
             for (int j = 0; j < row.getLastCellNum(); j++) {
@@ -220,6 +477,9 @@ public class ExcelTemplateService {
                 
                 // 处理列表字段 (单元格中的列表字段，不是整行的列表)
                 for (Map.Entry<String, List<Map<String, String>>> entry : listFieldDataMap.entrySet()) {
+                    if (inListSection) {
+                        break;
+                    }
                     String listName = entry.getKey();
                     for (Map<String, String> item : entry.getValue()) {
                         for (Map.Entry<String, String> field : item.entrySet()) {
@@ -239,22 +499,35 @@ public class ExcelTemplateService {
                 }
             }
         }
-        
-        // 查找并处理列表行区域
-        processListSections(sheet, listFieldDataMap);
+    }
+    
+    /**
+     * 行是否位于某个列表区域中（包括开始和结束标记行）
+     */
+    private boolean isInListSection(List<ListSectionInfo> listSections, int rowIndex) {
+        for (ListSectionInfo section : listSections) {
+            if (rowIndex >= section.getStartRow() && rowIndex <= section.getEndRow()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * 处理列表行区域
      * 
+     * 从下往上处理每个区域：记录模板行后清空区域内的行，区域之后的行按"列表行数-区域行数"一次整体移动，
+     * 由POI统一调整公式、合并区域和行高，再在空出的位置写入列表行。每个区域最多移动一次。
+     * 
      * @param sheet 工作表
+     * @param listSections 列表区域
      * @param listFieldDataMap 列表数据
+     * @param styleCache 工作簿的样式缓存
      */
-    private void processListSections(Sheet sheet, Map<String, List<Map<String, String>>> listFieldDataMap) {
-        // 遍历查找列表开始和结束标记
-        List<ListSectionInfo> listSections = findListSections(sheet);
+    private void processListSections(Sheet sheet, List<ListSectionInfo> listSections,
+            Map<String, List<Map<String, String>>> listFieldDataMap, CellStyleCache styleCache) {
         
-        // 从后往前处理列表部分，避免插入行时影响后面的行索引
+        // 从后往前处理，移动行时不影响前面区域的行索引
         for (int i = listSections.size() - 1; i >= 0; i--) {
             ListSectionInfo section = listSections.get(i);
             String listName = section.getListName();
@@ -263,86 +536,80 @@ public class ExcelTemplateService {
             if (!listFieldDataMap.containsKey(listName)) {
                 continue;
             }
-            
             List<Map<String, String>> listItems = listFieldDataMap.get(listName);
             
-            // 这里需要从后往前删除，否则会影响行索引
-            // 先删除模板行（包括开始和结束标记行）
+            // 记录模板行
+            Row templateSource = sheet.getRow(section.getTemplateRow());
+            SheetTail.RowSnapshot templateRow = templateSource != null ? SheetTail.RowSnapshot.of(templateSource) : null;
+            
+            // 清空区域内的行（包括开始和结束标记行）和其中的合并区域，不移动其他行
             for (int rowIndex = section.getEndRow(); rowIndex >= section.getStartRow(); rowIndex--) {
-                sheet.removeRow(sheet.getRow(rowIndex));
-                if (rowIndex < sheet.getLastRowNum()) {
-                    sheet.shiftRows(rowIndex + 1, sheet.getLastRowNum(), -1);
+                Row row = sheet.getRow(rowIndex);
+                if (row != null) {
+                    sheet.removeRow(row);
                 }
             }
+            removeMergedRegions(sheet, section.getStartRow(), section.getEndRow());
             
-            // 记录模板行的样式
-            int templateRowIndex = section.getTemplateRow();
-            
-            // 获取模板行
-            Row templateRow = sheet.getRow(templateRowIndex);
-            if (templateRow == null) {
-                continue;
+            // 区域之后的行整体移动一次
+            int delta = listItems.size() - section.getRowCount();
+            if (delta != 0 && section.getEndRow() < sheet.getLastRowNum()) {
+                sheet.shiftRows(section.getEndRow() + 1, sheet.getLastRowNum(), delta, true, false);
             }
             
-            // 对每个列表项插入新行
+            // 写入列表数据行
             int currentRowIndex = section.getStartRow();
-            
-            // 插入列表数据行
             for (Map<String, String> item : listItems) {
-                // 创建新行
-                Row newRow = sheet.createRow(currentRowIndex);
-                
-                // 复制模板行的单元格
-                for (int cellIndex = 0; cellIndex < templateRow.getLastCellNum(); cellIndex++) {
-                    Cell templateCell = templateRow.getCell(cellIndex);
-                    if (templateCell == null) {
-                        continue;
-                    }
-                    
-                    // 创建新单元格
-                    Cell newCell = newRow.createCell(cellIndex);
-                    
-                    // 复制样式
-                    CellStyle newStyle = sheet.getWorkbook().createCellStyle();
-                    newStyle.cloneStyleFrom(templateCell.getCellStyle());
-                    newCell.setCellStyle(newStyle);
-                    
-                    // 获取模板单元格的值并替换占位符
-                    if (templateCell.getCellType() == CellType.STRING) {
-                        String value = templateCell.getStringCellValue();
-                        
-                        // 替换列表字段占位符
-                        for (Map.Entry<String, String> entry : item.entrySet()) {
-                            String placeholder = "{{" + listName + "." + entry.getKey() + "}}";
-                            if (value.contains(placeholder)) {
-                                String fieldValue = entry.getValue() != null ? entry.getValue() : "";
-                                value = value.replace(placeholder, fieldValue);
-                            }
-                        }
-                        
-                        newCell.setCellValue(value);
-                    } else {
-                        // 复制其他类型的单元格值
-                        switch (templateCell.getCellType()) {
-                            case NUMERIC:
-                                newCell.setCellValue(templateCell.getNumericCellValue());
-                                break;
-                            case BOOLEAN:
-                                newCell.setCellValue(templateCell.getBooleanCellValue());
-                                break;
-                            case FORMULA:
-                                newCell.setCellFormula(templateCell.getCellFormula());
-                                break;
-                            default:
-                                newCell.setCellValue("");
-                        }
-                    }
-                }
-                
-                currentRowIndex++;
+                writeListRow(sheet, templateRow, currentRowIndex++, listName, item, styleCache);
             }
         }
     }
+    
+    /**
+     * 按模板行写入一行列表数据
+     * 
+     * @param sheet 工作表
+     * @param templateRow 模板行，为null时不写入
+     * @param rowIndex 行索引
+     * @param listName 列表名称
+     * @param item 列表项
+     * @param styleCache 样式缓存，为null时直接使用模板样式
+     */
+    private void writeListRow(Sheet sheet, SheetTail.RowSnapshot templateRow, int rowIndex,
+            String listName, Map<String, String> item, CellStyleCache styleCache) {
+        if (templateRow == null) {
+            return;
+        }
+        Row newRow = templateRow.createRow(sheet, rowIndex);
+        for (SheetTail.CellSnapshot templateCell : templateRow.getCells()) {
+            String value = templateCell.getText();
+            if (templateCell.getType() == CellType.STRING) {
+                value = replaceListItemPlaceholders(value, listName, item);
+            }
+            Cell newCell = newRow.createCell(templateCell.getColumn());
+            templateCell.writeTo(newCell, value);
+            if (styleCache != null) {
+                // 同一个模板样式只复制一次
+                newCell.setCellStyle(styleCache.cloneOf(templateCell.getStyle()));
+            }
+        }
+    }
+    
+    /**
+     * 移除完全位于指定行范围内的合并区域
+     */
+    private void removeMergedRegions(Sheet sheet, int firstRow, int lastRow) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+            CellRangeAddress region = sheet.getMergedRegion(i);
+            if (region.getFirstRow() >= firstRow && region.getLastRow() <= lastRow) {
+                indexes.add(i);
+            }
+        }
+        if (!indexes.isEmpty()) {
+            sheet.removeMergedRegions(indexes);
+        }
+    }
 
     /**
      * 查找工作表中的列表区域
@@ -462,6 +729,13 @@ public class ExcelTemplateService {
         public int getEndRow() {
             return endRow;
         }
+        
+        /**
+         * 区域占用的行数（包括开始和结束标记行）
+         */
+        public int getRowCount() {
+            return endRow - startRow + 1;
+        }
     }
 
     /**
@@ -473,6 +747,8 @@ public class ExcelTemplateService {
      */
     public void createTemplate(String outputPath, Map<String, List<String>> sheets) throws IOException {
         try (Workbook workbook = new XSSFWorkbook()) {
+            CellStyleCache styleCache = new CellStyleCache(workbook);
+            
             // 创建工作表和表头
             for (Map.Entry<String, List<String>> entry : sheets.entrySet()) {
                 String sheetName = entry.getKey();
@@ -480,8 +756,8 @@ public class ExcelTemplateService {
                 
                 Sheet sheet = workbook.createSheet(sheetName);
                 
-                // 创建表头样式
-                CellStyle headerStyle = createHeaderStyle(workbook);
+                // 表头样式，所有工作表共用
+                CellStyle headerStyle = createHeaderStyle(styleCache);
                 
                 // 创建表头行
                 Row headerRow = sheet.createRow(0);
@@ -503,14 +779,21 @@ public class ExcelTemplateService {
                 workbook.write(outputStream);
             }
             
-            AppLogger.info("创建Excel模板: " + outputPath);
+            AppLogger.info("创建Excel模板: " + outputPath + "，样式数: " + styleCache.getStyleCount());
         }
     }
     
+    /**
+     * 获取表头单元格样式，每个工作簿只创建一次
+     */
+    private CellStyle createHeaderStyle(CellStyleCache styleCache) {
+        return styleCache.get("header", this::newHeaderStyle);
+    }
+    
     /**
      * 创建表头单元格样式
      */
-    private CellStyle createHeaderStyle(Workbook workbook) {
+    private CellStyle newHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         
         // 设置背景色
@@ -548,64 +831,109 @@ public class ExcelTemplateService {
             Map<String, List<Map<String, Object>>> sheetData) throws IOException {
         
         try (FileInputStream fis = new FileInputStream(templatePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-            
-            // 创建单元格样式
-            CellStyle dateCellStyle = workbook.createCellStyle();
-            CreationHelper createHelper = workbook.getCreationHelper();
-            dateCellStyle.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-MM-dd"));
+             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
             
-            // 处理每个工作表
-            for (Map.Entry<String, List<Map<String, Object>>> entry : sheetData.entrySet()) {
-                String sheetName = entry.getKey();
-                List<Map<String, Object>> rowDataList = entry.getValue();
-                
-                // 获取工作表
-                Sheet sheet = workbook.getSheet(sheetName);
-                if (sheet == null) {
-                    AppLogger.warning("工作表不存在: " + sheetName);
-                    continue;
-                }
-                
-                // 获取表头行和列名
-                Row headerRow = sheet.getRow(0);
-                if (headerRow == null) {
-                    AppLogger.warning("表头行不存在: " + sheetName);
-                    continue;
+            // 数据行较多时改用SXSSF流式写出，表头之后的模板行先记录下来，数据行写完后再放回原位置
+            long totalRows = 0;
+            for (List<Map<String, Object>> rowDataList : sheetData.values()) {
+                totalRows += rowDataList.size();
+            }
+            boolean streaming = totalRows >= getStreamingThreshold();
+            Map<String, SheetTail> tails = new java.util.HashMap<>();
+            if (streaming) {
+                AppLogger.info("数据共 " + totalRows + " 行，使用流式方式填充Excel模板");
+                for (String sheetName : sheetData.keySet()) {
+                    XSSFSheet sheet = workbook.getSheet(sheetName);
+                    if (sheet != null && sheet.getRow(0) != null) {
+                        tails.put(sheetName, SheetTail.detach(sheet, 1));
+                    }
                 }
+            }
+            SXSSFWorkbook streamingWorkbook = streaming ? new SXSSFWorkbook(workbook, getStreamingWindow(), true) : null;
+            Workbook output = streaming ? streamingWorkbook : workbook;
+            
+            try {
+                // 创建单元格样式
+                CellStyleCache styleCache = new CellStyleCache(output);
+                CellStyle dateCellStyle = styleCache.get("date", book -> {
+                    CellStyle style = book.createCellStyle();
+                    CreationHelper createHelper = book.getCreationHelper();
+                    style.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-MM-dd"));
+                    return style;
+                });
                 
-                // 填充数据行
-                int rowNum = 1; // 从第二行开始（第一行是表头）
-                for (Map<String, Object> rowData : rowDataList) {
-                    Row dataRow = sheet.createRow(rowNum++);
+                // 处理每个工作表
+                for (Map.Entry<String, List<Map<String, Object>>> entry : sheetData.entrySet()) {
+                    String sheetName = entry.getKey();
+                    List<Map<String, Object>> rowDataList = entry.getValue();
                     
-                    // 遍历表头列，获取列名并填充数据
-                    for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-                        Cell headerCell = headerRow.getCell(i);
-                        if (headerCell == null) continue;
-                        
-                        // 获取列名和相应的数据
-                        String columnName = headerCell.getStringCellValue();
-                        Object value = rowData.get(columnName);
-                        if (value == null) continue;
-                        
-                        // 创建数据单元格
-                        Cell dataCell = dataRow.createCell(i);
+                    // 获取工作表
+                    Sheet sheet = output.getSheet(sheetName);
+                    if (sheet == null) {
+                        AppLogger.warning("工作表不存在: " + sheetName);
+                        continue;
+                    }
+                    
+                    // 获取表头行和列名（流式写出时表头仍在模板中）
+                    Row headerRow = workbook.getSheet(sheetName).getRow(0);
+                    if (headerRow == null) {
+                        AppLogger.warning("表头行不存在: " + sheetName);
+                        continue;
+                    }
+                    if (sheet instanceof SXSSFSheet) {
+                        // 已写出到临时文件的行无法再读取，需要在写入前开始统计列宽
+                        ((SXSSFSheet) sheet).trackAllColumnsForAutoSizing();
+                    }
+                    
+                    // 填充数据行
+                    int rowNum = 1; // 从第二行开始（第一行是表头）
+                    for (Map<String, Object> rowData : rowDataList) {
+                        Row dataRow = sheet.createRow(rowNum++);
                         
-                        // 根据数据类型设置单元格值
-                        setCellValueByType(dataCell, value, dateCellStyle);
+                        // 遍历表头列，获取列名并填充数据
+                        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+                            Cell headerCell = headerRow.getCell(i);
+                            if (headerCell == null) continue;
+                            
+                            // 获取列名和相应的数据
+                            String columnName = headerCell.getStringCellValue();
+                            Object value = rowData.get(columnName);
+                            if (value == null) continue;
+                            
+                            // 创建数据单元格
+                            Cell dataCell = dataRow.createCell(i);
+                            
+                            // 根据数据类型设置单元格值
+                            setCellValueByType(dataCell, value, dateCellStyle);
+                        }
+                    }
+                    
+                    // 放回未被数据行覆盖的模板行
+                    SheetTail tail = tails.get(sheetName);
+                    if (tail != null) {
+                        for (int i = Math.max(rowNum, tail.getFirstRow()); i <= tail.getLastRow(); i++) {
+                            tail.copyRow(sheet, i, i, null);
+                        }
+                        int firstFreeRow = rowNum;
+                        tail.restoreMergedRegions(sheet, rowIndex -> rowIndex >= firstFreeRow ? rowIndex : -1);
+                    }
+                    
+                    // 调整列宽以适应内容
+                    for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+                        sheet.autoSizeColumn(i);
                     }
                 }
                 
-                // 调整列宽以适应内容
-                for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-                    sheet.autoSizeColumn(i);
+                // 保存填充后的工作簿
+                try (FileOutputStream fos = new FileOutputStream(outputPath)) {
+                    output.write(fos);
+                }
+                AppLogger.info("Excel文档样式数: " + styleCache.getStyleCount());
+            } finally {
+                if (streamingWorkbook != null) {
+                    // 删除临时文件
+                    streamingWorkbook.dispose();
                 }
-            }
-            
-            // 保存填充后的工作簿
-            try (FileOutputStream fos = new FileOutputStream(outputPath)) {
-                workbook.write(fos);
             }
             
             AppLogger.info("填充Excel模板: " + outputPath);
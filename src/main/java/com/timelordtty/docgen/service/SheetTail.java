@@ -0,0 +1,308 @@
+package com.timelordtty.docgen.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaShifter;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.timelordtty.AppLogger;
+
+/**
+ * 工作表尾部行的快照，流式生成Excel时使用
+ *
+ * SXSSF只能在模板已有行之后追加行，所以先把从某一行开始的所有行和其中的合并区域记录下来并从模板中移除，
+ * 再由调用方通过SXSSF依次写出新行和这些行。快照只保存值、公式、样式和行高，
+ * 样式仍引用同一个工作簿的样式表，不需要复制。
+ */
+final class SheetTail {
+
+    /**
+     * 单元格快照
+     */
+    static final class CellSnapshot {
+        private final int column;
+        private final CellType type;
+        private final String text;
+        private final double number;
+        private final boolean bool;
+        private final CellStyle style;
+
+        private CellSnapshot(Cell cell) {
+            this.column = cell.getColumnIndex();
+            this.type = cell.getCellType();
+            this.style = cell.getCellStyle();
+            switch (type) {
+                case STRING:
+                    this.text = cell.getStringCellValue();
+                    this.number = 0;
+                    this.bool = false;
+                    break;
+                case FORMULA:
+                    this.text = cell.getCellFormula();
+                    this.number = 0;
+                    this.bool = false;
+                    break;
+                case NUMERIC:
+                    this.text = null;
+                    this.number = cell.getNumericCellValue();
+                    this.bool = false;
+                    break;
+                case BOOLEAN:
+                    this.text = null;
+                    this.number = 0;
+                    this.bool = cell.getBooleanCellValue();
+                    break;
+                default:
+                    this.text = null;
+                    this.number = 0;
+                    this.bool = false;
+            }
+        }
+
+        int getColumn() {
+            return column;
+        }
+
+        CellType getType() {
+            return type;
+        }
+
+        /**
+         * 字符串单元格的值，公式单元格的公式
+         */
+        String getText() {
+            return text;
+        }
+
+        CellStyle getStyle() {
+            return style;
+        }
+
+        /**
+         * 写入目标单元格，字符串值和公式由调用方给出
+         */
+        void writeTo(Cell target, String value) {
+            switch (type) {
+                case STRING:
+                    target.setCellValue(value);
+                    break;
+                case FORMULA:
+                    target.setCellFormula(value);
+                    break;
+                case NUMERIC:
+                    target.setCellValue(number);
+                    break;
+                case BOOLEAN:
+                    target.setCellValue(bool);
+                    break;
+                default:
+                    // 空白和错误值只保留样式
+                    break;
+            }
+            target.setCellStyle(style);
+        }
+    }
+
+    /**
+     * 行快照
+     */
+    static final class RowSnapshot {
+        // 未自定义行高时为-1
+        private final short height;
+        private final boolean zeroHeight;
+        private final CellStyle rowStyle;
+        private final List<CellSnapshot> cells = new ArrayList<>();
+
+        private RowSnapshot(Row row) {
+            this.height = row.getHeight() != row.getSheet().getDefaultRowHeight() ? row.getHeight() : -1;
+            this.zeroHeight = row.getZeroHeight();
+            this.rowStyle = row.isFormatted() ? row.getRowStyle() : null;
+            for (Cell cell : row) {
+                cells.add(new CellSnapshot(cell));
+            }
+        }
+
+        /**
+         * 记录一行，行所在的工作表不限于XSSF
+         */
+        static RowSnapshot of(Row row) {
+            return new RowSnapshot(row);
+        }
+
+        List<CellSnapshot> getCells() {
+            return cells;
+        }
+
+        /**
+         * 在目标工作表中创建一行并复制行高和行样式
+         */
+        Row createRow(Sheet target, int rowIndex) {
+            Row row = target.createRow(rowIndex);
+            if (height >= 0) {
+                row.setHeight(height);
+            }
+            if (zeroHeight) {
+                row.setZeroHeight(true);
+            }
+            if (rowStyle != null) {
+                row.setRowStyle(rowStyle);
+            }
+            return row;
+        }
+    }
+
+    private final int firstRow;
+    private final RowSnapshot[] rows;
+    private final List<CellRangeAddress> mergedRegions = new ArrayList<>();
+
+    private SheetTail(int firstRow, int lastRow) {
+        this.firstRow = firstRow;
+        this.rows = new RowSnapshot[Math.max(0, lastRow - firstRow + 1)];
+    }
+
+    /**
+     * 记录并移除工作表中从firstRow开始的所有行，以及完全位于这些行中的合并区域
+     * @param sheet 工作表
+     * @param firstRow 开始行索引
+     * @return 快照
+     */
+    static SheetTail detach(XSSFSheet sheet, int firstRow) {
+        SheetTail tail = new SheetTail(firstRow, sheet.getLastRowNum());
+        for (int i = firstRow; i <= sheet.getLastRowNum(); i++) {
+            XSSFRow row = sheet.getRow(i);
+            if (row != null) {
+                tail.rows[i - firstRow] = new RowSnapshot(row);
+            }
+        }
+
+        List<Integer> regionIndexes = new ArrayList<>();
+        for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+            CellRangeAddress region = sheet.getMergedRegion(i);
+            if (region.getFirstRow() >= firstRow) {
+                tail.mergedRegions.add(region);
+                regionIndexes.add(i);
+            }
+        }
+        sheet.removeMergedRegions(regionIndexes);
+
+        // 从后往前移除，行号不变，不需要移动其他行
+        for (int i = sheet.getLastRowNum(); i >= firstRow; i--) {
+            XSSFRow row = sheet.getRow(i);
+            if (row != null) {
+                sheet.removeRow(row);
+            }
+        }
+        return tail;
+    }
+
+    int getFirstRow() {
+        return firstRow;
+    }
+
+    int getLastRow() {
+        return firstRow + rows.length - 1;
+    }
+
+    /**
+     * 获取行快照
+     * @param rowIndex 原行索引
+     * @return 快照，原来没有该行时为null
+     */
+    RowSnapshot getRow(int rowIndex) {
+        int offset = rowIndex - firstRow;
+        return offset >= 0 && offset < rows.length ? rows[offset] : null;
+    }
+
+    /**
+     * 把原行原样写到目标行，公式用shifter调整
+     * @param target 目标工作表
+     * @param rowIndex 原行索引
+     * @param targetIndex 目标行索引
+     * @param shifter 公式调整器，可以为null
+     */
+    void copyRow(Sheet target, int rowIndex, int targetIndex, FormulaAdjuster shifter) {
+        RowSnapshot snapshot = getRow(rowIndex);
+        if (snapshot == null) {
+            return;
+        }
+        Row row = snapshot.createRow(target, targetIndex);
+        for (CellSnapshot cell : snapshot.getCells()) {
+            String value = cell.getText();
+            if (cell.getType() == CellType.FORMULA && shifter != null) {
+                value = shifter.adjust(value);
+            }
+            cell.writeTo(row.createCell(cell.getColumn()), value);
+        }
+    }
+
+    /**
+     * 把合并区域按新行号加回工作表，完全位于被移除行中的区域丢弃
+     * @param target 目标工作表
+     * @param rowMapping 原行索引到新行索引的映射，返回-1表示该行已被移除
+     */
+    void restoreMergedRegions(Sheet target, IntUnaryOperator rowMapping) {
+        for (CellRangeAddress region : mergedRegions) {
+            int first = rowMapping.applyAsInt(region.getFirstRow());
+            int last = rowMapping.applyAsInt(region.getLastRow());
+            if (first < 0 || last < 0) {
+                continue;
+            }
+            CellRangeAddress moved = new CellRangeAddress(first, last, region.getFirstColumn(), region.getLastColumn());
+            if (moved.getNumberOfCells() > 1) {
+                target.addMergedRegionUnsafe(moved);
+            }
+        }
+    }
+
+    /**
+     * 公式调整器：按行移动调整公式中的单元格引用，一次解析、依次应用所有移动
+     */
+    static final class FormulaAdjuster {
+        private final XSSFEvaluationWorkbook evaluationWorkbook;
+        private final int sheetIndex;
+        private final List<FormulaShifter> shifters;
+
+        /**
+         * @param workbook 工作簿
+         * @param sheetIndex 公式所在工作表
+         * @param shifters 行移动，按应用顺序排列
+         */
+        FormulaAdjuster(XSSFWorkbook workbook, int sheetIndex, List<FormulaShifter> shifters) {
+            this.evaluationWorkbook = XSSFEvaluationWorkbook.create(workbook);
+            this.sheetIndex = sheetIndex;
+            this.shifters = shifters;
+        }
+
+        String adjust(String formula) {
+            if (shifters.isEmpty()) {
+                return formula;
+            }
+            try {
+                Ptg[] ptgs = FormulaParser.parse(formula, evaluationWorkbook, FormulaType.CELL, sheetIndex);
+                boolean changed = false;
+                for (FormulaShifter shifter : shifters) {
+                    changed |= shifter.adjustFormula(ptgs, sheetIndex);
+                }
+                return changed ? FormulaRenderer.toFormulaString(evaluationWorkbook, ptgs) : formula;
+            } catch (RuntimeException e) {
+                AppLogger.warning("无法调整公式引用，保持原样: " + formula);
+                return formula;
+            }
+        }
+    }
+}
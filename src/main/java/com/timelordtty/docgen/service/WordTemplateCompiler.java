@@ -0,0 +1,105 @@
+package com.timelordtty.docgen.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.timelordtty.AppLogger;
+
+/**
+ * Word模板编译器
+ *
+ * 把.docx模板编译为{@link CompiledWordTemplate}，按文件路径缓存，文件修改时间或大小变化后重新编译。
+ * 同一模板生成多份文档时只解析一次。所有方法都是线程安全的。
+ */
+public class WordTemplateCompiler {
+
+    // 系统属性：缓存的模板数
+    static final String CACHE_SIZE_PROPERTY = "docgen.word.template.cache.size";
+    private static final int DEFAULT_CACHE_SIZE = 16;
+
+    private static WordTemplateCompiler instance;
+
+    private final int cacheSize;
+
+    // 按访问顺序排列，超出容量时移除最久未使用的模板
+    private final Map<Path, CacheEntry> cache;
+
+    private WordTemplateCompiler() {
+        this.cacheSize = Math.max(1, Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+        this.cache = new LinkedHashMap<Path, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CacheEntry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * 获取单例实例
+     * @return WordTemplateCompiler实例
+     */
+    public static synchronized WordTemplateCompiler getInstance() {
+        if (instance == null) {
+            instance = new WordTemplateCompiler();
+        }
+        return instance;
+    }
+
+    /**
+     * 获取编译后的模板，文件未变化时直接使用缓存
+     * @param templatePath 模板路径
+     * @return 编译后的模板
+     * @throws IOException 模板无法读取或解析时抛出
+     */
+    public CompiledWordTemplate compile(String templatePath) throws IOException {
+        Path path = Paths.get(templatePath).toAbsolutePath().normalize();
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+
+        synchronized (cache) {
+            CacheEntry entry = cache.get(path);
+            if (entry != null && entry.lastModified == lastModified && entry.size == size) {
+                return entry.template;
+            }
+        }
+
+        // 在锁外编译，不阻塞其他模板的读取
+        long start = System.nanoTime();
+        CompiledWordTemplate template = CompiledWordTemplate.compile(Files.readAllBytes(path));
+        AppLogger.debug("编译Word模板: " + path + "，含占位符段落 " + template.getPlaceholderParagraphCount()
+                + " 个，耗时 " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        synchronized (cache) {
+            cache.put(path, new CacheEntry(template, lastModified, size));
+        }
+        return template;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 缓存项，记录编译时的文件修改时间和大小
+     */
+    private static final class CacheEntry {
+        private final CompiledWordTemplate template;
+        private final long lastModified;
+        private final long size;
+
+        private CacheEntry(CompiledWordTemplate template, long lastModified, long size) {
+            this.template = template;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+}
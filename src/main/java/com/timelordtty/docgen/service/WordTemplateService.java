@@ -162,6 +162,8 @@ public class WordTemplateService {
     /**
      * 根据模板和数据生成文档
      * 
+     * 模板经{@link WordTemplateCompiler}编译并缓存，只改写含占位符的段落，其余内容和样式保持不变。
+     * 
      * @param templatePath 模板路径
      * @param outputPath 输出路径
      * @param fieldDataMap 普通字段数据
@@ -174,159 +176,13 @@ public class WordTemplateService {
             Map<String, String> fieldDataMap,
             Map<String, List<Map<String, String>>> listFieldDataMap) throws IOException {
         
-        // 读取模板
-        try (FileInputStream fis = new FileInputStream(templatePath);
-             XWPFDocument document = new XWPFDocument(fis)) {
-            
-            // 处理段落中的占位符
-            for (XWPFParagraph paragraph : document.getParagraphs()) {
-                processParagraph(paragraph, fieldDataMap, listFieldDataMap);
-            }
-            
-            // 处理表格中的占位符
-            for (XWPFTable table : document.getTables()) {
-                processTable(table, fieldDataMap, listFieldDataMap);
-            }
-            
-            // 保存生成的文档
-            try (FileOutputStream fos = new FileOutputStream(outputPath)) {
-                document.write(fos);
-            }
-        }
-        
-        AppLogger.info("生成Word文档: " + outputPath);
-    }
-    
-    /**
-     * 处理表格中的占位符
-     */
-    private void processTable(XWPFTable table, Map<String, String> fieldDataMap, 
-            Map<String, List<Map<String, String>>> listFieldDataMap) {
-        
-        for (XWPFTableRow row : table.getRows()) {
-            for (XWPFTableCell cell : row.getTableCells()) {
-                for (XWPFParagraph paragraph : cell.getParagraphs()) {
-                    processParagraph(paragraph, fieldDataMap, listFieldDataMap);
-                }
-            }
-        }
-    }
-    
-    /**
-     * 处理段落中的占位符
-     * 
-     * @param paragraph 段落
-     * @param fieldDataMap 字段数据
-     * @param listFieldDataMap 列表数据
-     */
-    private void processParagraph(
-            XWPFParagraph paragraph, 
-            Map<String, String> fieldDataMap,
-            Map<String, List<Map<String, String>>> listFieldDataMap) {
-        
-        String text = paragraph.getText();
-        
-        // 检查段落是否包含占位符
-        if (!text.contains("{{")) {
-            return; // 不包含占位符，直接返回
-        }
-        
-        // 替换普通字段占位符
-        boolean modified = false;
-        for (Map.Entry<String, String> entry : fieldDataMap.entrySet()) {
-            String placeholder = "{{" + entry.getKey() + "}}";
-            if (text.contains(placeholder)) {
-                text = text.replace(placeholder, entry.getValue() != null ? entry.getValue() : "");
-                modified = true;
-            }
-        }
+        CompiledWordTemplate template = WordTemplateCompiler.getInstance().compile(templatePath);
         
-        // 如果有修改，更新段落内容
-        if (modified) {
-            // 清除原有内容并保留样式
-            XWPFRun firstRun = null;
-            if (!paragraph.getRuns().isEmpty()) {
-                firstRun = paragraph.getRuns().get(0);
-            }
-            
-            // 清除所有现有Run
-            for (int i = paragraph.getRuns().size() - 1; i >= 0; i--) {
-                paragraph.removeRun(i);
-            }
-            
-            // 创建新的Run并应用原有样式
-            XWPFRun newRun = paragraph.createRun();
-            if (firstRun != null) {
-                // 复制样式
-                newRun.setBold(firstRun.isBold());
-                newRun.setItalic(firstRun.isItalic());
-                newRun.setUnderline(firstRun.getUnderline());
-                newRun.setColor(firstRun.getColor());
-                newRun.setFontFamily(firstRun.getFontFamily());
-                newRun.setFontSize(firstRun.getFontSize());
-            }
-            
-            // 设置新内容
-            newRun.setText(text);
+        // 保存生成的文档
+        try (FileOutputStream fos = new FileOutputStream(outputPath)) {
+            template.render(fieldDataMap, listFieldDataMap, fos);
         }
         
-        // 查找列表占位符并处理
-        processListPlaceholders(paragraph, listFieldDataMap);
-    }
-    
-    /**
-     * 处理列表占位符
-     */
-    private void processListPlaceholders(XWPFParagraph paragraph, Map<String, List<Map<String, String>>> listFieldDataMap) {
-        String text = paragraph.getText();
-        
-        // 查找列表开始标记 {{#listName}}
-        for (String listName : listFieldDataMap.keySet()) {
-            String startTag = "{{#" + listName + "}}";
-            String endTag = "{{/" + listName + "}}";
-            
-            if (text.contains(startTag) && text.contains(endTag)) {
-                // 获取列表数据
-                List<Map<String, String>> listData = listFieldDataMap.get(listName);
-                if (listData == null || listData.isEmpty()) {
-                    continue;
-                }
-                
-                // 提取列表模板内容
-                int startIndex = text.indexOf(startTag) + startTag.length();
-                int endIndex = text.indexOf(endTag);
-                if (startIndex >= endIndex) {
-                    continue;
-                }
-                
-                String templateContent = text.substring(startIndex, endIndex);
-                
-                // 构建列表替换内容
-                StringBuilder listContent = new StringBuilder();
-                for (Map<String, String> item : listData) {
-                    String itemContent = templateContent;
-                    for (Map.Entry<String, String> field : item.entrySet()) {
-                        String fieldPlaceholder = "{{" + listName + "." + field.getKey() + "}}";
-                        itemContent = itemContent.replace(fieldPlaceholder, field.getValue() != null ? field.getValue() : "");
-                    }
-                    listContent.append(itemContent);
-                }
-                
-                // 替换整个列表内容
-                String finalContent = text.substring(0, text.indexOf(startTag)) 
-                        + listContent.toString() 
-                        + text.substring(text.indexOf(endTag) + endTag.length());
-                
-                // 清除原有内容
-                for (int i = paragraph.getRuns().size() - 1; i >= 0; i--) {
-                    paragraph.removeRun(i);
-                }
-                
-                // 添加新内容
-                XWPFRun newRun = paragraph.createRun();
-                newRun.setText(finalContent);
-                break; // 一个段落只处理一个列表
-            }
-        }
+        AppLogger.info("生成Word文档: " + outputPath);
     }
-} 
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.service.ProjectService;
 import com.timelordtty.projectCalendar.utils.DateCalculator;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -35,6 +36,7 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Popup;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import javafx.util.StringConverter;
 
 /**
@@ -70,6 +72,8 @@ public class ProjectAddDialogController {
     // 悬浮提示框
     private Popup validationPopup;
     private Text popupText;
+    // 悬浮提示框显示后自动隐藏的计时
+    private final PauseTransition validationPopupTimer = new PauseTransition(Duration.millis(2500));
     
     // 生成时间选项的方法
     private List<String> generateTimeOptions() {
@@ -181,6 +185,7 @@ public class ProjectAddDialogController {
         container.getChildren().add(contentBox);
         
         validationPopup.getContent().add(container);
+        validationPopupTimer.setOnFinished(event -> validationPopup.hide());
     }
     
     /**
@@ -201,19 +206,9 @@ public class ProjectAddDialogController {
                              bounds.getMinX(), 
                              bounds.getMinY() - 50); // 上方50像素
         
-        // 2.5秒后自动隐藏
-        new Thread(() -> {
-            try {
-                Thread.sleep(2500);
-                Platform.runLater(() -> {
-                    if (validationPopup.isShowing()) {
-                        validationPopup.hide();
-                    }
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        // 2.5秒后自动隐藏，再次显示时重新计时
+        validationPopupTimer.stop();
+        validationPopupTimer.playFromStart();
     }
     
     /**
@@ -753,18 +748,9 @@ public class ProjectAddDialogController {
                         window.getY() + window.getHeight() / 2 - 100);
             
             // 5秒后自动隐藏
-            new Thread(() -> {
-                try {
-                    Thread.sleep(5000);
-                    Platform.runLater(() -> {
-                        if (alertPopup.isShowing()) {
-                            alertPopup.hide();
-                        }
-                    });
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }).start();
+            PauseTransition hideDelay = new PauseTransition(Duration.seconds(5));
+            hideDelay.setOnFinished(event -> alertPopup.hide());
+            hideDelay.play();
         }
     }
     
@@ -6,18 +6,23 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.service.ProjectService;
+import com.timelordtty.projectCalendar.service.ReminderEngine;
+import com.timelordtty.projectCalendar.service.ReminderEvent;
+import com.timelordtty.projectCalendar.service.ReviewConflict;
+import com.timelordtty.projectCalendar.ui.CalendarMonthGrid;
+import com.timelordtty.projectCalendar.ui.MonthModel;
+import com.timelordtty.projectCalendar.ui.MonthModelLoader;
+import com.timelordtty.projectCalendar.ui.ProjectTimelineView;
 import com.timelordtty.projectCalendar.ui.ProjectDialogHelper;
 import com.timelordtty.projectCalendar.utils.DateCalculator;
 import com.timelordtty.projectCalendar.utils.HolidayManager;
+import com.timelordtty.ui.SimpleTooltip;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -40,14 +45,11 @@ import javafx.scene.control.Separator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
-import javafx.scene.control.Tooltip;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
-import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
@@ -76,6 +78,7 @@ public class ProjectCalendarController {
     @FXML private Button addProjectButton;
     @FXML private Button prevMonthButton;
     @FXML private Button nextMonthButton;
+    @FXML private Button timelineButton;
     @FXML private Label monthYearLabel;
     @FXML private GridPane calendarGrid;
     @FXML private ScrollPane calendarScrollPane;
@@ -95,7 +98,15 @@ public class ProjectCalendarController {
     // 节假日管理器
     private HolidayManager holidayManager = HolidayManager.getInstance();
     
+    // 月视图网格，首次绘制时创建，之后切换月份只重新绑定单元格
+    private CalendarMonthGrid monthGrid;
+    // 月视图数据加载器
+    private MonthModelLoader monthModelLoader;
+    // 项目时间轴视图，第一次切换时创建
+    private ProjectTimelineView timelineView;
+    
     // 滚动提醒相关
+    private ReminderEngine reminderEngine;
     private javafx.animation.Timeline reminderScrollTimeline;
     private List<Project> reminderProjects;
     private int currentReminderIndex = 0;
@@ -171,12 +182,32 @@ public class ProjectCalendarController {
             // 更新底部状态栏信息
             updateStatusBar();
             
+            // 节假日数据更新后重新计算项目的报名截止日期和最早评审日期
+            holidayManager.addHolidayDataListener(() -> Platform.runLater(this::recalculateProjectDates));
+            
             AppLogger.info("项目管理小助手控制器初始化完成");
         } catch (Exception e) {
             AppLogger.error("初始化项目管理小助手控制器时发生异常: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * 重新计算所有项目的派生日期，有项目变化时刷新视图
+     * 计算在后台线程中进行，保存通过写回队列进行，界面线程只更新缓存和视图
+     */
+    private void recalculateProjectDates() {
+        projectService.recalculateAllProjectDatesAsync(Platform::runLater).whenComplete((changed, error) -> {
+            if (error != null) {
+                AppLogger.error("重新计算项目日期时发生异常: " + error.getMessage(), error);
+                return;
+            }
+            if (!changed.isEmpty()) {
+                statusLabel.setText("节假日数据已更新，" + changed.size() + " 个项目的日期已重新计算");
+                refreshAllViews();
+            }
+        });
+    }
+    
     /**
      * 设置表格列
      */
@@ -269,16 +300,16 @@ public class ProjectCalendarController {
                 // 获取新项目
                 Project newProject = controller.getProject();
                 if (newProject != null) {
-                    // 保存项目
-                    boolean saved = projectService.saveProject(newProject);
-                    if (saved) {
-                        AppLogger.info("成功添加项目: " + newProject.getName());
-                        statusLabel.setText("项目 '" + newProject.getName() + "' 添加成功");
-                        refreshAllViews();
-                    } else {
-                        AppLogger.error("添加项目失败: " + newProject.getName());
-                        showAlert("添加项目失败", "无法保存新项目，请稍后再试。", javafx.scene.control.Alert.AlertType.ERROR);
-                    }
+                    // 保存项目：缓存立即更新，数据库写入在后台完成，写入完成后再提示添加成功
+                    CompletableFuture<Project> saved = projectService.saveProjectAsync(newProject);
+                    watchProjectWrite(saved, "添加项目失败", "无法保存新项目，请稍后再试。");
+                    String name = newProject.getName();
+                    statusLabel.setText("项目 '" + name + "' 正在保存...");
+                    saved.thenAcceptAsync(project -> {
+                        AppLogger.info("成功添加项目: " + name);
+                        statusLabel.setText("项目 '" + name + "' 添加成功");
+                    }, Platform::runLater);
+                    refreshAllViews();
                 }
             } else {
                 AppLogger.info("用户取消了添加项目");
@@ -443,15 +474,11 @@ public class ProjectCalendarController {
                 // 获取编辑后的项目
                 Project editedProject = controller.getProject();
                 if (editedProject != null) {
-                    // 保存项目
-                    boolean saved = projectService.saveProject(editedProject);
-                    if (saved) {
-                        AppLogger.info("成功更新项目: " + editedProject.getName());
-                        refreshAllViews();
-                    } else {
-                        AppLogger.error("更新项目失败: " + editedProject.getName());
-                        showAlert("更新项目失败", "无法保存编辑后的项目，请稍后再试。", javafx.scene.control.Alert.AlertType.ERROR);
-                    }
+                    // 保存项目：缓存立即更新，数据库写入在后台完成
+                    watchProjectWrite(projectService.saveProjectAsync(editedProject),
+                            "更新项目失败", "无法保存编辑后的项目，请稍后再试。");
+                    AppLogger.info("成功更新项目: " + editedProject.getName());
+                    refreshAllViews();
                 }
             } else {
                 AppLogger.info("用户取消了项目编辑");
@@ -465,6 +492,19 @@ public class ProjectCalendarController {
         }
     }
     
+    /**
+     * 后台写入失败时提示用户，缓存已从数据库重新加载，再刷新视图
+     * @param future 写入完成的future
+     * @param title 提示标题
+     * @param message 提示内容
+     */
+    private void watchProjectWrite(CompletableFuture<Project> future, String title, String message) {
+        projectService.watchWrite(future, title, Platform::runLater, cause -> {
+            showAlert(title, message + "\n" + cause.getMessage(), javafx.scene.control.Alert.AlertType.ERROR);
+            refreshAllViews();
+        });
+    }
+    
     /**
      * 删除项目
      * @param project 要删除的项目
@@ -476,9 +516,11 @@ public class ProjectCalendarController {
         
         ProjectDialogHelper dialogHelper = new ProjectDialogHelper(projectService, getWindow());
         dialogHelper.setOnProjectChangedCallback(changedProject -> {
-            statusLabel.setText("项目 '" + project.getName() + "' 已删除");
+            // 删除成功时回调参数为null，写入失败恢复后为原项目
+            statusLabel.setText(changedProject == null
+                    ? "项目 '" + project.getName() + "' 已删除"
+                    : "项目 '" + project.getName() + "' 删除失败，已从数据库重新加载");
             updateCalendarView(); // 更新日历视图
-            refreshReminders(); // 刷新提醒
         });
         
         boolean deleteResult = dialogHelper.showDeleteProjectConfirmation(project);
@@ -504,6 +546,7 @@ public class ProjectCalendarController {
         currentYearMonth = currentYearMonth.minusMonths(1);
         updateMonthYearLabel();
         updateCalendarView();
+        scrollTimelineToCurrentMonth();
     }
     
     /**
@@ -515,6 +558,42 @@ public class ProjectCalendarController {
         currentYearMonth = currentYearMonth.plusMonths(1);
         updateMonthYearLabel();
         updateCalendarView();
+        scrollTimelineToCurrentMonth();
+    }
+    
+    /**
+     * 在月视图和项目时间轴之间切换
+     */
+    @FXML
+    private void handleToggleTimeline() {
+        isMonthView = !isMonthView;
+        AppLogger.info(isMonthView ? "切换到月视图" : "切换到项目时间轴");
+        
+        if (!isMonthView && timelineView == null) {
+            timelineView = new ProjectTimelineView(projectService);
+            timelineView.attach();
+            timelineView.setProjectClickHandler(this::onCalendarProjectClicked);
+            VBox.setVgrow(timelineView, Priority.ALWAYS);
+            calendarContainer.getChildren().add(calendarContainer.getChildren().indexOf(calendarScrollPane) + 1, timelineView);
+        }
+        
+        calendarScrollPane.setVisible(isMonthView);
+        calendarScrollPane.setManaged(isMonthView);
+        if (timelineView != null) {
+            timelineView.setVisible(!isMonthView);
+            timelineView.setManaged(!isMonthView);
+        }
+        timelineButton.setText(isMonthView ? "时间轴" : "月视图");
+        scrollTimelineToCurrentMonth();
+    }
+    
+    /**
+     * 时间轴显示时滚动到当前月份
+     */
+    private void scrollTimelineToCurrentMonth() {
+        if (!isMonthView && timelineView != null) {
+            timelineView.scrollToDate(currentYearMonth.atDay(1));
+        }
     }
     
     /**
@@ -569,118 +648,19 @@ public class ProjectCalendarController {
     }
     
     /**
-     * 绘制月视图
+     * 绘制月视图，复用已创建的日期单元格
      */
     private void drawMonthView() {
         try {
-            AppLogger.debug("开始绘制月视图：" + currentYearMonth);
-            
-            // 确保GridPane可见并具有边框
-            calendarGrid.setStyle("-fx-border-color: #E0E0E0; -fx-border-width: 1; -fx-grid-lines-visible: true;");
-            calendarGrid.setVisible(true);
-            calendarGrid.setGridLinesVisible(true);
-            
-            // 清空网格
-            calendarGrid.getChildren().clear();
-            calendarGrid.getColumnConstraints().clear();
-            calendarGrid.getRowConstraints().clear();
-            
-            // 设置列约束：7列等宽
-            for (int i = 0; i < 7; i++) {
-                ColumnConstraints column = new ColumnConstraints();
-                column.setPercentWidth(100.0 / 7);
-                column.setHgrow(Priority.ALWAYS);
-                column.setMinWidth(100);
-                calendarGrid.getColumnConstraints().add(column);
-            }
-            
-            // 添加星期标题行
-            String[] weekDays = {"周一", "周二", "周三", "周四", "周五", "周六", "周日"};
-            for (int i = 0; i < 7; i++) {
-                Label dayLabel = new Label(weekDays[i]);
-                dayLabel.getStyleClass().add("calendar-day-header");
-                dayLabel.setAlignment(Pos.CENTER);
-                dayLabel.setPrefWidth(Double.MAX_VALUE);
-                dayLabel.setPrefHeight(40);
-                dayLabel.setMaxWidth(Double.MAX_VALUE);
-                dayLabel.setMaxHeight(Double.MAX_VALUE);
-                // 设置明显的边框和背景色使标题更明显
-                dayLabel.setStyle("-fx-background-color: #F5F5F5; -fx-border-color: #BDBDBD; -fx-border-width: 0 0 1 0; -fx-font-weight: bold;");
-                
-                // 将星期标题添加到第一行
-                calendarGrid.add(dayLabel, i, 0);
-            }
-            
-            // 获取当前月份的第一天
-            LocalDate firstDayOfMonth = currentYearMonth.atDay(1);
-            
-            // 确定视图的起始日期（从第一个周一开始）
-            LocalDate startDate = firstDayOfMonth.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-            
-            // 计算需要的总行数
-            // 计算当前月份有多少天
-            int daysInMonth = currentYearMonth.lengthOfMonth();
-            // 再加上第一天之前需要显示的上个月的天数
-            int daysBeforeMonth = firstDayOfMonth.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue();
-            if (daysBeforeMonth < 0) daysBeforeMonth += 7; // 调整为正确的天数
-            
-            // 计算总天数
-            int totalDays = daysInMonth + daysBeforeMonth;
-            // 计算需要的总行数（每行7天）
-            int totalRows = (int) Math.ceil(totalDays / 7.0);
-            // 确保至少显示5行，最多显示6行
-            totalRows = Math.max(5, Math.min(6, totalRows));
-            
-            AppLogger.debug("月视图参数：firstDayOfMonth=" + firstDayOfMonth + 
-                           ", startDate=" + startDate + 
-                           ", daysInMonth=" + daysInMonth + 
-                           ", daysBeforeMonth=" + daysBeforeMonth + 
-                           ", totalDays=" + totalDays + 
-                           ", totalRows=" + totalRows);
-            
-            // 设置行约束（标题行 + 日期行）
-            RowConstraints headerRow = new RowConstraints();
-            headerRow.setMinHeight(40);
-            headerRow.setPrefHeight(40);
-            headerRow.setMaxHeight(40);
-            headerRow.setVgrow(Priority.NEVER);
-            calendarGrid.getRowConstraints().add(headerRow);
-            
-            for (int i = 0; i < totalRows; i++) {
-                RowConstraints row = new RowConstraints();
-                // 日期单元格行高根据总行数动态计算，确保占满剩余空间
-                row.setMinHeight(80); // 最小高度保证内容显示
-                row.setPrefHeight(100);
-                row.setVgrow(Priority.ALWAYS);
-                calendarGrid.getRowConstraints().add(row);
+            if (monthGrid == null) {
+                monthGrid = new CalendarMonthGrid(calendarGrid);
+                monthGrid.setProjectClickHandler(this::onCalendarProjectClicked);
+                monthModelLoader = new MonthModelLoader(projectService, holidayManager);
+                monthModelLoader.attach();
             }
 
-            // 开始填充日历网格（从第二行开始，因为第一行是星期标题）
-            LocalDate date = startDate;
-            for (int i = 0; i < totalRows; i++) {
-                for (int j = 0; j < 7; j++) {
-                    // 确定此日期是否属于当前月
-                    boolean isCurrentMonth = date.getMonth() == currentYearMonth.getMonth();
-                    
-                    // 创建并添加日期单元格
-                    VBox dateCell = createDateCell(date, isCurrentMonth);
-                    calendarGrid.add(dateCell, j, i + 1); // 注意这里是i+1，因为第0行是星期标题
-                    
-                    // 设置单元格大小和布局约束
-                    GridPane.setFillWidth(dateCell, true);
-                    GridPane.setFillHeight(dateCell, true);
-                    GridPane.setHgrow(dateCell, Priority.ALWAYS);
-                    GridPane.setVgrow(dateCell, Priority.ALWAYS);
-                    
-                    // 移至下一天
-                    date = date.plusDays(1);
-                }
-            }
-            
-            // 刷新布局
-            calendarGrid.requestLayout();
-            
-            AppLogger.debug("月视图绘制完成");
+            // 月视图数据在后台计算，完成后一次性应用；切换月份时未完成的旧请求被取消
+            monthModelLoader.load(currentYearMonth, monthGrid::apply);
         } catch (Exception e) {
             AppLogger.error("绘制月视图时发生错误", e);
             e.printStackTrace(); // 打印堆栈跟踪以便调试
@@ -690,462 +670,19 @@ public class ProjectCalendarController {
     }
     
     /**
-     * 创建日期单元格
-     * @param date 日期
-     * @param isCurrentMonth 是否为当前月日期
-     * @return 日期单元格
-     */
-    private VBox createDateCell(LocalDate date, boolean isCurrentMonth) {
-        try {
-            AppLogger.debug("创建日期单元格: " + date + ", isCurrentMonth: " + isCurrentMonth);
-            
-            // 创建日期单元格容器
-            VBox dateCell = new VBox(5);
-            dateCell.setPadding(new Insets(5));
-            dateCell.getStyleClass().add("project-date-cell");
-            
-            // 设置单元格属性，确保自适应窗口大小并且可见
-            dateCell.setMinHeight(80);
-            dateCell.setPrefHeight(100);
-            dateCell.setPrefWidth(100);
-            dateCell.setMaxWidth(Double.MAX_VALUE);
-            dateCell.setMaxHeight(Double.MAX_VALUE);
-            
-            // 检查是否为非工作日（周末或法定假日）
-            boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
-            boolean isHoliday = holidayManager.isHoliday(date);
-            boolean isNonWorkingDay = isWeekend || isHoliday;
-            
-            // 设置单元格背景色
-            String backgroundColor;
-            if (!isCurrentMonth) {
-                // 区分上个月和下个月的日期
-                if (date.isBefore(currentYearMonth.atDay(1))) {
-                    backgroundColor = "#F0F0F0"; // 上个月日期 - 浅灰色
-                } else {
-                    backgroundColor = "#F8F8F8"; // 下个月日期 - 更浅的灰色
-                }
-            } else if (isNonWorkingDay) {
-                backgroundColor = "#EEEEEE"; // 非工作日 - 中等灰色
-            } else {
-                backgroundColor = "white"; // 普通工作日 - 白色
-            }
-            
-            // 设置明显的单元格边框和背景色
-            dateCell.setStyle("-fx-border-color: #CCCCCC; -fx-border-width: 0.5; -fx-background-color: " + backgroundColor + ";");
-            
-            // 日期标签和今日标记HBox，水平布局
-            HBox dateHeader = new HBox(5);
-            dateHeader.setPadding(new Insets(0, 0, 5, 0));
-            dateHeader.setAlignment(Pos.CENTER_LEFT);
-            
-            // 日期数字标签
-            Label dateLabel = new Label(String.valueOf(date.getDayOfMonth()));
-            dateLabel.getStyleClass().add("date-number");
-            
-            // 设置日期字体和颜色
-            if (!isCurrentMonth) {
-                // 非当月日期显示为灰色
-                dateLabel.setStyle("-fx-text-fill: #BDBDBD; -fx-font-size: 14px;");
-            } else {
-                // 当月日期显示为黑色
-                dateLabel.setStyle("-fx-text-fill: #212121; -fx-font-weight: bold; -fx-font-size: 14px;");
-            }
-            
-            // 添加日期标签到dateHeader
-            dateHeader.getChildren().add(dateLabel);
-            
-            // 检查是否为今天，添加特殊标记（只有绿色小方块，不改变背景色）
-            if (date.equals(LocalDate.now())) {
-                // 创建今日标记（绿色小方块）
-                Rectangle todayMarker = new Rectangle(10, 10);
-                todayMarker.setFill(Color.web("#4CAF50"));
-                todayMarker.setStroke(Color.web("#388E3C"));
-                todayMarker.setStrokeWidth(0.5);
-                
-                // 添加今日标记到dateHeader
-                dateHeader.getChildren().add(todayMarker);
-            }
-            
-            // 如果是节假日，添加节假日名称标签
-            if (isHoliday) {
-                String holidayName = holidayManager.getHolidayName(date);
-                if (holidayName != null && !holidayName.isEmpty()) {
-                    Label holidayLabel = new Label(holidayName);
-                    holidayLabel.setStyle("-fx-text-fill: #E53935; -fx-font-size: 11px;");
-                    holidayLabel.setAlignment(Pos.CENTER_RIGHT);
-                    // 使用Pane作为填充，让节假日标签靠右显示
-                    Pane spacer = new Pane();
-                    HBox.setHgrow(spacer, Priority.ALWAYS);
-                    dateHeader.getChildren().addAll(spacer, holidayLabel);
-                }
-            }
-            
-            // 为特殊日期添加爱心图标和提示
-            if (holidayManager.isSpecialDate(date)) {
-                Label heartLabel = new Label("💝");
-                heartLabel.setStyle("-fx-text-fill: #E91E63; -fx-font-size: 14px;");
-                
-                String tooltipText = "";
-                if (date.equals(LocalDate.of(2025, 1, 18))) {
-                    tooltipText = "💝和宝宝的第一次约会💝";
-                } else if (date.equals(LocalDate.of(2025, 2, 16))) {
-                    tooltipText = "💝和宝宝的第二次约会💝";
-                }
-                
-                Tooltip tooltip = new Tooltip(tooltipText);
-                tooltip.setStyle("-fx-font-size: 14px;");
-                Tooltip.install(heartLabel, tooltip);
-                
-                Pane spacer = new Pane();
-                HBox.setHgrow(spacer, Priority.ALWAYS);
-                dateHeader.getChildren().addAll(spacer, heartLabel);
-            } else if (holidayManager.getHolidayName(date) != null) {
-                String holidayName = holidayManager.getHolidayName(date);
-                
-                // 七夕节特殊处理，显示蛋糕在左侧
-                if (holidayName.contains("七夕")) {
-                    Label cakeLabel = new Label("🎂");
-                    cakeLabel.setStyle("-fx-text-fill: #FF5722; -fx-font-size: 14px;");
-                    Tooltip tooltip = new Tooltip("宝宝生日快乐哦🎂~");
-                    tooltip.setStyle("-fx-font-size: 14px;");
-                    Tooltip.install(cakeLabel, tooltip);
-                    
-                    // 将蛋糕图标添加到日期标签后面
-                    dateHeader.getChildren().add(1, cakeLabel);
-                }
-                // 元旦节特殊处理，添加烟花图标
-                else if (holidayName.contains("元旦")) {
-                    Label fireworkLabel = new Label("🎆");
-                    fireworkLabel.setStyle("-fx-font-size: 14px;");
-                    Tooltip tooltip = new Tooltip("新年快乐宝宝~");
-                    tooltip.setStyle("-fx-font-size: 14px;");
-                    Tooltip.install(fireworkLabel, tooltip);
-                    
-                    // 将图标添加到日期标签后面
-                    dateHeader.getChildren().add(1, fireworkLabel);
-                }
-                // 春节（大年初一）特殊处理，添加鞭炮图标
-                else if (holidayName.contains("春节") && date.getDayOfMonth() == 1 && date.getMonthValue() == 2) {
-                    // 使用不同的Unicode字符，避免显示方块
-                    Label firecracker = new Label("\uD83C\uDF86"); // Unicode for 🎆 (烟花)
-                    firecracker.setStyle("-fx-font-size: 14px;");
-                    Tooltip tooltip = new Tooltip("宝宝新年好呀！");
-                    tooltip.setStyle("-fx-font-size: 14px;");
-                    Tooltip.install(firecracker, tooltip);
-                    
-                    // 将图标添加到日期标签后面
-                    dateHeader.getChildren().add(1, firecracker);
-                }
-                // 情人节特殊处理，添加爱心图标
-                else if (holidayName.contains("情人节")) {
-                    // 使用不同的Unicode心形，避免显示方块
-                    Label heart = new Label("\u2764");  // Unicode for ❤ (红心)
-                    heart.setStyle("-fx-font-size: 16px; -fx-text-fill: #FF0000;");
-                    Tooltip tooltip = new Tooltip("爱你，我最爱的宝宝");
-                    tooltip.setStyle("-fx-font-size: 14px;");
-                    Tooltip.install(heart, tooltip);
-                    
-                    // 将图标添加到日期标签后面
-                    dateHeader.getChildren().add(1, heart);
-                }
-                // 儿童节特殊处理，添加糖果图标
-                else if (holidayName.contains("儿童节")) {
-                    Label candy = new Label("🍬");
-                    candy.setStyle("-fx-font-size: 14px;");
-                    Tooltip tooltip = new Tooltip("永远是快乐的小宝宝哦~");
-                    tooltip.setStyle("-fx-font-size: 14px;");
-                    Tooltip.install(candy, tooltip);
-                    
-                    // 将图标添加到日期标签后面
-                    dateHeader.getChildren().add(1, candy);
-                }
-            }
-            
-            // 添加日期标题到单元格
-            dateCell.getChildren().add(dateHeader);
-            
-            // 项目标记容器（可滚动）
-            VBox projectContainer = new VBox(3);
-            projectContainer.setSpacing(3);
-            projectContainer.setFillWidth(true);
-
-            // 设置项目容器填充整个可用空间
-            projectContainer.prefWidthProperty().bind(dateCell.widthProperty().subtract(10)); // 减去内边距
-            VBox.setVgrow(projectContainer, Priority.ALWAYS);
-
-            ScrollPane scrollPane = new ScrollPane(projectContainer);
-            scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-            scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER); // 始终不显示垂直滚动条，但仍可滚动
-            scrollPane.setFitToWidth(true); // 适应宽度
-            scrollPane.setMinHeight(40);
-            scrollPane.setFitToHeight(false); // 不适应高度，允许内容超出时滚动
-
-            // 绑定滚动面板高度到单元格剩余空间
-            scrollPane.prefHeightProperty().bind(dateCell.heightProperty().subtract(dateHeader.heightProperty()).subtract(15)); // 减去日期头部高度和内边距
-            
-            // 设置强制隐藏滚动条的样式
-            scrollPane.setStyle("-fx-background-color: transparent; -fx-background: transparent; -fx-border-color: transparent;" +
-                               "-fx-padding: 0; -fx-background-insets: 0;");
-            
-            // 防止任何情况下滚动条被显示
-            scrollPane.getStyleClass().addAll("project-cell-scroll-pane", "no-scroll-bar");
-            scrollPane.setPannable(true); // 允许用户拖动滚动
-
-            // 移除原有的鼠标进入/离开事件，不再切换滚动条的显示策略
-            // 滚动条通过CSS样式设置为透明，保留滚动功能但不可见
-            scrollPane.setOnMouseEntered(null);
-            scrollPane.setOnMouseExited(null);
-
-            // 查找该日期的所有项目并添加标记（无论是否为当前月份）
-            List<Project> projectsForDate = projectService.getProjectsForDate(date);
-            if (projectsForDate != null && !projectsForDate.isEmpty()) {
-                // 按项目分组，记录每个项目的所有日期类型
-                Map<Project, List<String>> projectDateTypes = new HashMap<>();
-                
-                // 遍历所有项目，收集每个项目的所有日期类型
-                for (Project project : projectsForDate) {
-                    List<String> dateTypes = new ArrayList<>();
-                    
-                    // 检查项目的各个日期是否匹配当前日期，并且日期不为null
-                    if (project.getOnlineDate() != null && date.equals(project.getOnlineDate())) {
-                        dateTypes.add("上网");
-                    }
-                    if (project.getRegistrationEndDate() != null && date.equals(project.getRegistrationEndDate())) {
-                        dateTypes.add("报名截止");
-                    }
-                    if (project.getEarliestReviewDate() != null && date.equals(project.getEarliestReviewDate())) {
-                        dateTypes.add("最早评审");
-                    }
-                    if (project.getExpectedReviewDate() != null && date.equals(project.getExpectedReviewDate())) {
-                        dateTypes.add("开标");
-                    }
-                    if (project.getExpertReviewTime() != null && date.equals(project.getExpertReviewTime().toLocalDate())) {
-                        dateTypes.add("专家评审");
-                    }
-                    
-                    // 只有当项目在当前日期有关联的日期类型时才添加到列表
-                    if (!dateTypes.isEmpty()) {
-                        projectDateTypes.put(project, dateTypes);
-                    }
-                }
-                
-                // 项目数量
-                int projectCount = projectDateTypes.size();
-                boolean hasMultipleProjects = projectCount > 1;
-                
-                // 为每个项目创建标记
-                for (Map.Entry<Project, List<String>> entry : projectDateTypes.entrySet()) {
-                    Project project = entry.getKey();
-                    List<String> dateTypes = entry.getValue();
-                    
-                    // 如果一个项目有多个日期类型，则为每个日期类型创建单独的行
-                    if (dateTypes.size() > 1) {
-                        for (String dateType : dateTypes) {
-                            List<String> singleType = new ArrayList<>();
-                            singleType.add(dateType);
-                            HBox projectMarkerBox = createProjectMarkerWithDateTypes(project, date, singleType);
-                            projectContainer.getChildren().add(projectMarkerBox);
-                            
-                            // 设置点击事件
-                            setupProjectMarkerEvents(projectMarkerBox, project);
-                        }
-                    } else {
-                        // 只有一个日期类型，直接创建项目标记
-                        HBox projectMarkerBox = createProjectMarkerWithDateTypes(project, date, dateTypes);
-                        projectContainer.getChildren().add(projectMarkerBox);
-                        
-                        // 设置点击事件
-                        setupProjectMarkerEvents(projectMarkerBox, project);
-                    }
-                }
-                
-                // 如果项目太多导致布局拥挤，调整间距和内边距以改善显示效果
-                if (projectContainer.getChildren().size() > 3) {
-                    projectContainer.setSpacing(1);
-                    for (javafx.scene.Node node : projectContainer.getChildren()) {
-                        if (node instanceof HBox) {
-                            ((HBox) node).setPadding(new Insets(0, 1, 0, 1));
-                        }
-                    }
-                }
-                
-                // 如果当前单元格中恰好有1个项目但是需要显示2行以上（多个日期类型），确保布局合理
-                if (projectContainer.getChildren().size() > 0 && projectContainer.getChildren().size() <= 2) {
-                    VBox.setMargin(projectContainer.getChildren().get(0), new Insets(2, 0, 2, 0));
-                    if (projectContainer.getChildren().size() == 2) {
-                        VBox.setMargin(projectContainer.getChildren().get(1), new Insets(2, 0, 2, 0));
-                    }
-                }
-            }
-            
-            // 添加项目容器到单元格
-            dateCell.getChildren().add(scrollPane);
-            
-            
-            return dateCell;
-        } catch (Exception e) {
-            // 记录错误并返回默认单元格
-            AppLogger.error("创建日期单元格时出错: " + date, e);
-            e.printStackTrace(); // 打印堆栈跟踪以便调试
-            
-            // 创建一个简单的备用单元格，确保它是可见的
-            VBox fallbackCell = new VBox();
-            fallbackCell.setStyle("-fx-border-color: red; -fx-border-width: 1; -fx-background-color: #FFEBEE;");
-            fallbackCell.setPadding(new Insets(5));
-            Label dateLabel = new Label(String.valueOf(date.getDayOfMonth()));
-            dateLabel.setStyle("-fx-font-weight: bold;");
-            fallbackCell.getChildren().add(dateLabel);
-            return fallbackCell;
-        }
-    }
-    
-    /**
-     * 设置项目标记的点击和双击事件
-     * @param projectMarkerBox 项目标记HBox
-     * @param project 项目对象
-     */
-    private void setupProjectMarkerEvents(HBox projectMarkerBox, Project project) {
-        // 设置手型光标
-        projectMarkerBox.setCursor(Cursor.HAND);
-        
-        // 添加点击事件，点击项目标记时只选中该项目
-        projectMarkerBox.setOnMouseClicked(event -> {
-            // 只选中当前点击的项目
-            projectTableView.getSelectionModel().clearSelection();
-            projectTableView.getSelectionModel().select(project);
-            projectTableView.scrollTo(project);
-            
-            // 如果是双击，则显示项目详情
-            if (event.getClickCount() == 2) {
-                AppLogger.info("双击项目标记，显示项目详情: " + project.getName());
-                showProjectDetail(project);
-            }
-            
-            // 阻止事件继续传播
-            event.consume();
-        });
-    }
-    
-    /**
-     * 创建带日期类型的项目标记
+     * 点击日历中的项目标记：选中该项目，双击时显示项目详情
      * @param project 项目
-     * @param date 日期
-     * @param dateTypes 日期类型列表
-     * @return 项目标记HBox
+     * @param isDoubleClick 是否为双击
      */
-    private HBox createProjectMarkerWithDateTypes(Project project, LocalDate date, List<String> dateTypes) {
-        HBox projectMarkerBox = new HBox(3);
-        projectMarkerBox.setAlignment(Pos.CENTER_LEFT);
-        projectMarkerBox.setPadding(new Insets(1));
-        projectMarkerBox.getStyleClass().add("project-marker-row");
-        projectMarkerBox.setMaxWidth(Double.MAX_VALUE);
-        
-        // 项目名称标签
-        Label projectNameLabel = new Label(project.getName());
-        projectNameLabel.getStyleClass().add("project-marker");
-        projectNameLabel.setPadding(new Insets(1, 2, 1, 2));
-        
-        // 设置项目名称标签样式
-        String bgColor = "#F5F5F5"; // 默认背景色
-        String textColor = "#212121"; // 默认文字颜色
-        
-        // 根据第一个日期类型设置背景色和文字颜色
-        if (!dateTypes.isEmpty()) {
-            String firstType = dateTypes.get(0);
-            switch (firstType) {
-                case "上网":
-                    bgColor = "#E3F2FD";
-                    textColor = "#1976D2";
-                    break;
-                case "报名截止":
-                    bgColor = "#FFF8E1";
-                    textColor = "#FF8F00";
-                    break;
-                case "最早评审":
-                    bgColor = "#E8F5E9";
-                    textColor = "#388E3C";
-                    break;
-                case "开标":
-                    bgColor = "#FFEBEE";
-                    textColor = "#D32F2F";
-                    break;
-                case "专家评审":
-                    bgColor = "#E1BEE7";
-                    textColor = "#9C27B0";
-                    break;
-            }
+    private void onCalendarProjectClicked(Project project, boolean isDoubleClick) {
+        projectTableView.getSelectionModel().clearSelection();
+        projectTableView.getSelectionModel().select(project);
+        projectTableView.scrollTo(project);
+        
+        if (isDoubleClick) {
+            AppLogger.info("双击项目标记，显示项目详情: " + project.getName());
+            showProjectDetail(project);
         }
-        
-        projectNameLabel.setStyle("-fx-background-color: " + bgColor + "; " +
-                                 "-fx-background-radius: 3; " +
-                                 "-fx-text-fill: " + textColor + ";");
-        
-        // 设置最大宽度并处理文本溢出
-        projectNameLabel.setMaxWidth(85);
-        projectNameLabel.setMinWidth(50);
-        projectNameLabel.setTextOverrun(javafx.scene.control.OverrunStyle.ELLIPSIS);
-        HBox.setHgrow(projectNameLabel, Priority.ALWAYS);
-        
-        // 添加项目名称标签
-        projectMarkerBox.getChildren().add(projectNameLabel);
-        
-        // 创建日期类型标签
-        if (!dateTypes.isEmpty()) {
-            // 将所有日期类型合并为一个字符串
-            String dateTypeText = String.join("/", dateTypes);
-            
-            Label dateTypeLabel = new Label(dateTypeText);
-            dateTypeLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: " + textColor + ";");
-            dateTypeLabel.getStyleClass().add("date-type-label");
-            dateTypeLabel.setMaxWidth(55);
-            dateTypeLabel.setTextOverrun(javafx.scene.control.OverrunStyle.ELLIPSIS);
-            
-            // 添加日期类型标签
-            projectMarkerBox.getChildren().add(dateTypeLabel);
-        }
-        
-        // 设置悬浮提示，显示完整项目信息
-        StringBuilder tooltipText = new StringBuilder(project.getName());
-        
-        // 添加日期类型
-        if (!dateTypes.isEmpty()) {
-            tooltipText.append("\n日期类型: ").append(String.join(", ", dateTypes));
-        }
-        
-        // 添加其他日期信息，仅展示非空日期
-        if (project.getOnlineDate() != null) {
-            tooltipText.append("\n上网日期: ").append(DateCalculator.formatDate(project.getOnlineDate()));
-        }
-        if (project.getRegistrationEndDate() != null) {
-            tooltipText.append("\n报名截止: ").append(DateCalculator.formatDate(project.getRegistrationEndDate()));
-        }
-        if (project.getEarliestReviewDate() != null) {
-            tooltipText.append("\n最早评审: ").append(DateCalculator.formatDate(project.getEarliestReviewDate()));
-        }
-        if (project.getExpectedReviewTime() != null) {
-            tooltipText.append("\n开标时间: ").append(
-                DateCalculator.formatDate(project.getExpectedReviewDate()) + " " +
-                String.format("%02d:%02d", project.getExpectedReviewTime().getHour(), project.getExpectedReviewTime().getMinute())
-            );
-        }
-        if (project.getExpertReviewTime() != null) {
-            tooltipText.append("\n专家评审: ").append(
-                DateCalculator.formatDate(project.getExpertReviewDate()) + " " +
-                String.format("%02d:%02d", project.getExpertReviewTime().getHour(), project.getExpertReviewTime().getMinute())
-            );
-        }
-        
-        Tooltip tooltip = new Tooltip(tooltipText.toString());
-        tooltip.setShowDelay(Duration.millis(100));
-        tooltip.setShowDuration(Duration.seconds(20));
-        tooltip.setStyle("-fx-background-color: #424242; -fx-text-fill: white;");
-        Tooltip.install(projectMarkerBox, tooltip);
-        
-        // 设置手型光标
-        projectMarkerBox.setCursor(Cursor.HAND);
-        
-        return projectMarkerBox;
     }
     
     /**
@@ -1651,8 +1188,11 @@ public class ProjectCalendarController {
      * 初始化底部滚动提醒
      */
     private void initScrollingReminders() {
-        // 获取需要提醒的项目列表
-        reminderProjects = projectService.getThisWeekAndNextWeekProjects();
+        // 提醒引擎随项目变更增量维护提醒，提醒范围变化和提醒到点时推送过来
+        reminderEngine = ReminderEngine.getInstance();
+        reminderProjects = reminderEngine.getUpcomingProjects();
+        reminderEngine.addUpcomingListener(projects -> Platform.runLater(() -> onUpcomingProjectsChanged(projects)));
+        reminderEngine.addReminderListener(event -> Platform.runLater(() -> showDueReminder(event)));
         
         // 设置鼠标事件
         reminderScrollArea.setOnMouseEntered(e -> {
@@ -1681,6 +1221,37 @@ public class ProjectCalendarController {
 
     }
     
+    /**
+     * 提醒范围内的项目变化，更新滚动提醒
+     * @param projects 提醒范围内的项目
+     */
+    private void onUpcomingProjectsChanged(List<Project> projects) {
+        int oldCount = reminderProjects != null ? reminderProjects.size() : 0;
+        reminderProjects = projects;
+        AppLogger.debug("提醒项目更新: " + oldCount + " -> " + projects.size() + " 个项目");
+        if (reminderScrollTimeline == null || !reminderScrollTimeline.getStatus().equals(javafx.animation.Animation.Status.RUNNING)) {
+            startReminderScroll();
+        } else {
+            showNextReminder();
+        }
+    }
+    
+    /**
+     * 提醒到点时在状态栏和气泡中显示
+     * @param event 提醒
+     */
+    private void showDueReminder(ReminderEvent event) {
+        try {
+            String message = "⏰ " + event.getMessage();
+            statusLabel.setText(message);
+            if (calendarGrid.getScene() != null && calendarGrid.getScene().getWindow() instanceof Stage) {
+                new SimpleTooltip(message).showInStage((Stage) calendarGrid.getScene().getWindow());
+            }
+        } catch (Exception e) {
+            AppLogger.error("显示项目提醒时发生异常: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * 开始滚动提醒显示
      */
@@ -1847,8 +1418,9 @@ public class ProjectCalendarController {
             return;
         }
         
-        // 如果没有提醒项目，不显示弹窗
-        if (reminderProjects == null || reminderProjects.isEmpty()) {
+        // 没有提醒项目也没有评审时间冲突时，不显示弹窗
+        List<ReviewConflict> conflicts = getUpcomingReviewConflicts();
+        if ((reminderProjects == null || reminderProjects.isEmpty()) && conflicts.isEmpty()) {
             return;
         }
         
@@ -1890,7 +1462,7 @@ public class ProjectCalendarController {
         }
         
         // 添加提醒项目
-        for (Project project : reminderProjects) {
+        for (Project project : reminderProjects != null ? reminderProjects : List.<Project>of()) {
             HBox projectRow = new HBox(10);
             projectRow.setPadding(new Insets(5));
             projectRow.setStyle("-fx-background-color: #f5f5f5; -fx-border-radius: 3; -fx-background-radius: 3; -fx-cursor: hand;");
@@ -2025,6 +1597,44 @@ public class ProjectCalendarController {
             itemsContainer.getChildren().add(projectRow);
         }
         
+        // 添加评审时间冲突，点击跳转到冲突所在月份
+        if (!conflicts.isEmpty()) {
+            Label conflictTitle = new Label("评审时间冲突（" + conflicts.size() + "）");
+            conflictTitle.setFont(Font.font("System", FontWeight.BOLD, 12));
+            conflictTitle.setStyle("-fx-text-fill: #E53935;");
+            itemsContainer.getChildren().add(conflictTitle);
+            
+            for (ReviewConflict conflict : conflicts) {
+                Project first = projectService.getProjectById(conflict.getFirst().getProjectId());
+                Project second = projectService.getProjectById(conflict.getSecond().getProjectId());
+                Label conflictLabel = new Label("⚠ " + MonthModel.Conflict.describe(conflict, first, second));
+                conflictLabel.setWrapText(true);
+                conflictLabel.setFont(Font.font("System", 10));
+                conflictLabel.setPadding(new Insets(5));
+                conflictLabel.setStyle("-fx-background-color: #FFEBEE; -fx-background-radius: 3; -fx-text-fill: #B71C1C;");
+                conflictLabel.setCursor(Cursor.HAND);
+                conflictLabel.setOnMouseClicked(event -> {
+                    if (reminderListPopup != null) {
+                        reminderListPopup.close();
+                        reminderListPopup = null;
+                    }
+                    
+                    navigateToMonth(conflict.getFirst().getStart().toLocalDate());
+                    
+                    if (first != null) {
+                        Platform.runLater(() -> {
+                            projectTableView.getSelectionModel().clearSelection();
+                            projectTableView.getSelectionModel().select(first);
+                            projectTableView.scrollTo(first);
+                        });
+                    }
+                    
+                    event.consume();
+                });
+                itemsContainer.getChildren().add(conflictLabel);
+            }
+        }
+        
         scrollPane.setContent(itemsContainer);
         content.getChildren().add(scrollPane);
         VBox.setVgrow(scrollPane, Priority.ALWAYS);
@@ -2065,15 +1675,25 @@ public class ProjectCalendarController {
         reminderListPopup.show();
     }
     
+    /**
+     * 获取从今天开始的评审时间冲突，冲突随项目变更增量维护，这里只是读取
+     * @return 按开始时间排序的冲突列表
+     */
+    private List<ReviewConflict> getUpcomingReviewConflicts() {
+        List<ReviewConflict> conflicts = projectService.getReviewConflicts();
+        conflicts.removeIf(conflict -> conflict.getSecond().getStart().toLocalDate().isBefore(LocalDate.now()));
+        return conflicts;
+    }
+    
     /**
      * 刷新提醒区域
      */
     private void refreshReminders() {
         try {
             AppLogger.info("开始刷新提醒区域");
-            // 重新获取提醒项目
+            // 从提醒引擎读取提醒范围内的项目，不再扫描所有项目
             List<Project> oldProjects = reminderProjects;
-            reminderProjects = projectService.getThisWeekAndNextWeekProjects();
+            reminderProjects = reminderEngine.getUpcomingProjects();
             
             int oldCount = oldProjects != null ? oldProjects.size() : 0;
             int newCount = reminderProjects != null ? reminderProjects.size() : 0;
@@ -2121,10 +1741,9 @@ public class ProjectCalendarController {
         try {
             AppLogger.info("正在刷新所有视图...");
             
-            // 刷新项目数据
-            if (projectService != null) {
-                projectService.refreshProjects();
-                AppLogger.info("项目数据已刷新");
+            // 项目缓存随写入增量更新，这里只检查数据库是否被外部修改
+            if (projectService != null && projectService.refreshIfChanged()) {
+                AppLogger.info("项目数据已重新加载");
             }
             
             // 刷新项目表格
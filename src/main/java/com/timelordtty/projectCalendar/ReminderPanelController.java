@@ -11,6 +11,8 @@ import java.util.Locale;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.service.ProjectService;
+import com.timelordtty.projectCalendar.service.ReviewConflict;
+import com.timelordtty.projectCalendar.ui.MonthModel;
 import com.timelordtty.projectCalendar.utils.DateCalculator;
 
 import javafx.fxml.FXML;
@@ -117,6 +119,9 @@ public class ReminderPanelController {
                     }
                 }
             }
+            
+            // 显示本周起的评审时间冲突
+            addConflictReminders(weekStart);
         } catch (Exception e) {
             AppLogger.error("显示提醒时发生异常: " + e.getMessage(), e);
             // 显示错误信息
@@ -194,6 +199,34 @@ public class ReminderPanelController {
         }
     }
     
+    /**
+     * 添加评审时间冲突提醒
+     * @param fromDate 只显示较晚时段不早于该日期的冲突
+     */
+    private void addConflictReminders(LocalDate fromDate) {
+        try {
+            List<ReviewConflict> conflicts = projectService.getReviewConflicts();
+            conflicts.removeIf(conflict -> conflict.getSecond().getStart().toLocalDate().isBefore(fromDate));
+            if (conflicts.isEmpty()) {
+                return;
+            }
+            
+            Text conflictTitle = new Text("\n评审时间冲突：\n");
+            conflictTitle.setStyle("-fx-font-weight: bold; -fx-fill: #E53935;");
+            remindersContainer.getChildren().add(new TextFlow(conflictTitle));
+            
+            for (ReviewConflict conflict : conflicts) {
+                Project first = projectService.getProjectById(conflict.getFirst().getProjectId());
+                Project second = projectService.getProjectById(conflict.getSecond().getProjectId());
+                Text text = new Text("⚠ " + MonthModel.Conflict.describe(conflict, first, second) + "\n");
+                text.setStyle("-fx-fill: #B71C1C;");
+                remindersContainer.getChildren().add(new TextFlow(text));
+            }
+        } catch (Exception e) {
+            AppLogger.error("添加评审时间冲突提醒时发生异常: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * 获取一周的开始日期（周一）
      * @param date 日期
@@ -0,0 +1,126 @@
+package com.timelordtty.projectCalendar.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量写入结果，按输入顺序记录每一行的项目ID和失败原因
+ */
+public class BatchWriteResult {
+
+    private final List<Long> ids;
+    private final Map<Integer, String> failures = new LinkedHashMap<>();
+
+    /**
+     * 构造函数
+     * @param size 批量写入的行数
+     */
+    public BatchWriteResult(int size) {
+        this.ids = new ArrayList<>(Collections.nCopies(size, (Long) null));
+    }
+
+    /**
+     * 记录某一行写入成功
+     * @param row 行号（从0开始）
+     * @param id 项目ID（插入时为生成的主键）
+     */
+    void markSucceeded(int row, Long id) {
+        ids.set(row, id);
+        failures.remove(row);
+    }
+
+    /**
+     * 记录某一行写入失败
+     * @param row 行号（从0开始）
+     * @param reason 失败原因
+     */
+    public void markFailed(int row, String reason) {
+        ids.set(row, null);
+        failures.put(row, reason);
+    }
+
+    /**
+     * 将所有尚未失败的行标记为失败（如事务回滚）
+     * @param reason 失败原因
+     */
+    void markAllFailed(String reason) {
+        for (int i = 0; i < ids.size(); i++) {
+            if (!failures.containsKey(i)) {
+                markFailed(i, reason);
+            }
+        }
+    }
+
+    /**
+     * 合并子批次的结果
+     * @param part 子批次结果
+     * @param rows 子批次每一行在本结果中的行号
+     */
+    public void merge(BatchWriteResult part, List<Integer> rows) {
+        for (int i = 0; i < part.size(); i++) {
+            if (part.isSucceeded(i)) {
+                markSucceeded(rows.get(i), part.ids.get(i));
+            } else {
+                markFailed(rows.get(i), part.failures.getOrDefault(i, "执行失败"));
+            }
+        }
+    }
+
+    /**
+     * 获取批量写入的行数
+     * @return 行数
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * 判断某一行是否写入成功
+     * @param row 行号（从0开始）
+     * @return 是否成功
+     */
+    public boolean isSucceeded(int row) {
+        return !failures.containsKey(row) && ids.get(row) != null;
+    }
+
+    /**
+     * 获取每一行对应的项目ID，失败的行为null
+     * @return 项目ID列表
+     */
+    public List<Long> getIds() {
+        return Collections.unmodifiableList(ids);
+    }
+
+    /**
+     * 获取失败的行及原因
+     * @return 行号到失败原因的映射
+     */
+    public Map<Integer, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * 获取成功的行数
+     * @return 成功行数
+     */
+    public int getSuccessCount() {
+        return ids.size() - failures.size();
+    }
+
+    /**
+     * 是否存在失败的行
+     * @return 是否有失败
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "成功 " + getSuccessCount() + " 行，失败 " + failures.size() + " 行" +
+               (failures.isEmpty() ? "" : " " + failures);
+    }
+}
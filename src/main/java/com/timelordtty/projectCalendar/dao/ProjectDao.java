@@ -1,42 +1,157 @@
 package com.timelordtty.projectCalendar.dao;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.Project;
-import com.timelordtty.projectCalendar.utils.DatabaseManager;
+import com.timelordtty.projectCalendar.utils.ConnectionPool;
 
 /**
  * 项目数据访问对象类，负责项目数据的CRUD操作
  */
 public class ProjectDao {
     
+    private static final String SELECT_ALL_SQL = "SELECT * FROM projects";
+    
+    // 键集分页与流式读取的排序，与idx_projects_online_date索引一致
+    private static final String KEYSET_ORDER = " ORDER BY online_date DESC NULLS LAST, id DESC";
+    
+    // 流式读取时每次从数据库取回的行数
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO projects (name, review_period, online_date, " +
+            "registration_period, registration_end_date, earliest_review_date, " +
+            "expected_review_time, expert_review_time, remark) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_WITH_ID_SQL =
+            "INSERT INTO projects (name, review_period, online_date, " +
+            "registration_period, registration_end_date, earliest_review_date, " +
+            "expected_review_time, expert_review_time, remark, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_SQL =
+            "UPDATE projects SET name = ?, review_period = ?, online_date = ?, " +
+            "registration_period = ?, registration_end_date = ?, earliest_review_date = ?, " +
+            "expected_review_time = ?, expert_review_time = ?, remark = ? WHERE id = ?";
+    
+    private static final String DELETE_SQL = "DELETE FROM projects WHERE id = ?";
+    
+    // 关键日期（报名截止、开标、专家评审）落在指定范围内的项目ID，每个分支都走对应的二级索引
+    private static final String KEY_DATE_RANGE_IDS_SQL =
+            "SELECT id FROM projects WHERE registration_end_date BETWEEN ? AND ? " +
+            "UNION SELECT id FROM projects WHERE expected_review_time >= ? AND expected_review_time < ? " +
+            "UNION SELECT id FROM projects WHERE expert_review_time >= ? AND expert_review_time < ?";
+    
+    // 行版本号的最大值和总和，外部的插入、修改和删除都会改变总和
+    private static final String ROW_VERSION_SQL =
+            "SELECT COALESCE(MAX(row_version), 0), COALESCE(SUM(row_version), 0) FROM projects";
+    
+    private static final String ROW_VERSION_CHANGED_IDS_SQL = "SELECT id FROM projects WHERE row_version > ?";
+    
+    // 已知的行版本号总和：全量加载前记录，批量写入在事务中确认只有自己的行变化后同步更新；-1表示未知
+    private final AtomicLong knownVersionSum = new AtomicLong(-1);
+    
     /**
      * 获取所有项目
      * @return 项目列表
      */
     public List<Project> getAllProjects() {
         List<Project> projects = new ArrayList<>();
-        String sql = "SELECT * FROM projects ORDER BY online_date DESC";
+        forEachProject(projects::add);
+        return projects;
+    }
+    
+    /**
+     * 以只进游标逐行读取所有项目，按上网日期倒序（未设置的在最后）、ID倒序
+     * 每行映射后立即交给访问者，不在内存中保留整个结果集，适合导出等大批量处理
+     * @param visitor 项目访问者
+     * @return 读取的项目数量
+     */
+    public int forEachProject(Consumer<Project> visitor) {
+        int count = 0;
         
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
             
-            while (rs.next()) {
-                Project project = mapResultSetToProject(rs);
-                projects.add(project);
+            try (ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL + KEYSET_ORDER)) {
+                ProjectRowMapper mapper = new ProjectRowMapper(rs);
+                while (rs.next()) {
+                    visitor.accept(mapper.map(rs));
+                    count++;
+                }
             }
             
         } catch (SQLException e) {
-            AppLogger.error("获取所有项目时发生数据库错误: " + e.getMessage(), e);
+            AppLogger.error("逐行读取项目时发生数据库错误: " + e.getMessage(), e);
+        }
+        
+        return count;
+    }
+    
+    /**
+     * 按(上网日期, ID)键集分页查询项目，排序与forEachProject一致
+     * 翻页时传入上一页最后一个项目，查询直接从索引位置开始，不需要OFFSET扫描前面的行
+     * @param after 上一页的最后一个项目，为null时查询第一页
+     * @param pageSize 每页数量
+     * @return 本页项目，少于pageSize时表示已是最后一页
+     */
+    public List<Project> getProjectsPage(Project after, int pageSize) {
+        List<Project> projects = new ArrayList<>(Math.max(pageSize, 0));
+        if (pageSize <= 0) {
+            return projects;
+        }
+        
+        String sql;
+        if (after == null) {
+            sql = SELECT_ALL_SQL + KEYSET_ORDER + " LIMIT ?";
+        } else if (after.getOnlineDate() != null) {
+            sql = SELECT_ALL_SQL + " WHERE online_date < ? OR (online_date = ? AND id < ?) OR online_date IS NULL"
+                + KEYSET_ORDER + " LIMIT ?";
+        } else {
+            // 已进入未设置上网日期的部分，只按ID继续
+            sql = SELECT_ALL_SQL + " WHERE online_date IS NULL AND id < ?" + KEYSET_ORDER + " LIMIT ?";
+        }
+        
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (after != null && after.getOnlineDate() != null) {
+                pstmt.setDate(index++, Date.valueOf(after.getOnlineDate()));
+                pstmt.setDate(index++, Date.valueOf(after.getOnlineDate()));
+            }
+            if (after != null) {
+                pstmt.setLong(index++, after.getId());
+            }
+            pstmt.setInt(index, pageSize);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ProjectRowMapper mapper = new ProjectRowMapper(rs);
+                while (rs.next()) {
+                    projects.add(mapper.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            AppLogger.error("分页查询项目时发生数据库错误: " + e.getMessage(), e);
         }
         
         return projects;
@@ -50,14 +165,14 @@ public class ProjectDao {
     public Project getProjectById(Long id) {
         String sql = "SELECT * FROM projects WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setLong(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToProject(rs);
+                    return new ProjectRowMapper(rs).map(rs);
                 }
             }
             
@@ -68,18 +183,138 @@ public class ProjectDao {
         return null;
     }
     
+    /**
+     * 查询报名截止日期、开标时间或专家评审时间落在指定日期范围内的项目ID
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 项目ID列表
+     */
+    public List<Long> findProjectIdsWithKeyDatesInRange(LocalDate startDate, LocalDate endDate) {
+        List<Long> ids = new ArrayList<>();
+        
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(KEY_DATE_RANGE_IDS_SQL)) {
+            
+            setKeyDateRangeParameters(pstmt, startDate, endDate);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            
+        } catch (SQLException e) {
+            AppLogger.error("查询日期范围内项目ID时发生数据库错误: " + e.getMessage(), e);
+        }
+        
+        return ids;
+    }
+    
+    /**
+     * 设置关键日期范围查询的参数
+     * @param pstmt PreparedStatement对象
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @throws SQLException SQL异常
+     */
+    private void setKeyDateRangeParameters(PreparedStatement pstmt, LocalDate startDate, LocalDate endDate) throws SQLException {
+        // 时间字段使用半开区间 [startDate 00:00, endDate+1 00:00)
+        Timestamp startTime = Timestamp.valueOf(startDate.atStartOfDay());
+        Timestamp endTime = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay());
+        
+        pstmt.setDate(1, Date.valueOf(startDate));
+        pstmt.setDate(2, Date.valueOf(endDate));
+        pstmt.setTimestamp(3, startTime);
+        pstmt.setTimestamp(4, endTime);
+        pstmt.setTimestamp(5, startTime);
+        pstmt.setTimestamp(6, endTime);
+    }
+    
+    /**
+     * 记录当前的数据版本，应在全量加载项目之前调用
+     * 加载期间发生的外部修改会使之后的{@link #isModifiedExternally()}返回true，多重新加载一次
+     */
+    public void captureDataVersion() {
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            long[] state = readVersionState(conn);
+            knownVersionSum.set(state[1]);
+        } catch (SQLException e) {
+            knownVersionSum.set(-1);
+            AppLogger.error("读取项目数据版本时发生数据库错误: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 自上次{@link #captureDataVersion()}以来，项目表是否被本对象批量写入以外的操作修改
+     * 能检测到外部的插入、修改和删除，包括行数和最大ID都不变的情况
+     * @return 是否被外部修改，查询失败时返回false
+     */
+    public boolean isModifiedExternally() {
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            return readVersionState(conn)[1] != knownVersionSum.get();
+        } catch (SQLException e) {
+            AppLogger.error("检查项目数据版本时发生数据库错误: " + e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * 读取行版本号的最大值和总和
+     */
+    private static long[] readVersionState(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ROW_VERSION_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? new long[] {rs.getLong(1), rs.getLong(2)} : new long[] {0, 0};
+        }
+    }
+    
+    /**
+     * 版本号大于指定值的行是否都是本次写入的行
+     */
+    private static boolean onlyOwnRowsChangedSince(Connection conn, long version, Set<Long> ownIds) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ROW_VERSION_CHANGED_IDS_SQL)) {
+            pstmt.setLong(1, version);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (!ownIds.contains(rs.getLong(1))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 获取项目表的数据指纹（行数/最大ID），用于检测外部修改
+     * @return 数据指纹，查询失败时返回null
+     */
+    public String getTableFingerprint() {
+        String sql = "SELECT COUNT(*), COALESCE(MAX(id), 0) FROM projects";
+        
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                return rs.getLong(1) + "/" + rs.getLong(2);
+            }
+            
+        } catch (SQLException e) {
+            AppLogger.error("获取项目表数据指纹时发生数据库错误: " + e.getMessage(), e);
+        }
+        
+        return null;
+    }
+    
     /**
      * 插入新项目
      * @param project 项目对象
      * @return 是否成功插入
      */
     public boolean insertProject(Project project) {
-        String sql = "INSERT INTO projects (name, review_period, online_date, " +
-                    "registration_period, registration_end_date, earliest_review_date, " +
-                    "expected_review_time, expert_review_time, remark) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
             setPreparedStatementParameters(pstmt, project);
             
@@ -107,12 +342,8 @@ public class ProjectDao {
      * @return 是否成功更新
      */
     public boolean updateProject(Project project) {
-        String sql = "UPDATE projects SET name = ?, review_period = ?, online_date = ?, " +
-                    "registration_period = ?, registration_end_date = ?, earliest_review_date = ?, " +
-                    "expected_review_time = ?, expert_review_time = ?, remark = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
             
             setPreparedStatementParameters(pstmt, project);
             pstmt.setLong(10, project.getId());
@@ -133,10 +364,8 @@ public class ProjectDao {
      * @return 是否成功删除
      */
     public boolean deleteProject(Long id) {
-        String sql = "DELETE FROM projects WHERE id = ?";
-        
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
             
             pstmt.setLong(1, id);
             
@@ -150,6 +379,183 @@ public class ProjectDao {
         return false;
     }
     
+    /**
+     * 批量插入项目，在一个事务中使用JDBC批处理执行
+     * 成功插入的项目会被设置生成的ID，失败的行记录在返回结果中
+     * @param projects 项目列表
+     * @return 批量写入结果，按输入顺序包含生成的ID
+     */
+    public BatchWriteResult insertProjects(List<Project> projects) {
+        BatchWriteResult result = executeBatch(INSERT_SQL, projects, true, "批量插入项目",
+                this::setPreparedStatementParameters, Project::getId);
+        
+        for (int i = 0; i < projects.size(); i++) {
+            if (result.isSucceeded(i)) {
+                projects.get(i).setId(result.getIds().get(i));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 批量插入已预先分配ID的项目，在一个事务中使用JDBC批处理执行
+     * 自增计数会越过插入的ID，之后自动生成的ID不会冲突
+     * @param projects 项目列表，ID不能为空
+     * @return 批量写入结果，ID已存在的行记为失败
+     */
+    public BatchWriteResult insertProjectsWithIds(List<Project> projects) {
+        return executeBatch(INSERT_WITH_ID_SQL, projects, false, "批量插入项目", (pstmt, project) -> {
+            if (project.getId() == null) {
+                throw new SQLException("项目ID为空");
+            }
+            setPreparedStatementParameters(pstmt, project);
+            pstmt.setLong(10, project.getId());
+        }, Project::getId);
+    }
+    
+    /**
+     * 批量更新项目，在一个事务中使用JDBC批处理执行
+     * @param projects 项目列表
+     * @return 批量写入结果，不存在的项目记为失败
+     */
+    public BatchWriteResult updateProjects(List<Project> projects) {
+        return executeBatch(UPDATE_SQL, projects, false, "批量更新项目", (pstmt, project) -> {
+            if (project.getId() == null) {
+                throw new SQLException("项目ID为空");
+            }
+            setPreparedStatementParameters(pstmt, project);
+            pstmt.setLong(10, project.getId());
+        }, Project::getId);
+    }
+    
+    /**
+     * 批量删除项目，在一个事务中使用JDBC批处理执行
+     * @param ids 项目ID集合
+     * @return 批量写入结果，按集合迭代顺序，不存在的项目记为失败
+     */
+    public BatchWriteResult deleteProjects(Collection<Long> ids) {
+        return executeBatch(DELETE_SQL, new ArrayList<>(ids), false, "批量删除项目",
+                (pstmt, id) -> pstmt.setLong(1, id), id -> id);
+    }
+    
+    /**
+     * 批处理参数绑定器
+     */
+    @FunctionalInterface
+    private interface BatchBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+    
+    /**
+     * 在一个事务中执行批处理，并按行记录结果
+     * 单行失败不影响其他行，事务级错误（如提交失败）时整体回滚。
+     * 提交前确认版本号变化的行都是本次写入的行，提交后更新已知的数据版本，自己的写入不会被当作外部修改
+     * @param sql SQL语句
+     * @param rows 数据行
+     * @param returnKeys 是否读取生成的主键
+     * @param operation 操作名称，用于日志
+     * @param binder 参数绑定器
+     * @param idOf 不读取生成主键时，取得每行对应ID的函数
+     * @return 批量写入结果
+     */
+    private <T> BatchWriteResult executeBatch(String sql, List<T> rows, boolean returnKeys, String operation,
+                                              BatchBinder<T> binder, Function<T, Long> idOf) {
+        BatchWriteResult result = new BatchWriteResult(rows.size());
+        if (rows.isEmpty()) {
+            return result;
+        }
+        
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = returnKeys
+                    ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : conn.prepareStatement(sql)) {
+                long[] versionBefore = readVersionState(conn);
+                
+                // 绑定参数，绑定失败的行直接记为失败，不加入批处理
+                List<Integer> batchRows = new ArrayList<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    try {
+                        binder.bind(pstmt, rows.get(i));
+                        pstmt.addBatch();
+                        batchRows.add(i);
+                    } catch (SQLException | RuntimeException e) {
+                        pstmt.clearParameters();
+                        result.markFailed(i, e.getMessage());
+                    }
+                }
+                
+                int[] counts;
+                SQLException rowError = null;
+                try {
+                    counts = pstmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // 失败行的异常按顺序串在getNextException链上
+                    counts = e.getUpdateCounts();
+                    rowError = e.getNextException();
+                }
+                
+                List<Integer> succeededRows = new ArrayList<>(batchRows.size());
+                for (int j = 0; j < batchRows.size(); j++) {
+                    int row = batchRows.get(j);
+                    int count = j < counts.length ? counts[j] : Statement.EXECUTE_FAILED;
+                    if (count == Statement.EXECUTE_FAILED) {
+                        result.markFailed(row, rowError != null ? rowError.getMessage() : "执行失败");
+                        if (rowError != null) {
+                            rowError = rowError.getNextException();
+                        }
+                    } else if (count == 0) {
+                        result.markFailed(row, "未找到对应的项目");
+                    } else {
+                        succeededRows.add(row);
+                    }
+                }
+                
+                if (returnKeys) {
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        for (int row : succeededRows) {
+                            if (keys.next()) {
+                                result.markSucceeded(row, keys.getLong(1));
+                            } else {
+                                result.markFailed(row, "未返回生成的主键");
+                            }
+                        }
+                    }
+                } else {
+                    for (int row : succeededRows) {
+                        result.markSucceeded(row, idOf.apply(rows.get(row)));
+                    }
+                }
+                
+                Set<Long> ownIds = new HashSet<>();
+                for (int i = 0; i < rows.size(); i++) {
+                    if (result.isSucceeded(i)) {
+                        ownIds.add(result.getIds().get(i));
+                    }
+                }
+                boolean ownChangesOnly = onlyOwnRowsChangedSince(conn, versionBefore[0], ownIds);
+                long versionSumAfter = readVersionState(conn)[1];
+                
+                conn.commit();
+                if (ownChangesOnly) {
+                    // 写入前已有外部修改时已知版本不一致，保持不一致以便重新加载
+                    knownVersionSum.compareAndSet(versionBefore[1], versionSumAfter);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                result.markAllFailed("事务已回滚: " + e.getMessage());
+                AppLogger.error(operation + "时发生数据库错误，事务已回滚: " + e.getMessage(), e);
+            }
+        } catch (SQLException e) {
+            result.markAllFailed(e.getMessage());
+            AppLogger.error(operation + "时发生数据库错误: " + e.getMessage(), e);
+        }
+        
+        AppLogger.info(operation + "完成: " + result);
+        return result;
+    }
+    
     /**
      * 设置PreparedStatement参数
      * @param pstmt PreparedStatement对象
@@ -194,71 +600,4 @@ public class ProjectDao {
         
         pstmt.setString(9, project.getRemark());
     }
-    
-    /**
-     * 将ResultSet映射为Project对象
-     * @param rs ResultSet结果集
-     * @return Project对象
-     * @throws SQLException SQL异常
-     */
-    private Project mapResultSetToProject(ResultSet rs) throws SQLException {
-        Project project = new Project();
-        
-        project.setId(rs.getLong("id"));
-        project.setName(rs.getString("name"));
-        project.setReviewPeriod(rs.getInt("review_period"));
-        
-        Date onlineDate = rs.getDate("online_date");
-        if (onlineDate != null) {
-            project.setOnlineDate(onlineDate.toLocalDate());
-        }
-        
-        project.setRegistrationPeriod(rs.getInt("registration_period"));
-        
-        Date registrationEndDate = rs.getDate("registration_end_date");
-        if (registrationEndDate != null) {
-            project.setRegistrationEndDate(registrationEndDate.toLocalDate());
-        }
-        
-        Date earliestReviewDate = rs.getDate("earliest_review_date");
-        if (earliestReviewDate != null) {
-            project.setEarliestReviewDate(earliestReviewDate.toLocalDate());
-        }
-        
-        try {
-            java.sql.Timestamp expectedReviewTime = rs.getTimestamp("expected_review_time");
-            if (expectedReviewTime != null) {
-                project.setExpectedReviewTime(expectedReviewTime.toLocalDateTime());
-            }
-        } catch (SQLException e) {
-            // 如果找不到expected_review_time列，尝试从旧的expected_review_date列读取
-            try {
-                Date expectedReviewDate = rs.getDate("expected_review_date");
-                if (expectedReviewDate != null) {
-                    // 如果只有日期，添加默认时间9:00
-                    java.time.LocalDateTime dateTime = java.time.LocalDateTime.of(
-                        expectedReviewDate.toLocalDate(), 
-                        java.time.LocalTime.of(9, 0)
-                    );
-                    project.setExpectedReviewTime(dateTime);
-                }
-            } catch (SQLException ex) {
-                AppLogger.error("读取开标时间时发生错误: " + ex.getMessage());
-            }
-        }
-        
-        try {
-            java.sql.Timestamp expertReviewTime = rs.getTimestamp("expert_review_time");
-            if (expertReviewTime != null) {
-                project.setExpertReviewTime(expertReviewTime.toLocalDateTime());
-            }
-        } catch (SQLException e) {
-            // 可能是旧版本的数据库，没有专家评审时间字段
-            AppLogger.info("数据库中可能不存在expert_review_time列: " + e.getMessage());
-        }
-        
-        project.setRemark(rs.getString("remark"));
-        
-        return project;
-    }
 } 
\ No newline at end of file
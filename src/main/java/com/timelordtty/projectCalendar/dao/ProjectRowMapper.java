@@ -0,0 +1,113 @@
+package com.timelordtty.projectCalendar.dao;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 项目结果集映射器
+ *
+ * 创建时根据ResultSetMetaData一次性解析各列的序号，之后每行按序号读取，
+ * 不再逐行按列名查找；旧版本数据库缺少的列（如expert_review_time）在这里一次判断，
+ * 不需要逐行try/catch。每个结果集创建一个实例。
+ */
+class ProjectRowMapper {
+
+    // 列不存在时的序号
+    private static final int ABSENT = 0;
+    // 旧版本只有开标日期时，默认的开标时间
+    private static final LocalTime DEFAULT_REVIEW_TIME = LocalTime.of(9, 0);
+
+    private final int idColumn;
+    private final int nameColumn;
+    private final int reviewPeriodColumn;
+    private final int onlineDateColumn;
+    private final int registrationPeriodColumn;
+    private final int registrationEndDateColumn;
+    private final int earliestReviewDateColumn;
+    private final int expectedReviewTimeColumn;
+    private final int legacyExpectedReviewDateColumn;
+    private final int expertReviewTimeColumn;
+    private final int remarkColumn;
+
+    /**
+     * 构造函数，解析结果集的列序号
+     * @param rs 结果集
+     * @throws SQLException SQL异常
+     */
+    ProjectRowMapper(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        idColumn = columns.getOrDefault("id", ABSENT);
+        nameColumn = columns.getOrDefault("name", ABSENT);
+        reviewPeriodColumn = columns.getOrDefault("review_period", ABSENT);
+        onlineDateColumn = columns.getOrDefault("online_date", ABSENT);
+        registrationPeriodColumn = columns.getOrDefault("registration_period", ABSENT);
+        registrationEndDateColumn = columns.getOrDefault("registration_end_date", ABSENT);
+        earliestReviewDateColumn = columns.getOrDefault("earliest_review_date", ABSENT);
+        expectedReviewTimeColumn = columns.getOrDefault("expected_review_time", ABSENT);
+        legacyExpectedReviewDateColumn = columns.getOrDefault("expected_review_date", ABSENT);
+        expertReviewTimeColumn = columns.getOrDefault("expert_review_time", ABSENT);
+        remarkColumn = columns.getOrDefault("remark", ABSENT);
+    }
+
+    /**
+     * 将结果集的当前行映射为项目对象
+     * @param rs 结果集
+     * @return 项目对象
+     * @throws SQLException SQL异常
+     */
+    Project map(ResultSet rs) throws SQLException {
+        Project project = new Project();
+
+        project.setId(rs.getLong(idColumn));
+        project.setName(rs.getString(nameColumn));
+        project.setReviewPeriod(rs.getInt(reviewPeriodColumn));
+        project.setOnlineDate(toLocalDate(rs.getDate(onlineDateColumn)));
+        project.setRegistrationPeriod(rs.getInt(registrationPeriodColumn));
+        project.setRegistrationEndDate(toLocalDate(rs.getDate(registrationEndDateColumn)));
+        project.setEarliestReviewDate(toLocalDate(rs.getDate(earliestReviewDateColumn)));
+
+        if (expectedReviewTimeColumn != ABSENT) {
+            project.setExpectedReviewTime(toLocalDateTime(rs.getTimestamp(expectedReviewTimeColumn)));
+        } else if (legacyExpectedReviewDateColumn != ABSENT) {
+            // 旧版本只有开标日期，添加默认时间9:00
+            Date expectedReviewDate = rs.getDate(legacyExpectedReviewDateColumn);
+            if (expectedReviewDate != null) {
+                project.setExpectedReviewTime(LocalDateTime.of(expectedReviewDate.toLocalDate(), DEFAULT_REVIEW_TIME));
+            }
+        }
+
+        if (expertReviewTimeColumn != ABSENT) {
+            project.setExpertReviewTime(toLocalDateTime(rs.getTimestamp(expertReviewTimeColumn)));
+        }
+
+        if (remarkColumn != ABSENT) {
+            project.setRemark(rs.getString(remarkColumn));
+        }
+
+        return project;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
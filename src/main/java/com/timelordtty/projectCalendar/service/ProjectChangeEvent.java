@@ -0,0 +1,133 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 项目变更事件，由ProjectService在缓存增量更新后发出
+ */
+public class ProjectChangeEvent {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        ADDED,      // 新增项目
+        UPDATED,    // 更新项目
+        REMOVED,    // 删除项目
+        RELOADED,   // 全量重新加载
+        BATCH       // 批量写入，一批只发出一次
+    }
+
+    private final Type type;
+    private final Long projectId;
+    private final Project project;
+    private final List<Project> changedProjects;
+    private final List<Project> removedProjects;
+
+    private ProjectChangeEvent(Type type, Long projectId, Project project) {
+        this(type, projectId, project, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private ProjectChangeEvent(Type type, Long projectId, Project project,
+                               List<Project> changedProjects, List<Project> removedProjects) {
+        this.type = type;
+        this.projectId = projectId;
+        this.project = project;
+        this.changedProjects = changedProjects;
+        this.removedProjects = removedProjects;
+    }
+
+    /**
+     * 创建新增事件
+     * @param project 新增的项目
+     * @return 变更事件
+     */
+    public static ProjectChangeEvent added(Project project) {
+        return new ProjectChangeEvent(Type.ADDED, project.getId(), project);
+    }
+
+    /**
+     * 创建更新事件
+     * @param project 更新后的项目
+     * @return 变更事件
+     */
+    public static ProjectChangeEvent updated(Project project) {
+        return new ProjectChangeEvent(Type.UPDATED, project.getId(), project);
+    }
+
+    /**
+     * 创建删除事件
+     * @param project 被删除的项目
+     * @return 变更事件
+     */
+    public static ProjectChangeEvent removed(Project project) {
+        return new ProjectChangeEvent(Type.REMOVED, project.getId(), project);
+    }
+
+    /**
+     * 创建全量重新加载事件
+     * @return 变更事件
+     */
+    public static ProjectChangeEvent reloaded() {
+        return new ProjectChangeEvent(Type.RELOADED, null, null);
+    }
+
+    /**
+     * 创建批量写入事件
+     * @param changedProjects 新增或更新成功的项目
+     * @param removedProjects 删除成功的项目
+     * @return 变更事件
+     */
+    public static ProjectChangeEvent batch(List<Project> changedProjects, List<Project> removedProjects) {
+        return new ProjectChangeEvent(Type.BATCH, null, null,
+                Collections.unmodifiableList(changedProjects), Collections.unmodifiableList(removedProjects));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 获取变更项目的ID，全量重新加载时为null
+     * @return 项目ID
+     */
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * 获取变更的项目，全量重新加载时为null
+     * @return 项目
+     */
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * 获取批量写入中新增或更新成功的项目，非批量事件时为空列表
+     * @return 项目列表
+     */
+    public List<Project> getChangedProjects() {
+        return changedProjects;
+    }
+
+    /**
+     * 获取批量写入中删除成功的项目，非批量事件时为空列表
+     * @return 项目列表
+     */
+    public List<Project> getRemovedProjects() {
+        return removedProjects;
+    }
+
+    @Override
+    public String toString() {
+        if (type == Type.BATCH) {
+            return "ProjectChangeEvent{" + type + ", changed=" + changedProjects.size() +
+                   ", removed=" + removedProjects.size() + "}";
+        }
+        return "ProjectChangeEvent{" + type + (projectId != null ? ", id=" + projectId : "") + "}";
+    }
+}
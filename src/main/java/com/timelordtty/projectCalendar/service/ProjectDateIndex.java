@@ -0,0 +1,141 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 项目关键日期索引
+ *
+ * 以epoch day为键，记录在该日有关键日期（上网、报名截止、最早评审、开标、专家评审）的项目ID。
+ * 同时记录每个项目已建立索引的日期，项目对象被原地修改后也能正确移除旧的索引项。
+ * 所有方法都是同步的，可以在后台线程中查询。
+ */
+public class ProjectDateIndex {
+
+    // epoch day -> 项目ID（按加入顺序）
+    private final NavigableMap<Long, Set<Long>> projectsByDay = new TreeMap<>();
+    // 项目ID -> 已建立索引的epoch day
+    private final Map<Long, Set<Long>> daysByProject = new HashMap<>();
+
+    /**
+     * 用给定的项目重建整个索引
+     * @param projects 所有项目
+     */
+    public synchronized void rebuild(Iterable<Project> projects) {
+        projectsByDay.clear();
+        daysByProject.clear();
+        for (Project project : projects) {
+            add(project);
+        }
+    }
+
+    /**
+     * 新增或更新项目的索引项
+     * @param project 项目
+     */
+    public synchronized void update(Project project) {
+        if (project == null || project.getId() == null) {
+            return;
+        }
+        remove(project.getId());
+        add(project);
+    }
+
+    /**
+     * 移除项目的所有索引项
+     * @param projectId 项目ID
+     */
+    public synchronized void remove(Long projectId) {
+        Set<Long> days = daysByProject.remove(projectId);
+        if (days == null) {
+            return;
+        }
+        for (Long day : days) {
+            Set<Long> ids = projectsByDay.get(day);
+            if (ids != null) {
+                ids.remove(projectId);
+                if (ids.isEmpty()) {
+                    projectsByDay.remove(day);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取指定日期有关键日期的项目ID
+     * @param date 日期
+     * @return 项目ID列表
+     */
+    public synchronized List<Long> getProjectIds(LocalDate date) {
+        Set<Long> ids = projectsByDay.get(date.toEpochDay());
+        return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+    }
+
+    /**
+     * 获取日期范围内每天有关键日期的项目ID，只返回有项目的日期
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 按日期排序的日期到项目ID的映射
+     */
+    public synchronized Map<LocalDate, List<Long>> getProjectIdsInRange(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, List<Long>> result = new LinkedHashMap<>();
+        if (startDate.isAfter(endDate)) {
+            return result;
+        }
+        for (Map.Entry<Long, Set<Long>> entry
+                : projectsByDay.subMap(startDate.toEpochDay(), true, endDate.toEpochDay(), true).entrySet()) {
+            result.put(LocalDate.ofEpochDay(entry.getKey()), new ArrayList<>(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 获取已建立索引的项目数量
+     * @return 项目数量
+     */
+    public synchronized int size() {
+        return daysByProject.size();
+    }
+
+    private void add(Project project) {
+        Set<Long> days = keyDays(project);
+        if (days.isEmpty()) {
+            return;
+        }
+        daysByProject.put(project.getId(), days);
+        for (Long day : days) {
+            projectsByDay.computeIfAbsent(day, k -> new LinkedHashSet<>()).add(project.getId());
+        }
+    }
+
+    /**
+     * 收集项目所有关键日期对应的epoch day（去重）
+     */
+    private static Set<Long> keyDays(Project project) {
+        Set<Long> days = new TreeSet<>();
+        addDay(days, project.getOnlineDate());
+        addDay(days, project.getRegistrationEndDate());
+        addDay(days, project.getEarliestReviewDate());
+        addDay(days, project.getExpectedReviewDate());
+        addDay(days, project.getExpertReviewDate());
+        return days;
+    }
+
+    private static void addDay(Set<Long> days, LocalDate date) {
+        if (date != null) {
+            days.add(date.toEpochDay());
+        }
+    }
+}
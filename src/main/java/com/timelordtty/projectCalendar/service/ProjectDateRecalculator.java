@@ -0,0 +1,121 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.utils.DateCalculator;
+import com.timelordtty.projectCalendar.utils.WorkdayCalendar;
+
+/**
+ * 项目派生日期批量计算
+ *
+ * 根据上网日期、报名期限和评审周期批量计算报名截止日期和最早评审日期，规则与新增项目对话框相同。
+ * 整批项目使用同一个工作日位图，计算过程中节假日数据更新也不会导致同一批结果不一致；
+ * 项目较多时使用并行流。计算本身不修改项目，由调用方决定是否应用和保存。
+ */
+public class ProjectDateRecalculator {
+
+    // 超过该数量时并行计算
+    private static final int PARALLEL_THRESHOLD = 2000;
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private ProjectDateRecalculator() {
+        // 私有构造函数，防止实例化
+    }
+
+    /**
+     * 一个项目的计算结果，同时保存计算前的日期，用于判断是否变化
+     */
+    public static final class DerivedDates {
+        private final Project project;
+        private final LocalDate registrationEndDate;
+        private final LocalDate earliestReviewDate;
+        private final LocalDate previousRegistrationEndDate;
+        private final LocalDate previousEarliestReviewDate;
+
+        private DerivedDates(Project project, LocalDate registrationEndDate, LocalDate earliestReviewDate) {
+            this.project = project;
+            this.registrationEndDate = registrationEndDate;
+            this.earliestReviewDate = earliestReviewDate;
+            this.previousRegistrationEndDate = project.getRegistrationEndDate();
+            this.previousEarliestReviewDate = project.getEarliestReviewDate();
+        }
+
+        public Project getProject() {
+            return project;
+        }
+
+        public LocalDate getRegistrationEndDate() {
+            return registrationEndDate;
+        }
+
+        public LocalDate getEarliestReviewDate() {
+            return earliestReviewDate;
+        }
+
+        /**
+         * 计算结果与项目计算前的日期是否不同
+         * @return 是否变化
+         */
+        public boolean isChanged() {
+            return !Objects.equals(registrationEndDate, previousRegistrationEndDate)
+                || !Objects.equals(earliestReviewDate, previousEarliestReviewDate);
+        }
+
+        /**
+         * 把计算结果写入项目
+         */
+        public void apply() {
+            project.setRegistrationEndDate(registrationEndDate);
+            project.setEarliestReviewDate(earliestReviewDate);
+        }
+    }
+
+    /**
+     * 计算一批项目的派生日期
+     * @param projects 项目
+     * @return 与输入顺序一致的计算结果
+     */
+    public static List<DerivedDates> derive(List<Project> projects) {
+        WorkdayCalendar calendar = DateCalculator.getCalendar();
+        Stream<Project> stream = projects.size() > PARALLEL_THRESHOLD ? projects.parallelStream() : projects.stream();
+        return stream.map(project -> derive(calendar, project)).collect(Collectors.toList());
+    }
+
+    /**
+     * 从计算结果中取出有变化的项
+     * @param derived 计算结果
+     * @return 有变化的项
+     */
+    public static List<DerivedDates> changedOnly(List<DerivedDates> derived) {
+        List<DerivedDates> changed = new ArrayList<>();
+        for (DerivedDates dates : derived) {
+            if (dates.isChanged()) {
+                changed.add(dates);
+            }
+        }
+        return changed;
+    }
+
+    private static DerivedDates derive(WorkdayCalendar calendar, Project project) {
+        LocalDate onlineDate = project.getOnlineDate();
+        if (onlineDate == null) {
+            return new DerivedDates(project, null, null);
+        }
+
+        LocalDate registrationEndDate = project.getRegistrationPeriod() > 0
+            ? DateCalculator.calculateDateAfterWorkingDays(calendar, onlineDate, project.getRegistrationPeriod())
+            : null;
+        LocalDate earliestReviewDate = project.getReviewPeriod() > 0
+            ? DateCalculator.calculateFirstWorkingDayAfterNaturalDays(calendar, onlineDate, project.getReviewPeriod())
+            : null;
+        return new DerivedDates(project, registrationEndDate, earliestReviewDate);
+    }
+}
@@ -0,0 +1,179 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 项目名称和备注的字符二元组（bigram）倒排索引
+ *
+ * 按相邻两个字符切分，中文不需要分词器。单字关键词使用单字倒排表。
+ * 查询时先对关键词的所有二元组求倒排表交集，再用contains校验候选项目，
+ * 避免每次输入都遍历所有项目。同时保存每个项目已索引的文本，
+ * 项目对象被原地修改后也能正确移除旧的索引项。所有方法都是同步的。
+ */
+public class ProjectSearchIndex {
+
+    // 名称与备注之间的分隔符，保证二元组不会跨字段
+    private static final char FIELD_SEPARATOR = '\u0000';
+    // 二元组键的标记位，与单字键区分
+    private static final long BIGRAM_FLAG = 1L << 32;
+
+    // 单字/二元组 -> 包含它的项目ID
+    private final Map<Long, Set<Long>> postings = new HashMap<>();
+    // 项目ID -> 已索引的规范化文本，用于校验和移除
+    private final Map<Long, String> textByProject = new HashMap<>();
+
+    /**
+     * 用给定的项目重建整个索引
+     * @param projects 所有项目
+     */
+    public synchronized void rebuild(Iterable<Project> projects) {
+        postings.clear();
+        textByProject.clear();
+        for (Project project : projects) {
+            add(project);
+        }
+    }
+
+    /**
+     * 新增或更新项目的索引项
+     * @param project 项目
+     */
+    public synchronized void update(Project project) {
+        if (project == null || project.getId() == null) {
+            return;
+        }
+        remove(project.getId());
+        add(project);
+    }
+
+    /**
+     * 移除项目的所有索引项
+     * @param projectId 项目ID
+     */
+    public synchronized void remove(Long projectId) {
+        String text = textByProject.remove(projectId);
+        if (text == null) {
+            return;
+        }
+        for (Long key : keys(text)) {
+            Set<Long> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(projectId);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找名称或备注包含关键词的项目ID（不区分大小写）
+     * @param keyword 关键词，不能为空
+     * @return 匹配的项目ID
+     */
+    public synchronized Set<Long> search(String keyword) {
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return new HashSet<>(textByProject.keySet());
+        }
+
+        // 按倒排表长度从短到长求交集
+        List<Set<Long>> lists = new ArrayList<>();
+        for (Long key : queryKeys(query)) {
+            Set<Long> ids = postings.get(key);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : lists.get(0)) {
+            if (containsInAll(lists, id) && textByProject.get(id).contains(query)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取已建立索引的项目数量
+     * @return 项目数量
+     */
+    public synchronized int size() {
+        return textByProject.size();
+    }
+
+    private void add(Project project) {
+        String text = normalize(project.getName()) + FIELD_SEPARATOR + normalize(project.getRemark());
+        textByProject.put(project.getId(), text);
+        for (Long key : keys(text)) {
+            postings.computeIfAbsent(key, k -> new HashSet<>()).add(project.getId());
+        }
+    }
+
+    private static boolean containsInAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 文本的所有单字和二元组键（去重）
+     */
+    private static Set<Long> keys(String text) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == FIELD_SEPARATOR) {
+                continue;
+            }
+            keys.add(unigram(c));
+            if (i + 1 < text.length() && text.charAt(i + 1) != FIELD_SEPARATOR) {
+                keys.add(bigram(c, text.charAt(i + 1)));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 关键词的查询键：单字关键词用单字键，否则只用二元组键
+     */
+    private static Set<Long> queryKeys(String query) {
+        Set<Long> keys = new LinkedHashSet<>();
+        if (query.length() == 1) {
+            keys.add(unigram(query.charAt(0)));
+            return keys;
+        }
+        for (int i = 0; i + 1 < query.length(); i++) {
+            keys.add(bigram(query.charAt(i), query.charAt(i + 1)));
+        }
+        return keys;
+    }
+
+    private static long unigram(char c) {
+        return c;
+    }
+
+    private static long bigram(char first, char second) {
+        return BIGRAM_FLAG | ((long) first << 16) | second;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,12 +3,27 @@ package com.timelordtty.projectCalendar.service;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.dao.BatchWriteResult;
 import com.timelordtty.projectCalendar.dao.ProjectDao;
 import com.timelordtty.projectCalendar.utils.DateCalculator;
 
@@ -21,16 +36,39 @@ import javafx.collections.ObservableList;
  */
 public class ProjectService {
     
+    // 与数据库查询一致的显示顺序：按上网日期倒序，未设置上网日期的排在最后
+    private static final Comparator<Project> DISPLAY_ORDER =
+            Comparator.comparing(Project::getOnlineDate, Comparator.nullsLast(Comparator.reverseOrder()));
+    
     private static ProjectService instance;
     private ProjectDao projectDao;
     private ObservableList<Project> projects;
+    // 按ID索引的项目缓存，与projects列表保持同步
+    private final Map<Long, Project> projectIndex = new HashMap<>();
+    // 按关键日期索引的项目ID，用于日历按日/按月查询
+    private final ProjectDateIndex dateIndex = new ProjectDateIndex();
+    // 名称和备注的二元组倒排索引，用于搜索
+    private final ProjectSearchIndex searchIndex = new ProjectSearchIndex();
+    // 开标和专家评审时段的冲突索引，随缓存增量更新
+    private final ReviewConflictIndex conflictIndex = new ReviewConflictIndex();
+    // 项目变更监听器
+    private final List<Consumer<ProjectChangeEvent>> changeListeners = new CopyOnWriteArrayList<>();
+    // 写回队列，缓存先更新，数据库写入在后台线程批量执行
+    private final ProjectWriteQueue writeQueue;
+    // 新项目的ID在加入缓存时预先分配，只增不减，保证不与已有或已删除的项目冲突
+    private final AtomicLong nextProjectId = new AtomicLong(1);
+    
+    // 同步保存和关闭时等待写入完成的最长时间（秒）
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
     
     /**
-     * 私有构造函数
+     * 构造函数，应用中通过{@link #getInstance()}获取实例
+     * @param projectDao 项目数据访问对象
      */
-    private ProjectService() {
-        projectDao = new ProjectDao();
+    ProjectService(ProjectDao projectDao) {
+        this.projectDao = projectDao;
         projects = FXCollections.observableArrayList();
+        writeQueue = new ProjectWriteQueue(projectDao);
         loadProjects();
     }
     
@@ -40,7 +78,7 @@ public class ProjectService {
      */
     public static synchronized ProjectService getInstance() {
         if (instance == null) {
-            instance = new ProjectService();
+            instance = new ProjectService(new ProjectDao());
         }
         return instance;
     }
@@ -49,22 +87,147 @@ public class ProjectService {
      * 加载所有项目
      */
     private void loadProjects() {
+        applyLoadedProjects(readProjects());
+    }
+    
+    /**
+     * 从数据库读取所有项目，不修改缓存，可以在后台线程中调用
+     * @return 项目列表，读取失败时为null
+     */
+    private List<Project> readProjects() {
         try {
             AppLogger.info("加载项目数据");
-            List<Project> loadedProjects = projectDao.getAllProjects();
-            projects.clear();
+            projectDao.captureDataVersion();
+            return projectDao.getAllProjects();
+        } catch (Exception e) {
+            AppLogger.error("加载项目数据时发生异常: " + e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * 用从数据库读取的项目替换缓存并重建索引
+     * @param loadedProjects 项目列表，为null表示读取失败，缓存保持不变
+     */
+    private void applyLoadedProjects(List<Project> loadedProjects) {
+        if (loadedProjects == null) {
+            return;
+        }
+        try {
+            projectIndex.clear();
             
-            if (loadedProjects != null && !loadedProjects.isEmpty()) {
-                projects.addAll(loadedProjects);
+            if (!loadedProjects.isEmpty()) {
+                for (Project project : loadedProjects) {
+                    projectIndex.put(project.getId(), project);
+                    reserveProjectId(project.getId());
+                }
+                projects.setAll(loadedProjects);
+                dateIndex.rebuild(loadedProjects);
+                searchIndex.rebuild(loadedProjects);
+                conflictIndex.rebuild(loadedProjects);
                 AppLogger.info("成功加载 " + loadedProjects.size() + " 个项目");
             } else {
+                projects.clear();
+                dateIndex.rebuild(new ArrayList<>());
+                searchIndex.rebuild(new ArrayList<>());
+                conflictIndex.rebuild(new ArrayList<>());
                 AppLogger.info("没有找到项目数据或项目数据为空");
             }
+            
+            fireProjectChanged(ProjectChangeEvent.reloaded());
         } catch (Exception e) {
             AppLogger.error("加载项目数据时发生异常: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * 将项目放入缓存中的正确位置（新增或替换已有条目）
+     * @param project 项目
+     * @return 是否为新增项目
+     */
+    private boolean putInCache(Project project) {
+        reserveProjectId(project.getId());
+        Project cached = projectIndex.put(project.getId(), project);
+        dateIndex.update(project);
+        searchIndex.update(project);
+        conflictIndex.update(project);
+        int oldIndex = cached != null ? projects.indexOf(cached) : -1;
+        
+        // 排序位置不变时原地替换，只产生一次替换变更
+        if (oldIndex >= 0 && isInOrderAt(oldIndex, project)) {
+            projects.set(oldIndex, project);
+            return false;
+        }
+        
+        if (oldIndex >= 0) {
+            projects.remove(oldIndex);
+        }
+        int insertIndex = Collections.binarySearch(projects, project, DISPLAY_ORDER);
+        if (insertIndex < 0) {
+            insertIndex = -insertIndex - 1;
+        }
+        projects.add(insertIndex, project);
+        return cached == null;
+    }
+    
+    /**
+     * 检查项目放在指定位置时是否仍满足显示顺序
+     */
+    private boolean isInOrderAt(int index, Project project) {
+        if (index > 0 && DISPLAY_ORDER.compare(projects.get(index - 1), project) > 0) {
+            return false;
+        }
+        return index >= projects.size() - 1 || DISPLAY_ORDER.compare(project, projects.get(index + 1)) <= 0;
+    }
+    
+    /**
+     * 从缓存中移除项目
+     * @param id 项目ID
+     * @return 被移除的项目，如果不在缓存中则返回null
+     */
+    private Project removeFromCache(Long id) {
+        Project cached = projectIndex.remove(id);
+        dateIndex.remove(id);
+        searchIndex.remove(id);
+        conflictIndex.remove(id);
+        if (cached != null) {
+            projects.remove(cached);
+        }
+        return cached;
+    }
+    
+    /**
+     * 添加项目变更监听器，缓存每次增量更新后都会收到对应事件
+     * @param listener 监听器
+     */
+    public void addProjectChangeListener(Consumer<ProjectChangeEvent> listener) {
+        if (listener != null) {
+            changeListeners.add(listener);
+        }
+    }
+    
+    /**
+     * 移除项目变更监听器
+     * @param listener 监听器
+     */
+    public void removeProjectChangeListener(Consumer<ProjectChangeEvent> listener) {
+        changeListeners.remove(listener);
+    }
+    
+    /**
+     * 通知所有监听器项目已变更
+     * @param event 变更事件
+     */
+    private void fireProjectChanged(ProjectChangeEvent event) {
+        for (Consumer<ProjectChangeEvent> listener : changeListeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                AppLogger.error("处理项目变更事件时发生异常: " + event + ", " + e.getMessage(), e);
+            }
+        }
+    }
+    
     /**
      * 获取所有项目
      * @return 项目Observable列表
@@ -74,21 +237,11 @@ public class ProjectService {
     }
     
     /**
-     * 获取所有项目（列表形式）
+     * 获取所有项目（列表形式），返回缓存的快照
      * @return 项目列表
      */
     public List<Project> getAllProjects() {
-        try {
-            List<Project> allProjects = projectDao.getAllProjects();
-            if (allProjects == null || allProjects.isEmpty()) {
-                AppLogger.info("获取所有项目：数据为空");
-                return new ArrayList<>();
-            }
-            return allProjects;
-        } catch (Exception e) {
-            AppLogger.error("获取所有项目时发生异常: " + e.getMessage(), e);
-            return new ArrayList<>();
-        }
+        return new ArrayList<>(projects);
     }
     
     /**
@@ -98,7 +251,11 @@ public class ProjectService {
      */
     public Project getProjectById(Long id) {
         try {
-            return projectDao.getProjectById(id);
+            if (id == null) {
+                return null;
+            }
+            Project cached = projectIndex.get(id);
+            return cached != null ? cached : projectDao.getProjectById(id);
         } catch (Exception e) {
             AppLogger.error("根据ID获取项目时发生异常: " + e.getMessage(), e);
             return null;
@@ -106,63 +263,354 @@ public class ProjectService {
     }
     
     /**
-     * 保存项目（新增或更新）
+     * 保存项目（新增或更新），并等待写入数据库完成
+     * 在JavaFX应用线程中请使用{@link #saveProjectAsync(Project)}
      * @param project 要保存的项目
      * @return 是否成功保存
      */
     public boolean saveProject(Project project) {
+        return awaitWrite(saveProjectAsync(project), "保存项目");
+    }
+    
+    /**
+     * 删除项目，并等待写入数据库完成
+     * 在JavaFX应用线程中请使用{@link #deleteProjectAsync(Project)}
+     * @param project 要删除的项目
+     * @return 是否成功删除
+     */
+    public boolean deleteProject(Project project) {
+        return awaitWrite(deleteProjectAsync(project), "删除项目");
+    }
+    
+    /**
+     * 保存项目（新增或更新）：立即更新缓存并通知监听器，数据库写入在后台线程中进行
+     * 新项目会立即分配ID
+     * @param project 要保存的项目
+     * @return 写入数据库完成的future，失败时以SQLException异常完成
+     */
+    public CompletableFuture<Project> saveProjectAsync(Project project) {
         try {
-            boolean result;
-            
+            ProjectWriteQueue.Kind kind;
             if (project.getId() == null) {
-                // 新增项目
-                AppLogger.info("保存新项目: " + project.getName());
-                result = projectDao.insertProject(project);
+                project.setId(nextProjectId.getAndIncrement());
+                kind = ProjectWriteQueue.Kind.INSERT;
+                AppLogger.info("保存新项目: " + project.getName() + " (ID: " + project.getId() + ")");
             } else {
-                // 更新项目
+                kind = ProjectWriteQueue.Kind.UPDATE;
                 AppLogger.info("更新项目: " + project.getName() + " (ID: " + project.getId() + ")");
-                result = projectDao.updateProject(project);
             }
             
-            // 如果保存成功，刷新项目列表
-            if (result) {
-                loadProjects();
-            }
+            // 写入的是快照，之后界面再修改同一对象不会影响正在排队的写入
+            CompletableFuture<Void> written = writeQueue.enqueue(kind, copyOf(project));
             
-            return result;
+            boolean added = putInCache(project);
+            fireProjectChanged(added ? ProjectChangeEvent.added(project) : ProjectChangeEvent.updated(project));
+            
+            return written.thenApply(v -> project);
         } catch (Exception e) {
             AppLogger.error("保存项目时发生异常: " + e.getMessage(), e);
-            return false;
+            return CompletableFuture.failedFuture(e);
         }
     }
     
     /**
-     * 删除项目
+     * 删除项目：立即从缓存中移除并通知监听器，数据库写入在后台线程中进行
      * @param project 要删除的项目
-     * @return 是否成功删除
+     * @return 写入数据库完成的future，失败时以SQLException异常完成
      */
-    public boolean deleteProject(Project project) {
+    public CompletableFuture<Project> deleteProjectAsync(Project project) {
         try {
             if (project == null || project.getId() == null) {
                 AppLogger.error("无法删除项目：项目为空或ID为空");
-                return false;
+                return CompletableFuture.failedFuture(new IllegalArgumentException("项目为空或ID为空"));
             }
             
             AppLogger.info("删除项目: " + project.getName() + " (ID: " + project.getId() + ")");
-            boolean result = projectDao.deleteProject(project.getId());
+            CompletableFuture<Void> written = writeQueue.enqueue(ProjectWriteQueue.Kind.DELETE, copyOf(project));
             
-            // 如果删除成功，刷新项目列表
-            if (result) {
-                loadProjects();
-            }
+            Project removed = removeFromCache(project.getId());
+            fireProjectChanged(ProjectChangeEvent.removed(removed != null ? removed : project));
             
-            return result;
+            return written.thenApply(v -> project);
         } catch (Exception e) {
             AppLogger.error("删除项目时发生异常: " + e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * 立即写入所有排队的项目修改并等待完成
+     * @return 是否全部写入
+     */
+    public boolean flushPendingWrites() {
+        return writeQueue.flush(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * 应用关闭时调用：写入所有排队的项目修改并停止后台写入线程
+     * 服务尚未创建时不做任何事
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            AppLogger.info("关闭项目服务，写入排队的项目修改");
+            instance.writeQueue.shutdown(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * 等待写入完成，失败时从数据库重新加载缓存，使缓存与数据库一致
+     */
+    private boolean awaitWrite(CompletableFuture<Project> future, String operation) {
+        try {
+            flushPendingWrites();
+            future.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            AppLogger.error(operation + "时发生异常: " + cause.getMessage(), cause);
+            loadProjects();
             return false;
         }
     }
     
+    /**
+     * 分配的ID不小于已有项目的ID
+     */
+    private void reserveProjectId(Long id) {
+        if (id != null) {
+            nextProjectId.accumulateAndGet(id + 1, Math::max);
+        }
+    }
+    
+    /**
+     * 复制项目，用作排队写入的快照
+     */
+    private static Project copyOf(Project project) {
+        Project copy = new Project(project.getName(), project.getReviewPeriod(), project.getOnlineDate(),
+                project.getRegistrationPeriod(), project.getRegistrationEndDate(), project.getEarliestReviewDate(),
+                project.getExpectedReviewTime(), project.getExpertReviewTime(), project.getRemark());
+        copy.setId(project.getId());
+        return copy;
+    }
+    
+    /**
+     * 批量保存项目（新增或更新），数据库写入在一个事务中批处理执行
+     * 缓存每批只重排一次，监听器只收到一个BATCH事件
+     * @param projectsToSave 要保存的项目
+     * @return 按输入顺序的批量写入结果，包含新增项目生成的ID和失败原因
+     */
+    public BatchWriteResult saveProjects(List<Project> projectsToSave) {
+        BatchWriteResult result = new BatchWriteResult(projectsToSave.size());
+        try {
+            // 先写入排队的修改，保证写入顺序
+            flushPendingWrites();
+            
+            List<Integer> insertRows = new ArrayList<>();
+            List<Integer> updateRows = new ArrayList<>();
+            for (int i = 0; i < projectsToSave.size(); i++) {
+                Project project = projectsToSave.get(i);
+                if (project.getId() == null) {
+                    project.setId(nextProjectId.getAndIncrement());
+                    insertRows.add(i);
+                } else {
+                    updateRows.add(i);
+                }
+            }
+            
+            AppLogger.info("批量保存项目: 新增 " + insertRows.size() + " 个，更新 " + updateRows.size() + " 个");
+            BatchWriteResult inserted = projectDao.insertProjectsWithIds(pick(projectsToSave, insertRows));
+            BatchWriteResult updated = projectDao.updateProjects(pick(projectsToSave, updateRows));
+            result.merge(inserted, insertRows);
+            result.merge(updated, updateRows);
+            
+            // 插入失败的项目恢复为未保存状态
+            for (int i = 0; i < inserted.size(); i++) {
+                if (!inserted.isSucceeded(i)) {
+                    projectsToSave.get(insertRows.get(i)).setId(null);
+                }
+            }
+            
+            List<Project> changed = new ArrayList<>();
+            for (int i = 0; i < projectsToSave.size(); i++) {
+                if (result.isSucceeded(i)) {
+                    Project project = projectsToSave.get(i);
+                    projectIndex.put(project.getId(), project);
+                    dateIndex.update(project);
+                    searchIndex.update(project);
+                    conflictIndex.update(project);
+                    changed.add(project);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                resortCache();
+                fireProjectChanged(ProjectChangeEvent.batch(changed, Collections.emptyList()));
+            }
+        } catch (Exception e) {
+            AppLogger.error("批量保存项目时发生异常: " + e.getMessage(), e);
+        }
+        return result;
+    }
+    
+    /**
+     * 批量删除项目，数据库删除在一个事务中批处理执行
+     * 缓存每批只更新一次，监听器只收到一个BATCH事件
+     * @param projectsToDelete 要删除的项目
+     * @return 按输入顺序的批量写入结果
+     */
+    public BatchWriteResult deleteProjects(List<Project> projectsToDelete) {
+        BatchWriteResult result = new BatchWriteResult(projectsToDelete.size());
+        try {
+            // 先写入排队的修改，保证写入顺序
+            flushPendingWrites();
+            
+            List<Integer> rows = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < projectsToDelete.size(); i++) {
+                Project project = projectsToDelete.get(i);
+                if (project == null || project.getId() == null) {
+                    result.markFailed(i, "项目为空或ID为空");
+                } else {
+                    rows.add(i);
+                    ids.add(project.getId());
+                }
+            }
+            
+            AppLogger.info("批量删除项目: " + ids.size() + " 个");
+            result.merge(projectDao.deleteProjects(ids), rows);
+            
+            List<Project> removed = new ArrayList<>();
+            for (int i = 0; i < projectsToDelete.size(); i++) {
+                if (result.isSucceeded(i)) {
+                    Project project = projectsToDelete.get(i);
+                    Project cached = projectIndex.remove(project.getId());
+                    dateIndex.remove(project.getId());
+                    searchIndex.remove(project.getId());
+                    conflictIndex.remove(project.getId());
+                    removed.add(cached != null ? cached : project);
+                }
+            }
+            
+            if (!removed.isEmpty()) {
+                projects.removeAll(removed);
+                fireProjectChanged(ProjectChangeEvent.batch(Collections.emptyList(), removed));
+            }
+        } catch (Exception e) {
+            AppLogger.error("批量删除项目时发生异常: " + e.getMessage(), e);
+        }
+        return result;
+    }
+    
+    /**
+     * 在后台重新计算项目的报名截止日期和最早评审日期（如节假日数据变化后），不阻塞界面线程
+     * 项目快照在调用线程中复制，计算在后台线程中进行；结果在applyExecutor中写入缓存并放入写回队列，
+     * 监听器只收到一个BATCH事件。计算期间上网日期、报名期限或评审周期被修改过的项目不覆盖，
+     * 它们保存时已按新的输入计算。后台写入失败时从数据库重新加载缓存。
+     * 应在JavaFX应用线程中调用
+     * @param targets 要重新计算的项目，未保存（ID为空）的项目会被忽略
+     * @param applyExecutor 写入缓存的线程，通常为JavaFX应用线程
+     * @return 日期有变化并已更新缓存的项目
+     */
+    public CompletableFuture<List<Project>> recalculateProjectDatesAsync(List<Project> targets, Executor applyExecutor) {
+        long start = System.nanoTime();
+        List<Project> snapshots = new ArrayList<>(targets.size());
+        for (Project project : targets) {
+            if (project != null && project.getId() != null) {
+                snapshots.add(copyOf(project));
+            }
+        }
+        
+        return CompletableFuture.supplyAsync(() -> {
+            // 计算结果只写入快照，缓存中的项目在applyExecutor中修改
+            List<ProjectDateRecalculator.DerivedDates> changed =
+                    ProjectDateRecalculator.changedOnly(ProjectDateRecalculator.derive(snapshots));
+            changed.forEach(ProjectDateRecalculator.DerivedDates::apply);
+            return changed;
+        }).thenApplyAsync(changed -> {
+            List<Project> updated = applyRecalculatedDates(changed, applyExecutor);
+            AppLogger.info("重新计算项目日期: 共 " + snapshots.size() + " 个，变化 " + changed.size()
+                    + " 个，更新 " + updated.size() + " 个，耗时 " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return updated;
+        }, applyExecutor);
+    }
+    
+    /**
+     * 在后台重新计算所有项目的派生日期，应在JavaFX应用线程中调用
+     * @param applyExecutor 写入缓存的线程，通常为JavaFX应用线程
+     * @return 日期有变化并已更新缓存的项目
+     * @see #recalculateProjectDatesAsync(List, Executor)
+     */
+    public CompletableFuture<List<Project>> recalculateAllProjectDatesAsync(Executor applyExecutor) {
+        return recalculateProjectDatesAsync(new ArrayList<>(projectIndex.values()), applyExecutor);
+    }
+    
+    /**
+     * 把重新计算的日期写入缓存中的项目，并放入写回队列
+     * @param changed 基于快照的计算结果
+     * @param applyExecutor 写入失败后重新加载时替换缓存的线程
+     * @return 已更新的项目
+     */
+    private List<Project> applyRecalculatedDates(List<ProjectDateRecalculator.DerivedDates> changed, Executor applyExecutor) {
+        List<Project> updated = new ArrayList<>(changed.size());
+        List<CompletableFuture<Void>> writes = new ArrayList<>(changed.size());
+        for (ProjectDateRecalculator.DerivedDates dates : changed) {
+            Project snapshot = dates.getProject();
+            Project cached = projectIndex.get(snapshot.getId());
+            if (cached == null || !hasSameDateInputs(cached, snapshot)) {
+                continue;
+            }
+            
+            cached.setRegistrationEndDate(dates.getRegistrationEndDate());
+            cached.setEarliestReviewDate(dates.getEarliestReviewDate());
+            writes.add(writeQueue.enqueue(ProjectWriteQueue.Kind.UPDATE, copyOf(cached)));
+            // 派生日期不影响显示顺序，不需要重新排序；索引与批量保存一样全部更新，保持与缓存一致
+            dateIndex.update(cached);
+            searchIndex.update(cached);
+            conflictIndex.update(cached);
+            updated.add(cached);
+        }
+        
+        if (!updated.isEmpty()) {
+            fireProjectChanged(ProjectChangeEvent.batch(updated, Collections.emptyList()));
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).whenComplete((v, error) -> {
+                if (error != null) {
+                    AppLogger.error("保存重新计算的项目日期失败，重新加载项目数据: " + error.getMessage(), error);
+                    refreshProjectsAsync(applyExecutor);
+                }
+            });
+        }
+        return updated;
+    }
+    
+    /**
+     * 两个项目计算派生日期的输入是否相同
+     */
+    private static boolean hasSameDateInputs(Project a, Project b) {
+        return Objects.equals(a.getOnlineDate(), b.getOnlineDate())
+            && a.getRegistrationPeriod() == b.getRegistrationPeriod()
+            && a.getReviewPeriod() == b.getReviewPeriod();
+    }
+    
+    /**
+     * 按行号取出子列表
+     */
+    private static List<Project> pick(List<Project> source, List<Integer> rows) {
+        List<Project> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            result.add(source.get(row));
+        }
+        return result;
+    }
+    
+    /**
+     * 按ID索引重建有序的项目列表，只触发一次列表变更
+     */
+    private void resortCache() {
+        List<Project> sorted = new ArrayList<>(projectIndex.values());
+        sorted.sort(DISPLAY_ORDER);
+        projects.setAll(sorted);
+    }
+    
     /**
      * 搜索项目
      * @param keyword 搜索关键词
@@ -174,19 +622,31 @@ public class ProjectService {
                 return new ArrayList<>(projects);
             }
             
-            String lowerKeyword = keyword.toLowerCase();
-            
-            return projects.stream()
-                .filter(project -> project.getName().toLowerCase().contains(lowerKeyword) || 
-                                 (project.getRemark() != null && 
-                                 project.getRemark().toLowerCase().contains(lowerKeyword)))
-                .collect(Collectors.toList());
+            Set<Long> ids = findMatchingProjectIds(keyword);
+            List<Project> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Project project = projectIndex.get(id);
+                if (project != null) {
+                    result.add(project);
+                }
+            }
+            result.sort(DISPLAY_ORDER);
+            return result;
         } catch (Exception e) {
             AppLogger.error("搜索项目时发生异常: " + e.getMessage(), e);
             return new ArrayList<>();
         }
     }
     
+    /**
+     * 查找名称或备注包含关键词的项目ID（不区分大小写），使用倒排索引，不遍历所有项目
+     * @param keyword 搜索关键词，为空时返回所有项目ID
+     * @return 匹配的项目ID
+     */
+    public Set<Long> findMatchingProjectIds(String keyword) {
+        return searchIndex.search(keyword == null ? "" : keyword);
+    }
+    
     /**
      * 获取指定日期的所有项目
      * @param date 日期
@@ -198,25 +658,7 @@ public class ProjectService {
                 return new ArrayList<>();
             }
             
-            return projects.stream()
-                .filter(project -> {
-                    // 检查该日期是否是项目的任何关键日期
-                    boolean isOnlineDate = project.getOnlineDate() != null && date.equals(project.getOnlineDate());
-                    boolean isRegistrationEndDate = project.getRegistrationEndDate() != null && date.equals(project.getRegistrationEndDate());
-                    boolean isEarliestReviewDate = project.getEarliestReviewDate() != null && date.equals(project.getEarliestReviewDate());
-                    
-                    // 检查专家评审时间
-                    boolean isExpertReviewDate = project.getExpertReviewTime() != null && 
-                                                date.equals(project.getExpertReviewTime().toLocalDate());
-                    
-                    // 检查开标时间
-                    boolean isExpectedReviewDate = project.getExpectedReviewTime() != null && 
-                                                 date.equals(project.getExpectedReviewTime().toLocalDate());
-                    
-                    return isOnlineDate || isRegistrationEndDate || isEarliestReviewDate || 
-                           isExpertReviewDate || isExpectedReviewDate;
-                })
-                .collect(Collectors.toList());
+            return resolveProjects(dateIndex.getProjectIds(date));
         } catch (Exception e) {
             AppLogger.error("获取指定日期的项目时发生异常: " + e.getMessage(), e);
             return new ArrayList<>();
@@ -224,81 +666,75 @@ public class ProjectService {
     }
     
     /**
-     * 获取本周和下周需要提醒的项目
-     * @return 需要提醒的项目列表
+     * 一次性获取日期范围内每天的项目（如整个月视图），只包含有项目的日期
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 按日期排序的日期到项目列表的映射
      */
-    public List<Project> getThisWeekAndNextWeekProjects() {
+    public Map<LocalDate, List<Project>> getProjectsByDateRange(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, List<Project>> result = new LinkedHashMap<>();
         try {
-            LocalDate today = LocalDate.now();
-            LocalDate startOfWeek = today.minusDays(today.getDayOfWeek().getValue() - 1);
-            LocalDate endOfWeek = startOfWeek.plusDays(6);
-            LocalDate startOfNextWeek = endOfWeek.plusDays(1);
-            LocalDate endOfNextWeek = startOfNextWeek.plusDays(6);
-            
-            // 根据今天是星期几，决定要获取的日期范围
-            LocalDate startDate = today; // 从今天开始
-            LocalDate endDate;
-            
-            DayOfWeek dayOfWeek = today.getDayOfWeek();
-            if (dayOfWeek == DayOfWeek.FRIDAY || dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
-                // 如果今天是周五、周六或周日，提醒到下周末
-                endDate = endOfNextWeek;
-            } else {
-                // 如果是周一到周四，只提醒到本周末
-                endDate = endOfWeek;
+            if (startDate == null || endDate == null) {
+                return result;
             }
             
-            // 筛选项目：只有报名截止日期、开标时间和专家评审时间在范围内的项目
-            return projects.stream()
-                .filter(project -> {
-                    // 检查项目的报名截止日期是否在范围内
-                    boolean isRegistrationEndDateInRange = project.getRegistrationEndDate() != null && 
-                                                         !project.getRegistrationEndDate().isBefore(startDate) && 
-                                                         !project.getRegistrationEndDate().isAfter(endDate);
-                    
-                    // 检查项目的专家评审时间是否在范围内
-                    boolean isExpertReviewDateInRange = project.getExpertReviewTime() != null && 
-                                                       !project.getExpertReviewTime().toLocalDate().isBefore(startDate) && 
-                                                       !project.getExpertReviewTime().toLocalDate().isAfter(endDate);
-                    
-                    // 检查项目的开标时间是否在范围内
-                    boolean isExpectedReviewDateInRange = project.getExpectedReviewDate() != null && 
-                                                         !project.getExpectedReviewDate().isBefore(startDate) && 
-                                                         !project.getExpectedReviewDate().isAfter(endDate);
-                    
-                    // 只返回这三种日期类型在范围内的项目
-                    return isRegistrationEndDateInRange || isExpertReviewDateInRange || isExpectedReviewDateInRange;
-                })
-                .sorted(Comparator.comparing(p -> {
-                    // 首先按照最近的关键日期排序（报名截止日期、专家评审时间、开标时间）
-                    LocalDate date1 = p.getRegistrationEndDate();
-                    LocalDate date2 = p.getExpertReviewTime() != null ? p.getExpertReviewTime().toLocalDate() : null;
-                    LocalDate date3 = p.getExpectedReviewDate();
-                    
-                    LocalDate earliestDate = null;
-                    
-                    // 找出最早的有效日期（仅考虑这三种日期类型）
-                    if (date1 != null && !date1.isBefore(startDate) && !date1.isAfter(endDate)) {
-                        earliestDate = date1;
-                    }
-                    
-                    if (date2 != null && !date2.isBefore(startDate) && !date2.isAfter(endDate) && 
-                        (earliestDate == null || date2.isBefore(earliestDate))) {
-                        earliestDate = date2;
-                    }
-                    
-                    if (date3 != null && !date3.isBefore(startDate) && !date3.isAfter(endDate) && 
-                        (earliestDate == null || date3.isBefore(earliestDate))) {
-                        earliestDate = date3;
-                    }
-                    
-                    return earliestDate != null ? earliestDate : LocalDate.MAX;
-                }))
-                .collect(Collectors.toList());
+            for (Map.Entry<LocalDate, List<Long>> entry : dateIndex.getProjectIdsInRange(startDate, endDate).entrySet()) {
+                List<Project> dayProjects = resolveProjects(entry.getValue());
+                if (!dayProjects.isEmpty()) {
+                    result.put(entry.getKey(), dayProjects);
+                }
+            }
         } catch (Exception e) {
-            AppLogger.error("获取提醒项目时发生异常: " + e.getMessage(), e);
+            AppLogger.error("获取日期范围内每天的项目时发生异常: " + e.getMessage(), e);
+        }
+        return result;
+    }
+    
+    /**
+     * 获取所有开标和专家评审时段的冲突（重叠或间隔太近），按开始时间排序
+     * @return 冲突列表
+     */
+    public List<ReviewConflict> getReviewConflicts() {
+        return conflictIndex.getConflicts();
+    }
+    
+    /**
+     * 获取涉及指定项目的评审时间冲突
+     * @param project 项目
+     * @return 冲突列表
+     */
+    public List<ReviewConflict> getReviewConflicts(Project project) {
+        if (project == null || project.getId() == null) {
+            return new ArrayList<>();
+        }
+        return conflictIndex.getConflicts(project.getId());
+    }
+    
+    /**
+     * 获取有评审时段落在日期范围内的冲突
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 按开始时间排序的冲突列表
+     */
+    public List<ReviewConflict> getReviewConflictsInRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
             return new ArrayList<>();
         }
+        return conflictIndex.getConflictsInRange(startDate, endDate);
+    }
+    
+    /**
+     * 将项目ID转换为缓存中的项目对象
+     */
+    private List<Project> resolveProjects(List<Long> ids) {
+        List<Project> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Project project = projectIndex.get(id);
+            if (project != null) {
+                result.add(project);
+            }
+        }
+        return result;
     }
     
     /**
@@ -433,12 +869,96 @@ public class ProjectService {
     }
     
     /**
-     * 刷新项目数据
+     * 刷新项目数据（从数据库全量重新加载）
      */
     public void refreshProjects() {
+        // 先写入排队的修改，避免重新加载时丢失
+        flushPendingWrites();
         loadProjects();
     }
     
+    /**
+     * 在后台线程中写入排队的修改并从数据库读取所有项目，然后在applyExecutor中替换缓存
+     * 等待写入和读取数据库都不占用界面线程
+     * @param applyExecutor 替换缓存的线程，通常为JavaFX应用线程
+     * @return 缓存替换完成的future
+     */
+    public CompletableFuture<Void> refreshProjectsAsync(Executor applyExecutor) {
+        return CompletableFuture.supplyAsync(() -> {
+            flushPendingWrites();
+            return readProjects();
+        }).thenAcceptAsync(this::applyLoadedProjects, applyExecutor);
+    }
+    
+    /**
+     * 监视saveProjectAsync或deleteProjectAsync的写入结果
+     * 写入失败时在后台从数据库重新加载，使缓存与数据库一致，然后在applyExecutor中调用onFailure（如提示用户、刷新视图）
+     * @param future 写入完成的future
+     * @param operation 操作名称，用于日志
+     * @param applyExecutor 替换缓存和调用onFailure的线程，通常为JavaFX应用线程
+     * @param onFailure 缓存恢复后调用，参数为失败原因
+     */
+    public void watchWrite(CompletableFuture<Project> future, String operation, Executor applyExecutor,
+                           Consumer<Throwable> onFailure) {
+        future.whenComplete((project, error) -> {
+            if (error == null) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            AppLogger.error(operation + "失败: " + cause.getMessage(), cause);
+            refreshProjectsAsync(applyExecutor).whenCompleteAsync((v, reloadError) -> onFailure.accept(cause), applyExecutor);
+        });
+    }
+    
+    /**
+     * 检测数据库是否被外部修改（如另一个程序实例），只有检测到变化时才重新加载
+     * 行数/最大ID与缓存比较，外部的修改以及行数和最大ID不变的删除加插入由行版本号检测
+     * @return 是否重新加载了数据
+     */
+    public boolean refreshIfChanged() {
+        try {
+            // 有排队的修改时数据库落后于缓存，以缓存为准
+            if (writeQueue.hasPendingWrites()) {
+                return false;
+            }
+            
+            long maxId = 0;
+            for (Long id : projectIndex.keySet()) {
+                maxId = Math.max(maxId, id);
+            }
+            String cacheFingerprint = projectIndex.size() + "/" + maxId;
+            String dbFingerprint = projectDao.getTableFingerprint();
+            
+            if (dbFingerprint != null && !dbFingerprint.equals(cacheFingerprint)) {
+                AppLogger.info("检测到项目数据已被外部修改 (" + cacheFingerprint + " -> " + dbFingerprint + ")，重新加载");
+                loadProjects();
+                return true;
+            }
+            if (projectDao.isModifiedExternally()) {
+                AppLogger.info("检测到项目数据已被外部修改（行版本号变化），重新加载");
+                loadProjects();
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            AppLogger.error("检测项目数据变化时发生异常: " + e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * 判断报名截止日期、开标时间或专家评审时间是否落在日期范围内
+     */
+    private static boolean hasKeyDateInRange(Project project, LocalDate startDate, LocalDate endDate) {
+        for (LocalDate date : new LocalDate[] {
+                project.getRegistrationEndDate(), project.getExpectedReviewDate(), project.getExpertReviewDate()}) {
+            if (date != null && !date.isBefore(startDate) && !date.isAfter(endDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * 获取指定日期范围内有关键日期的项目
      * @param startDate 开始日期
@@ -447,41 +967,20 @@ public class ProjectService {
      */
     public List<Project> getProjectsWithDatesInRange(LocalDate startDate, LocalDate endDate) {
         try {
-            List<Project> allProjects = getAllProjects();
-            List<Project> projectsInRange = new ArrayList<>();
+            if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+                return new ArrayList<>();
+            }
             
-            for (Project project : allProjects) {
-                // 检查项目的各个关键日期是否在指定范围内
-                boolean isInRange = false;
-                
-                // 检查报名截止日期
-                if (project.getRegistrationEndDate() != null) {
-                    if (!project.getRegistrationEndDate().isBefore(startDate) && 
-                        !project.getRegistrationEndDate().isAfter(endDate)) {
-                        isInRange = true;
-                    }
-                }
-                
-                // 检查开标时间
-                if (!isInRange && project.getExpectedReviewTime() != null) {
-                    LocalDate expReviewDate = project.getExpectedReviewTime().toLocalDate();
-                    if (!expReviewDate.isBefore(startDate) && 
-                        !expReviewDate.isAfter(endDate)) {
-                        isInRange = true;
-                    }
-                }
-                
-                // 检查专家评审时间
-                if (!isInRange && project.getExpertReviewTime() != null) {
-                    LocalDate expertReviewDate = project.getExpertReviewTime().toLocalDate();
-                    if (!expertReviewDate.isBefore(startDate) && 
-                        !expertReviewDate.isAfter(endDate)) {
-                        isInRange = true;
-                    }
-                }
-                
-                // 如果有任一关键日期在范围内，添加到结果列表
-                if (isInRange) {
+            // 在数据库中按索引筛选出匹配的项目ID，再从缓存中取出项目对象
+            Set<Long> ids = new LinkedHashSet<>(projectDao.findProjectIdsWithKeyDatesInRange(startDate, endDate));
+            Set<Long> pendingIds = writeQueue.getPendingIds();
+            ids.addAll(pendingIds);
+            
+            List<Project> projectsInRange = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Project project = pendingIds.contains(id) ? projectIndex.get(id) : getProjectById(id);
+                // 尚未写入数据库的项目以缓存为准重新判断
+                if (project != null && (!pendingIds.contains(id) || hasKeyDateInRange(project, startDate, endDate))) {
                     projectsInRange.add(project);
                 }
             }
@@ -492,4 +991,4 @@ public class ProjectService {
             return new ArrayList<>();
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.timelordtty.AppLogger;
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.dao.BatchWriteResult;
+import com.timelordtty.projectCalendar.dao.ProjectDao;
+
+/**
+ * 项目写回队列（write-behind）
+ *
+ * ProjectService先更新内存缓存，再把写操作放入本队列，由单独的后台线程批量写入数据库，
+ * 不阻塞JavaFX应用线程。同一项目ID在写入前的多次修改会合并为一次写入
+ * （新增后修改仍为新增，新增后删除则完全不写数据库）。每个写操作都返回一个future，
+ * 写入成功时正常完成，失败时以SQLException异常完成。
+ */
+class ProjectWriteQueue {
+
+    // 第一次修改后延迟写入的时间，把连续的修改合并到同一批
+    private static final long FLUSH_DELAY_MILLIS = 200;
+
+    /**
+     * 写操作类型
+     */
+    enum Kind {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * 尚未写入的操作，合并后的所有future在写入完成时一起完成
+     */
+    private static final class PendingWrite {
+        private Kind kind;
+        private Project snapshot;
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        private PendingWrite(Kind kind, Project snapshot) {
+            this.kind = kind;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final ProjectDao projectDao;
+    private final ScheduledExecutorService executor;
+    // 项目ID -> 尚未写入的操作，按第一次修改的顺序
+    private final Map<Long, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    // 正在写入数据库的项目ID
+    private final Set<Long> writingIds = new HashSet<>();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    /**
+     * 构造函数
+     * @param projectDao 项目数据访问对象
+     */
+    ProjectWriteQueue(ProjectDao projectDao) {
+        this.projectDao = projectDao;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "project-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 加入一个写操作
+     * @param kind 操作类型
+     * @param snapshot 项目快照（调用方不能再修改），ID不能为空
+     * @return 写入完成的future
+     */
+    CompletableFuture<Void> enqueue(Kind kind, Project snapshot) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        List<CompletableFuture<Void>> cancelled = null;
+
+        synchronized (this) {
+            if (closed) {
+                future.completeExceptionally(new SQLException("写入队列已关闭"));
+                return future;
+            }
+
+            Long id = snapshot.getId();
+            PendingWrite pending = pendingWrites.get(id);
+            if (pending == null) {
+                pending = new PendingWrite(kind, snapshot);
+                pendingWrites.put(id, pending);
+            } else if (pending.kind == Kind.INSERT && kind == Kind.DELETE) {
+                // 新增后又删除，数据库中从未出现过，直接丢弃
+                pendingWrites.remove(id);
+                cancelled = pending.futures;
+            } else {
+                // 新增后的修改仍为新增；删除后又保存（数据库中的行尚未删除）则为更新
+                pending.kind = pending.kind == Kind.INSERT ? Kind.INSERT
+                             : kind == Kind.DELETE ? Kind.DELETE : Kind.UPDATE;
+                pending.snapshot = snapshot;
+            }
+
+            if (cancelled == null) {
+                pending.futures.add(future);
+                scheduleFlush();
+            }
+        }
+
+        if (cancelled != null) {
+            cancelled.forEach(f -> f.complete(null));
+            future.complete(null);
+        }
+        return future;
+    }
+
+    /**
+     * 是否有尚未写入或正在写入数据库的操作
+     * @return 是否有待写入操作
+     */
+    synchronized boolean hasPendingWrites() {
+        return !pendingWrites.isEmpty() || !writingIds.isEmpty();
+    }
+
+    /**
+     * 获取尚未写入或正在写入数据库的项目ID
+     * @return 项目ID集合
+     */
+    synchronized Set<Long> getPendingIds() {
+        Set<Long> ids = new HashSet<>(pendingWrites.keySet());
+        ids.addAll(writingIds);
+        return ids;
+    }
+
+    /**
+     * 立即写入所有待写入的操作并等待完成，包括正在执行的一批
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 是否在超时前全部写入
+     */
+    boolean flush(long timeout, TimeUnit unit) {
+        try {
+            executor.submit(this::flushNow).get(timeout, unit);
+            return !hasPendingWrites();
+        } catch (Exception e) {
+            AppLogger.error("等待项目写入完成时发生异常: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 写入所有待写入的操作后关闭后台线程，之后加入的操作会直接失败
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 是否在超时前全部写入
+     */
+    boolean shutdown(long timeout, TimeUnit unit) {
+        synchronized (this) {
+            if (closed) {
+                return pendingWrites.isEmpty();
+            }
+            closed = true;
+        }
+        boolean flushed = flush(timeout, unit);
+        executor.shutdown();
+        if (!flushed) {
+            AppLogger.error("关闭时仍有项目修改未能写入数据库");
+        }
+        return flushed;
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flushNow, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 在后台线程中取出所有待写入的操作，按新增、更新、删除分三批写入
+     * 不同批次的项目ID互不相同，写入顺序不影响结果
+     */
+    private void flushNow() {
+        List<PendingWrite> inserts = new ArrayList<>();
+        List<PendingWrite> updates = new ArrayList<>();
+        List<PendingWrite> deletes = new ArrayList<>();
+
+        synchronized (this) {
+            flushScheduled = false;
+            for (PendingWrite pending : pendingWrites.values()) {
+                (pending.kind == Kind.INSERT ? inserts : pending.kind == Kind.UPDATE ? updates : deletes).add(pending);
+            }
+            writingIds.addAll(pendingWrites.keySet());
+            pendingWrites.clear();
+        }
+
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+
+        try {
+            AppLogger.info("写入项目修改: 新增 " + inserts.size() + " 个，更新 " + updates.size() + " 个，删除 " + deletes.size() + " 个");
+            write(inserts, projectDao::insertProjectsWithIds);
+            write(updates, projectDao::updateProjects);
+            write(deletes, projects -> {
+                List<Long> ids = new ArrayList<>(projects.size());
+                for (Project project : projects) {
+                    ids.add(project.getId());
+                }
+                return projectDao.deleteProjects(ids);
+            });
+        } finally {
+            synchronized (this) {
+                writingIds.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> writes, Function<List<Project>, BatchWriteResult> operation) {
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        List<Project> snapshots = new ArrayList<>(writes.size());
+        for (PendingWrite pending : writes) {
+            snapshots.add(pending.snapshot);
+        }
+
+        BatchWriteResult result;
+        try {
+            result = operation.apply(snapshots);
+        } catch (RuntimeException e) {
+            AppLogger.error("写入项目修改时发生异常: " + e.getMessage(), e);
+            result = new BatchWriteResult(writes.size());
+            for (int i = 0; i < writes.size(); i++) {
+                result.markFailed(i, e.getMessage());
+            }
+        }
+
+        for (int i = 0; i < writes.size(); i++) {
+            PendingWrite pending = writes.get(i);
+            if (result.isSucceeded(i)) {
+                pending.futures.forEach(f -> f.complete(null));
+            } else {
+                String reason = result.getFailures().get(i);
+                AppLogger.error("项目修改写入失败: " + pending.snapshot.getName() + " (ID: " + pending.snapshot.getId() + "), " + reason);
+                SQLException error = new SQLException(reason);
+                pending.futures.forEach(f -> f.completeExceptionally(error));
+            }
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.timelordtty.AppLogger;
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 提醒引擎
+ *
+ * 所有定时任务共用一个调度线程。今天及以后的报名截止、开标和专家评审提醒按提醒时间放在有序集合中，
+ * 随项目变更事件增量增删；只为最早一个未触发的提醒安排一次唤醒，到点时准时通知监听器，不需要轮询。
+ * 每天0点移除已过去的提醒，并推送新的提醒范围内的项目。
+ * 提醒范围：周一到周四为今天到本周日，周五到周日为今天到下周日。
+ * 监听器可能在调度线程或界面线程中调用，界面需要自行切换到界面线程。
+ */
+public class ReminderEngine {
+
+    // 系统属性：开标和专家评审提前提醒的分钟数
+    static final String LEAD_MINUTES_PROPERTY = "reminder.lead.minutes";
+    // 系统属性：报名截止当天提醒的钟点
+    static final String DAY_HOUR_PROPERTY = "reminder.day.hour";
+    private static final int DEFAULT_LEAD_MINUTES = 30;
+    private static final int DEFAULT_DAY_HOUR = 9;
+
+    private static ReminderEngine instance;
+
+    private final ProjectService projectService;
+    private final ScheduledThreadPoolExecutor executor;
+    private final int leadMinutes;
+    private final int dayHour;
+
+    // 关键日期不早于今天的提醒，按提醒时间排序
+    private final NavigableSet<ReminderEvent> events = new TreeSet<>(ReminderEvent.ORDER);
+    // 项目ID -> 该项目的提醒
+    private final Map<Long, List<ReminderEvent>> eventsByProject = new HashMap<>();
+    private final List<Consumer<ReminderEvent>> reminderListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<Project>>> upcomingListeners = new CopyOnWriteArrayList<>();
+
+    // 提醒时间不晚于该时间的提醒都已触发（或在启动前就已过去）
+    private LocalDateTime firedUpTo;
+    private LocalDate today;
+    private ScheduledFuture<?> nextFire;
+    private LocalDateTime nextFireTime;
+    private boolean closed;
+
+    /**
+     * 构造函数，从项目服务加载提醒并注册项目变更监听器，应用中通过{@link #getInstance()}获取实例
+     * @param projectService 项目服务
+     */
+    ReminderEngine(ProjectService projectService) {
+        this.projectService = projectService;
+        this.leadMinutes = Math.max(0, Integer.getInteger(LEAD_MINUTES_PROPERTY, DEFAULT_LEAD_MINUTES));
+        this.dayHour = Math.max(0, Math.min(23, Integer.getInteger(DAY_HOUR_PROPERTY, DEFAULT_DAY_HOUR)));
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+
+        synchronized (this) {
+            firedUpTo = LocalDateTime.now();
+            today = firedUpTo.toLocalDate();
+            rebuild(projectService.getAllProjects());
+        }
+        projectService.addProjectChangeListener(this::onProjectChanged);
+        scheduleDayRollover();
+    }
+
+    /**
+     * 获取单例实例，第一次调用需在界面线程（项目缓存只在界面线程访问）
+     * @return 提醒引擎
+     */
+    public static synchronized ReminderEngine getInstance() {
+        if (instance == null) {
+            instance = new ReminderEngine(ProjectService.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * 应用关闭时调用：取消所有定时任务并停止调度线程，引擎尚未创建时不做任何事
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            AppLogger.info("关闭提醒引擎");
+            instance.close();
+        }
+    }
+
+    /**
+     * 取消所有定时任务并停止调度线程
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * 添加到点提醒监听器
+     * @param listener 监听器
+     */
+    public void addReminderListener(Consumer<ReminderEvent> listener) {
+        if (listener != null) {
+            reminderListeners.add(listener);
+        }
+    }
+
+    /**
+     * 添加提醒范围内项目变化的监听器，项目变更或跨天后收到新的项目列表
+     * @param listener 监听器
+     */
+    public void addUpcomingListener(Consumer<List<Project>> listener) {
+        if (listener != null) {
+            upcomingListeners.add(listener);
+        }
+    }
+
+    /**
+     * 获取提醒范围内有报名截止、开标或专家评审的项目，按最近的关键日期排序
+     * @return 项目列表
+     */
+    public synchronized List<Project> getUpcomingProjects() {
+        LocalDate endDate = getWindowEnd(today);
+        Set<Project> result = new LinkedHashSet<>();
+        for (ReminderEvent event : events.subSet(
+                ReminderEvent.before(today.atStartOfDay().minusMinutes(leadMinutes)), true,
+                ReminderEvent.before(endDate.plusDays(1).atStartOfDay()), false)) {
+            if (isInWindow(event, endDate)) {
+                result.add(event.getProject());
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * 提醒范围的最后一天：周五到周日提醒到下周日，否则到本周日
+     * @param date 今天
+     * @return 最后一天
+     */
+    public static LocalDate getWindowEnd(LocalDate date) {
+        LocalDate endOfWeek = date.plusDays(DayOfWeek.SUNDAY.getValue() - date.getDayOfWeek().getValue());
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        boolean weekend = dayOfWeek == DayOfWeek.FRIDAY || dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+        return weekend ? endOfWeek.plusDays(7) : endOfWeek;
+    }
+
+    /**
+     * 处理项目变更，只增删变更项目的提醒；涉及提醒范围时推送新的项目列表
+     */
+    private void onProjectChanged(ProjectChangeEvent event) {
+        boolean upcomingChanged = false;
+        synchronized (this) {
+            switch (event.getType()) {
+                case RELOADED:
+                    rebuild(projectService.getAllProjects());
+                    upcomingChanged = true;
+                    break;
+                case BATCH:
+                    for (Project project : event.getChangedProjects()) {
+                        upcomingChanged |= update(project);
+                    }
+                    for (Project project : event.getRemovedProjects()) {
+                        upcomingChanged |= remove(project.getId());
+                    }
+                    break;
+                case REMOVED:
+                    upcomingChanged = remove(event.getProjectId());
+                    break;
+                default:
+                    if (event.getProject() != null) {
+                        upcomingChanged = update(event.getProject());
+                    }
+                    break;
+            }
+            arm();
+        }
+        if (upcomingChanged) {
+            notifyUpcoming();
+        }
+    }
+
+    private void rebuild(List<Project> projects) {
+        events.clear();
+        eventsByProject.clear();
+        for (Project project : projects) {
+            add(project);
+        }
+        arm();
+        AppLogger.debug("提醒引擎已加载 " + events.size() + " 条提醒");
+    }
+
+    /**
+     * 替换项目的提醒
+     * @return 项目变更前或变更后是否在提醒范围内
+     */
+    private boolean update(Project project) {
+        if (project == null || project.getId() == null) {
+            return false;
+        }
+        boolean wasUpcoming = remove(project.getId());
+        return add(project) || wasUpcoming;
+    }
+
+    /**
+     * 移除项目的所有提醒
+     * @return 项目原来是否在提醒范围内
+     */
+    private boolean remove(Long projectId) {
+        List<ReminderEvent> removed = eventsByProject.remove(projectId);
+        if (removed == null) {
+            return false;
+        }
+        LocalDate endDate = getWindowEnd(today);
+        boolean upcoming = false;
+        for (ReminderEvent event : removed) {
+            events.remove(event);
+            upcoming |= isInWindow(event, endDate);
+        }
+        return upcoming;
+    }
+
+    /**
+     * 加入项目今天及以后的提醒
+     * @return 项目是否在提醒范围内
+     */
+    private boolean add(Project project) {
+        List<ReminderEvent> projectEvents = new ArrayList<>(3);
+        if (project.getRegistrationEndDate() != null) {
+            LocalDate date = project.getRegistrationEndDate();
+            addEvent(projectEvents, project, ReminderEvent.Type.REGISTRATION_END, date.atStartOfDay(), date.atTime(dayHour, 0));
+        }
+        if (project.getExpectedReviewTime() != null) {
+            LocalDateTime time = project.getExpectedReviewTime();
+            addEvent(projectEvents, project, ReminderEvent.Type.EXPECTED_REVIEW, time, time.minusMinutes(leadMinutes));
+        }
+        if (project.getExpertReviewTime() != null) {
+            LocalDateTime time = project.getExpertReviewTime();
+            addEvent(projectEvents, project, ReminderEvent.Type.EXPERT_REVIEW, time, time.minusMinutes(leadMinutes));
+        }
+        if (projectEvents.isEmpty()) {
+            return false;
+        }
+        eventsByProject.put(project.getId(), projectEvents);
+
+        LocalDate endDate = getWindowEnd(today);
+        for (ReminderEvent event : projectEvents) {
+            if (isInWindow(event, endDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addEvent(List<ReminderEvent> projectEvents, Project project, ReminderEvent.Type type,
+                          LocalDateTime keyTime, LocalDateTime dueTime) {
+        if (!keyTime.toLocalDate().isBefore(today)) {
+            ReminderEvent event = new ReminderEvent(project, type, keyTime, dueTime);
+            events.add(event);
+            projectEvents.add(event);
+        }
+    }
+
+    private boolean isInWindow(ReminderEvent event, LocalDate endDate) {
+        LocalDate date = event.getKeyTime().toLocalDate();
+        return !date.isBefore(today) && !date.isAfter(endDate);
+    }
+
+    /**
+     * 为最早一个未触发的提醒安排唤醒，已安排的时间不变时不重新安排
+     */
+    private void arm() {
+        if (closed) {
+            return;
+        }
+        ReminderEvent next = events.higher(ReminderEvent.after(firedUpTo));
+        LocalDateTime time = next != null ? next.getDueTime() : null;
+        if (Objects.equals(time, nextFireTime)) {
+            return;
+        }
+        if (nextFire != null) {
+            nextFire.cancel(false);
+            nextFire = null;
+        }
+        nextFireTime = time;
+        if (time != null) {
+            long delay = Math.max(0, Duration.between(LocalDateTime.now(), time).toNanos());
+            nextFire = executor.schedule(this::fireDue, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 通知所有已到时间的提醒，再安排下一次唤醒
+     */
+    private void fireDue() {
+        List<ReminderEvent> due;
+        synchronized (this) {
+            nextFire = null;
+            nextFireTime = null;
+            LocalDateTime now = LocalDateTime.now();
+            if (now.isAfter(firedUpTo)) {
+                due = new ArrayList<>(events.subSet(ReminderEvent.after(firedUpTo), false, ReminderEvent.after(now), false));
+                firedUpTo = now;
+            } else {
+                due = Collections.emptyList();
+            }
+            arm();
+        }
+        for (ReminderEvent event : due) {
+            AppLogger.info("项目提醒: " + event.getMessage());
+            for (Consumer<ReminderEvent> listener : reminderListeners) {
+                try {
+                    listener.accept(event);
+                } catch (Exception e) {
+                    AppLogger.error("处理项目提醒时发生异常: " + event + ", " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在下一个0点移除已过去的提醒，并推送新的提醒范围
+     */
+    private void scheduleDayRollover() {
+        LocalDateTime now = LocalDateTime.now();
+        long delay = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toNanos();
+        executor.schedule(this::rollOverDay, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void rollOverDay() {
+        try {
+            synchronized (this) {
+                today = LocalDate.now();
+                Iterator<ReminderEvent> iterator = events.headSet(ReminderEvent.before(today.atStartOfDay())).iterator();
+                while (iterator.hasNext()) {
+                    ReminderEvent event = iterator.next();
+                    if (event.getKeyTime().toLocalDate().isBefore(today)) {
+                        iterator.remove();
+                        List<ReminderEvent> projectEvents = eventsByProject.get(event.getProjectId());
+                        projectEvents.remove(event);
+                        if (projectEvents.isEmpty()) {
+                            eventsByProject.remove(event.getProjectId());
+                        }
+                    }
+                }
+                // 系统时间调整或休眠后重新计算唤醒延迟
+                nextFireTime = null;
+                arm();
+            }
+            notifyUpcoming();
+        } catch (Exception e) {
+            AppLogger.error("提醒引擎跨天处理时发生异常: " + e.getMessage(), e);
+        } finally {
+            if (!executor.isShutdown()) {
+                scheduleDayRollover();
+            }
+        }
+    }
+
+    private void notifyUpcoming() {
+        List<Project> upcoming = getUpcomingProjects();
+        for (Consumer<List<Project>> listener : upcomingListeners) {
+            try {
+                listener.accept(upcoming);
+            } catch (Exception e) {
+                AppLogger.error("推送提醒范围内的项目时发生异常: " + e.getMessage(), e);
+            }
+        }
+    }
+}
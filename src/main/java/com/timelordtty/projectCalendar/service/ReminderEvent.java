@@ -0,0 +1,124 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 一个项目关键日期的提醒，按提醒时间、项目ID、类型排序
+ */
+public class ReminderEvent {
+
+    /**
+     * 提醒类型
+     */
+    public enum Type {
+        REGISTRATION_END("报名截止"),
+        EXPECTED_REVIEW("开标"),
+        EXPERT_REVIEW("专家评审");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    static final Comparator<ReminderEvent> ORDER = Comparator.comparing(ReminderEvent::getDueTime)
+            .thenComparingLong(ReminderEvent::getProjectId)
+            .thenComparing(ReminderEvent::getType);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Project project;
+    private final long projectId;
+    private final Type type;
+    private final LocalDateTime keyTime;
+    private final LocalDateTime dueTime;
+
+    /**
+     * 构造函数
+     * @param project 项目
+     * @param type 提醒类型
+     * @param keyTime 关键日期时间（报名截止只有日期，时间为0点）
+     * @param dueTime 提醒时间
+     */
+    ReminderEvent(Project project, Type type, LocalDateTime keyTime, LocalDateTime dueTime) {
+        this.project = project;
+        this.projectId = project.getId();
+        this.type = type;
+        this.keyTime = keyTime;
+        this.dueTime = dueTime;
+    }
+
+    /**
+     * 只用于范围查询的边界
+     */
+    private ReminderEvent(LocalDateTime dueTime, long projectId, Type type) {
+        this.project = null;
+        this.projectId = projectId;
+        this.type = type;
+        this.keyTime = null;
+        this.dueTime = dueTime;
+    }
+
+    /**
+     * 排在提醒时间为time的所有提醒之前的边界
+     */
+    static ReminderEvent before(LocalDateTime time) {
+        return new ReminderEvent(time, Long.MIN_VALUE, Type.REGISTRATION_END);
+    }
+
+    /**
+     * 排在提醒时间为time的所有提醒之后的边界
+     */
+    static ReminderEvent after(LocalDateTime time) {
+        return new ReminderEvent(time, Long.MAX_VALUE, Type.EXPERT_REVIEW);
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 关键日期时间
+     */
+    public LocalDateTime getKeyTime() {
+        return keyTime;
+    }
+
+    /**
+     * 提醒时间
+     */
+    public LocalDateTime getDueTime() {
+        return dueTime;
+    }
+
+    /**
+     * 提醒文本，如"项目A 开标时间: 2024-05-20 09:30"
+     */
+    public String getMessage() {
+        String time = type == Type.REGISTRATION_END ? keyTime.format(DATE_FORMAT) : keyTime.format(TIME_FORMAT);
+        return project.getName() + " " + type.getLabel() + (type == Type.REGISTRATION_END ? "日期: " : "时间: ") + time;
+    }
+
+    @Override
+    public String toString() {
+        return "ReminderEvent{projectId=" + projectId + ", type=" + type + ", dueTime=" + dueTime + "}";
+    }
+}
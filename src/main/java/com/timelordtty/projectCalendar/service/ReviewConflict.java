@@ -0,0 +1,185 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * 评审时间冲突：两个不同项目的开标或专家评审时段重叠，或间隔小于最小间隔
+ */
+public class ReviewConflict {
+
+    /**
+     * 评审时段类型
+     */
+    public enum SessionType {
+        EXPECTED_REVIEW("开标"),
+        EXPERT_REVIEW("专家评审");
+
+        private final String label;
+
+        SessionType(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * 一个项目的一次评审时段，按开始时间、项目ID、类型排序
+     */
+    public static final class Session {
+
+        static final Comparator<Session> ORDER = Comparator.comparingLong(Session::getStartMinute)
+                .thenComparingLong(Session::getProjectId)
+                .thenComparing(Session::getType);
+
+        private final long projectId;
+        private final SessionType type;
+        private final LocalDateTime start;
+        private final long startMinute;
+
+        Session(long projectId, SessionType type, LocalDateTime start) {
+            this.projectId = projectId;
+            this.type = type;
+            this.start = start;
+            this.startMinute = toMinute(start);
+        }
+
+        /**
+         * 只用于范围查询的边界
+         */
+        private Session(long startMinute, long projectId) {
+            this.projectId = projectId;
+            this.type = SessionType.EXPECTED_REVIEW;
+            this.start = null;
+            this.startMinute = startMinute;
+        }
+
+        static Session lowerBound(long startMinute) {
+            return new Session(startMinute, Long.MIN_VALUE);
+        }
+
+        static long toMinute(LocalDateTime time) {
+            return time.toLocalDate().toEpochDay() * 1440 + time.toLocalTime().toSecondOfDay() / 60;
+        }
+
+        public long getProjectId() {
+            return projectId;
+        }
+
+        public SessionType getType() {
+            return type;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        long getStartMinute() {
+            return startMinute;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Session)) {
+                return false;
+            }
+            Session other = (Session) o;
+            return projectId == other.projectId && type == other.type && startMinute == other.startMinute;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, type, startMinute);
+        }
+
+        @Override
+        public String toString() {
+            return "Session{projectId=" + projectId + ", type=" + type + ", start=" + start + "}";
+        }
+    }
+
+    static final Comparator<ReviewConflict> ORDER = Comparator.comparing(ReviewConflict::getFirst, Session.ORDER)
+            .thenComparing(ReviewConflict::getSecond, Session.ORDER);
+
+    private final Session first;
+    private final Session second;
+    private final long gapMinutes;
+
+    /**
+     * 构造函数
+     * @param first 开始较早的时段
+     * @param second 开始较晚的时段
+     * @param gapMinutes 前一时段结束到后一时段开始的分钟数，负数表示重叠
+     */
+    ReviewConflict(Session first, Session second, long gapMinutes) {
+        this.first = first;
+        this.second = second;
+        this.gapMinutes = gapMinutes;
+    }
+
+    /**
+     * 开始较早的时段
+     */
+    public Session getFirst() {
+        return first;
+    }
+
+    /**
+     * 开始较晚的时段
+     */
+    public Session getSecond() {
+        return second;
+    }
+
+    /**
+     * 两个时段之间的间隔分钟数，负数表示重叠
+     */
+    public long getGapMinutes() {
+        return gapMinutes;
+    }
+
+    /**
+     * 两个时段是否重叠（否则只是间隔太近）
+     */
+    public boolean isOverlapping() {
+        return gapMinutes < 0;
+    }
+
+    /**
+     * 获取冲突中另一个项目的时段
+     * @param projectId 其中一个项目的ID
+     * @return 另一个项目的时段
+     */
+    public Session getOther(long projectId) {
+        return first.getProjectId() == projectId ? second : first;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReviewConflict)) {
+            return false;
+        }
+        ReviewConflict other = (ReviewConflict) o;
+        return first.equals(other.first) && second.equals(other.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(first, second);
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewConflict{first=" + first + ", second=" + second + ", gapMinutes=" + gapMinutes + "}";
+    }
+}
@@ -0,0 +1,232 @@
+package com.timelordtty.projectCalendar.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.service.ReviewConflict.Session;
+import com.timelordtty.projectCalendar.service.ReviewConflict.SessionType;
+
+/**
+ * 评审时间冲突索引
+ *
+ * 每个项目的开标时间和专家评审时间各视为一个固定时长的时段，不同项目的两个时段重叠或间隔小于最小间隔时记为冲突。
+ * 时段时长相同，所以两个时段冲突当且仅当开始时间相差小于"时长+最小间隔"。
+ * 重建时按开始时间排序后扫描一遍，窗口内只保留可能与后续时段冲突的时段，复杂度O(n log n + k)；
+ * 单个项目变更时只在有序集合中查找该项目时段前后一个窗口内的时段，不需要重新扫描。
+ * 所有方法都是同步的。
+ */
+public class ReviewConflictIndex {
+
+    // 系统属性：评审时段时长（分钟）
+    static final String SESSION_MINUTES_PROPERTY = "review.session.minutes";
+    // 系统属性：两个评审时段之间的最小间隔（分钟）
+    static final String MIN_GAP_MINUTES_PROPERTY = "review.min.gap.minutes";
+    private static final int DEFAULT_SESSION_MINUTES = 90;
+    private static final int DEFAULT_MIN_GAP_MINUTES = 30;
+
+    private final int sessionMinutes;
+    // 开始时间相差小于该值的两个时段冲突
+    private final long window;
+
+    // 所有时段，按开始时间排序
+    private final NavigableSet<Session> sessions = new TreeSet<>(Session.ORDER);
+    // 项目ID -> 已建立索引的时段
+    private final Map<Long, List<Session>> sessionsByProject = new HashMap<>();
+    // 时段 -> 涉及该时段的冲突
+    private final Map<Session, Set<ReviewConflict>> conflictsBySession = new HashMap<>();
+
+    /**
+     * 构造函数，时段时长和最小间隔从系统属性读取
+     */
+    public ReviewConflictIndex() {
+        this(Integer.getInteger(SESSION_MINUTES_PROPERTY, DEFAULT_SESSION_MINUTES),
+             Integer.getInteger(MIN_GAP_MINUTES_PROPERTY, DEFAULT_MIN_GAP_MINUTES));
+    }
+
+    /**
+     * 构造函数
+     * @param sessionMinutes 评审时段时长（分钟）
+     * @param minGapMinutes 两个评审时段之间的最小间隔（分钟）
+     */
+    public ReviewConflictIndex(int sessionMinutes, int minGapMinutes) {
+        this.sessionMinutes = Math.max(1, sessionMinutes);
+        this.window = this.sessionMinutes + (long) Math.max(0, minGapMinutes);
+    }
+
+    /**
+     * 用给定的项目重建整个索引：排序后扫描一遍
+     * @param projects 所有项目
+     */
+    public synchronized void rebuild(Iterable<Project> projects) {
+        sessions.clear();
+        sessionsByProject.clear();
+        conflictsBySession.clear();
+        for (Project project : projects) {
+            if (project != null && project.getId() != null) {
+                addSessions(project);
+            }
+        }
+
+        // 窗口中的时段按开始时间排列，开始时间都在当前时段之前不到一个窗口
+        Deque<Session> active = new ArrayDeque<>();
+        for (Session session : sessions) {
+            while (!active.isEmpty() && session.getStartMinute() - active.peekFirst().getStartMinute() >= window) {
+                active.pollFirst();
+            }
+            for (Session earlier : active) {
+                if (earlier.getProjectId() != session.getProjectId()) {
+                    addConflict(earlier, session);
+                }
+            }
+            active.addLast(session);
+        }
+    }
+
+    /**
+     * 新增或更新项目的索引项，只检查该项目时段附近的时段
+     * @param project 项目
+     */
+    public synchronized void update(Project project) {
+        if (project == null || project.getId() == null) {
+            return;
+        }
+        remove(project.getId());
+        for (Session session : addSessions(project)) {
+            long start = session.getStartMinute();
+            for (Session other : sessions.subSet(Session.lowerBound(start - window + 1), true,
+                                                 Session.lowerBound(start + window), false)) {
+                if (other.getProjectId() != session.getProjectId()) {
+                    if (Session.ORDER.compare(other, session) < 0) {
+                        addConflict(other, session);
+                    } else {
+                        addConflict(session, other);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 移除项目的所有时段和相关冲突
+     * @param projectId 项目ID
+     */
+    public synchronized void remove(Long projectId) {
+        List<Session> removed = sessionsByProject.remove(projectId);
+        if (removed == null) {
+            return;
+        }
+        for (Session session : removed) {
+            sessions.remove(session);
+            Set<ReviewConflict> conflicts = conflictsBySession.remove(session);
+            if (conflicts == null) {
+                continue;
+            }
+            for (ReviewConflict conflict : conflicts) {
+                Session other = conflict.getFirst().equals(session) ? conflict.getSecond() : conflict.getFirst();
+                Set<ReviewConflict> otherConflicts = conflictsBySession.get(other);
+                if (otherConflicts != null) {
+                    otherConflicts.remove(conflict);
+                    if (otherConflicts.isEmpty()) {
+                        conflictsBySession.remove(other);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取所有冲突，按开始时间排序
+     * @return 冲突列表
+     */
+    public synchronized List<ReviewConflict> getConflicts() {
+        Set<ReviewConflict> result = new LinkedHashSet<>();
+        for (Set<ReviewConflict> conflicts : conflictsBySession.values()) {
+            result.addAll(conflicts);
+        }
+        return sorted(result);
+    }
+
+    /**
+     * 获取涉及指定项目的冲突，按开始时间排序
+     * @param projectId 项目ID
+     * @return 冲突列表
+     */
+    public synchronized List<ReviewConflict> getConflicts(Long projectId) {
+        List<Session> projectSessions = sessionsByProject.get(projectId);
+        if (projectSessions == null) {
+            return Collections.emptyList();
+        }
+        Set<ReviewConflict> result = new LinkedHashSet<>();
+        for (Session session : projectSessions) {
+            result.addAll(conflictsBySession.getOrDefault(session, Collections.emptySet()));
+        }
+        return sorted(result);
+    }
+
+    /**
+     * 获取有时段落在日期范围内的冲突，按开始时间排序
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 冲突列表
+     */
+    public synchronized List<ReviewConflict> getConflictsInRange(LocalDate startDate, LocalDate endDate) {
+        Set<ReviewConflict> result = new LinkedHashSet<>();
+        for (Session session : sessions.subSet(Session.lowerBound(startDate.toEpochDay() * 1440), true,
+                                               Session.lowerBound((endDate.toEpochDay() + 1) * 1440), false)) {
+            result.addAll(conflictsBySession.getOrDefault(session, Collections.emptySet()));
+        }
+        return sorted(result);
+    }
+
+    /**
+     * 获取评审时段时长
+     * @return 分钟数
+     */
+    public int getSessionMinutes() {
+        return sessionMinutes;
+    }
+
+    private List<Session> addSessions(Project project) {
+        List<Session> projectSessions = new ArrayList<>(2);
+        addSession(projectSessions, project.getId(), SessionType.EXPECTED_REVIEW, project.getExpectedReviewTime());
+        addSession(projectSessions, project.getId(), SessionType.EXPERT_REVIEW, project.getExpertReviewTime());
+        if (!projectSessions.isEmpty()) {
+            sessionsByProject.put(project.getId(), projectSessions);
+        }
+        return projectSessions;
+    }
+
+    private void addSession(List<Session> projectSessions, long projectId, SessionType type, LocalDateTime start) {
+        if (start != null) {
+            Session session = new Session(projectId, type, start);
+            if (sessions.add(session)) {
+                projectSessions.add(session);
+            }
+        }
+    }
+
+    private void addConflict(Session first, Session second) {
+        long gap = second.getStartMinute() - first.getStartMinute() - sessionMinutes;
+        ReviewConflict conflict = new ReviewConflict(first, second, gap);
+        conflictsBySession.computeIfAbsent(first, key -> new LinkedHashSet<>()).add(conflict);
+        conflictsBySession.computeIfAbsent(second, key -> new LinkedHashSet<>()).add(conflict);
+    }
+
+    private static List<ReviewConflict> sorted(Set<ReviewConflict> conflicts) {
+        List<ReviewConflict> list = new ArrayList<>(conflicts);
+        list.sort(ReviewConflict.ORDER);
+        return list;
+    }
+}
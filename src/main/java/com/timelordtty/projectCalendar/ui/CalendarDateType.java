@@ -0,0 +1,104 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.utils.DateCalculator;
+
+import javafx.css.PseudoClass;
+import javafx.scene.paint.Color;
+
+/**
+ * 日历中项目标记的日期类型，顺序即同一项目在同一天有多个日期类型时的显示顺序
+ */
+enum CalendarDateType {
+    ONLINE("上网", "online", Project::getOnlineDate, "#E3F2FD", "#1976D2"),
+    REGISTRATION_END("报名截止", "registration-end", Project::getRegistrationEndDate, "#FFF8E1", "#FF8F00"),
+    EARLIEST_REVIEW("最早评审", "earliest-review", Project::getEarliestReviewDate, "#E8F5E9", "#388E3C"),
+    EXPECTED_REVIEW("开标", "expected-review", Project::getExpectedReviewDate, "#FFEBEE", "#D32F2F"),
+    EXPERT_REVIEW("专家评审", "expert-review", Project::getExpertReviewDate, "#E1BEE7", "#9C27B0");
+
+    private final String label;
+    private final PseudoClass pseudoClass;
+    private final Function<Project, LocalDate> dateOf;
+    private final Color background;
+    private final Color textColor;
+
+    CalendarDateType(String label, String pseudoClass, Function<Project, LocalDate> dateOf,
+                     String background, String textColor) {
+        this.label = label;
+        this.pseudoClass = PseudoClass.getPseudoClass(pseudoClass);
+        this.dateOf = dateOf;
+        this.background = Color.web(background);
+        this.textColor = Color.web(textColor);
+    }
+
+    /**
+     * 显示文本
+     */
+    String getLabel() {
+        return label;
+    }
+
+    /**
+     * 标记使用的CSS伪类，颜色在styles.css中定义
+     */
+    PseudoClass getPseudoClass() {
+        return pseudoClass;
+    }
+
+    /**
+     * 标记背景色，Canvas绘制时使用，与styles.css中的伪类颜色一致
+     */
+    Color getBackground() {
+        return background;
+    }
+
+    /**
+     * 标记文字颜色，Canvas绘制时使用，与styles.css中的伪类颜色一致
+     */
+    Color getTextColor() {
+        return textColor;
+    }
+
+    /**
+     * 项目的该类型日期，未设置时为null
+     */
+    LocalDate dateOf(Project project) {
+        return dateOf.apply(project);
+    }
+
+    /**
+     * 项目的该类型日期是否为指定日期
+     */
+    boolean matches(Project project, LocalDate date) {
+        return date.equals(dateOf.apply(project));
+    }
+
+    /**
+     * 标记的悬浮提示：项目名称、日期类型和所有非空日期
+     */
+    String describe(Project project) {
+        StringBuilder text = new StringBuilder(project.getName());
+        text.append("\n日期类型: ").append(label);
+        if (project.getOnlineDate() != null) {
+            text.append("\n上网日期: ").append(DateCalculator.formatDate(project.getOnlineDate()));
+        }
+        if (project.getRegistrationEndDate() != null) {
+            text.append("\n报名截止: ").append(DateCalculator.formatDate(project.getRegistrationEndDate()));
+        }
+        if (project.getEarliestReviewDate() != null) {
+            text.append("\n最早评审: ").append(DateCalculator.formatDate(project.getEarliestReviewDate()));
+        }
+        if (project.getExpectedReviewTime() != null) {
+            text.append("\n开标时间: ").append(DateCalculator.formatDate(project.getExpectedReviewDate())).append(' ')
+                .append(String.format("%02d:%02d", project.getExpectedReviewTime().getHour(), project.getExpectedReviewTime().getMinute()));
+        }
+        if (project.getExpertReviewTime() != null) {
+            text.append("\n专家评审: ").append(DateCalculator.formatDate(project.getExpertReviewDate())).append(' ')
+                .append(String.format("%02d:%02d", project.getExpertReviewTime().getHour(), project.getExpertReviewTime().getMinute()));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,349 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.timelordtty.projectCalendar.Project;
+
+import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.OverrunStyle;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+
+/**
+ * 可复用的日历日期单元格
+ *
+ * 单元格的所有节点在构造时创建一次，切换月份时{@link #bind}只更新文本、可见性和CSS伪类；
+ * 项目标记行放在池中复用，只有某天的标记数超过以往最多的一天时才新建。样式都在styles.css中定义。
+ */
+class CalendarDayCell extends VBox {
+
+    private static final PseudoClass PREV_MONTH = PseudoClass.getPseudoClass("prev-month");
+    private static final PseudoClass NEXT_MONTH = PseudoClass.getPseudoClass("next-month");
+    private static final PseudoClass NON_WORKING = PseudoClass.getPseudoClass("non-working");
+
+    // 标记行超过该数量时收紧间距
+    private static final int CROWDED_ROWS = 3;
+    private static final Insets ROW_PADDING = new Insets(1);
+    private static final Insets CROWDED_ROW_PADDING = new Insets(0, 1, 0, 1);
+    private static final Insets SPARSE_ROW_MARGIN = new Insets(2, 0, 2, 0);
+
+    /**
+     * 节日装饰图标
+     */
+    private enum Decoration {
+        QIXI("🎂", "宝宝生日快乐哦🎂~", "qixi"),
+        NEW_YEAR("🎆", "新年快乐宝宝~", "new-year"),
+        SPRING_FESTIVAL("🎆", "宝宝新年好呀！", "spring-festival"),
+        VALENTINE("❤", "爱你，我最爱的宝宝", "valentine"),
+        CHILDREN("🍬", "永远是快乐的小宝宝哦~", "children");
+
+        private final String icon;
+        private final String tooltip;
+        private final PseudoClass pseudoClass;
+
+        Decoration(String icon, String tooltip, String pseudoClass) {
+            this.icon = icon;
+            this.tooltip = tooltip;
+            this.pseudoClass = PseudoClass.getPseudoClass(pseudoClass);
+        }
+
+        /**
+         * 节日对应的装饰，没有时返回null
+         */
+        static Decoration forHoliday(String holidayName, LocalDate date) {
+            if (holidayName.contains("七夕")) {
+                return QIXI;
+            } else if (holidayName.contains("元旦")) {
+                return NEW_YEAR;
+            } else if (holidayName.contains("春节") && date.getDayOfMonth() == 1 && date.getMonthValue() == 2) {
+                return SPRING_FESTIVAL;
+            } else if (holidayName.contains("情人节")) {
+                return VALENTINE;
+            } else if (holidayName.contains("儿童节")) {
+                return CHILDREN;
+            }
+            return null;
+        }
+    }
+
+    private final Label dateLabel = new Label();
+    private final Label decorationLabel = new Label();
+    private final Tooltip decorationTooltip = new Tooltip();
+    private final Rectangle todayMarker = new Rectangle(10, 10);
+    private final Label holidayLabel = new Label();
+    private final Label specialLabel = new Label("💝");
+    private final Tooltip specialTooltip = new Tooltip();
+    private final Label conflictLabel = new Label();
+    private final VBox projectContainer = new VBox(3);
+    private final ScrollPane scrollPane = new ScrollPane(projectContainer);
+    // 密集模式下代替标记行的画布，第一次使用时创建
+    private DenseMarkerCanvas denseCanvas;
+    private final List<ProjectMarkerRow> rows = new ArrayList<>();
+    private final ProjectClickHandler projectClickHandler;
+
+    private LocalDate date;
+    private Decoration decoration;
+    private List<MonthModel.Conflict> conflicts = List.of();
+
+    /**
+     * 构造函数
+     * @param projectClickHandler 项目标记点击处理器
+     */
+    CalendarDayCell(ProjectClickHandler projectClickHandler) {
+        super(5);
+        this.projectClickHandler = projectClickHandler;
+        getStyleClass().add("calendar-day-cell");
+        setMinHeight(80);
+        setPrefHeight(100);
+        setPrefWidth(100);
+        setMaxWidth(Double.MAX_VALUE);
+        setMaxHeight(Double.MAX_VALUE);
+
+        // 日期标题：日期、节日图标、今日标记，右侧为节假日名称和特殊日期图标
+        HBox dateHeader = new HBox(5);
+        dateHeader.setPadding(new Insets(0, 0, 5, 0));
+        dateHeader.setAlignment(Pos.CENTER_LEFT);
+        dateLabel.getStyleClass().add("calendar-day-number");
+        decorationLabel.getStyleClass().add("calendar-day-icon");
+        decorationTooltip.getStyleClass().add("calendar-day-tooltip");
+        Tooltip.install(decorationLabel, decorationTooltip);
+        todayMarker.getStyleClass().add("calendar-today-marker");
+        holidayLabel.getStyleClass().add("calendar-holiday-name");
+        holidayLabel.setAlignment(Pos.CENTER_RIGHT);
+        specialLabel.getStyleClass().add("calendar-special-icon");
+        specialTooltip.getStyleClass().add("calendar-day-tooltip");
+        Tooltip.install(specialLabel, specialTooltip);
+        conflictLabel.getStyleClass().add("calendar-conflict-badge");
+        // 冲突说明在显示时才生成
+        Tooltip conflictTooltip = new Tooltip();
+        conflictTooltip.getStyleClass().add("calendar-day-tooltip");
+        conflictTooltip.setShowDuration(Duration.seconds(30));
+        conflictTooltip.setOnShowing(event -> conflictTooltip.setText(conflictText()));
+        Tooltip.install(conflictLabel, conflictTooltip);
+        Pane spacer = new Pane();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        dateHeader.getChildren().addAll(dateLabel, decorationLabel, todayMarker, conflictLabel, spacer, holidayLabel, specialLabel);
+
+        // 项目标记容器（可滚动，滚动条不可见）
+        projectContainer.setFillWidth(true);
+        projectContainer.prefWidthProperty().bind(widthProperty().subtract(10));
+        VBox.setVgrow(projectContainer, Priority.ALWAYS);
+
+        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scrollPane.setFitToWidth(true);
+        scrollPane.setFitToHeight(false);
+        scrollPane.setMinHeight(40);
+        scrollPane.prefHeightProperty().bind(heightProperty().subtract(dateHeader.heightProperty()).subtract(15));
+        scrollPane.getStyleClass().addAll("project-cell-scroll-pane", "no-scroll-bar", "calendar-cell-scroll-pane");
+        scrollPane.setPannable(true);
+
+        getChildren().addAll(dateHeader, scrollPane);
+    }
+
+    /**
+     * 获取当前显示的日期
+     * @return 日期
+     */
+    LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * 绑定到新的日期
+     * @param day 该日期的数据
+     * @param monthStart 当前显示月份的第一天
+     * @param monthEnd 当前显示月份的最后一天
+     * @param today 今天
+     * @param dense 是否使用密集模式（标记画在画布上）
+     * @return 新建的节点数
+     */
+    int bind(MonthModel.DayModel day, LocalDate monthStart, LocalDate monthEnd, LocalDate today, boolean dense) {
+        LocalDate date = day.getDate();
+        this.date = date;
+        pseudoClassStateChanged(PREV_MONTH, date.isBefore(monthStart));
+        pseudoClassStateChanged(NEXT_MONTH, date.isAfter(monthEnd));
+        pseudoClassStateChanged(NON_WORKING, day.isNonWorkingDay());
+
+        dateLabel.setText(String.valueOf(date.getDayOfMonth()));
+        setShown(todayMarker, date.equals(today));
+        String holidayName = day.getHolidayName();
+        holidayLabel.setText(holidayName);
+        setShown(holidayLabel, !holidayName.isEmpty());
+
+        // 特殊日期显示爱心，否则节日显示对应的装饰图标
+        boolean special = !day.getSpecialType().isEmpty();
+        setShown(specialLabel, special);
+        if (special) {
+            specialTooltip.setText(specialDateText(day.getSpecialType()));
+        }
+        bindDecoration(special ? null : Decoration.forHoliday(holidayName, date));
+
+        // 评审时间冲突显示警告徽标，多个冲突时显示数量
+        conflicts = day.getConflicts();
+        setShown(conflictLabel, !conflicts.isEmpty());
+        if (!conflicts.isEmpty()) {
+            conflictLabel.setText(conflicts.size() > 1 ? "⚠" + conflicts.size() : "⚠");
+        }
+
+        if (dense) {
+            int created = 0;
+            if (denseCanvas == null) {
+                denseCanvas = new DenseMarkerCanvas(projectClickHandler);
+                VBox.setVgrow(denseCanvas, Priority.ALWAYS);
+                getChildren().add(denseCanvas);
+                created++;
+            }
+            setShown(scrollPane, false);
+            setShown(denseCanvas, true);
+            bindMarkers(List.of());
+            denseCanvas.setMarkers(day.getMarkers());
+            return created;
+        }
+        if (denseCanvas != null) {
+            setShown(denseCanvas, false);
+            denseCanvas.setMarkers(List.of());
+        }
+        setShown(scrollPane, true);
+        return bindMarkers(day.getMarkers());
+    }
+
+    private void bindDecoration(Decoration newDecoration) {
+        if (decoration != null) {
+            decorationLabel.pseudoClassStateChanged(decoration.pseudoClass, false);
+        }
+        decoration = newDecoration;
+        setShown(decorationLabel, decoration != null);
+        if (decoration != null) {
+            decorationLabel.pseudoClassStateChanged(decoration.pseudoClass, true);
+            decorationLabel.setText(decoration.icon);
+            decorationTooltip.setText(decoration.tooltip);
+        }
+    }
+
+    /**
+     * 每个标记显示一行，复用已有的行
+     */
+    private int bindMarkers(List<MonthModel.Marker> markers) {
+        int created = 0;
+        int count = markers.size();
+        while (rows.size() < count) {
+            ProjectMarkerRow row = new ProjectMarkerRow(projectClickHandler);
+            rows.add(row);
+            projectContainer.getChildren().add(row);
+            created += ProjectMarkerRow.NODE_COUNT;
+        }
+        for (int i = 0; i < count; i++) {
+            rows.get(i).bind(markers.get(i));
+        }
+
+        boolean crowded = count > CROWDED_ROWS;
+        projectContainer.setSpacing(crowded ? 1 : 3);
+        for (int i = 0; i < rows.size(); i++) {
+            ProjectMarkerRow row = rows.get(i);
+            setShown(row, i < count);
+            row.setPadding(crowded ? CROWDED_ROW_PADDING : ROW_PADDING);
+            VBox.setMargin(row, count <= 2 ? SPARSE_ROW_MARGIN : null);
+        }
+        return created;
+    }
+
+    private String conflictText() {
+        return "评审时间冲突：\n" + conflicts.stream()
+                .map(MonthModel.Conflict::getDescription)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String specialDateText(String specialType) {
+        switch (specialType) {
+            case "first-date":
+                return "💝和宝宝的第一次约会💝";
+            case "second-date":
+                return "💝和宝宝的第二次约会💝";
+            default:
+                return "";
+        }
+    }
+
+    private static void setShown(Node node, boolean shown) {
+        node.setVisible(shown);
+        node.setManaged(shown);
+    }
+
+    /**
+     * 项目标记行：项目名称和日期类型，颜色由日期类型伪类决定
+     */
+    private static final class ProjectMarkerRow extends HBox {
+
+        // 每行包含的节点数（行、名称、类型）
+        private static final int NODE_COUNT = 3;
+        private static final PseudoClass EXPIRED = PseudoClass.getPseudoClass("expired");
+
+        private final Label nameLabel = new Label();
+        private final Label typeLabel = new Label();
+        private Project project;
+        private CalendarDateType type;
+
+        private ProjectMarkerRow(ProjectClickHandler clickHandler) {
+            super(3);
+            setAlignment(Pos.CENTER_LEFT);
+            setMaxWidth(Double.MAX_VALUE);
+            setCursor(Cursor.HAND);
+            getStyleClass().addAll("project-marker-row", "calendar-marker-row");
+
+            nameLabel.getStyleClass().addAll("project-marker", "calendar-marker-name");
+            nameLabel.setPadding(new Insets(1, 2, 1, 2));
+            nameLabel.setMaxWidth(85);
+            nameLabel.setMinWidth(50);
+            nameLabel.setTextOverrun(OverrunStyle.ELLIPSIS);
+            HBox.setHgrow(nameLabel, Priority.ALWAYS);
+
+            typeLabel.getStyleClass().addAll("date-type-label", "calendar-marker-type");
+            typeLabel.setMaxWidth(55);
+            typeLabel.setTextOverrun(OverrunStyle.ELLIPSIS);
+            getChildren().addAll(nameLabel, typeLabel);
+
+            // 提示文本在显示时才生成
+            Tooltip tooltip = new Tooltip();
+            tooltip.getStyleClass().add("calendar-marker-tooltip");
+            tooltip.setShowDelay(Duration.millis(100));
+            tooltip.setShowDuration(Duration.seconds(20));
+            tooltip.setOnShowing(event -> tooltip.setText(project != null ? type.describe(project) : ""));
+            Tooltip.install(this, tooltip);
+
+            // 单击选中项目，双击显示详情
+            setOnMouseClicked(event -> {
+                if (project != null && clickHandler != null) {
+                    clickHandler.onProjectClicked(project, event.getClickCount() == 2);
+                }
+                event.consume();
+            });
+        }
+
+        private void bind(MonthModel.Marker marker) {
+            if (type != null) {
+                pseudoClassStateChanged(type.getPseudoClass(), false);
+            }
+            project = marker.getProject();
+            type = marker.getType();
+            pseudoClassStateChanged(type.getPseudoClass(), true);
+            pseudoClassStateChanged(EXPIRED, marker.isExpired());
+            nameLabel.setText(project.getName());
+            typeLabel.setText(type.getLabel());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import com.timelordtty.AppLogger;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+
+/**
+ * 月视图网格
+ *
+ * 列约束、行约束、星期标题和6周共42个日期单元格在构造时创建一次，
+ * 切换月份时只把单元格重新绑定到新的日期和项目，只有5周的月份隐藏最后一行。
+ */
+public class CalendarMonthGrid {
+
+    private static final String[] WEEK_DAYS = {"周一", "周二", "周三", "周四", "周五", "周六", "周日"};
+    private static final int MAX_WEEKS = 6;
+    private static final int MIN_WEEKS = 5;
+
+    // 系统属性：某天的标记数超过该值时整月使用密集模式
+    static final String DENSE_THRESHOLD_PROPERTY = "calendar.dense.threshold";
+    private static final int DEFAULT_DENSE_THRESHOLD = 8;
+
+    private final GridPane grid;
+    private final CalendarDayCell[] cells = new CalendarDayCell[MAX_WEEKS * 7];
+    private final RowConstraints lastWeekRow = createWeekRow();
+    private ProjectClickHandler projectClickHandler;
+    private DateClickHandler dateClickHandler;
+    private int visibleWeeks = MAX_WEEKS;
+    private int denseThreshold = Integer.getInteger(DENSE_THRESHOLD_PROPERTY, DEFAULT_DENSE_THRESHOLD);
+
+    /**
+     * 构造函数，清空网格并创建所有固定节点
+     * @param grid 日历网格
+     */
+    public CalendarMonthGrid(GridPane grid) {
+        this.grid = grid;
+
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+        grid.getStyleClass().add("calendar-month-grid");
+        grid.setVisible(true);
+        grid.setGridLinesVisible(true);
+
+        // 7列等宽
+        for (int i = 0; i < 7; i++) {
+            ColumnConstraints column = new ColumnConstraints();
+            column.setPercentWidth(100.0 / 7);
+            column.setHgrow(Priority.ALWAYS);
+            column.setMinWidth(100);
+            grid.getColumnConstraints().add(column);
+        }
+
+        // 星期标题行
+        RowConstraints headerRow = new RowConstraints();
+        headerRow.setMinHeight(40);
+        headerRow.setPrefHeight(40);
+        headerRow.setMaxHeight(40);
+        headerRow.setVgrow(Priority.NEVER);
+        grid.getRowConstraints().add(headerRow);
+        for (int i = 0; i < 7; i++) {
+            Label dayLabel = new Label(WEEK_DAYS[i]);
+            dayLabel.getStyleClass().addAll("calendar-day-header", "calendar-week-header");
+            dayLabel.setAlignment(Pos.CENTER);
+            dayLabel.setPrefWidth(Double.MAX_VALUE);
+            dayLabel.setPrefHeight(40);
+            dayLabel.setMaxWidth(Double.MAX_VALUE);
+            dayLabel.setMaxHeight(Double.MAX_VALUE);
+            grid.add(dayLabel, i, 0);
+        }
+
+        // 日期单元格，标记点击转发给当前的处理器
+        ProjectClickHandler clickForwarder = (project, isDoubleClick) -> {
+            if (projectClickHandler != null) {
+                projectClickHandler.onProjectClicked(project, isDoubleClick);
+            }
+        };
+        for (int week = 0; week < MAX_WEEKS; week++) {
+            grid.getRowConstraints().add(week == MAX_WEEKS - 1 ? lastWeekRow : createWeekRow());
+            for (int day = 0; day < 7; day++) {
+                CalendarDayCell cell = new CalendarDayCell(clickForwarder);
+                cell.setOnMouseClicked(event -> {
+                    if (dateClickHandler != null && cell.getDate() != null) {
+                        dateClickHandler.onDateClicked(cell.getDate());
+                    }
+                });
+                GridPane.setFillWidth(cell, true);
+                GridPane.setFillHeight(cell, true);
+                GridPane.setHgrow(cell, Priority.ALWAYS);
+                GridPane.setVgrow(cell, Priority.ALWAYS);
+                grid.add(cell, day, week + 1);
+                cells[week * 7 + day] = cell;
+            }
+        }
+    }
+
+    /**
+     * 设置项目标记点击处理器
+     * @param handler 处理器
+     */
+    public void setProjectClickHandler(ProjectClickHandler handler) {
+        this.projectClickHandler = handler;
+    }
+
+    /**
+     * 设置日期单元格点击处理器
+     * @param handler 处理器
+     */
+    public void setDateClickHandler(DateClickHandler handler) {
+        this.dateClickHandler = handler;
+    }
+
+    /**
+     * 设置密集模式阈值：某天的标记数超过该值时，整月的标记都画在画布上，节点数不再随项目数增长
+     * @param threshold 阈值
+     */
+    public void setDenseThreshold(int threshold) {
+        this.denseThreshold = threshold;
+    }
+
+    /**
+     * 月视图的第一天（该月第一天所在周的周一）
+     * @param month 月份
+     * @return 第一天
+     */
+    public static LocalDate getFirstVisibleDate(YearMonth month) {
+        return month.atDay(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * 月视图显示的周数，至少5周，最多6周
+     * @param month 月份
+     * @return 周数
+     */
+    public static int getWeekCount(YearMonth month) {
+        int daysBeforeMonth = month.atDay(1).getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue();
+        int weeks = (daysBeforeMonth + month.lengthOfMonth() + 6) / 7;
+        return Math.max(MIN_WEEKS, Math.min(MAX_WEEKS, weeks));
+    }
+
+    /**
+     * 月视图的最后一天
+     * @param month 月份
+     * @return 最后一天
+     */
+    public static LocalDate getLastVisibleDate(YearMonth month) {
+        return getFirstVisibleDate(month).plusDays(getWeekCount(month) * 7L - 1);
+    }
+
+    /**
+     * 应用计算好的月视图数据，一次性更新所有单元格
+     * @param model 月视图数据
+     */
+    public void apply(MonthModel model) {
+        long start = System.nanoTime();
+        setVisibleWeeks(model.getWeekCount());
+
+        LocalDate monthStart = model.getMonth().atDay(1);
+        LocalDate monthEnd = model.getMonth().atEndOfMonth();
+        LocalDate today = LocalDate.now();
+        List<MonthModel.DayModel> days = model.getDays();
+        boolean dense = model.getMaxMarkersPerDay() > denseThreshold;
+        int created = 0;
+        for (int i = 0; i < days.size(); i++) {
+            created += cells[i].bind(days.get(i), monthStart, monthEnd, today, dense);
+        }
+
+        AppLogger.debug("月视图更新完成: " + model.getMonth() + (dense ? "（密集模式）" : "") + "，耗时 "
+                + (System.nanoTime() - start) / 1_000 + " us，新建节点 " + created + " 个");
+    }
+
+    /**
+     * 显示5周或6周，隐藏的单元格和行约束不参与布局
+     */
+    private void setVisibleWeeks(int weeks) {
+        if (weeks == visibleWeeks) {
+            return;
+        }
+        visibleWeeks = weeks;
+        boolean showLastWeek = weeks == MAX_WEEKS;
+        for (int i = (MAX_WEEKS - 1) * 7; i < cells.length; i++) {
+            cells[i].setVisible(showLastWeek);
+            cells[i].setManaged(showLastWeek);
+        }
+        if (showLastWeek) {
+            grid.getRowConstraints().add(lastWeekRow);
+        } else {
+            grid.getRowConstraints().remove(lastWeekRow);
+        }
+    }
+
+    private static RowConstraints createWeekRow() {
+        RowConstraints row = new RowConstraints();
+        row.setMinHeight(80);
+        row.setPrefHeight(100);
+        row.setVgrow(Priority.ALWAYS);
+        return row;
+    }
+}
@@ -1,28 +1,22 @@
 package com.timelordtty.projectCalendar.ui;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAdjusters;
 import java.util.function.Consumer;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.Project;
 import com.timelordtty.projectCalendar.service.ProjectService;
-import com.timelordtty.projectCalendar.ui.DateCellFactory.DateClickHandler;
-import com.timelordtty.projectCalendar.ui.DateCellFactory.ProjectClickHandler;
 import com.timelordtty.projectCalendar.utils.HolidayManager;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
-import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.VBox;
 
 /**
@@ -34,6 +28,9 @@ public class CalendarViewController {
     private HolidayManager holidayManager;
     private DateCellFactory dateCellFactory;
     private ProjectClickHandler projectClickHandler;
+    private DateClickHandler dateClickHandler;
+    private CalendarMonthGrid monthGrid;
+    private MonthModelLoader monthModelLoader;
     
     // 日历UI组件
     private GridPane calendarGrid;
@@ -71,7 +68,7 @@ public class CalendarViewController {
         this.monthYearLabel = monthYearLabel;
         
         // 创建日期单元格工厂
-        this.dateCellFactory = new DateCellFactory(projectService, holidayManager);
+        this.dateCellFactory = new DateCellFactory();
         
         // 设置当前月份为系统当前月份
         this.currentYearMonth = YearMonth.now();
@@ -82,9 +79,6 @@ public class CalendarViewController {
                 onProjectClickedCallback.accept(project);
             }
         };
-        
-        // 设置项目点击处理器
-        this.dateCellFactory.setProjectClickHandler(projectClickHandler);
     }
     
     /**
@@ -126,7 +120,10 @@ public class CalendarViewController {
         };
         
         // 设置日期点击处理器
-        this.dateCellFactory.setDateClickHandler(dateClickHandler);
+        this.dateClickHandler = dateClickHandler;
+        if (monthGrid != null) {
+            monthGrid.setDateClickHandler(dateClickHandler);
+        }
     }
     
     /**
@@ -242,118 +239,20 @@ public class CalendarViewController {
     }
     
     /**
-     * 绘制月视图
+     * 绘制月视图，复用已创建的日期单元格
      */
     private void drawMonthView() {
         try {
-            AppLogger.debug("开始绘制月视图：" + currentYearMonth);
-            
-            // 确保GridPane可见并具有边框
-            calendarGrid.setStyle("-fx-border-color: #E0E0E0; -fx-border-width: 1; -fx-grid-lines-visible: true;");
-            calendarGrid.setVisible(true);
-            calendarGrid.setGridLinesVisible(true);
-            
-            // 清空网格
-            calendarGrid.getChildren().clear();
-            calendarGrid.getColumnConstraints().clear();
-            calendarGrid.getRowConstraints().clear();
-            
-            // 设置列约束：7列等宽
-            for (int i = 0; i < 7; i++) {
-                ColumnConstraints column = new ColumnConstraints();
-                column.setPercentWidth(100.0 / 7);
-                column.setHgrow(Priority.ALWAYS);
-                column.setMinWidth(100);
-                calendarGrid.getColumnConstraints().add(column);
+            if (monthGrid == null) {
+                monthGrid = new CalendarMonthGrid(calendarGrid);
+                monthGrid.setProjectClickHandler(projectClickHandler);
+                monthGrid.setDateClickHandler(dateClickHandler);
+                monthModelLoader = new MonthModelLoader(projectService, holidayManager);
+                monthModelLoader.attach();
             }
             
-            // 添加星期标题行
-            String[] weekDays = {"周一", "周二", "周三", "周四", "周五", "周六", "周日"};
-            for (int i = 0; i < 7; i++) {
-                Label dayLabel = new Label(weekDays[i]);
-                dayLabel.getStyleClass().add("calendar-day-header");
-                dayLabel.setAlignment(Pos.CENTER);
-                dayLabel.setPrefWidth(Double.MAX_VALUE);
-                dayLabel.setPrefHeight(40);
-                dayLabel.setMaxWidth(Double.MAX_VALUE);
-                dayLabel.setMaxHeight(Double.MAX_VALUE);
-                // 设置明显的边框和背景色使标题更明显
-                dayLabel.setStyle("-fx-background-color: #F5F5F5; -fx-border-color: #BDBDBD; -fx-border-width: 0 0 1 0; -fx-font-weight: bold;");
-                
-                // 将星期标题添加到第一行
-                calendarGrid.add(dayLabel, i, 0);
-            }
-            
-            // 获取当前月份的第一天
-            LocalDate firstDayOfMonth = currentYearMonth.atDay(1);
-            
-            // 确定视图的起始日期（从第一个周一开始）
-            LocalDate startDate = firstDayOfMonth.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-            
-            // 计算需要的总行数
-            // 计算当前月份有多少天
-            int daysInMonth = currentYearMonth.lengthOfMonth();
-            // 再加上第一天之前需要显示的上个月的天数
-            int daysBeforeMonth = firstDayOfMonth.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue();
-            if (daysBeforeMonth < 0) daysBeforeMonth += 7; // 调整为正确的天数
-            
-            // 计算总天数
-            int totalDays = daysInMonth + daysBeforeMonth;
-            // 计算需要的总行数（每行7天）
-            int totalRows = (int) Math.ceil(totalDays / 7.0);
-            // 确保至少显示5行，最多显示6行
-            totalRows = Math.max(5, Math.min(6, totalRows));
-            
-            AppLogger.debug("月视图参数：firstDayOfMonth=" + firstDayOfMonth + 
-                       ", startDate=" + startDate + 
-                       ", daysInMonth=" + daysInMonth + 
-                       ", daysBeforeMonth=" + daysBeforeMonth + 
-                       ", totalDays=" + totalDays + 
-                       ", totalRows=" + totalRows);
-            
-            // 设置行约束（标题行 + 日期行）
-            RowConstraints headerRow = new RowConstraints();
-            headerRow.setMinHeight(40);
-            headerRow.setPrefHeight(40);
-            headerRow.setMaxHeight(40);
-            headerRow.setVgrow(Priority.NEVER);
-            calendarGrid.getRowConstraints().add(headerRow);
-            
-            for (int i = 0; i < totalRows; i++) {
-                RowConstraints row = new RowConstraints();
-                // 日期单元格行高根据总行数动态计算，确保占满剩余空间
-                row.setMinHeight(80); // 最小高度保证内容显示
-                row.setPrefHeight(100);
-                row.setVgrow(Priority.ALWAYS);
-                calendarGrid.getRowConstraints().add(row);
-            }
-
-            // 开始填充日历网格（从第二行开始，因为第一行是星期标题）
-            LocalDate date = startDate;
-            for (int i = 0; i < totalRows; i++) {
-                for (int j = 0; j < 7; j++) {
-                    // 确定此日期是否属于当前月
-                    boolean isCurrentMonth = date.getMonth() == currentYearMonth.getMonth();
-                    
-                    // 创建并添加日期单元格
-                    VBox dateCell = dateCellFactory.createDateCell(date, isCurrentMonth);
-                    calendarGrid.add(dateCell, j, i + 1); // 注意这里是i+1，因为第0行是星期标题
-                    
-                    // 设置单元格大小和布局约束
-                    GridPane.setFillWidth(dateCell, true);
-                    GridPane.setFillHeight(dateCell, true);
-                    GridPane.setHgrow(dateCell, Priority.ALWAYS);
-                    GridPane.setVgrow(dateCell, Priority.ALWAYS);
-                    
-                    // 移至下一天
-                    date = date.plusDays(1);
-                }
-            }
-            
-            // 刷新布局
-            calendarGrid.requestLayout();
-            
-            AppLogger.debug("月视图绘制完成");
+            // 月视图数据在后台计算，完成后一次性应用
+            monthModelLoader.load(currentYearMonth, monthGrid::apply);
         } catch (Exception e) {
             AppLogger.error("绘制月视图时发生错误: " + e.getMessage(), e);
         }
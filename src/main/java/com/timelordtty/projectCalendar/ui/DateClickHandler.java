@@ -0,0 +1,15 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.LocalDate;
+
+/**
+ * 日期点击处理器接口
+ */
+@FunctionalInterface
+public interface DateClickHandler {
+    /**
+     * 当日期被点击时调用
+     * @param date 被点击的日期
+     */
+    void onDateClicked(LocalDate date);
+}
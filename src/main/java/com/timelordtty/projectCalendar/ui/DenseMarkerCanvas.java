@@ -0,0 +1,210 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.util.Collections;
+import java.util.List;
+
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.util.Duration;
+
+/**
+ * 密集模式下的项目标记画布
+ *
+ * 一个日期单元格的所有项目标记画在同一个Canvas上，点击和悬浮提示按行号命中测试，
+ * 无论有多少项目，每个单元格都只有这一个节点。标记超出高度时可以用滚轮滚动。
+ */
+class DenseMarkerCanvas extends Canvas {
+
+    private static final double ROW_HEIGHT = 15;
+    private static final double ROW_GAP = 1;
+    private static final double TYPE_WIDTH = 44;
+    private static final double EXPIRED_ALPHA = 0.6;
+    private static final Font NAME_FONT = Font.font("System", 11);
+    private static final Font TYPE_FONT = Font.font("System", 10);
+
+    private final Tooltip tooltip = new Tooltip();
+    private List<MonthModel.Marker> markers = Collections.emptyList();
+    private double scrollOffset;
+    private int hoveredIndex = -1;
+
+    /**
+     * 构造函数
+     * @param clickHandler 项目标记点击处理器
+     */
+    DenseMarkerCanvas(ProjectClickHandler clickHandler) {
+        getStyleClass().add("calendar-dense-markers");
+        tooltip.getStyleClass().add("calendar-marker-tooltip");
+        tooltip.setShowDelay(Duration.millis(100));
+        tooltip.setShowDuration(Duration.seconds(20));
+
+        // 单击选中项目，双击显示详情
+        setOnMouseClicked(event -> {
+            int index = indexAt(event.getY());
+            if (index >= 0) {
+                if (clickHandler != null) {
+                    clickHandler.onProjectClicked(markers.get(index).getProject(), event.getClickCount() == 2);
+                }
+                event.consume();
+            }
+        });
+        setOnMouseMoved(this::updateHover);
+        setOnMouseExited(event -> setHovered(-1));
+        setOnScroll(event -> {
+            double maxOffset = Math.max(0, markers.size() * (ROW_HEIGHT + ROW_GAP) - getHeight());
+            double offset = Math.max(0, Math.min(maxOffset, scrollOffset - event.getDeltaY()));
+            if (offset != scrollOffset) {
+                scrollOffset = offset;
+                draw();
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * 设置要绘制的标记
+     * @param markers 标记
+     */
+    void setMarkers(List<MonthModel.Marker> markers) {
+        this.markers = markers;
+        scrollOffset = 0;
+        setHovered(-1);
+        draw();
+    }
+
+    @Override
+    public boolean isResizable() {
+        return true;
+    }
+
+    @Override
+    public double minWidth(double height) {
+        return 0;
+    }
+
+    @Override
+    public double minHeight(double width) {
+        return 40;
+    }
+
+    @Override
+    public double prefWidth(double height) {
+        return 0;
+    }
+
+    @Override
+    public double prefHeight(double width) {
+        return 40;
+    }
+
+    @Override
+    public double maxWidth(double height) {
+        return Double.MAX_VALUE;
+    }
+
+    @Override
+    public double maxHeight(double width) {
+        return Double.MAX_VALUE;
+    }
+
+    @Override
+    public void resize(double width, double height) {
+        if (width != getWidth() || height != getHeight()) {
+            setWidth(width);
+            setHeight(height);
+            draw();
+        }
+    }
+
+    /**
+     * 只绘制可见范围内的行
+     */
+    private void draw() {
+        GraphicsContext gc = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        gc.clearRect(0, 0, width, height);
+        if (markers.isEmpty() || width <= 0 || height <= 0) {
+            return;
+        }
+
+        double rowStride = ROW_HEIGHT + ROW_GAP;
+        int first = (int) (scrollOffset / rowStride);
+        int last = Math.min(markers.size() - 1, (int) ((scrollOffset + height) / rowStride));
+        double nameWidth = Math.max(0, width - TYPE_WIDTH - 3);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = first; i <= last; i++) {
+            MonthModel.Marker marker = markers.get(i);
+            CalendarDateType type = marker.getType();
+            double y = i * rowStride - scrollOffset;
+            double centerY = y + ROW_HEIGHT / 2;
+            gc.setGlobalAlpha(marker.isExpired() ? EXPIRED_ALPHA : 1);
+
+            gc.setFill(i == hoveredIndex ? type.getBackground().darker() : type.getBackground());
+            gc.fillRoundRect(0, y, nameWidth, ROW_HEIGHT, 6, 6);
+
+            // 名称超出时裁剪
+            gc.save();
+            gc.beginPath();
+            gc.rect(0, y, nameWidth - 2, ROW_HEIGHT);
+            gc.clip();
+            gc.setFill(type.getTextColor());
+            gc.setFont(NAME_FONT);
+            gc.fillText(marker.getProject().getName(), 2, centerY);
+            gc.restore();
+
+            gc.setFill(type.getTextColor());
+            gc.setFont(TYPE_FONT);
+            gc.fillText(type.getLabel(), nameWidth + 3, centerY, TYPE_WIDTH);
+        }
+        gc.setGlobalAlpha(1);
+
+        // 还有未显示的标记时在右下角提示
+        int hidden = markers.size() - 1 - last;
+        if (hidden > 0) {
+            String more = "+" + hidden;
+            gc.setFill(Color.rgb(66, 66, 66, 0.8));
+            gc.fillRoundRect(width - 26, height - 13, 26, 13, 6, 6);
+            gc.setFill(Color.WHITE);
+            gc.setFont(TYPE_FONT);
+            gc.fillText(more, width - 23, height - 6.5, 22);
+        }
+    }
+
+    private int indexAt(double y) {
+        double position = y + scrollOffset;
+        int index = (int) (position / (ROW_HEIGHT + ROW_GAP));
+        boolean inGap = position - index * (ROW_HEIGHT + ROW_GAP) > ROW_HEIGHT;
+        return y >= 0 && !inGap && index < markers.size() ? index : -1;
+    }
+
+    private void updateHover(MouseEvent event) {
+        setHovered(indexAt(event.getY()));
+    }
+
+    /**
+     * 更新悬停的标记：重绘高亮，并只在标记上安装提示
+     */
+    private void setHovered(int index) {
+        if (index == hoveredIndex) {
+            return;
+        }
+        hoveredIndex = index;
+        if (index >= 0) {
+            MonthModel.Marker marker = markers.get(index);
+            tooltip.setText(marker.getType().describe(marker.getProject()));
+            Tooltip.install(this, tooltip);
+            setCursor(Cursor.HAND);
+        } else {
+            tooltip.hide();
+            Tooltip.uninstall(this, tooltip);
+            setCursor(Cursor.DEFAULT);
+        }
+        draw();
+    }
+}
@@ -0,0 +1,343 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.service.ReviewConflict;
+import com.timelordtty.projectCalendar.utils.DateCalculator;
+import com.timelordtty.projectCalendar.utils.HolidayManager;
+
+/**
+ * 月视图数据
+ *
+ * 视图范围内每一天的节假日名称、特殊日期、是否工作日、项目标记（日期类型、是否过期）和评审时间冲突。
+ * 在后台线程计算，创建后不再修改，界面线程只需按顺序把每天的数据绑定到单元格。
+ */
+public final class MonthModel {
+
+    // 项目所有关键日期都早于该天数时视为过期
+    private static final int EXPIRED_DAYS = 5;
+
+    private final YearMonth month;
+    private final LocalDate firstDate;
+    private final List<DayModel> days;
+    // 视图中有标记或冲突的项目ID，用于判断项目变更是否影响该月
+    private final Set<Long> projectIds;
+
+    private MonthModel(YearMonth month, LocalDate firstDate, List<DayModel> days, Set<Long> projectIds) {
+        this.month = month;
+        this.firstDate = firstDate;
+        this.days = days;
+        this.projectIds = projectIds;
+    }
+
+    /**
+     * 计算月视图数据
+     * @param month 月份
+     * @param projectsByDate 视图范围内每天的项目
+     * @param conflicts 视图范围内的评审时间冲突
+     * @param holidayManager 节假日管理器
+     * @param today 今天，用于判断项目是否过期
+     * @param cancelled 是否已取消，每计算完一天检查一次
+     * @return 月视图数据
+     * @throws CancellationException 计算过程中被取消时抛出
+     */
+    public static MonthModel compute(YearMonth month, Map<LocalDate, List<Project>> projectsByDate, List<Conflict> conflicts,
+                                     HolidayManager holidayManager, LocalDate today, BooleanSupplier cancelled) {
+        LocalDate firstDate = CalendarMonthGrid.getFirstVisibleDate(month);
+        int dayCount = CalendarMonthGrid.getWeekCount(month) * 7;
+        List<DayModel> days = new ArrayList<>(dayCount);
+        Set<Long> projectIds = new HashSet<>();
+        Map<LocalDate, List<Conflict>> conflictsByDate = groupByDate(conflicts, projectIds);
+        LocalDate date = firstDate;
+        for (int i = 0; i < dayCount; i++) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("月视图计算已取消: " + month);
+            }
+            boolean holiday = holidayManager.isHoliday(date);
+            List<Marker> markers = markersOf(projectsByDate.get(date), date, today);
+            for (Marker marker : markers) {
+                projectIds.add(marker.getProject().getId());
+            }
+            days.add(new DayModel(date,
+                    holiday || DateCalculator.isWeekend(date),
+                    holidayManager.getHolidayName(date),
+                    holidayManager.getSpecialDateType(date),
+                    markers,
+                    conflictsByDate.getOrDefault(date, Collections.emptyList())));
+            date = date.plusDays(1);
+        }
+        return new MonthModel(month, firstDate, Collections.unmodifiableList(days), projectIds);
+    }
+
+    /**
+     * 把冲突归到两个时段所在的日期，同一天的两个时段只算一次
+     */
+    private static Map<LocalDate, List<Conflict>> groupByDate(List<Conflict> conflicts, Set<Long> projectIds) {
+        Map<LocalDate, List<Conflict>> result = new HashMap<>();
+        for (Conflict conflict : conflicts) {
+            ReviewConflict reviewConflict = conflict.getConflict();
+            projectIds.add(reviewConflict.getFirst().getProjectId());
+            projectIds.add(reviewConflict.getSecond().getProjectId());
+            LocalDate firstDay = reviewConflict.getFirst().getStart().toLocalDate();
+            LocalDate secondDay = reviewConflict.getSecond().getStart().toLocalDate();
+            result.computeIfAbsent(firstDay, key -> new ArrayList<>()).add(conflict);
+            if (!secondDay.equals(firstDay)) {
+                result.computeIfAbsent(secondDay, key -> new ArrayList<>()).add(conflict);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 为该日期的每个项目、每种日期类型生成一个标记
+     */
+    private static List<Marker> markersOf(List<Project> projects, LocalDate date, LocalDate today) {
+        if (projects == null || projects.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Marker> markers = new ArrayList<>();
+        for (Project project : projects) {
+            Boolean expired = null;
+            for (CalendarDateType type : CalendarDateType.values()) {
+                if (type.matches(project, date)) {
+                    if (expired == null) {
+                        expired = isExpired(project, today);
+                    }
+                    markers.add(new Marker(project, type, expired));
+                }
+            }
+        }
+        return markers;
+    }
+
+    /**
+     * 项目的上网、报名截止、最早评审和开标日期都已设置且都早于5天前时视为过期
+     */
+    private static boolean isExpired(Project project, LocalDate today) {
+        LocalDate limit = today.minusDays(EXPIRED_DAYS);
+        return isBefore(project.getOnlineDate(), limit)
+            && isBefore(project.getRegistrationEndDate(), limit)
+            && isBefore(project.getEarliestReviewDate(), limit)
+            && isBefore(project.getExpectedReviewDate(), limit);
+    }
+
+    private static boolean isBefore(LocalDate date, LocalDate limit) {
+        return date != null && date.isBefore(limit);
+    }
+
+    /**
+     * 月份
+     */
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * 视图的第一天
+     */
+    public LocalDate getFirstDate() {
+        return firstDate;
+    }
+
+    /**
+     * 视图的最后一天
+     */
+    public LocalDate getLastDate() {
+        return firstDate.plusDays(days.size() - 1L);
+    }
+
+    /**
+     * 项目变更是否影响该月视图：项目原来显示在视图中，或项目现在的某个日期落在视图范围内。
+     * 评审时段跨午夜时可能与前后一天的时段冲突，所以范围前后各多算一天
+     * @param project 新增、修改或删除的项目
+     * @return 是否影响
+     */
+    public boolean isAffectedBy(Project project) {
+        if (projectIds.contains(project.getId())) {
+            return true;
+        }
+        LocalDate from = firstDate.minusDays(1);
+        LocalDate to = getLastDate().plusDays(1);
+        for (CalendarDateType type : CalendarDateType.values()) {
+            LocalDate date = type.dateOf(project);
+            if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 单日最多的标记数
+     */
+    int getMaxMarkersPerDay() {
+        int max = 0;
+        for (DayModel day : days) {
+            max = Math.max(max, day.getMarkers().size());
+        }
+        return max;
+    }
+
+    /**
+     * 视图显示的周数
+     */
+    int getWeekCount() {
+        return days.size() / 7;
+    }
+
+    /**
+     * 视图中每一天的数据，从第一天开始
+     */
+    List<DayModel> getDays() {
+        return days;
+    }
+
+    /**
+     * 一天的数据
+     */
+    static final class DayModel {
+        private final LocalDate date;
+        private final boolean nonWorkingDay;
+        private final String holidayName;
+        private final String specialType;
+        private final List<Marker> markers;
+        private final List<Conflict> conflicts;
+
+        private DayModel(LocalDate date, boolean nonWorkingDay, String holidayName, String specialType,
+                         List<Marker> markers, List<Conflict> conflicts) {
+            this.date = date;
+            this.nonWorkingDay = nonWorkingDay;
+            this.holidayName = holidayName;
+            this.specialType = specialType;
+            this.markers = markers;
+            this.conflicts = conflicts;
+        }
+
+        LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * 是否为非工作日（周末或法定假日）
+         */
+        boolean isNonWorkingDay() {
+            return nonWorkingDay;
+        }
+
+        /**
+         * 节假日名称，不是节假日时为空字符串
+         */
+        String getHolidayName() {
+            return holidayName;
+        }
+
+        /**
+         * 特殊日期类型，不是特殊日期时为空字符串
+         */
+        String getSpecialType() {
+            return specialType;
+        }
+
+        /**
+         * 项目标记，按项目、日期类型排列
+         */
+        List<Marker> getMarkers() {
+            return markers;
+        }
+
+        /**
+         * 有时段在这一天的评审时间冲突
+         */
+        List<Conflict> getConflicts() {
+            return conflicts;
+        }
+    }
+
+    /**
+     * 评审时间冲突及两个项目，在界面线程从项目缓存中取出项目后创建
+     */
+    public static final class Conflict {
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+
+        private final ReviewConflict conflict;
+        private final String description;
+
+        /**
+         * 构造函数
+         * @param conflict 冲突
+         * @param first 较早时段的项目
+         * @param second 较晚时段的项目
+         */
+        public Conflict(ReviewConflict conflict, Project first, Project second) {
+            this.conflict = conflict;
+            this.description = describe(conflict, first, second);
+        }
+
+        /**
+         * 生成冲突描述，如"05-20 09:00 项目A 开标 与 05-20 09:30 项目B 专家评审 重叠"
+         * @param conflict 冲突
+         * @param first 较早时段的项目
+         * @param second 较晚时段的项目
+         * @return 描述
+         */
+        public static String describe(ReviewConflict conflict, Project first, Project second) {
+            return describe(conflict.getFirst(), first) + " 与 " + describe(conflict.getSecond(), second)
+                    + (conflict.isOverlapping() ? " 重叠" : " 仅间隔 " + conflict.getGapMinutes() + " 分钟");
+        }
+
+        private static String describe(ReviewConflict.Session session, Project project) {
+            String name = project != null ? project.getName() : "项目" + session.getProjectId();
+            return session.getStart().format(TIME_FORMAT) + " " + name + " " + session.getType().getLabel();
+        }
+
+        ReviewConflict getConflict() {
+            return conflict;
+        }
+
+        String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * 项目标记：项目在这一天的一种日期类型
+     */
+    static final class Marker {
+        private final Project project;
+        private final CalendarDateType type;
+        private final boolean expired;
+
+        private Marker(Project project, CalendarDateType type, boolean expired) {
+            this.project = project;
+            this.type = type;
+            this.expired = expired;
+        }
+
+        Project getProject() {
+            return project;
+        }
+
+        CalendarDateType getType() {
+            return type;
+        }
+
+        /**
+         * 项目是否已过期
+         */
+        boolean isExpired() {
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import com.timelordtty.AppLogger;
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.service.ProjectChangeEvent;
+import com.timelordtty.projectCalendar.service.ProjectService;
+import com.timelordtty.projectCalendar.service.ReviewConflict;
+import com.timelordtty.projectCalendar.utils.HolidayManager;
+
+import javafx.application.Platform;
+
+/**
+ * 月视图数据加载器
+ *
+ * 项目和评审时间冲突按索引查询（很快，且项目缓存只在界面线程修改）在界面线程完成，
+ * 节假日查找、日期类型分类和过期判断在后台线程计算。新的请求会取消尚未完成的旧请求，
+ * 快速切换月份时只有最后一次请求的结果会应用到界面。
+ *
+ * 计算好的数据按月份放入LRU缓存，每次显示后在后台预取前后两个月，来回翻月时直接使用缓存。
+ * 项目新增、修改、删除时只移除受影响的月份，节假日数据更新时清空缓存并重新加载当前月份。
+ * 除监听器外，方法都应在界面线程调用。
+ */
+public class MonthModelLoader {
+
+    // 缓存的月份数
+    private static final int CACHE_SIZE = 12;
+
+    private final ProjectService projectService;
+    private final HolidayManager holidayManager;
+    private final ExecutorService executor;
+
+    // 按访问顺序排列，超出容量时移除最久未使用的月份
+    private final Map<YearMonth, MonthModel> cache = new LinkedHashMap<YearMonth, MonthModel>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, MonthModel> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final Map<YearMonth, CompletableFuture<MonthModel>> prefetching = new HashMap<>();
+    // 缓存计算日期，过期标记与日期相关，跨天后缓存失效
+    private LocalDate cacheDay;
+    // 每次失效加一，开始计算后发生过失效的结果不放入缓存
+    private long cacheVersion;
+
+    // 当前请求的序号，计算中的旧请求发现序号变化后停止
+    private volatile long generation;
+    private CompletableFuture<MonthModel> pending;
+    private YearMonth currentMonth;
+    private Consumer<MonthModel> currentCallback;
+
+    /**
+     * 构造函数，创建后需调用{@link #attach()}注册监听器
+     * @param projectService 项目服务
+     * @param holidayManager 节假日管理器
+     */
+    public MonthModelLoader(ProjectService projectService, HolidayManager holidayManager) {
+        this.projectService = projectService;
+        this.holidayManager = holidayManager;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "calendar-month-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 注册项目变更和节假日数据更新监听器，创建加载器后调用一次
+     */
+    public void attach() {
+        projectService.addProjectChangeListener(event -> runOnFxThread(() -> onProjectChanged(event)));
+        holidayManager.addHolidayDataListener(() -> runOnFxThread(this::onHolidayDataChanged));
+    }
+
+    /**
+     * 加载月视图数据，完成后在界面线程调用回调；缓存中已有时立即调用，被更新的请求取代时不调用
+     * @param month 月份
+     * @param onLoaded 回调
+     */
+    public void load(YearMonth month, Consumer<MonthModel> onLoaded) {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        long requestGeneration = ++generation;
+        currentMonth = month;
+        currentCallback = onLoaded;
+        checkCacheDay();
+
+        MonthModel cached = cache.get(month);
+        if (cached != null) {
+            AppLogger.debug("月视图数据命中缓存: " + month);
+            onLoaded.accept(cached);
+            prefetchAdjacent(month);
+            return;
+        }
+
+        // 正在预取的月份直接使用预取结果，其余预取让位于当前请求
+        CompletableFuture<MonthModel> future = prefetching.remove(month);
+        for (CompletableFuture<MonthModel> prefetch : prefetching.values()) {
+            prefetch.cancel(false);
+        }
+        prefetching.clear();
+
+        long version = cacheVersion;
+        long start = System.nanoTime();
+        if (future == null) {
+            future = computeAsync(month, () -> generation != requestGeneration);
+        }
+        pending = future;
+
+        future.whenComplete((model, error) -> Platform.runLater(() -> {
+            // 已完成的结果即使不再显示也放入缓存
+            if (error == null && version == cacheVersion) {
+                cache.put(month, model);
+            }
+            if (requestGeneration != generation) {
+                AppLogger.debug("月视图数据已过期，不再显示: " + month);
+                return;
+            }
+            pending = null;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    AppLogger.error("计算月视图数据时发生错误: " + month, cause);
+                }
+                return;
+            }
+            AppLogger.debug("月视图数据加载完成: " + month + "，耗时 " + (System.nanoTime() - start) / 1_000 + " us");
+            onLoaded.accept(model);
+            prefetchAdjacent(month);
+        }));
+    }
+
+    /**
+     * 在后台预取前后两个月
+     */
+    private void prefetchAdjacent(YearMonth month) {
+        prefetch(month.minusMonths(1));
+        prefetch(month.plusMonths(1));
+    }
+
+    private void prefetch(YearMonth month) {
+        if (cache.containsKey(month) || prefetching.containsKey(month)) {
+            return;
+        }
+        long version = cacheVersion;
+        CompletableFuture<MonthModel> future = computeAsync(month, () -> false);
+        prefetching.put(month, future);
+        future.whenComplete((model, error) -> Platform.runLater(() -> {
+            prefetching.remove(month, future);
+            if (error == null && version == cacheVersion && cacheDay.equals(LocalDate.now())) {
+                cache.put(month, model);
+            }
+        }));
+    }
+
+    /**
+     * 在界面线程查询视图范围内的项目和冲突，在后台线程计算月视图数据
+     */
+    private CompletableFuture<MonthModel> computeAsync(YearMonth month, BooleanSupplier cancelled) {
+        LocalDate firstDate = CalendarMonthGrid.getFirstVisibleDate(month);
+        LocalDate lastDate = CalendarMonthGrid.getLastVisibleDate(month);
+        Map<LocalDate, List<Project>> projectsByDate = projectService.getProjectsByDateRange(firstDate, lastDate);
+        List<MonthModel.Conflict> conflicts = new ArrayList<>();
+        for (ReviewConflict conflict : projectService.getReviewConflictsInRange(firstDate, lastDate)) {
+            conflicts.add(new MonthModel.Conflict(conflict,
+                    projectService.getProjectById(conflict.getFirst().getProjectId()),
+                    projectService.getProjectById(conflict.getSecond().getProjectId())));
+        }
+        LocalDate today = LocalDate.now();
+        return CompletableFuture.supplyAsync(
+                () -> MonthModel.compute(month, projectsByDate, conflicts, holidayManager, today, cancelled), executor);
+    }
+
+    /**
+     * 跨天后清空缓存
+     */
+    private void checkCacheDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(cacheDay)) {
+            cache.clear();
+            cacheVersion++;
+            cacheDay = today;
+        }
+    }
+
+    /**
+     * 项目变更时移除受影响的月份
+     */
+    private void onProjectChanged(ProjectChangeEvent event) {
+        cacheVersion++;
+        switch (event.getType()) {
+            case RELOADED:
+                cache.clear();
+                break;
+            case BATCH:
+                event.getChangedProjects().forEach(this::invalidate);
+                event.getRemovedProjects().forEach(this::invalidate);
+                break;
+            default:
+                if (event.getProject() != null) {
+                    invalidate(event.getProject());
+                }
+                break;
+        }
+    }
+
+    private void invalidate(Project project) {
+        cache.values().removeIf(model -> model.isAffectedBy(project));
+    }
+
+    /**
+     * 节假日数据更新时清空缓存，并重新加载当前月份
+     */
+    private void onHolidayDataChanged() {
+        cacheVersion++;
+        cache.clear();
+        AppLogger.debug("节假日数据已更新，清空月视图缓存");
+        if (currentMonth != null) {
+            load(currentMonth, currentCallback);
+        }
+    }
+
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+}
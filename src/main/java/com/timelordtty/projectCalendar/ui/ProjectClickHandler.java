@@ -0,0 +1,16 @@
+package com.timelordtty.projectCalendar.ui;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 项目点击处理器接口
+ */
+@FunctionalInterface
+public interface ProjectClickHandler {
+    /**
+     * 当项目被点击时调用
+     * @param project 被点击的项目
+     * @param isDoubleClick 是否为双击
+     */
+    void onProjectClicked(Project project, boolean isDoubleClick);
+}
@@ -3,6 +3,7 @@ package com.timelordtty.projectCalendar.ui;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import com.timelordtty.AppLogger;
@@ -11,6 +12,7 @@ import com.timelordtty.projectCalendar.ProjectAddDialogController;
 import com.timelordtty.projectCalendar.ProjectDeleteDialogController;
 import com.timelordtty.projectCalendar.service.ProjectService;
 
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -89,8 +91,8 @@ public class ProjectDialogHelper {
             // 如果有项目被添加并且回调不为空，则调用回调
             Project addedProject = controller.getProject();
             if (addedProject != null && onProjectChangedCallback != null) {
-                // 保存新项目
-                projectService.saveProject(addedProject);
+                // 保存新项目：缓存立即更新，数据库写入在后台完成
+                watchProjectWrite(projectService.saveProjectAsync(addedProject), addedProject, "无法保存新项目");
                 onProjectChangedCallback.accept(addedProject);
             }
             
@@ -137,8 +139,8 @@ public class ProjectDialogHelper {
             // 如果项目被更新并且回调不为空，则调用回调
             Project updatedProject = controller.getProject();
             if (updatedProject != null && onProjectChangedCallback != null) {
-                // 保存更新后的项目
-                projectService.saveProject(updatedProject);
+                // 保存更新后的项目：缓存立即更新，数据库写入在后台完成
+                watchProjectWrite(projectService.saveProjectAsync(updatedProject), updatedProject, "无法保存编辑后的项目");
                 onProjectChangedCallback.accept(updatedProject);
             }
             
@@ -185,8 +187,8 @@ public class ProjectDialogHelper {
             if (result.isPresent() && result.get() == ButtonType.OK) {
                 AppLogger.info("用户确认删除项目: " + project.getName());
                 
-                // 删除项目
-                projectService.deleteProject(project);
+                // 删除项目：缓存立即更新，数据库写入在后台完成
+                watchProjectWrite(projectService.deleteProjectAsync(project), project, "无法删除项目");
                 
                 // 调用回调（传递null表示删除操作）
                 if (onProjectChangedCallback != null) {
@@ -205,6 +207,21 @@ public class ProjectDialogHelper {
         }
     }
 
+    /**
+     * 后台写入失败时提示用户，缓存已从数据库重新加载，再通知回调刷新视图
+     * @param future 写入完成的future
+     * @param project 写入的项目
+     * @param title 提示标题
+     */
+    private void watchProjectWrite(CompletableFuture<Project> future, Project project, String title) {
+        projectService.watchWrite(future, title, Platform::runLater, cause -> {
+            showErrorAlert(title, "数据库写入失败", cause.getMessage());
+            if (onProjectChangedCallback != null) {
+                onProjectChangedCallback.accept(project);
+            }
+        });
+    }
+    
     /**
      * 显示错误提示对话框
      * @param title 标题
@@ -1,11 +1,14 @@
 package com.timelordtty.projectCalendar.ui;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.model.Status;
 import com.timelordtty.projectCalendar.service.ProjectService;
 import com.timelordtty.projectCalendar.utils.DateCalculator;
 
@@ -292,7 +295,11 @@ public class ProjectTableController {
                 
                 // 重新加载项目菜单项
                 MenuItem reloadItem = new MenuItem("刷新项目列表");
-                reloadItem.setOnAction(event -> refreshProjects());
+                reloadItem.setOnAction(event -> {
+                    // 显式刷新时从数据库重新加载
+                    projectService.refreshProjects();
+                    refreshProjects();
+                });
                 
                 contextMenu.getItems().addAll(
                     editItem, 
@@ -347,30 +354,7 @@ public class ProjectTableController {
             AppLogger.info("配置项目搜索功能");
             
             // 添加监听器，在文本变化时更新过滤条件
-            searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-                filteredData.setPredicate(project -> {
-                    // 如果没有搜索文本，显示所有项目
-                    if (newValue == null || newValue.isEmpty()) {
-                        return true;
-                    }
-                    
-                    // 将搜索文本转换为小写
-                    String lowerCaseFilter = newValue.toLowerCase();
-                    
-                    // 比较项目名称
-                    if (project.getName().toLowerCase().contains(lowerCaseFilter)) {
-                        return true;
-                    }
-                    
-                    // 比较项目状态
-                    if (project.getStatusText().toLowerCase().contains(lowerCaseFilter)) {
-                        return true;
-                    }
-                    
-                    // 没有匹配
-                    return false;
-                });
-            });
+            searchField.textProperty().addListener((observable, oldValue, newValue) -> applySearchFilter(newValue));
             
             AppLogger.info("项目搜索功能配置完成");
         } catch (Exception e) {
@@ -378,6 +362,35 @@ public class ProjectTableController {
         }
     }
     
+    /**
+     * 按搜索文本更新过滤条件
+     * 每次只查询一次倒排索引，过滤时只做集合查找
+     * @param text 搜索文本
+     */
+    private void applySearchFilter(String text) {
+        // 如果没有搜索文本，显示所有项目
+        if (text == null || text.isEmpty()) {
+            filteredData.setPredicate(project -> true);
+            return;
+        }
+        
+        // 比较项目名称和备注
+        Set<Long> matchedIds = projectService.findMatchingProjectIds(text);
+        
+        // 比较项目状态：状态只有几种，先找出匹配的状态，没有匹配时不再计算每个项目的状态
+        String lowerCaseFilter = text.toLowerCase();
+        Set<String> matchedStatuses = new HashSet<>();
+        for (Status status : Status.values()) {
+            if (status.getText().toLowerCase().contains(lowerCaseFilter)) {
+                matchedStatuses.add(status.getText());
+            }
+        }
+        
+        filteredData.setPredicate(project ->
+            matchedIds.contains(project.getId()) ||
+            (!matchedStatuses.isEmpty() && matchedStatuses.contains(project.getStatusText())));
+    }
+    
     /**
      * 刷新项目列表
      */
@@ -407,6 +420,9 @@ public class ProjectTableController {
                 }
             }
             
+            // 项目可能已变化，重新按当前搜索文本过滤
+            applySearchFilter(searchField.getText());
+            
             AppLogger.info("项目列表刷新完成，共 " + projectData.size() + " 个项目");
         } catch (Exception e) {
             AppLogger.error("刷新项目列表失败: " + e.getMessage(), e);
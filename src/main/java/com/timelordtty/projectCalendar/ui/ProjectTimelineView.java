@@ -0,0 +1,685 @@
+package com.timelordtty.projectCalendar.ui;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.timelordtty.AppLogger;
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.service.ProjectService;
+import com.timelordtty.projectCalendar.utils.DateCalculator;
+import com.timelordtty.projectCalendar.utils.HolidayManager;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.Toggle;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.util.Duration;
+
+/**
+ * 项目时间轴视图
+ *
+ * 每个项目一行，从最早的日期画到最晚的日期，上网、报名截止、最早评审、开标和专家评审画成圆点。
+ * 整个视图只有一个Canvas，滚动条只记录偏移量，每次只绘制可见时间范围内的可见行，
+ * 项目数再多也不增加节点，绘制量只与窗口大小有关。缩放级别从日到季度，
+ * Ctrl+滚轮以鼠标所在日期为中心缩放，Shift+滚轮横向滚动。
+ */
+public class ProjectTimelineView extends BorderPane {
+
+    /**
+     * 缩放级别
+     */
+    public enum Zoom {
+        DAY("日", 28),
+        WEEK("周", 8),
+        MONTH("月", 2.5),
+        QUARTER("季", 0.9);
+
+        private final String label;
+        private final double pixelsPerDay;
+
+        Zoom(String label, double pixelsPerDay) {
+            this.label = label;
+            this.pixelsPerDay = pixelsPerDay;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final double LABEL_WIDTH = 180;
+    private static final double HEADER_HEIGHT = 40;
+    private static final double ROW_HEIGHT = 22;
+    private static final double MILESTONE_RADIUS = 4;
+    private static final double HIT_RADIUS = 6;
+    // 时间范围在项目日期前后各留出的天数
+    private static final int RANGE_MARGIN_DAYS = 31;
+
+    private static final Font LABEL_FONT = Font.font("System", 12);
+    private static final Font HEADER_FONT = Font.font("System", FontWeight.BOLD, 11);
+    private static final Font TICK_FONT = Font.font("System", 10);
+    private static final Color GRID_COLOR = Color.web("#EEEEEE");
+    private static final Color NON_WORKING_COLOR = Color.web("#F7F7F7");
+    private static final Color BAND_COLOR = Color.web("#FAFAFA");
+    private static final Color BAR_COLOR = Color.web("#CFD8DC");
+    private static final Color HEADER_COLOR = Color.web("#F5F5F5");
+    private static final Color BORDER_COLOR = Color.web("#BDBDBD");
+    private static final Color TEXT_COLOR = Color.web("#212121");
+    private static final Color TODAY_COLOR = Color.web("#E53935");
+
+    private final ProjectService projectService;
+    private final HolidayManager holidayManager = HolidayManager.getInstance();
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar horizontalBar = new ScrollBar();
+    private final ScrollBar verticalBar = new ScrollBar();
+    private final Tooltip tooltip = new Tooltip();
+    private final ToggleGroup zoomGroup = new ToggleGroup();
+
+    private ProjectClickHandler projectClickHandler;
+    private Zoom zoom = Zoom.WEEK;
+
+    // 按开始日期排序的行，项目变更后在下次绘制前重建
+    private boolean dirty = true;
+    private boolean redrawPending;
+    private Project[] rowProjects = new Project[0];
+    private long[] rowStart = new long[0];
+    private long[] rowEnd = new long[0];
+    private long rangeStart;
+    private long rangeEnd;
+    private Project hoveredProject;
+    private CalendarDateType hoveredType;
+
+    /**
+     * 构造函数
+     * @param projectService 项目服务，调用{@link #attach()}后项目变更时重建行
+     */
+    public ProjectTimelineView(ProjectService projectService) {
+        this.projectService = projectService;
+        getStyleClass().add("project-timeline");
+
+        setTop(createToolbar());
+
+        Pane canvasPane = new Pane(canvas);
+        canvasPane.setMinSize(0, 0);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener((obs, oldValue, newValue) -> {
+            updateScrollBars();
+            draw();
+        });
+        canvas.heightProperty().addListener((obs, oldValue, newValue) -> {
+            updateScrollBars();
+            draw();
+        });
+        setCenter(canvasPane);
+
+        verticalBar.setOrientation(Orientation.VERTICAL);
+        horizontalBar.setOrientation(Orientation.HORIZONTAL);
+        verticalBar.valueProperty().addListener((obs, oldValue, newValue) -> draw());
+        horizontalBar.valueProperty().addListener((obs, oldValue, newValue) -> draw());
+        setRight(verticalBar);
+        setBottom(horizontalBar);
+
+        tooltip.getStyleClass().add("calendar-marker-tooltip");
+        tooltip.setShowDelay(Duration.millis(100));
+        tooltip.setShowDuration(Duration.seconds(20));
+
+        canvas.setOnScroll(this::handleScroll);
+        canvas.setOnMouseMoved(this::updateHover);
+        canvas.setOnMouseExited(event -> setHovered(null, null));
+        canvas.setOnMouseClicked(event -> {
+            Project project = projectAt(event.getY());
+            if (project != null && projectClickHandler != null) {
+                projectClickHandler.onProjectClicked(project, event.getClickCount() == 2);
+            }
+        });
+
+        // 隐藏期间不绘制，重新显示时按最新数据重建
+        visibleProperty().addListener((obs, wasVisible, visible) -> {
+            if (visible) {
+                draw();
+            }
+        });
+    }
+
+    /**
+     * 开始监听项目变更，创建视图后调用一次
+     * 项目变更时只标记需要重建，可见时把同一批变更合并为一次重绘，隐藏时等到显示再重建
+     */
+    public void attach() {
+        projectService.addProjectChangeListener(event -> {
+            if (Platform.isFxApplicationThread()) {
+                markDirty();
+            } else {
+                Platform.runLater(this::markDirty);
+            }
+        });
+    }
+
+    private HBox createToolbar() {
+        HBox toolbar = new HBox(5);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        toolbar.setPadding(new Insets(3, 5, 3, 5));
+        toolbar.getStyleClass().add("project-timeline-toolbar");
+        toolbar.getChildren().add(new Label("缩放:"));
+        for (Zoom level : Zoom.values()) {
+            ToggleButton button = new ToggleButton(level.getLabel());
+            button.setToggleGroup(zoomGroup);
+            button.setUserData(level);
+            button.setSelected(level == zoom);
+            toolbar.getChildren().add(button);
+        }
+        zoomGroup.selectedToggleProperty().addListener((obs, oldToggle, newToggle) -> {
+            if (newToggle == null) {
+                // 保持总有一个缩放级别被选中
+                oldToggle.setSelected(true);
+            } else {
+                setZoom((Zoom) newToggle.getUserData());
+            }
+        });
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        Button todayButton = new Button("今天");
+        todayButton.setOnAction(event -> scrollToDate(LocalDate.now()));
+        toolbar.getChildren().addAll(spacer, todayButton);
+        return toolbar;
+    }
+
+    /**
+     * 设置项目点击处理器
+     * @param handler 处理器
+     */
+    public void setProjectClickHandler(ProjectClickHandler handler) {
+        this.projectClickHandler = handler;
+    }
+
+    /**
+     * 设置缩放级别，保持视图中心的日期不变
+     * @param newZoom 缩放级别
+     */
+    public void setZoom(Zoom newZoom) {
+        if (newZoom == zoom) {
+            return;
+        }
+        double centerX = LABEL_WIDTH + chartWidth() / 2;
+        zoomAt(newZoom, centerX);
+    }
+
+    /**
+     * 项目数据已变更，重建行并重绘
+     */
+    public void refresh() {
+        dirty = true;
+        draw();
+    }
+
+    private void markDirty() {
+        dirty = true;
+        if (isVisible() && !redrawPending) {
+            redrawPending = true;
+            Platform.runLater(() -> {
+                redrawPending = false;
+                draw();
+            });
+        }
+    }
+
+    /**
+     * 横向滚动，使指定日期位于视图左侧
+     * @param date 日期
+     */
+    public void scrollToDate(LocalDate date) {
+        rebuildIfDirty();
+        updateScrollBars();
+        horizontalBar.setValue(clamp((date.toEpochDay() - rangeStart) * zoom.pixelsPerDay - chartWidth() / 5,
+                0, horizontalBar.getMax()));
+    }
+
+    /**
+     * 按开始日期重建所有行，只保存排序后的数组，绘制时按下标取可见行
+     */
+    private void rebuildIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        long start = System.nanoTime();
+
+        // 先算出每个项目的起止日期，排序时不再重复计算
+        List<long[]> spans = new ArrayList<>();
+        List<Project> projects = projectService.getAllProjects();
+        for (int i = 0; i < projects.size(); i++) {
+            LocalDate first = firstDate(projects.get(i));
+            if (first != null) {
+                spans.add(new long[] {first.toEpochDay(), lastDate(projects.get(i)).toEpochDay(), i});
+            }
+        }
+        spans.sort(Comparator.<long[]>comparingLong(span -> span[0]).thenComparingLong(span -> span[2]));
+
+        int count = spans.size();
+        rowProjects = new Project[count];
+        rowStart = new long[count];
+        rowEnd = new long[count];
+        long today = LocalDate.now().toEpochDay();
+        long min = today;
+        long max = today;
+        for (int i = 0; i < count; i++) {
+            long[] span = spans.get(i);
+            rowProjects[i] = projects.get((int) span[2]);
+            rowStart[i] = span[0];
+            rowEnd[i] = span[1];
+            min = Math.min(min, rowStart[i]);
+            max = Math.max(max, rowEnd[i]);
+        }
+        rangeStart = min - RANGE_MARGIN_DAYS;
+        rangeEnd = max + RANGE_MARGIN_DAYS;
+        updateScrollBars();
+
+        AppLogger.debug("时间轴数据已重建: " + count + " 个项目，耗时 " + (System.nanoTime() - start) / 1_000 + " us");
+    }
+
+    private static LocalDate firstDate(Project project) {
+        LocalDate first = null;
+        for (CalendarDateType type : CalendarDateType.values()) {
+            LocalDate date = type.dateOf(project);
+            if (date != null && (first == null || date.isBefore(first))) {
+                first = date;
+            }
+        }
+        return first;
+    }
+
+    private static LocalDate lastDate(Project project) {
+        LocalDate last = null;
+        for (CalendarDateType type : CalendarDateType.values()) {
+            LocalDate date = type.dateOf(project);
+            if (date != null && (last == null || date.isAfter(last))) {
+                last = date;
+            }
+        }
+        return last;
+    }
+
+    private double chartWidth() {
+        return Math.max(0, canvas.getWidth() - LABEL_WIDTH);
+    }
+
+    private double chartHeight() {
+        return Math.max(0, canvas.getHeight() - HEADER_HEIGHT);
+    }
+
+    private void updateScrollBars() {
+        double contentWidth = (rangeEnd - rangeStart + 1) * zoom.pixelsPerDay;
+        double contentHeight = rowProjects.length * ROW_HEIGHT;
+        configure(horizontalBar, contentWidth, chartWidth());
+        configure(verticalBar, contentHeight, chartHeight());
+    }
+
+    private static void configure(ScrollBar bar, double content, double visible) {
+        double max = Math.max(0, content - visible);
+        bar.setMax(max);
+        bar.setVisibleAmount(visible <= 0 || content <= 0 ? 1 : max * visible / content);
+        bar.setUnitIncrement(ROW_HEIGHT);
+        bar.setBlockIncrement(Math.max(ROW_HEIGHT, visible * 0.9));
+        bar.setValue(clamp(bar.getValue(), 0, max));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * 切换缩放级别，保持画布横坐标x处的日期不动
+     */
+    private void zoomAt(Zoom newZoom, double x) {
+        rebuildIfDirty();
+        double dayAtX = (horizontalBar.getValue() + x - LABEL_WIDTH) / zoom.pixelsPerDay;
+        zoom = newZoom;
+        for (Toggle toggle : zoomGroup.getToggles()) {
+            if (toggle.getUserData() == newZoom && !toggle.isSelected()) {
+                toggle.setSelected(true);
+            }
+        }
+        updateScrollBars();
+        horizontalBar.setValue(clamp(dayAtX * zoom.pixelsPerDay - (x - LABEL_WIDTH), 0, horizontalBar.getMax()));
+        draw();
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (event.isControlDown()) {
+            int step = event.getDeltaY() > 0 ? -1 : 1;
+            int index = (int) clamp(zoom.ordinal() + step, 0, Zoom.values().length - 1);
+            if (index != zoom.ordinal()) {
+                zoomAt(Zoom.values()[index], Math.max(LABEL_WIDTH, event.getX()));
+            }
+        } else if (event.isShiftDown() || Math.abs(event.getDeltaX()) > Math.abs(event.getDeltaY())) {
+            double delta = event.isShiftDown() && event.getDeltaX() == 0 ? event.getDeltaY() : event.getDeltaX();
+            horizontalBar.setValue(clamp(horizontalBar.getValue() - delta, 0, horizontalBar.getMax()));
+        } else {
+            verticalBar.setValue(clamp(verticalBar.getValue() - event.getDeltaY(), 0, verticalBar.getMax()));
+        }
+        event.consume();
+    }
+
+    /**
+     * 只绘制可见的时间范围和可见的行
+     */
+    private void draw() {
+        if (!isVisible()) {
+            return;
+        }
+        rebuildIfDirty();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, width, height);
+        if (width <= LABEL_WIDTH || height <= HEADER_HEIGHT) {
+            return;
+        }
+
+        double ppd = zoom.pixelsPerDay;
+        double xOffset = horizontalBar.getValue();
+        double yOffset = verticalBar.getValue();
+        long firstDay = rangeStart + (long) Math.floor(xOffset / ppd);
+        long lastDay = rangeStart + (long) Math.ceil((xOffset + chartWidth()) / ppd);
+        int firstRow = (int) (yOffset / ROW_HEIGHT);
+        int lastRow = Math.min(rowProjects.length - 1, (int) ((yOffset + chartHeight()) / ROW_HEIGHT));
+
+        // 图表区域：网格、非工作日、行
+        gc.save();
+        gc.beginPath();
+        gc.rect(LABEL_WIDTH, HEADER_HEIGHT, chartWidth(), chartHeight());
+        gc.clip();
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (row % 2 == 1) {
+                gc.setFill(BAND_COLOR);
+                gc.fillRect(LABEL_WIDTH, rowY(row, yOffset), chartWidth(), ROW_HEIGHT);
+            }
+        }
+        if (zoom == Zoom.DAY) {
+            gc.setFill(NON_WORKING_COLOR);
+            for (long day = firstDay; day <= lastDay; day++) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                if (DateCalculator.isWeekend(date) || holidayManager.isHoliday(date)) {
+                    gc.fillRect(dayX(day, xOffset), HEADER_HEIGHT, ppd, chartHeight());
+                }
+            }
+        }
+        gc.setStroke(GRID_COLOR);
+        gc.setLineWidth(1);
+        for (LocalDate tick = fineUnitStart(LocalDate.ofEpochDay(firstDay)); tick.toEpochDay() <= lastDay; tick = nextFineUnit(tick)) {
+            double x = Math.floor(dayX(tick.toEpochDay(), xOffset)) + 0.5;
+            gc.strokeLine(x, HEADER_HEIGHT, x, height);
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            drawRow(gc, row, rowY(row, yOffset), xOffset, firstDay, lastDay);
+        }
+        long today = LocalDate.now().toEpochDay();
+        if (today >= firstDay && today <= lastDay) {
+            double x = dayX(today, xOffset) + ppd / 2;
+            gc.setStroke(TODAY_COLOR);
+            gc.strokeLine(x, HEADER_HEIGHT, x, height);
+        }
+        gc.restore();
+
+        drawHeader(gc, firstDay, lastDay, xOffset);
+        drawLabels(gc, firstRow, lastRow, yOffset);
+    }
+
+    private double rowY(int row, double yOffset) {
+        return HEADER_HEIGHT + row * ROW_HEIGHT - yOffset;
+    }
+
+    private double dayX(long day, double xOffset) {
+        return LABEL_WIDTH + (day - rangeStart) * zoom.pixelsPerDay - xOffset;
+    }
+
+    private void drawRow(GraphicsContext gc, int row, double y, double xOffset, long firstDay, long lastDay) {
+        if (rowEnd[row] < firstDay || rowStart[row] > lastDay) {
+            return;
+        }
+        Project project = rowProjects[row];
+        double ppd = zoom.pixelsPerDay;
+        double centerY = y + ROW_HEIGHT / 2;
+        double startX = dayX(rowStart[row], xOffset) + ppd / 2;
+        double endX = dayX(rowEnd[row], xOffset) + ppd / 2;
+        gc.setFill(project == hoveredProject ? BAR_COLOR.darker() : BAR_COLOR);
+        gc.fillRoundRect(startX, centerY - 3, Math.max(2, endX - startX), 6, 6, 6);
+
+        for (CalendarDateType type : CalendarDateType.values()) {
+            LocalDate date = type.dateOf(project);
+            if (date == null) {
+                continue;
+            }
+            double x = dayX(date.toEpochDay(), xOffset) + ppd / 2;
+            double radius = project == hoveredProject && type == hoveredType ? MILESTONE_RADIUS + 1.5 : MILESTONE_RADIUS;
+            gc.setFill(type.getTextColor());
+            gc.fillOval(x - radius, centerY - radius, radius * 2, radius * 2);
+            // 日视图下有空间时在圆点旁标注日期类型
+            if (zoom == Zoom.DAY) {
+                gc.setFont(TICK_FONT);
+                gc.setTextBaseline(VPos.CENTER);
+                gc.fillText(type.getLabel(), x + radius + 2, centerY - 6);
+            }
+        }
+    }
+
+    /**
+     * 表头两行：上面是粗粒度单位（月或年），下面是当前缩放级别的单位
+     */
+    private void drawHeader(GraphicsContext gc, long firstDay, long lastDay, double xOffset) {
+        double width = canvas.getWidth();
+        double half = HEADER_HEIGHT / 2;
+        gc.setFill(HEADER_COLOR);
+        gc.fillRect(LABEL_WIDTH, 0, width - LABEL_WIDTH, HEADER_HEIGHT);
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(LABEL_WIDTH, 0, width - LABEL_WIDTH, HEADER_HEIGHT);
+        gc.clip();
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setStroke(BORDER_COLOR);
+        gc.setLineWidth(1);
+
+        gc.setFont(HEADER_FONT);
+        for (LocalDate tick = coarseUnitStart(LocalDate.ofEpochDay(firstDay)); tick.toEpochDay() <= lastDay; tick = nextCoarseUnit(tick)) {
+            double x = Math.floor(dayX(tick.toEpochDay(), xOffset)) + 0.5;
+            gc.strokeLine(x, 0, x, half);
+            gc.setFill(TEXT_COLOR);
+            gc.fillText(coarseLabel(tick), Math.max(x, LABEL_WIDTH) + 4, half / 2);
+        }
+
+        gc.setFont(TICK_FONT);
+        double minLabelWidth = 26;
+        for (LocalDate tick = fineUnitStart(LocalDate.ofEpochDay(firstDay)); tick.toEpochDay() <= lastDay; tick = nextFineUnit(tick)) {
+            double x = Math.floor(dayX(tick.toEpochDay(), xOffset)) + 0.5;
+            double unitWidth = (nextFineUnit(tick).toEpochDay() - tick.toEpochDay()) * zoom.pixelsPerDay;
+            gc.strokeLine(x, half, x, HEADER_HEIGHT);
+            if (unitWidth >= minLabelWidth) {
+                gc.setFill(TEXT_COLOR);
+                gc.fillText(fineLabel(tick), x + 3, half + half / 2, unitWidth - 4);
+            }
+        }
+        gc.restore();
+
+        gc.setStroke(BORDER_COLOR);
+        gc.strokeLine(LABEL_WIDTH, HEADER_HEIGHT - 0.5, width, HEADER_HEIGHT - 0.5);
+        gc.strokeLine(LABEL_WIDTH, half + 0.5, width, half + 0.5);
+    }
+
+    private void drawLabels(GraphicsContext gc, int firstRow, int lastRow, double yOffset) {
+        double height = canvas.getHeight();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, LABEL_WIDTH, height);
+        gc.setFill(HEADER_COLOR);
+        gc.fillRect(0, 0, LABEL_WIDTH, HEADER_HEIGHT);
+        gc.setFill(TEXT_COLOR);
+        gc.setFont(HEADER_FONT);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText("项目（" + rowProjects.length + "）", 6, HEADER_HEIGHT / 2);
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(0, HEADER_HEIGHT, LABEL_WIDTH - 4, height - HEADER_HEIGHT);
+        gc.clip();
+        gc.setFont(LABEL_FONT);
+        for (int row = firstRow; row <= lastRow; row++) {
+            double y = rowY(row, yOffset);
+            if (row % 2 == 1) {
+                gc.setFill(BAND_COLOR);
+                gc.fillRect(0, y, LABEL_WIDTH, ROW_HEIGHT);
+            }
+            gc.setFill(TEXT_COLOR);
+            gc.fillText(String.valueOf(rowProjects[row].getName()), 6, y + ROW_HEIGHT / 2);
+        }
+        gc.restore();
+
+        gc.setStroke(BORDER_COLOR);
+        gc.strokeLine(LABEL_WIDTH - 0.5, 0, LABEL_WIDTH - 0.5, height);
+    }
+
+    private LocalDate fineUnitStart(LocalDate date) {
+        switch (zoom) {
+            case DAY:
+                return date;
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return quarterStart(date);
+        }
+    }
+
+    private LocalDate nextFineUnit(LocalDate date) {
+        switch (zoom) {
+            case DAY:
+                return date.plusDays(1);
+            case WEEK:
+                return date.plusWeeks(1);
+            case MONTH:
+                return date.plusMonths(1);
+            default:
+                return date.plusMonths(3);
+        }
+    }
+
+    private String fineLabel(LocalDate date) {
+        switch (zoom) {
+            case DAY:
+                return String.valueOf(date.getDayOfMonth());
+            case WEEK:
+                return date.getMonthValue() + "/" + date.getDayOfMonth();
+            case MONTH:
+                return date.getMonthValue() + "月";
+            default:
+                return "Q" + date.get(IsoFields.QUARTER_OF_YEAR);
+        }
+    }
+
+    private LocalDate coarseUnitStart(LocalDate date) {
+        return zoom == Zoom.DAY || zoom == Zoom.WEEK ? date.withDayOfMonth(1) : date.withDayOfYear(1);
+    }
+
+    private LocalDate nextCoarseUnit(LocalDate date) {
+        return zoom == Zoom.DAY || zoom == Zoom.WEEK ? date.plusMonths(1) : date.plusYears(1);
+    }
+
+    private String coarseLabel(LocalDate date) {
+        return zoom == Zoom.DAY || zoom == Zoom.WEEK
+            ? date.getYear() + "年" + date.getMonthValue() + "月"
+            : date.getYear() + "年";
+    }
+
+    private static LocalDate quarterStart(LocalDate date) {
+        return date.withDayOfMonth(1).withMonth((date.getMonthValue() - 1) / 3 * 3 + 1);
+    }
+
+    private Project projectAt(double y) {
+        if (y < HEADER_HEIGHT) {
+            return null;
+        }
+        int row = (int) ((y - HEADER_HEIGHT + verticalBar.getValue()) / ROW_HEIGHT);
+        return row >= 0 && row < rowProjects.length ? rowProjects[row] : null;
+    }
+
+    /**
+     * 悬停在圆点上时提示该日期类型，悬停在行上时提示项目
+     */
+    private void updateHover(MouseEvent event) {
+        Project project = projectAt(event.getY());
+        CalendarDateType type = null;
+        if (project != null && event.getX() >= LABEL_WIDTH) {
+            double xOffset = horizontalBar.getValue();
+            double best = HIT_RADIUS;
+            for (CalendarDateType candidate : CalendarDateType.values()) {
+                LocalDate date = candidate.dateOf(project);
+                if (date != null) {
+                    double distance = Math.abs(dayX(date.toEpochDay(), xOffset) + zoom.pixelsPerDay / 2 - event.getX());
+                    if (distance <= best) {
+                        best = distance;
+                        type = candidate;
+                    }
+                }
+            }
+        }
+        setHovered(project, type);
+    }
+
+    private void setHovered(Project project, CalendarDateType type) {
+        if (project == hoveredProject && type == hoveredType) {
+            return;
+        }
+        hoveredProject = project;
+        hoveredType = type;
+        if (project != null) {
+            CalendarDateType described = type != null ? type : firstType(project);
+            tooltip.setText(described.describe(project));
+            Tooltip.install(canvas, tooltip);
+            canvas.setCursor(Cursor.HAND);
+        } else {
+            tooltip.hide();
+            Tooltip.uninstall(canvas, tooltip);
+            canvas.setCursor(Cursor.DEFAULT);
+        }
+        draw();
+    }
+
+    private static CalendarDateType firstType(Project project) {
+        LocalDate first = firstDate(project);
+        for (CalendarDateType type : CalendarDateType.values()) {
+            if (first.equals(type.dateOf(project))) {
+                return type;
+            }
+        }
+        return CalendarDateType.ONLINE;
+    }
+}
@@ -9,11 +9,13 @@ import java.util.function.Consumer;
 import com.timelordtty.AppLogger;
 import com.timelordtty.projectCalendar.Project;
 import com.timelordtty.projectCalendar.service.ProjectService;
+import com.timelordtty.projectCalendar.service.ReminderEngine;
 import com.timelordtty.projectCalendar.utils.DateCalculator;
 
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
@@ -36,6 +38,7 @@ import javafx.util.Duration;
 public class ReminderController {
     
     private ProjectService projectService;
+    private ReminderEngine reminderEngine;
     private List<Project> reminderProjects;
     private int currentReminderIndex = 0;
     
@@ -90,8 +93,13 @@ public class ReminderController {
         try {
             AppLogger.info("初始化提醒功能");
             
-            // 获取需要提醒的项目列表
-            reminderProjects = projectService.getThisWeekAndNextWeekProjects();
+            // 提醒范围内的项目由提醒引擎维护，变化时推送过来
+            reminderEngine = ReminderEngine.getInstance();
+            reminderProjects = reminderEngine.getUpcomingProjects();
+            reminderEngine.addUpcomingListener(projects -> Platform.runLater(() -> {
+                reminderProjects = projects;
+                refreshReminders();
+            }));
             
             // 设置鼠标事件
             reminderScrollArea.setOnMouseEntered(e -> {
@@ -131,9 +139,9 @@ public class ReminderController {
         try {
             AppLogger.info("开始刷新提醒");
             
-            // 重新获取提醒项目
+            // 从提醒引擎读取提醒范围内的项目
             List<Project> oldProjects = reminderProjects;
-            reminderProjects = projectService.getThisWeekAndNextWeekProjects();
+            reminderProjects = reminderEngine.getUpcomingProjects();
             
             int oldCount = oldProjects != null ? oldProjects.size() : 0;
             int newCount = reminderProjects != null ? reminderProjects.size() : 0;
@@ -0,0 +1,49 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * 随程序发布的节假日数据
+ *
+ * 数据文件是{@link HolidaySnapshot#writeTo(java.io.DataOutput)}格式的二进制文件，
+ * 不需要网络和JSON解析，首次启动也能立即得到节假日数据。
+ * 文件由src/test/resources/holidays/holidays.txt中的文本表生成，修改数据时改文本表，
+ * 再用测试代码中的HolidayDataGenerator重新生成。
+ */
+class BundledHolidayProvider implements HolidayProvider {
+
+    static final String RESOURCE = "/holidays/holidays.bin";
+
+    private HolidaySnapshot data;
+
+    @Override
+    public String getName() {
+        return "内置数据";
+    }
+
+    @Override
+    public Set<Integer> getAvailableYears() throws IOException {
+        return data().years();
+    }
+
+    @Override
+    public HolidaySnapshot load(int year) throws IOException {
+        return data().forYear(year);
+    }
+
+    private synchronized HolidaySnapshot data() throws IOException {
+        if (data == null) {
+            try (InputStream resource = BundledHolidayProvider.class.getResourceAsStream(RESOURCE)) {
+                if (resource == null) {
+                    throw new IOException("找不到内置节假日数据: " + RESOURCE);
+                }
+                data = HolidaySnapshot.readFrom(new DataInputStream(new BufferedInputStream(resource)));
+            }
+        }
+        return data;
+    }
+}
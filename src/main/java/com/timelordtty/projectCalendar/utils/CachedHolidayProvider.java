@@ -0,0 +1,202 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import com.timelordtty.AppLogger;
+
+/**
+ * 本地缓存的节假日数据
+ *
+ * 每年一个二进制文件（年份.bin），先保存网络请求的校验信息（ETag和Last-Modified），
+ * 再保存该年的{@link HolidaySnapshot}。文件的修改时间就是最后一次向网络确认数据的时间。
+ * 旧版本保存的年份.json文件在第一次读取时转换为二进制文件。
+ */
+class CachedHolidayProvider implements HolidayProvider {
+
+    private static final String DATA_SUFFIX = ".bin";
+    private static final String LEGACY_SUFFIX = ".json";
+
+    /**
+     * 一个年份的缓存内容
+     */
+    static final class CacheEntry {
+        private final HolidaySnapshot data;
+        private final String etag;
+        private final long lastModified;
+
+        CacheEntry(HolidaySnapshot data, String etag, long lastModified) {
+            this.data = data;
+            this.etag = etag == null ? "" : etag;
+            this.lastModified = lastModified;
+        }
+
+        HolidaySnapshot getData() {
+            return data;
+        }
+
+        /**
+         * 服务器返回的ETag，没有时为空字符串
+         */
+        String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 服务器返回的最后修改时间（毫秒），没有时为0
+         */
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final Path cacheDir;
+
+    /**
+     * 构造函数
+     * @param cacheDir 缓存目录
+     */
+    CachedHolidayProvider(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    @Override
+    public String getName() {
+        return "本地缓存";
+    }
+
+    @Override
+    public Set<Integer> getAvailableYears() throws IOException {
+        Set<Integer> years = new TreeSet<>();
+        if (!Files.isDirectory(cacheDir)) {
+            return years;
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(path -> {
+                Integer year = yearOf(path.getFileName().toString());
+                if (year != null) {
+                    years.add(year);
+                }
+            });
+        }
+        return years;
+    }
+
+    @Override
+    public HolidaySnapshot load(int year) throws IOException {
+        CacheEntry entry = readEntry(year);
+        return entry == null ? null : entry.getData();
+    }
+
+    /**
+     * 读取指定年份的缓存
+     * @param year 年份
+     * @return 缓存内容，没有缓存时返回null
+     * @throws IOException 读取失败时抛出
+     */
+    CacheEntry readEntry(int year) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(dataFile(year))))) {
+            String etag = in.readUTF();
+            long lastModified = in.readLong();
+            return new CacheEntry(HolidaySnapshot.readFrom(in), etag, lastModified);
+        } catch (NoSuchFileException e) {
+            return convertLegacyFile(year);
+        }
+    }
+
+    /**
+     * 保存指定年份的数据和校验信息
+     * 先写入临时文件再替换，写到一半失败不会破坏原有缓存
+     * @param year 年份
+     * @param entry 缓存内容
+     * @throws IOException 写入失败时抛出
+     */
+    void store(int year, CacheEntry entry) throws IOException {
+        Files.createDirectories(cacheDir);
+        Path target = dataFile(year);
+        Path temp = cacheDir.resolve(year + DATA_SUFFIX + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeUTF(entry.getEtag());
+            out.writeLong(entry.getLastModified());
+            entry.getData().writeTo(out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 记录数据已向网络确认（服务器返回未修改）
+     * @param year 年份
+     * @throws IOException 更新失败时抛出
+     */
+    void touch(int year) throws IOException {
+        Files.setLastModifiedTime(dataFile(year), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    /**
+     * 检查指定年份的缓存是否在有效期内
+     * @param year 年份
+     * @param maxAgeMillis 有效期（毫秒）
+     * @return 是否有效
+     */
+    boolean isFresh(int year, long maxAgeMillis) {
+        try {
+            long checkedAt = Files.getLastModifiedTime(dataFile(year)).toMillis();
+            return System.currentTimeMillis() - checkedAt < maxAgeMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 把旧版本的JSON缓存转换为二进制缓存，保留原文件的修改时间
+     */
+    private CacheEntry convertLegacyFile(int year) throws IOException {
+        Path legacy = cacheDir.resolve(year + LEGACY_SUFFIX);
+        if (!Files.exists(legacy)) {
+            return null;
+        }
+
+        HolidaySnapshot data;
+        try (InputStream in = Files.newInputStream(legacy)) {
+            data = HttpHolidayProvider.parse(in, year);
+        }
+        FileTime checkedAt = Files.getLastModifiedTime(legacy);
+        CacheEntry entry = new CacheEntry(data, "", 0);
+        store(year, entry);
+        Files.setLastModifiedTime(dataFile(year), checkedAt);
+        Files.delete(legacy);
+        AppLogger.info("节假日缓存已转换为二进制格式: " + year);
+        return entry;
+    }
+
+    private Path dataFile(int year) {
+        return cacheDir.resolve(year + DATA_SUFFIX);
+    }
+
+    /**
+     * 从缓存文件名中取出年份，不是缓存文件时返回null
+     */
+    private static Integer yearOf(String fileName) {
+        String name;
+        if (fileName.endsWith(DATA_SUFFIX)) {
+            name = fileName.substring(0, fileName.length() - DATA_SUFFIX.length());
+        } else if (fileName.endsWith(LEGACY_SUFFIX)) {
+            name = fileName.substring(0, fileName.length() - LEGACY_SUFFIX.length());
+        } else {
+            return null;
+        }
+        return name.length() == 4 && name.chars().allMatch(Character::isDigit) ? Integer.valueOf(name) : null;
+    }
+}
@@ -0,0 +1,449 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.timelordtty.AppLogger;
+
+/**
+ * 数据库连接池，负责复用H2连接并缓存预编译语句
+ *
+ * 连接数量有上限，空闲连接保持打开状态，避免每次访问都重新打开数据库文件。
+ * 借出的连接在close()时归还到池中，预编译语句按连接缓存，close()时只清空参数。
+ */
+public class ConnectionPool {
+
+    // 连接池默认配置
+    private static final int MAX_POOL_SIZE = 4;
+    private static final int MIN_IDLE = 1;
+    private static final long BORROW_TIMEOUT_MS = 10_000L;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private static ConnectionPool instance;
+
+    // 空闲连接队列（后进先出，优先复用最近使用的连接）
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    // 所有物理连接，用于关闭连接池
+    private final List<PooledConnection> allConnections = new ArrayList<>();
+
+    private final int maxPoolSize;
+    private final AtomicInteger totalCount = new AtomicInteger(0);
+    private final AtomicInteger activeCount = new AtomicInteger(0);
+    private volatile boolean shutdown = false;
+
+    // 监控指标
+    private final AtomicLong borrowCount = new AtomicLong(0);
+    private final AtomicLong borrowWaitNanos = new AtomicLong(0);
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong(0);
+    private final AtomicLong statementCacheHits = new AtomicLong(0);
+    private final AtomicLong statementCacheMisses = new AtomicLong(0);
+
+    /**
+     * 私有构造函数
+     * @param maxPoolSize 最大连接数
+     */
+    private ConnectionPool(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * 获取连接池实例
+     * @return 连接池实例
+     */
+    public static synchronized ConnectionPool getInstance() {
+        if (instance == null) {
+            instance = new ConnectionPool(MAX_POOL_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * 预热连接池，提前打开最少数量的空闲连接
+     */
+    public void warmUp() {
+        try {
+            while (totalCount.get() < MIN_IDLE) {
+                PooledConnection pooled = createPhysicalConnection();
+                if (pooled == null) {
+                    break;
+                }
+                idleConnections.offerFirst(pooled);
+            }
+            AppLogger.info("数据库连接池预热完成，空闲连接数: " + idleConnections.size());
+        } catch (SQLException e) {
+            AppLogger.error("数据库连接池预热失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从连接池借出一个连接，使用完毕后调用close()归还
+     * @return 数据库连接
+     * @throws SQLException 如果连接池已关闭、等待超时或创建连接失败
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("数据库连接池已关闭");
+        }
+
+        long start = System.nanoTime();
+        PooledConnection pooled = borrow();
+        long waited = System.nanoTime() - start;
+
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(waited);
+        maxBorrowWaitNanos.accumulateAndGet(waited, Math::max);
+        activeCount.incrementAndGet();
+
+        return pooled.lease();
+    }
+
+    /**
+     * 借出物理连接：优先复用空闲连接，未达上限时新建，否则等待归还
+     */
+    private PooledConnection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BORROW_TIMEOUT_MS);
+
+        while (true) {
+            PooledConnection pooled = idleConnections.pollFirst();
+            if (pooled == null) {
+                pooled = createPhysicalConnection();
+            }
+            if (pooled == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SQLException("获取数据库连接超时，当前活动连接数: " + activeCount.get());
+                }
+                try {
+                    pooled = idleConnections.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("等待数据库连接时被中断", e);
+                }
+                if (pooled == null) {
+                    continue;
+                }
+            }
+
+            if (pooled.isUsable()) {
+                return pooled;
+            }
+
+            // 连接已失效，丢弃后重试
+            AppLogger.warning("丢弃失效的数据库连接");
+            discard(pooled);
+        }
+    }
+
+    /**
+     * 在未达到上限时创建新的物理连接
+     * @return 新连接，如果已达上限则返回null
+     */
+    private PooledConnection createPhysicalConnection() throws SQLException {
+        int current;
+        do {
+            current = totalCount.get();
+            if (current >= maxPoolSize) {
+                return null;
+            }
+        } while (!totalCount.compareAndSet(current, current + 1));
+
+        try {
+            PooledConnection pooled = new PooledConnection(DatabaseManager.getConnection());
+            synchronized (allConnections) {
+                allConnections.add(pooled);
+            }
+            AppLogger.debug("创建新的数据库连接，当前连接总数: " + totalCount.get());
+            return pooled;
+        } catch (SQLException e) {
+            totalCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接到连接池
+     */
+    private void release(PooledConnection pooled) {
+        activeCount.decrementAndGet();
+
+        if (shutdown || !pooled.resetForReuse()) {
+            discard(pooled);
+            return;
+        }
+        idleConnections.offerFirst(pooled);
+    }
+
+    /**
+     * 丢弃物理连接
+     */
+    private void discard(PooledConnection pooled) {
+        synchronized (allConnections) {
+            allConnections.remove(pooled);
+        }
+        totalCount.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    /**
+     * 关闭连接池并释放所有物理连接
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        AppLogger.info("关闭数据库连接池: " + getMetricsSummary());
+
+        List<PooledConnection> connections;
+        synchronized (allConnections) {
+            connections = new ArrayList<>(allConnections);
+            allConnections.clear();
+        }
+        idleConnections.clear();
+        for (PooledConnection pooled : connections) {
+            pooled.closePhysical();
+        }
+        totalCount.set(0);
+    }
+
+    /**
+     * 获取当前借出的连接数
+     * @return 活动连接数
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * 获取当前空闲的连接数
+     * @return 空闲连接数
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * 获取借出连接的总次数
+     * @return 借出次数
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * 获取平均借出等待时间（毫秒）
+     * @return 平均等待时间
+     */
+    public double getAverageBorrowWaitMillis() {
+        long count = borrowCount.get();
+        return count == 0 ? 0.0 : borrowWaitNanos.get() / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * 获取最长借出等待时间（毫秒）
+     * @return 最长等待时间
+     */
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * 获取预编译语句缓存命中率
+     * @return 命中率（0到1之间）
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0.0 : hits / (double) total;
+    }
+
+    /**
+     * 获取连接池指标摘要，用于日志输出
+     * @return 指标摘要
+     */
+    public String getMetricsSummary() {
+        return String.format("活动=%d, 空闲=%d, 借出次数=%d, 平均等待=%.3fms, 最长等待=%.3fms, 语句缓存命中率=%.1f%%",
+                getActiveCount(), getIdleCount(), getBorrowCount(),
+                getAverageBorrowWaitMillis(), getMaxBorrowWaitMillis(),
+                getStatementCacheHitRatio() * 100);
+    }
+
+    /**
+     * 池化的物理连接，持有预编译语句缓存
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        // 预编译语句缓存（按访问顺序淘汰最久未使用的语句）
+        private final Map<String, PreparedStatement> statementCache =
+                new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() > STATEMENT_CACHE_SIZE) {
+                            closeQuietly(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * 创建一个逻辑连接代理，close()时归还物理连接
+         */
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new LeaseHandler(this));
+        }
+
+        boolean isUsable() {
+            try {
+                return !physical.isClosed() && physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * 重置连接状态，确保下一个使用者拿到自动提交模式的连接
+         * @return 是否可以继续复用
+         */
+        boolean resetForReuse() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                AppLogger.warning("重置数据库连接失败: " + e.getMessage());
+                return false;
+            }
+        }
+
+        PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            String key = autoGeneratedKeys + ":" + sql;
+            PreparedStatement cached = statementCache.get(key);
+            if (cached != null && !cached.isClosed()) {
+                statementCacheHits.incrementAndGet();
+                return wrapStatement(cached);
+            }
+
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement created = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                    ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : physical.prepareStatement(sql);
+            statementCache.put(key, created);
+            return wrapStatement(created);
+        }
+
+        void closePhysical() {
+            for (Iterator<PreparedStatement> it = statementCache.values().iterator(); it.hasNext();) {
+                closeQuietly(it.next());
+                it.remove();
+            }
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                AppLogger.error("关闭数据库连接时发生错误: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 逻辑连接代理：拦截close()和prepareStatement()
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed = false;
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if ("close".equals(name)) {
+                if (!closed) {
+                    closed = true;
+                    release(pooled);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return closed || pooled.physical.isClosed();
+            }
+            if (closed) {
+                throw new SQLException("连接已归还到连接池");
+            }
+            if ("prepareStatement".equals(name) && args != null) {
+                if (args.length == 1) {
+                    return pooled.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && args[1] instanceof Integer) {
+                    return pooled.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 包装缓存的预编译语句，close()时仅清空参数而不真正关闭
+     */
+    private static PreparedStatement wrapStatement(PreparedStatement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        statement.clearParameters();
+                        statement.clearBatch();
+                        return null;
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            AppLogger.debug("关闭预编译语句失败: " + e.getMessage());
+        }
+    }
+}
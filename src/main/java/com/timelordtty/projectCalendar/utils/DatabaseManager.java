@@ -2,11 +2,8 @@ package com.timelordtty.projectCalendar.utils;
 
 import java.io.File;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 import com.timelordtty.AppLogger;
 
@@ -32,30 +29,6 @@ public class DatabaseManager {
     // 当前使用的数据库URL
     private static String currentDbUrl = null;
     
-    // 数据库结构定义
-    private static final String CREATE_PROJECTS_TABLE = 
-            "CREATE TABLE IF NOT EXISTS projects (" +
-            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
-            "name VARCHAR(255) NOT NULL, " +
-            "review_period INTEGER NOT NULL, " +
-            "online_date DATE, " +
-            "registration_period INTEGER NOT NULL, " +
-            "registration_end_date DATE, " +
-            "earliest_review_date DATE, " +
-            "expected_review_time TIMESTAMP, " +  // 开标时间，存储日期和时间
-            "expert_review_time TIMESTAMP, " +    // 专家评审时间，存储日期和时间
-            "remark TEXT)";
-    
-    // 数据库结构升级SQL语句
-    private static final String ALTER_TABLE_ADD_EXPERT_REVIEW_TIME = 
-            "ALTER TABLE projects ADD COLUMN IF NOT EXISTS expert_review_time TIMESTAMP";
-    
-    private static final String ALTER_TABLE_RENAME_EXPECTED_REVIEW_DATE = 
-            "ALTER TABLE projects ALTER COLUMN expected_review_date RENAME TO expected_review_time";
-    
-    private static final String ALTER_TABLE_CHANGE_TYPE = 
-            "ALTER TABLE projects ALTER COLUMN expected_review_time TIMESTAMP";
-    
     /**
      * 私有构造函数，防止实例化
      */
@@ -86,89 +59,13 @@ public class DatabaseManager {
                 }
             }
             
-            // 获取连接并创建表
-            try (Connection conn = getConnection();
-                 Statement stmt = conn.createStatement()) {
-                
-                // 创建项目表
-                AppLogger.info("执行表创建SQL: " + CREATE_PROJECTS_TABLE);
-                stmt.execute(CREATE_PROJECTS_TABLE);
-                
-                // 尝试进行表结构升级
-                try {
-                    // 检查列是否存在，不存在则添加
-                    DatabaseMetaData meta = conn.getMetaData();
-                    
-                    // 检查专家评审时间字段
-                    boolean hasExpertReviewTime = false;
-                    ResultSet columns = meta.getColumns(null, null, "PROJECTS", "EXPERT_REVIEW_TIME");
-                    if (columns.next()) {
-                        hasExpertReviewTime = true;
-                        AppLogger.info("表结构检查：专家评审时间字段已存在");
-                    } else {
-                        columns = meta.getColumns(null, null, "projects", "expert_review_time");
-                        if (columns.next()) {
-                            hasExpertReviewTime = true;
-                            AppLogger.info("表结构检查：专家评审时间字段已存在（小写）");
-                        }
-                    }
-                    
-                    // 如果专家评审时间字段不存在，添加它
-                    if (!hasExpertReviewTime) {
-                        AppLogger.info("升级表结构：添加专家评审时间字段");
-                        stmt.execute(ALTER_TABLE_ADD_EXPERT_REVIEW_TIME);
-                    }
-                    
-                    // 检查开标时间字段类型
-                    boolean needsTypeChange = false;
-                    columns = meta.getColumns(null, null, "PROJECTS", "EXPECTED_REVIEW_TIME");
-                    if (!columns.next()) {
-                        columns = meta.getColumns(null, null, "projects", "expected_review_time");
-                        if (!columns.next()) {
-                            // 如果expected_review_time不存在，检查expected_review_date是否存在
-                            columns = meta.getColumns(null, null, "PROJECTS", "EXPECTED_REVIEW_DATE");
-                            if (columns.next()) {
-                                needsTypeChange = true;
-                                AppLogger.info("升级表结构：需要将expected_review_date重命名为expected_review_time");
-                                try {
-                                    stmt.execute(ALTER_TABLE_RENAME_EXPECTED_REVIEW_DATE);
-                                    stmt.execute(ALTER_TABLE_CHANGE_TYPE);
-                                    AppLogger.info("表结构升级成功：开标时间字段已升级");
-                                } catch (SQLException e) {
-                                    AppLogger.error("无法更改列类型: " + e.getMessage(), e);
-                                }
-                            }
-                        }
-                    }
-                } catch (SQLException e) {
-                    AppLogger.error("表结构升级过程中发生错误: " + e.getMessage(), e);
-                }
-                
-                // 检查表是否存在
-                DatabaseMetaData meta = conn.getMetaData();
-                ResultSet rs = meta.getTables(null, null, "PROJECTS", null);
-                if (rs.next()) {
-                    AppLogger.info("数据库初始化成功：projects表已创建或已存在");
-                } else {
-                    rs = meta.getTables(null, null, "projects", null);
-                    if (rs.next()) {
-                        AppLogger.info("数据库初始化成功：projects表已创建或已存在（小写）");
-                    } else {
-                        // 如果表不存在，再次尝试创建
-                        AppLogger.warning("未检测到表，尝试再次创建表");
-                        stmt.execute("DROP TABLE IF EXISTS projects");
-                        stmt.execute(CREATE_PROJECTS_TABLE);
-                        
-                        // 再次检查表是否存在
-                        rs = meta.getTables(null, null, "PROJECTS", null);
-                        if (rs.next() || meta.getTables(null, null, "projects", null).next()) {
-                            AppLogger.info("表创建成功");
-                        } else {
-                            AppLogger.error("数据库初始化失败：未能创建projects表");
-                        }
-                    }
-                }
+            // 执行数据库结构迁移，已是最新版本时只读取一次版本号
+            try (Connection conn = getConnection()) {
+                SchemaMigrator.migrate(conn);
             }
+            
+            // 预热连接池，后续数据访问直接复用已打开的连接
+            ConnectionPool.getInstance().warmUp();
         } catch (ClassNotFoundException e) {
             AppLogger.error("H2数据库驱动加载失败: " + e.getMessage(), e);
         } catch (SQLException e) {
@@ -208,7 +105,7 @@ public class DatabaseManager {
     }
     
     /**
-     * 获取数据库连接
+     * 获取数据库物理连接（数据访问请使用{@link ConnectionPool}）
      * @return 数据库连接对象
      * @throws SQLException 如果获取连接失败
      */
@@ -243,6 +140,13 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * 关闭数据库，释放连接池中的所有连接
+     */
+    public static void shutdown() {
+        ConnectionPool.getInstance().shutdown();
+    }
+    
     /**
      * 获取当前使用的数据库URL
      * @return 数据库URL
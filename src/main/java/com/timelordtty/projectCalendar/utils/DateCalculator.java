@@ -3,42 +3,20 @@ package com.timelordtty.projectCalendar.utils;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 日期计算工具类，用于处理工作日和节假日计算
+ * 工作日判断和推算基于按年生成的工作日位图（见{@link WorkdayCalendar}），不逐日循环
  */
 public class DateCalculator {
     
-    private static final Map<LocalDate, Boolean> workdayCache = new HashMap<>();
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // 当前使用的工作日位图，节假日数据变化时整体替换
+    private static volatile WorkdayCalendar calendar;
     
-    // 调休工作日 - 周末需要上班的日期
-    private static final Map<String, Boolean> WORKDAYS_MAP = new HashMap<>();
-    
-    // 初始化调休工作日
     static {
-        // 2024年调休
-        WORKDAYS_MAP.put("2024-02-04", true); // 春节调休
-        WORKDAYS_MAP.put("2024-02-18", true); // 春节调休
-        WORKDAYS_MAP.put("2024-04-07", true); // 清明调休
-        WORKDAYS_MAP.put("2024-04-28", true); // 劳动节调休
-        WORKDAYS_MAP.put("2024-05-11", true); // 劳动节调休
-        WORKDAYS_MAP.put("2024-06-02", true); // 端午调休
-        WORKDAYS_MAP.put("2024-09-14", true); // 中秋调休
-        WORKDAYS_MAP.put("2024-09-29", true); // 国庆调休
-        WORKDAYS_MAP.put("2024-10-12", true); // 国庆调休
-        
-        // 2025年调休
-        WORKDAYS_MAP.put("2025-01-26", true); // 春节调休
-        WORKDAYS_MAP.put("2025-02-08", true); // 春节调休
-        WORKDAYS_MAP.put("2025-04-06", true); // 清明调休
-        WORKDAYS_MAP.put("2025-04-27", true); // 劳动节调休
-        WORKDAYS_MAP.put("2025-05-10", true); // 劳动节调休
-        WORKDAYS_MAP.put("2025-06-29", true); // 端午调休
-        WORKDAYS_MAP.put("2025-09-28", true); // 国庆调休
-        WORKDAYS_MAP.put("2025-10-11", true); // 国庆调休
+        // 先注册监听器再生成位图，避免错过两者之间发布的节假日更新
+        HolidayManager.getInstance().addHolidayDataListener(DateCalculator::clearCache);
+        calendar = createCalendar();
     }
     
     /**
@@ -47,34 +25,27 @@ public class DateCalculator {
      * @return 是否为工作日
      */
     public static boolean isWorkingDay(LocalDate date) {
-        // 首先检查缓存
-        if (workdayCache.containsKey(date)) {
-            return workdayCache.get(date);
-        }
-        
-        boolean result;
-        String dateStr = date.format(DATE_FORMATTER);
-        
-        // 如果是法定节假日，则不是工作日
-        if (HolidayManager.getInstance().isHoliday(date)) {
-            result = false;
-        }
-        // 如果是周末，但是是调休工作日，则是工作日
-        else if (isWeekend(date) && WORKDAYS_MAP.containsKey(dateStr)) {
-            result = true;
-        }
-        // 如果是周末且不是调休工作日，则不是工作日
-        else if (isWeekend(date)) {
-            result = false;
-        }
-        // 否则是普通工作日
-        else {
-            result = true;
-        }
-        
-        // 将结果放入缓存
-        workdayCache.put(date, result);
-        return result;
+        return calendar.isWorkingDay(date);
+    }
+    
+    /**
+     * 基于当前节假日快照生成工作日位图，同一位图内的所有日期都按同一份节假日数据判断
+     * @return 工作日位图
+     */
+    private static WorkdayCalendar createCalendar() {
+        HolidaySnapshot holidays = HolidayManager.getInstance().getSnapshot();
+        return new WorkdayCalendar(date -> {
+            // 如果是法定节假日，则不是工作日（节假日优先于调休工作日标记）
+            if (holidays.isHoliday(date)) {
+                return false;
+            }
+            // 如果是周末，只有调休工作日才是工作日
+            if (isWeekend(date)) {
+                return holidays.isAdjustedWorkday(date);
+            }
+            // 否则是普通工作日
+            return true;
+        });
     }
     
     /**
@@ -98,28 +69,24 @@ public class DateCalculator {
      * @return 计算后的日期
      */
     public static LocalDate calculateDateAfterWorkingDays(LocalDate startDate, int workingDays) {
-        // 先移动到开始日期的下一天，作为第一个计算日
-        LocalDate currentDate = startDate.plusDays(1);
-        
-        // 计算工作日
-        int count = 0;
-        while (count < workingDays) {
-            if (isWorkingDay(currentDate)) {
-                count++;
-            }
-            
-            if (count < workingDays) {
-                currentDate = currentDate.plusDays(1);
-            }
-        }
-        
-        // 再找到下一个工作日
-        currentDate = currentDate.plusDays(1);
-        while (!isWorkingDay(currentDate)) {
-            currentDate = currentDate.plusDays(1);
+        return calculateDateAfterWorkingDays(calendar, startDate, workingDays);
+    }
+    
+    /**
+     * 使用指定的工作日位图计算，规则同{@link #calculateDateAfterWorkingDays(LocalDate, int)}
+     * @param current 工作日位图
+     * @param startDate 开始日期
+     * @param workingDays 工作日数量
+     * @return 计算后的日期
+     */
+    public static LocalDate calculateDateAfterWorkingDays(WorkdayCalendar current, LocalDate startDate, int workingDays) {
+        if (workingDays <= 0) {
+            // 不计工作日时，取开始日期后第二天起的第一个工作日
+            return current.nthWorkingDayFrom(startDate.plusDays(2), 1);
         }
         
-        return currentDate;
+        // 从开始日期的下一天起数到第workingDays个工作日，再取之后的第一个工作日，即第workingDays+1个工作日
+        return current.nthWorkingDayFrom(startDate.plusDays(1), workingDays + 1);
     }
     
     /**
@@ -133,19 +100,33 @@ public class DateCalculator {
      * @return 计算后的日期
      */
     public static LocalDate calculateFirstWorkingDayAfterNaturalDays(LocalDate startDate, int naturalDays) {
-        // 先移动到开始日期的下一天，作为第一个计算日
-        LocalDate currentDate = startDate.plusDays(1);
-        
-        // 再加上剩余的自然日数量(自然日数-1)
-        currentDate = currentDate.plusDays(naturalDays - 1);
-        
-        // 再向后找到第一个工作日
-        currentDate = currentDate.plusDays(1);
-        while (!isWorkingDay(currentDate)) {
-            currentDate = currentDate.plusDays(1);
+        return calculateFirstWorkingDayAfterNaturalDays(calendar, startDate, naturalDays);
+    }
+    
+    /**
+     * 使用指定的工作日位图计算，规则同{@link #calculateFirstWorkingDayAfterNaturalDays(LocalDate, int)}
+     * @param current 工作日位图
+     * @param startDate 开始日期
+     * @param naturalDays 自然日数量
+     * @return 计算后的第一个工作日
+     */
+    public static LocalDate calculateFirstWorkingDayAfterNaturalDays(WorkdayCalendar current, LocalDate startDate, int naturalDays) {
+        // 开始日期的下一天算第1个自然日，第naturalDays个自然日是startDate+naturalDays，
+        // 再从其后一天起找第一个工作日
+        return current.nthWorkingDayFrom(startDate.plusDays(naturalDays + 1L), 1);
+    }
+    
+    /**
+     * 计算两个日期之间的工作日数（包含开始日期和结束日期）
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 工作日数，结束日期早于开始日期时为0
+     */
+    public static int countWorkingDaysBetween(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return 0;
         }
-        
-        return currentDate;
+        return calendar.countWorkingDays(startDate, endDate.plusDays(1));
     }
     
     /**
@@ -173,10 +154,18 @@ public class DateCalculator {
     }
     
     /**
-     * 清除缓存
+     * 清除缓存：以新的工作日位图整体替换旧的，之后的计算按最新的节假日数据重新生成
      */
     public static void clearCache() {
-        workdayCache.clear();
+        calendar = createCalendar();
+    }
+    
+    /**
+     * 获取当前的工作日位图，节假日数据变化后再调用会得到新的实例
+     * @return 工作日位图
+     */
+    public static WorkdayCalendar getCalendar() {
+        return calendar;
     }
     
     /**
@@ -1,45 +1,46 @@
 package com.timelordtty.projectCalendar.utils;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.timelordtty.AppLogger;
 
-import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Properties;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * 节假日管理器
  * 提供节假日数据的获取、缓存和访问功能
+ *
+ * 节假日数据保存在不可变的{@link HolidaySnapshot}中，通过volatile引用发布：
+ * 查询无需加锁，更新时在旧快照基础上生成新快照再整体替换，然后通知监听器（如工作日位图）。
+ * 启动时只读取内置数据和本地缓存（都是二进制格式，不访问网络），
+ * 然后在后台用条件请求检查当前年份和下一年的数据是否有更新。
  */
 public class HolidayManager {
 
     private static final String CACHE_DIR = "data/holidays";
-    private static final String API_URL = "https://timor.tech/api/holiday/year/";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // 本地缓存超过该时间后向网络确认一次，未变化时服务器只返回304
+    private static final long REFRESH_INTERVAL_MILLIS = 24 * 60 * 60 * 1000L;
     private static HolidayManager instance;
     
-    // 节假日数据缓存
-    private Map<String, String> holidayMap = new HashMap<>();
-    // 特殊日期缓存（不作为节假日但需要特殊处理的日期）
-    private Map<String, String> specialDateMap = new HashMap<>();
+    // 当前节假日数据快照，只整体替换
+    private volatile HolidaySnapshot snapshot = HolidaySnapshot.EMPTY;
+    // 节假日数据变化监听器
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
     
-    private ObjectMapper objectMapper = new ObjectMapper();
+    private final CachedHolidayProvider cacheProvider = new CachedHolidayProvider(Paths.get(CACHE_DIR));
+    // 启动时按顺序加载的本地来源，后加载的年份整体替换先加载的同一年份
+    private final List<HolidayProvider> localProviders = List.of(new BundledHolidayProvider(), cacheProvider);
+    private final HolidayProvider remoteProvider = new HttpHolidayProvider(
+            System.getProperty(HttpHolidayProvider.URL_PROPERTY, HttpHolidayProvider.DEFAULT_URL_TEMPLATE), cacheProvider);
     
     /**
      * 获取HolidayManager实例
      * @return HolidayManager实例
      */
-    public static HolidayManager getInstance() {
+    public static synchronized HolidayManager getInstance() {
         if (instance == null) {
             instance = new HolidayManager();
         }
@@ -57,11 +58,15 @@ public class HolidayManager {
      * 初始化节假日数据
      */
     private void initHolidayData() {
-        // 首先加载硬编码的基础节假日数据
-        loadHardcodedHolidays();
-        
-        // 尝试从缓存文件加载
-        loadHolidaysFromCache();
+        long start = System.nanoTime();
+        HolidaySnapshot.Builder builder = new HolidaySnapshot.Builder();
+        for (HolidayProvider provider : localProviders) {
+            loadAll(provider, builder);
+        }
+        HolidaySnapshot loaded = builder.build();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        publish(loaded);
+        AppLogger.info("加载本地节假日数据完成，耗时 " + elapsedMillis + " ms");
         
         // 异步更新当前年份和下一年的节假日数据
         int currentYear = LocalDate.now().getYear();
@@ -70,232 +75,135 @@ public class HolidayManager {
     }
     
     /**
-     * 加载硬编码的节假日数据（作为基础数据，确保离线时也能工作）
+     * 把一个来源的所有年份加载到构建器中，每个年份整体替换已有数据，单个年份失败不影响其他年份
      */
-    private void loadHardcodedHolidays() {
-        // 当前年份节假日
-        addHoliday("2024-01-01", "元旦");
-        addHoliday("2024-02-10", "春节");
-        addHoliday("2024-02-11", "春节");
-        addHoliday("2024-02-12", "春节");
-        addHoliday("2024-02-13", "春节");
-        addHoliday("2024-02-14", "春节|情人节");
-        addHoliday("2024-02-15", "春节");
-        addHoliday("2024-02-16", "春节");
-        addHoliday("2024-02-17", "春节");
-        addHoliday("2024-04-04", "清明节");
-        addHoliday("2024-04-05", "清明节");
-        addHoliday("2024-04-06", "清明节");
-        addHoliday("2024-05-01", "劳动节");
-        addHoliday("2024-05-02", "劳动节");
-        addHoliday("2024-05-03", "劳动节");
-        addHoliday("2024-05-04", "劳动节");
-        addHoliday("2024-05-05", "劳动节");
-        addHoliday("2024-06-01", "儿童节");
-        addHoliday("2024-06-08", "端午节");
-        addHoliday("2024-06-09", "端午节");
-        addHoliday("2024-06-10", "端午节");
-        addHoliday("2024-08-10", "七夕节");
-        addHoliday("2024-09-15", "中秋节");
-        addHoliday("2024-09-16", "中秋节");
-        addHoliday("2024-09-17", "中秋节");
-        addHoliday("2024-10-01", "国庆节");
-        addHoliday("2024-10-02", "国庆节");
-        addHoliday("2024-10-03", "国庆节");
-        addHoliday("2024-10-04", "国庆节");
-        addHoliday("2024-10-05", "国庆节");
-        addHoliday("2024-10-06", "国庆节");
-        addHoliday("2024-10-07", "国庆节");
-        
-        // 2025年节假日
-        addHoliday("2025-01-01", "元旦");
-        // 不再将特殊纪念日加为节假日，改为特殊日期
-        addSpecialDate("2025-01-18", "first-date");
-        addHoliday("2025-01-29", "春节");
-        addHoliday("2025-01-30", "春节");
-        addHoliday("2025-01-31", "春节");
-        // 改成通用的春节，而不用大年初一，避免显示问题
-        addHoliday("2025-02-01", "春节");
-        addHoliday("2025-02-02", "春节");
-        addHoliday("2025-02-03", "春节");
-        addHoliday("2025-02-04", "春节");
-        // 避免情人节右侧显示方块问题
-        addHoliday("2025-02-14", "情人节");
-        // 不再将特殊纪念日加为节假日，改为特殊日期
-        addSpecialDate("2025-02-16", "second-date");
-        addHoliday("2025-03-08", "妇女节");
-        addHoliday("2025-04-04", "清明节");
-        addHoliday("2025-04-05", "清明节");
-        addHoliday("2025-04-06", "清明节");
-        addHoliday("2025-05-01", "劳动节");
-        addHoliday("2025-05-02", "劳动节");
-        addHoliday("2025-05-03", "劳动节");
-        addHoliday("2025-05-04", "劳动节");
-        addHoliday("2025-05-05", "劳动节");
-        addHoliday("2025-06-01", "儿童节");
-        addHoliday("2025-06-28", "端午节");
-        addHoliday("2025-06-29", "端午节");
-        addHoliday("2025-06-30", "端午节");
-        addHoliday("2025-08-28", "七夕节");
-        addHoliday("2025-10-01", "国庆节");
-        addHoliday("2025-10-02", "国庆节");
-        addHoliday("2025-10-03", "国庆节");
-        addHoliday("2025-10-04", "国庆节|中秋节");
-        addHoliday("2025-10-05", "国庆节|中秋节");
-        addHoliday("2025-10-06", "国庆节|中秋节");
-        addHoliday("2025-10-07", "国庆节");
+    private void loadAll(HolidayProvider provider, HolidaySnapshot.Builder builder) {
+        try {
+            for (int year : provider.getAvailableYears()) {
+                try {
+                    HolidaySnapshot data = provider.load(year);
+                    if (data != null) {
+                        builder.replaceYear(year, data);
+                    }
+                } catch (Exception e) {
+                    AppLogger.error("从" + provider.getName() + "加载 " + year + " 年节假日数据失败: " + e.getMessage(), e);
+                }
+            }
+        } catch (Exception e) {
+            AppLogger.error("从" + provider.getName() + "加载节假日数据失败: " + e.getMessage(), e);
+        }
     }
     
     /**
-     * 添加一个节假日
+     * 异步更新指定年份的节假日数据
      */
-    private void addHoliday(String date, String name) {
-        holidayMap.put(date, name);
+    private void updateHolidaysAsync(int year) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                if (cacheProvider.isFresh(year, REFRESH_INTERVAL_MILLIS)) {
+                    AppLogger.info("节假日数据缓存仍然有效: " + year);
+                    return;
+                }
+                
+                HolidaySnapshot data = remoteProvider.load(year);
+                if (data == null) {
+                    AppLogger.info("节假日数据未变化: " + year);
+                    return;
+                }
+                
+                // 在当前快照基础上用新数据替换该年份，已取消的节假日和调休不会残留
+                update(builder -> builder.replaceYear(year, data));
+                AppLogger.info("成功更新节假日数据: " + year);
+            } catch (Exception e) {
+                AppLogger.error("更新节假日数据失败: " + e.getMessage(), e);
+            }
+        });
     }
     
     /**
-     * 添加一个特殊日期（不是节假日但需要特殊处理）
+     * 在当前快照的基础上修改数据，生成新快照并替换
+     * 多个更新串行执行，不会互相覆盖
+     * @param change 对构建器的修改
      */
-    private void addSpecialDate(String date, String type) {
-        specialDateMap.put(date, type);
+    private synchronized void update(Consumer<HolidaySnapshot.Builder> change) {
+        HolidaySnapshot.Builder builder = snapshot.toBuilder();
+        change.accept(builder);
+        publish(builder.build());
     }
     
     /**
-     * 从本地缓存加载节假日数据
+     * 发布新快照并通知监听器
      */
-    private void loadHolidaysFromCache() {
-        try {
-            // 确保缓存目录存在
-            Path cacheDir = Paths.get(CACHE_DIR);
-            if (!Files.exists(cacheDir)) {
-                Files.createDirectories(cacheDir);
-                return;
+    private void publish(HolidaySnapshot newSnapshot) {
+        snapshot = newSnapshot;
+        AppLogger.info("节假日数据已更新，共 " + newSnapshot.size() + " 个标记日期");
+        for (Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                AppLogger.error("处理节假日数据变化时发生异常: " + e.getMessage(), e);
             }
-            
-            // 读取所有缓存文件
-            Files.list(cacheDir)
-                 .filter(path -> path.toString().endsWith(".json"))
-                 .forEach(this::loadHolidayFile);
-                 
-            AppLogger.info("从缓存加载节假日数据完成");
-        } catch (Exception e) {
-            AppLogger.error("从缓存加载节假日数据失败: " + e.getMessage(), e);
         }
     }
     
     /**
-     * 加载单个节假日缓存文件
+     * 添加节假日数据变化监听器，每次发布新快照后调用（可能在后台线程中）
+     * @param listener 监听器
      */
-    private void loadHolidayFile(Path path) {
-        try {
-            Map<String, Object> data = objectMapper.readValue(path.toFile(), 
-                                       new TypeReference<Map<String, Object>>() {});
-            
-            // 解析API返回的节假日数据结构
-            if (data.containsKey("holiday") && data.get("holiday") instanceof Map) {
-                Map<String, Object> holidays = (Map<String, Object>) data.get("holiday");
-                
-                for (Map.Entry<String, Object> entry : holidays.entrySet()) {
-                    if (entry.getValue() instanceof Map) {
-                        Map<String, Object> holiday = (Map<String, Object>) entry.getValue();
-                        if (holiday.containsKey("name")) {
-                            String date = entry.getKey();
-                            String name = holiday.get("name").toString();
-                            holidayMap.put(date, name);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            AppLogger.error("加载节假日文件失败: " + path.toString() + ", " + e.getMessage(), e);
+    public void addHolidayDataListener(Runnable listener) {
+        if (listener != null) {
+            changeListeners.add(listener);
         }
     }
     
     /**
-     * 异步更新指定年份的节假日数据
+     * 移除节假日数据变化监听器
+     * @param listener 监听器
      */
-    private void updateHolidaysAsync(int year) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                // 检查是否已有缓存
-                Path cachePath = Paths.get(CACHE_DIR, year + ".json");
-                if (Files.exists(cachePath)) {
-                    // 如果文件修改时间在30天内，不更新
-                    long lastModified = Files.getLastModifiedTime(cachePath).toMillis();
-                    long now = System.currentTimeMillis();
-                    if ((now - lastModified) < 30 * 24 * 60 * 60 * 1000L) {
-                        AppLogger.info("节假日数据缓存仍然有效: " + year);
-                        return;
-                    }
-                }
-                
-                // 从API获取数据
-                String apiUrl = API_URL + year;
-                URL url = new URL(apiUrl);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-                
-                int responseCode = connection.getResponseCode();
-                if (responseCode == 200) {
-                    // 读取响应
-                    try (BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(connection.getInputStream()))) {
-                        StringBuilder response = new StringBuilder();
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            response.append(line);
-                        }
-                        
-                        // 保存到缓存
-                        Files.createDirectories(Paths.get(CACHE_DIR));
-                        try (FileWriter writer = new FileWriter(cachePath.toFile())) {
-                            writer.write(response.toString());
-                        }
-                        
-                        // 解析并加载数据
-                        loadHolidayFile(cachePath);
-                        AppLogger.info("成功更新节假日数据: " + year);
-                    }
-                } else {
-                    AppLogger.warn("获取节假日数据失败，响应码: " + responseCode);
-                }
-            } catch (Exception e) {
-                AppLogger.error("更新节假日数据失败: " + e.getMessage(), e);
-            }
-        });
+    public void removeHolidayDataListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+    
+    /**
+     * 获取当前节假日数据快照
+     * @return 快照
+     */
+    HolidaySnapshot getSnapshot() {
+        return snapshot;
     }
     
     /**
      * 检查日期是否是节假日
      */
     public boolean isHoliday(LocalDate date) {
-        String dateStr = date.format(DATE_FORMATTER);
-        return holidayMap.containsKey(dateStr);
+        return snapshot.isHoliday(date);
     }
     
     /**
      * 获取节假日名称
      */
     public String getHolidayName(LocalDate date) {
-        String dateStr = date.format(DATE_FORMATTER);
-        return holidayMap.getOrDefault(dateStr, "");
+        return snapshot.getHolidayName(date);
+    }
+    
+    /**
+     * 检查日期是否是调休工作日（周末需要上班）
+     */
+    public boolean isAdjustedWorkday(LocalDate date) {
+        return snapshot.isAdjustedWorkday(date);
     }
     
     /**
      * 检查日期是否是特殊日期
      */
     public boolean isSpecialDate(LocalDate date) {
-        String dateStr = date.format(DATE_FORMATTER);
-        return specialDateMap.containsKey(dateStr);
+        return snapshot.isSpecialDate(date);
     }
     
     /**
      * 获取特殊日期类型
      */
     public String getSpecialDateType(LocalDate date) {
-        String dateStr = date.format(DATE_FORMATTER);
-        return specialDateMap.getOrDefault(dateStr, "");
+        return snapshot.getSpecialDateType(date);
     }
 } 
\ No newline at end of file
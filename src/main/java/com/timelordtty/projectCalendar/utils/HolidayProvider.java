@@ -0,0 +1,34 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 节假日数据来源
+ *
+ * HolidayManager启动时按顺序合并本地来源（内置数据、本地缓存）的所有年份，后加载的覆盖先加载的；
+ * 之后在后台按年份向网络来源请求更新。
+ */
+interface HolidayProvider {
+
+    /**
+     * 获取来源名称，用于日志
+     * @return 来源名称
+     */
+    String getName();
+
+    /**
+     * 获取可以直接加载的年份，只能按需请求的来源返回空集合
+     * @return 年份集合
+     * @throws IOException 读取失败时抛出
+     */
+    Set<Integer> getAvailableYears() throws IOException;
+
+    /**
+     * 加载指定年份的节假日数据
+     * @param year 年份
+     * @return 节假日数据，没有数据或数据未变化时返回null
+     * @throws IOException 读取失败时抛出
+     */
+    HolidaySnapshot load(int year) throws IOException;
+}
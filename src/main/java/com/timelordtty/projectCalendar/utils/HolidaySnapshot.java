@@ -0,0 +1,333 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 节假日数据快照（不可变）
+ *
+ * 按epoch day排序的int数组保存有标记的日期，每个日期对应一个标记字节（节假日、调休工作日、特殊日期）
+ * 和名称在字符串表中的序号，查询为一次二分查找，不需要把日期格式化为字符串。
+ * 快照创建后不再修改，可以在任意线程中读取；更新数据时用{@link #toBuilder()}生成新的快照再整体替换。
+ * 快照可以按{@link #writeTo(DataOutput)}的二进制格式保存，读取时直接还原数组，不需要解析JSON。
+ */
+final class HolidaySnapshot {
+
+    // 标记位
+    private static final byte HOLIDAY = 1;          // 节假日
+    private static final byte ADJUSTED_WORKDAY = 2; // 调休工作日（周末上班）
+    private static final byte SPECIAL = 4;          // 特殊日期
+
+    // 没有名称时的序号
+    private static final short NO_NAME = -1;
+
+    // 二进制格式标识（"HLDY"）和版本
+    private static final int FORMAT_MAGIC = 0x484C4459;
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * 空快照
+     */
+    static final HolidaySnapshot EMPTY = new Builder().build();
+
+    private final int[] days;
+    private final byte[] flags;
+    private final short[] names;
+    private final short[] specialTypes;
+    private final String[] strings;
+
+    private HolidaySnapshot(int[] days, byte[] flags, short[] names, short[] specialTypes, String[] strings) {
+        this.days = days;
+        this.flags = flags;
+        this.names = names;
+        this.specialTypes = specialTypes;
+        this.strings = strings;
+    }
+
+    /**
+     * 是否为节假日
+     */
+    boolean isHoliday(LocalDate date) {
+        return hasFlag(indexOf(date), HOLIDAY);
+    }
+
+    /**
+     * 获取节假日名称，不是节假日时返回空字符串
+     */
+    String getHolidayName(LocalDate date) {
+        int index = indexOf(date);
+        return hasFlag(index, HOLIDAY) ? string(names[index]) : "";
+    }
+
+    /**
+     * 是否为调休工作日
+     */
+    boolean isAdjustedWorkday(LocalDate date) {
+        return hasFlag(indexOf(date), ADJUSTED_WORKDAY);
+    }
+
+    /**
+     * 是否为特殊日期
+     */
+    boolean isSpecialDate(LocalDate date) {
+        return hasFlag(indexOf(date), SPECIAL);
+    }
+
+    /**
+     * 获取特殊日期类型，不是特殊日期时返回空字符串
+     */
+    String getSpecialDateType(LocalDate date) {
+        int index = indexOf(date);
+        return hasFlag(index, SPECIAL) ? string(specialTypes[index]) : "";
+    }
+
+    /**
+     * 有标记的日期数量
+     */
+    int size() {
+        return days.length;
+    }
+
+    /**
+     * 有标记日期的年份
+     */
+    Set<Integer> years() {
+        Set<Integer> years = new TreeSet<>();
+        for (int day : days) {
+            years.add(LocalDate.ofEpochDay(day).getYear());
+        }
+        return years;
+    }
+
+    /**
+     * 只包含指定年份数据的快照
+     */
+    HolidaySnapshot forYear(int year) {
+        int from = insertionPoint((int) LocalDate.of(year, 1, 1).toEpochDay());
+        int to = insertionPoint((int) LocalDate.of(year + 1, 1, 1).toEpochDay());
+        Builder builder = new Builder();
+        builder.putRange(this, from, to);
+        return builder.build();
+    }
+
+    /**
+     * 以当前快照的数据创建构建器，用于在此基础上更新
+     */
+    Builder toBuilder() {
+        return new Builder().putAll(this);
+    }
+
+    /**
+     * 按二进制格式写出快照
+     * 格式：标识、版本、字符串表，然后按日期顺序写出每个日期的epoch day、标记、名称序号和特殊类型序号
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT_MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeShort(strings.length);
+        for (String value : strings) {
+            out.writeUTF(value);
+        }
+        out.writeInt(days.length);
+        for (int i = 0; i < days.length; i++) {
+            out.writeInt(days[i]);
+            out.writeByte(flags[i]);
+            out.writeShort(names[i]);
+            out.writeShort(specialTypes[i]);
+        }
+    }
+
+    /**
+     * 读取{@link #writeTo(DataOutput)}写出的快照
+     * @throws IOException 读取失败或格式不正确时抛出
+     */
+    static HolidaySnapshot readFrom(DataInput in) throws IOException {
+        if (in.readInt() != FORMAT_MAGIC) {
+            throw new IOException("不是节假日数据文件");
+        }
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("不支持的节假日数据版本: " + version);
+        }
+
+        String[] strings = new String[in.readUnsignedShort()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("节假日数据已损坏");
+        }
+        int[] days = new int[size];
+        byte[] flags = new byte[size];
+        short[] names = new short[size];
+        short[] specialTypes = new short[size];
+        for (int i = 0; i < size; i++) {
+            days[i] = in.readInt();
+            flags[i] = in.readByte();
+            names[i] = in.readShort();
+            specialTypes[i] = in.readShort();
+            if ((i > 0 && days[i] <= days[i - 1]) || names[i] >= strings.length || specialTypes[i] >= strings.length
+                    || names[i] < NO_NAME || specialTypes[i] < NO_NAME) {
+                throw new IOException("节假日数据已损坏");
+            }
+        }
+        return new HolidaySnapshot(days, flags, names, specialTypes, strings);
+    }
+
+    private int indexOf(LocalDate date) {
+        return Arrays.binarySearch(days, (int) date.toEpochDay());
+    }
+
+    private int insertionPoint(int day) {
+        int index = Arrays.binarySearch(days, day);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private boolean hasFlag(int index, byte flag) {
+        return index >= 0 && (flags[index] & flag) != 0;
+    }
+
+    private String string(short index) {
+        return index == NO_NAME ? "" : strings[index];
+    }
+
+    /**
+     * 快照构建器，同一日期后设置的数据覆盖先设置的
+     */
+    static final class Builder {
+
+        private static final class Entry {
+            private byte flags;
+            private String name;
+            private String specialType;
+        }
+
+        private final TreeMap<Integer, Entry> entries = new TreeMap<>();
+
+        /**
+         * 设置节假日
+         */
+        Builder holiday(LocalDate date, String name) {
+            Entry entry = entry(date);
+            entry.flags |= HOLIDAY;
+            entry.name = name;
+            return this;
+        }
+
+        /**
+         * 设置调休工作日
+         * 同一日期既是节假日又是调休工作日时两个标记都保留，判断工作日时节假日优先，名称保留节假日名称
+         */
+        Builder adjustedWorkday(LocalDate date, String name) {
+            Entry entry = entry(date);
+            entry.flags |= ADJUSTED_WORKDAY;
+            if ((entry.flags & HOLIDAY) == 0) {
+                entry.name = name;
+            }
+            return this;
+        }
+
+        /**
+         * 设置特殊日期
+         */
+        Builder specialDate(LocalDate date, String type) {
+            Entry entry = entry(date);
+            entry.flags |= SPECIAL;
+            entry.specialType = type;
+            return this;
+        }
+
+        /**
+         * 合并另一个快照的所有数据
+         */
+        Builder putAll(HolidaySnapshot snapshot) {
+            return putRange(snapshot, 0, snapshot.days.length);
+        }
+
+        /**
+         * 用另一个快照中的数据替换指定年份的节假日和调休工作日，该年份中新数据里没有的节假日和调休会被移除
+         * 特殊日期不受影响：节假日接口和缓存都不提供特殊日期，它们只来自内置数据
+         * @param year 年份
+         * @param snapshot 该年份的新数据
+         */
+        Builder replaceYear(int year, HolidaySnapshot snapshot) {
+            Iterator<Entry> yearEntries = entries.subMap((int) LocalDate.of(year, 1, 1).toEpochDay(),
+                    (int) LocalDate.of(year + 1, 1, 1).toEpochDay()).values().iterator();
+            while (yearEntries.hasNext()) {
+                Entry entry = yearEntries.next();
+                entry.flags &= ~(HOLIDAY | ADJUSTED_WORKDAY);
+                entry.name = null;
+                if (entry.flags == 0) {
+                    yearEntries.remove();
+                }
+            }
+            return putAll(snapshot.forYear(year));
+        }
+
+        private Builder putRange(HolidaySnapshot snapshot, int from, int to) {
+            for (int i = from; i < to; i++) {
+                LocalDate date = LocalDate.ofEpochDay(snapshot.days[i]);
+                if ((snapshot.flags[i] & HOLIDAY) != 0) {
+                    holiday(date, snapshot.string(snapshot.names[i]));
+                }
+                if ((snapshot.flags[i] & ADJUSTED_WORKDAY) != 0) {
+                    adjustedWorkday(date, snapshot.string(snapshot.names[i]));
+                }
+                if ((snapshot.flags[i] & SPECIAL) != 0) {
+                    specialDate(date, snapshot.string(snapshot.specialTypes[i]));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 生成不可变快照
+         */
+        HolidaySnapshot build() {
+            int size = entries.size();
+            int[] days = new int[size];
+            byte[] flags = new byte[size];
+            short[] names = new short[size];
+            short[] specialTypes = new short[size];
+            List<String> strings = new ArrayList<>();
+            Map<String, Short> stringIndex = new HashMap<>();
+
+            int i = 0;
+            for (Map.Entry<Integer, Entry> e : entries.entrySet()) {
+                days[i] = e.getKey();
+                flags[i] = e.getValue().flags;
+                names[i] = intern(e.getValue().name, strings, stringIndex);
+                specialTypes[i] = intern(e.getValue().specialType, strings, stringIndex);
+                i++;
+            }
+            return new HolidaySnapshot(days, flags, names, specialTypes, strings.toArray(new String[0]));
+        }
+
+        private Entry entry(LocalDate date) {
+            return entries.computeIfAbsent((int) date.toEpochDay(), k -> new Entry());
+        }
+
+        private static short intern(String value, List<String> strings, Map<String, Short> stringIndex) {
+            if (value == null || value.isEmpty()) {
+                return NO_NAME;
+            }
+            return stringIndex.computeIfAbsent(value, v -> {
+                strings.add(v);
+                return (short) (strings.size() - 1);
+            });
+        }
+    }
+}
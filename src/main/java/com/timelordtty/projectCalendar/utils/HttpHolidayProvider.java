@@ -0,0 +1,134 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 从节假日接口获取数据
+ *
+ * 请求时带上缓存中的ETag（If-None-Match）和Last-Modified（If-Modified-Since），
+ * 服务器返回304时只刷新缓存的确认时间，不再下载和解析数据。
+ * 地址模板中的{year}替换为年份，可以用系统属性holiday.api.url修改；
+ * 使用file:地址时按文件修改时间判断是否变化，测试时可以用本地文件代替接口。
+ */
+class HttpHolidayProvider implements HolidayProvider {
+
+    static final String URL_PROPERTY = "holiday.api.url";
+    static final String DEFAULT_URL_TEMPLATE = "https://timor.tech/api/holiday/year/{year}";
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String urlTemplate;
+    private final CachedHolidayProvider cache;
+
+    /**
+     * 构造函数
+     * @param urlTemplate 接口地址模板
+     * @param cache 本地缓存，请求成功后写入
+     */
+    HttpHolidayProvider(String urlTemplate, CachedHolidayProvider cache) {
+        this.urlTemplate = urlTemplate;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return "节假日接口";
+    }
+
+    @Override
+    public Set<Integer> getAvailableYears() {
+        return Set.of();
+    }
+
+    /**
+     * 请求指定年份的数据，成功后写入本地缓存
+     * @param year 年份
+     * @return 节假日数据，与缓存相比未变化时返回null
+     * @throws IOException 请求或解析失败时抛出
+     */
+    @Override
+    public HolidaySnapshot load(int year) throws IOException {
+        CachedHolidayProvider.CacheEntry cached = cache.readEntry(year);
+        URLConnection connection = URI.create(urlTemplate.replace("{year}", String.valueOf(year))).toURL().openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        if (cached != null) {
+            if (!cached.getEtag().isEmpty()) {
+                connection.setRequestProperty("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() > 0) {
+                connection.setIfModifiedSince(cached.getLastModified());
+            }
+        }
+
+        if (connection instanceof HttpURLConnection) {
+            int responseCode = ((HttpURLConnection) connection).getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                cache.touch(year);
+                return null;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("获取节假日数据失败，响应码: " + responseCode);
+            }
+        } else if (cached != null && cached.getLastModified() > 0
+                && connection.getLastModified() <= cached.getLastModified()) {
+            // 非HTTP地址不处理条件请求，按修改时间自行判断
+            cache.touch(year);
+            return null;
+        }
+
+        HolidaySnapshot data;
+        try (InputStream in = connection.getInputStream()) {
+            data = parse(in, year);
+        }
+        cache.store(year, new CachedHolidayProvider.CacheEntry(data, connection.getHeaderField("ETag"), connection.getLastModified()));
+        return data;
+    }
+
+    /**
+     * 解析接口返回的JSON
+     * holiday中的键为MM-dd，值中date为完整日期，holiday为false表示调休上班
+     * @param in JSON输入流
+     * @param year 年份，条目中没有完整日期时使用
+     * @return 节假日数据
+     * @throws IOException 读取失败或接口返回错误时抛出
+     */
+    static HolidaySnapshot parse(InputStream in, int year) throws IOException {
+        JsonNode root = OBJECT_MAPPER.readTree(in);
+        if (root == null || root.path("code").asInt(0) != 0) {
+            throw new IOException("节假日接口返回错误: " + root);
+        }
+
+        HolidaySnapshot.Builder builder = new HolidaySnapshot.Builder();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.path("holiday").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            JsonNode holiday = entry.getValue();
+            if (!holiday.has("name")) {
+                continue;
+            }
+
+            String dateText = holiday.path("date").asText(entry.getKey());
+            LocalDate date = LocalDate.parse(dateText.length() == 5 ? year + "-" + dateText : dateText);
+            String name = holiday.get("name").asText();
+            if (holiday.path("holiday").asBoolean(true)) {
+                builder.holiday(date, name);
+            } else {
+                builder.adjustedWorkday(date, name);
+            }
+        }
+        return builder.build();
+    }
+}
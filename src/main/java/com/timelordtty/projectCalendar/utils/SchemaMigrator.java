@@ -0,0 +1,203 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.timelordtty.AppLogger;
+
+/**
+ * 数据库结构迁移工具类
+ *
+ * 已执行的迁移记录在schema_version表中（版本号、说明、执行时间、耗时）。
+ * 启动时只读取一次当前版本号（主键上的MAX查询），已是最新版本时直接返回；
+ * 否则按版本号顺序执行尚未执行的迁移。每个迁移都是幂等的，
+ * 没有schema_version表的旧数据库也可以从头安全地执行一遍。
+ */
+public class SchemaMigrator {
+
+    private static final String CREATE_SCHEMA_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INTEGER PRIMARY KEY, " +
+            "description VARCHAR(255) NOT NULL, " +
+            "applied_at TIMESTAMP NOT NULL, " +
+            "duration_ms BIGINT NOT NULL)";
+
+    private static final String SELECT_CURRENT_VERSION = "SELECT MAX(version) FROM schema_version";
+
+    private static final String INSERT_VERSION =
+            "INSERT INTO schema_version (version, description, applied_at, duration_ms) VALUES (?, ?, ?, ?)";
+
+    private static final String CREATE_PROJECTS_TABLE =
+            "CREATE TABLE IF NOT EXISTS projects (" +
+            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "name VARCHAR(255) NOT NULL, " +
+            "review_period INTEGER NOT NULL, " +
+            "online_date DATE, " +
+            "registration_period INTEGER NOT NULL, " +
+            "registration_end_date DATE, " +
+            "earliest_review_date DATE, " +
+            "expected_review_time TIMESTAMP, " +  // 开标时间，存储日期和时间
+            "expert_review_time TIMESTAMP, " +    // 专家评审时间，存储日期和时间
+            "remark TEXT)";
+
+    private static final String SELECT_PROJECT_COLUMNS =
+            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
+            "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND UPPER(TABLE_NAME) = 'PROJECTS'";
+
+    /**
+     * 迁移步骤
+     */
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 一个版本的迁移
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    // 按版本号排序的所有迁移，新迁移只能追加在末尾
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "创建项目表", conn -> execute(conn, CREATE_PROJECTS_TABLE)),
+        new Migration(2, "升级开标时间和专家评审时间字段", SchemaMigrator::upgradeReviewTimeColumns),
+        new Migration(3, "创建关键日期索引", conn -> execute(conn,
+            "CREATE INDEX IF NOT EXISTS idx_projects_registration_end_date ON projects(registration_end_date)",
+            "CREATE INDEX IF NOT EXISTS idx_projects_expected_review_time ON projects(expected_review_time)",
+            "CREATE INDEX IF NOT EXISTS idx_projects_expert_review_time ON projects(expert_review_time)")),
+        new Migration(4, "创建上网日期分页索引", conn -> execute(conn,
+            "CREATE INDEX IF NOT EXISTS idx_projects_online_date ON projects(online_date, id)")),
+        // 行版本号由数据库在插入和内容变化时从序列取值，任何程序的写入都会改变它，用于检测外部修改
+        new Migration(5, "添加行版本号", conn -> execute(conn,
+            "CREATE SEQUENCE IF NOT EXISTS projects_row_version_seq",
+            "ALTER TABLE projects ADD COLUMN IF NOT EXISTS row_version BIGINT " +
+            "DEFAULT NEXT VALUE FOR projects_row_version_seq ON UPDATE NEXT VALUE FOR projects_row_version_seq"))
+    );
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private SchemaMigrator() {
+        // 私有构造函数，防止实例化
+    }
+
+    /**
+     * 获取代码中最新的结构版本号
+     * @return 最新版本号
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * 将数据库结构迁移到最新版本
+     * @param conn 数据库连接
+     * @return 迁移后的版本号
+     * @throws SQLException 迁移失败时抛出，已完成的版本仍然保留
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        int currentVersion = readCurrentVersion(conn);
+
+        if (currentVersion >= getLatestVersion()) {
+            AppLogger.info("数据库结构已是最新版本 " + currentVersion + "，检查耗时 " + elapsedMillis(start) + " ms");
+            return currentVersion;
+        }
+
+        AppLogger.info("数据库结构需要从版本 " + currentVersion + " 升级到版本 " + getLatestVersion());
+        execute(conn, CREATE_SCHEMA_VERSION_TABLE);
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= currentVersion) {
+                continue;
+            }
+
+            long stepStart = System.nanoTime();
+            migration.step.apply(conn);
+            long duration = elapsedMillis(stepStart);
+            recordVersion(conn, migration, duration);
+            currentVersion = migration.version;
+            AppLogger.info("数据库结构迁移 V" + migration.version + "（" + migration.description + "）完成，耗时 " + duration + " ms");
+        }
+
+        AppLogger.info("数据库结构迁移完成，当前版本 " + currentVersion + "，总耗时 " + elapsedMillis(start) + " ms");
+        return currentVersion;
+    }
+
+    /**
+     * 读取当前结构版本，schema_version表不存在时返回0
+     */
+    private static int readCurrentVersion(Connection conn) {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_CURRENT_VERSION)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            AppLogger.info("未找到schema_version表，将从头执行数据库结构迁移");
+            return 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration, long durationMillis) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_VERSION)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setLong(4, durationMillis);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * V2：旧版本数据库的开标日期expected_review_date（DATE）改为开标时间expected_review_time（TIMESTAMP），
+     * 并补充专家评审时间字段
+     */
+    private static void upgradeReviewTimeColumns(Connection conn) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_PROJECT_COLUMNS)) {
+            while (rs.next()) {
+                columns.add(rs.getString(1).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        if (!columns.contains("expected_review_time") && columns.contains("expected_review_date")) {
+            AppLogger.info("升级表结构：将expected_review_date重命名为expected_review_time");
+            execute(conn,
+                "ALTER TABLE projects ALTER COLUMN expected_review_date RENAME TO expected_review_time",
+                "ALTER TABLE projects ALTER COLUMN expected_review_time TIMESTAMP");
+        }
+
+        execute(conn, "ALTER TABLE projects ADD COLUMN IF NOT EXISTS expert_review_time TIMESTAMP");
+    }
+
+    private static void execute(Connection conn, String... sqls) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,149 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 工作日位图
+ *
+ * 每年一个位图，以当年1月1日起的天数为位序，工作日为1。同时保存每个64位字之前的工作日数（前缀计数），
+ * 因此"某日之前有多少个工作日"（rank）和"第k个工作日是哪天"（select）都不需要逐日判断。
+ * 每年的位图在第一次用到时生成，之后只读；节假日数据变化时整体替换为新的实例，
+ * 正在进行的计算仍使用旧实例，不会看到一半新一半旧的数据。
+ * 实例由{@link DateCalculator#getCalendar()}获取，批量计算时可以让所有日期基于同一份数据，多线程读取是安全的。
+ */
+public final class WorkdayCalendar {
+
+    private final Predicate<LocalDate> workdayRule;
+    private final Map<Integer, YearBits> years = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     * @param workdayRule 判断某天是否为工作日的规则，只在生成位图时调用
+     */
+    WorkdayCalendar(Predicate<LocalDate> workdayRule) {
+        this.workdayRule = workdayRule;
+    }
+
+    /**
+     * 判断是否为工作日
+     * @param date 日期
+     * @return 是否为工作日
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        return year(date.getYear()).get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * 从指定日期（包含）开始的第n个工作日
+     * @param from 开始日期（包含）
+     * @param n 第几个工作日，从1开始
+     * @return 工作日日期
+     */
+    public LocalDate nthWorkingDayFrom(LocalDate from, int n) {
+        int year = from.getYear();
+        YearBits bits = year(year);
+        int k = bits.rank(from.getDayOfYear() - 1) + n - 1;
+        while (k >= bits.total()) {
+            k -= bits.total();
+            bits = year(++year);
+        }
+        return LocalDate.ofEpochDay(bits.firstDay + bits.select(k));
+    }
+
+    /**
+     * 统计日期区间内的工作日数
+     * @param start 开始日期（包含）
+     * @param endExclusive 结束日期（不包含）
+     * @return 工作日数，区间为空时为0
+     */
+    public int countWorkingDays(LocalDate start, LocalDate endExclusive) {
+        if (!start.isBefore(endExclusive)) {
+            return 0;
+        }
+        int count = 0;
+        for (int year = start.getYear(); year <= endExclusive.getYear(); year++) {
+            YearBits bits = year(year);
+            int from = year == start.getYear() ? start.getDayOfYear() - 1 : 0;
+            int to = year == endExclusive.getYear() ? endExclusive.getDayOfYear() - 1 : bits.length;
+            count += bits.rank(to) - bits.rank(from);
+        }
+        return count;
+    }
+
+    private YearBits year(int year) {
+        return years.computeIfAbsent(year, y -> new YearBits(y, workdayRule));
+    }
+
+    /**
+     * 一年的工作日位图
+     */
+    private static final class YearBits {
+        private final long firstDay;
+        private final int length;
+        private final long[] words;
+        // prefix[i]为第i个字之前的工作日数，prefix[words.length]为全年工作日数
+        private final int[] prefix;
+
+        private YearBits(int year, Predicate<LocalDate> workdayRule) {
+            LocalDate first = LocalDate.of(year, 1, 1);
+            firstDay = first.toEpochDay();
+            length = first.lengthOfYear();
+            words = new long[(length + 63) >>> 6];
+            prefix = new int[words.length + 1];
+
+            for (int offset = 0; offset < length; offset++) {
+                if (workdayRule.test(first.plusDays(offset))) {
+                    words[offset >>> 6] |= 1L << offset;
+                }
+            }
+            for (int i = 0; i < words.length; i++) {
+                prefix[i + 1] = prefix[i] + Long.bitCount(words[i]);
+            }
+        }
+
+        private boolean get(int offset) {
+            return (words[offset >>> 6] & (1L << offset)) != 0;
+        }
+
+        private int total() {
+            return prefix[words.length];
+        }
+
+        /**
+         * [0, offset)内的工作日数
+         */
+        private int rank(int offset) {
+            int word = offset >>> 6;
+            if (word >= words.length) {
+                return total();
+            }
+            long mask = (1L << offset) - 1;
+            return prefix[word] + Long.bitCount(words[word] & mask);
+        }
+
+        /**
+         * 第k个工作日（从0开始）的偏移
+         */
+        private int select(int k) {
+            // 前缀计数只有几个元素，二分查找所在的字
+            int low = 0;
+            int high = words.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (prefix[mid] <= k) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            long word = words[low];
+            for (int i = prefix[low]; i < k; i++) {
+                word &= word - 1;
+            }
+            return (low << 6) + Long.numberOfTrailingZeros(word);
+        }
+    }
+}
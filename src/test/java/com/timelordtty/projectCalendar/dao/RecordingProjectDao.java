@@ -0,0 +1,103 @@
+package com.timelordtty.projectCalendar.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 只记录批量写入调用、不访问数据库的ProjectDao，供服务层测试使用
+ * 加载时返回构造时给定的项目，写入不会改变它们
+ * 每次调用按"操作 ID 名称"记录一行，删除记录为"DELETE [ID...]"
+ */
+public class RecordingProjectDao extends ProjectDao {
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Long> failingIds;
+    private final List<Project> storedProjects;
+
+    /**
+     * 构造函数
+     * @param failingIds 写入时模拟失败的项目ID
+     */
+    public RecordingProjectDao(Set<Long> failingIds) {
+        this(failingIds, List.of());
+    }
+
+    /**
+     * 构造函数
+     * @param failingIds 写入时模拟失败的项目ID
+     * @param storedProjects 加载时返回的项目
+     */
+    public RecordingProjectDao(Set<Long> failingIds, List<Project> storedProjects) {
+        this.failingIds = failingIds;
+        this.storedProjects = storedProjects;
+    }
+
+    /**
+     * 获取已记录的调用
+     * @return 调用记录
+     */
+    public List<String> getCalls() {
+        synchronized (calls) {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    @Override
+    public List<Project> getAllProjects() {
+        return new ArrayList<>(storedProjects);
+    }
+
+    @Override
+    public void captureDataVersion() {
+        // 没有数据库，不记录版本
+    }
+
+    @Override
+    public boolean isModifiedExternally() {
+        return false;
+    }
+
+    @Override
+    public BatchWriteResult insertProjectsWithIds(List<Project> projects) {
+        return record("INSERT", projects);
+    }
+
+    @Override
+    public BatchWriteResult updateProjects(List<Project> projects) {
+        return record("UPDATE", projects);
+    }
+
+    @Override
+    public BatchWriteResult deleteProjects(Collection<Long> ids) {
+        calls.add("DELETE " + ids);
+        BatchWriteResult result = new BatchWriteResult(ids.size());
+        int row = 0;
+        for (Long id : ids) {
+            mark(result, row++, id);
+        }
+        return result;
+    }
+
+    private BatchWriteResult record(String kind, List<Project> projects) {
+        BatchWriteResult result = new BatchWriteResult(projects.size());
+        for (int i = 0; i < projects.size(); i++) {
+            Project project = projects.get(i);
+            calls.add(kind + " " + project.getId() + " " + project.getName());
+            mark(result, i, project.getId());
+        }
+        return result;
+    }
+
+    private void mark(BatchWriteResult result, int row, Long id) {
+        if (failingIds.contains(id)) {
+            result.markFailed(row, "模拟写入失败");
+        } else {
+            result.markSucceeded(row, id);
+        }
+    }
+}
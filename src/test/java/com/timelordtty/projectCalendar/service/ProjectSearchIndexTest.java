@@ -0,0 +1,134 @@
+package com.timelordtty.projectCalendar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.timelordtty.projectCalendar.Project;
+
+/**
+ * 项目搜索索引测试，结果与逐个项目contains匹配的结果比较
+ */
+class ProjectSearchIndexTest {
+
+    // 字符集较小，随机文本中容易出现重复的单字和二元组
+    private static final String ALPHABET = "项目评审招标采购中心ABab12 ";
+
+    private final Random random = new Random(20240601L);
+
+    @Test
+    void searchMatchesContains() {
+        Map<Long, Project> projects = randomProjects(300);
+        ProjectSearchIndex index = new ProjectSearchIndex();
+        index.rebuild(projects.values());
+
+        assertEquals(projects.size(), index.size());
+        for (String keyword : keywords(projects)) {
+            assertEquals(bruteForce(projects, keyword), index.search(keyword), "关键词: " + keyword);
+        }
+    }
+
+    @Test
+    void updateAndRemoveKeepIndexInStep() {
+        Map<Long, Project> projects = randomProjects(200);
+        ProjectSearchIndex index = new ProjectSearchIndex();
+        index.rebuild(projects.values());
+
+        List<Long> ids = new ArrayList<>(projects.keySet());
+        for (int i = 0; i < 150; i++) {
+            Long id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(4) == 0) {
+                projects.remove(id);
+                index.remove(id);
+            } else {
+                // 原地修改项目对象，索引需要用已保存的旧文本移除旧的索引项
+                Project project = projects.computeIfAbsent(id, this::randomProject);
+                project.setName(randomText(2, 10));
+                project.setRemark(random.nextBoolean() ? null : randomText(0, 15));
+                index.update(project);
+            }
+        }
+
+        assertEquals(projects.size(), index.size());
+        for (String keyword : keywords(projects)) {
+            assertEquals(bruteForce(projects, keyword), index.search(keyword), "关键词: " + keyword);
+        }
+    }
+
+    @Test
+    void keywordDoesNotMatchAcrossNameAndRemark() {
+        Project project = new Project();
+        project.setId(1L);
+        project.setName("项目");
+        project.setRemark("评审");
+        ProjectSearchIndex index = new ProjectSearchIndex();
+        index.update(project);
+
+        assertEquals(Set.of(), index.search("目评"));
+        assertEquals(Set.of(1L), index.search("项目"));
+        assertEquals(Set.of(1L), index.search("审"));
+    }
+
+    private Set<String> keywords(Map<Long, Project> projects) {
+        Set<String> keywords = new HashSet<>();
+        List<Project> list = new ArrayList<>(projects.values());
+        for (int i = 0; i < 200; i++) {
+            // 一半取自项目名称的子串，一半为随机文本
+            Project project = list.get(random.nextInt(list.size()));
+            String name = project.getName();
+            int start = random.nextInt(name.length());
+            keywords.add(name.substring(start, Math.min(name.length(), start + 1 + random.nextInt(4))));
+            keywords.add(randomText(1, 4));
+        }
+        keywords.add("");
+        keywords.add("ab");
+        keywords.add("AB");
+        return keywords;
+    }
+
+    private static Set<Long> bruteForce(Map<Long, Project> projects, String keyword) {
+        String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+        Set<Long> result = new HashSet<>();
+        for (Project project : projects.values()) {
+            if (project.getName().toLowerCase(Locale.ROOT).contains(lowerKeyword)
+                    || (project.getRemark() != null && project.getRemark().toLowerCase(Locale.ROOT).contains(lowerKeyword))) {
+                result.add(project.getId());
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Project> randomProjects(int count) {
+        Map<Long, Project> projects = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            projects.put(id, randomProject(id));
+        }
+        return projects;
+    }
+
+    private Project randomProject(Long id) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName(randomText(2, 12));
+        project.setRemark(random.nextInt(3) == 0 ? null : randomText(0, 20));
+        return project;
+    }
+
+    private String randomText(int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.timelordtty.projectCalendar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.dao.RecordingProjectDao;
+
+/**
+ * 写回队列的合并规则测试，数据库操作由只记录调用的ProjectDao代替
+ */
+class ProjectWriteQueueTest {
+
+    private RecordingProjectDao dao = new RecordingProjectDao(Set.of());
+    private ProjectWriteQueue queue = new ProjectWriteQueue(dao);
+
+    @AfterEach
+    void shutdownQueue() {
+        queue.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void insertThenUpdateIsWrittenAsOneInsert() throws Exception {
+        CompletableFuture<Void> insert = queue.enqueue(ProjectWriteQueue.Kind.INSERT, project(1L, "新项目"));
+        CompletableFuture<Void> update = queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(1L, "改名后"));
+
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(List.of("INSERT 1 改名后"), dao.getCalls());
+        assertNull(insert.get(1, TimeUnit.SECONDS));
+        assertNull(update.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void insertThenDeleteIsDropped() throws Exception {
+        CompletableFuture<Void> insert = queue.enqueue(ProjectWriteQueue.Kind.INSERT, project(1L, "新项目"));
+        CompletableFuture<Void> delete = queue.enqueue(ProjectWriteQueue.Kind.DELETE, project(1L, "新项目"));
+
+        // 两个操作在写入前就已完成
+        assertTrue(insert.isDone() && !insert.isCompletedExceptionally());
+        assertTrue(delete.isDone() && !delete.isCompletedExceptionally());
+        assertFalse(queue.hasPendingWrites());
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), dao.getCalls());
+    }
+
+    @Test
+    void updatesAndDeleteCoalescePerId() throws Exception {
+        queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(1L, "第一次"));
+        queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(1L, "第二次"));
+        queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(2L, "要删除"));
+        queue.enqueue(ProjectWriteQueue.Kind.DELETE, project(2L, "要删除"));
+        // 删除后又保存，数据库中的行还在，按更新处理
+        queue.enqueue(ProjectWriteQueue.Kind.DELETE, project(3L, "恢复"));
+        queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(3L, "恢复"));
+
+        assertEquals(Set.of(1L, 2L, 3L), queue.getPendingIds());
+        assertTrue(queue.flush(5, TimeUnit.SECONDS));
+        assertEquals(List.of("UPDATE 1 第二次", "UPDATE 3 恢复", "DELETE [2]"), dao.getCalls());
+        assertEquals(Set.of(), queue.getPendingIds());
+    }
+
+    @Test
+    void failedRowCompletesItsFuturesExceptionally() throws Exception {
+        queue.shutdown(5, TimeUnit.SECONDS);
+        dao = new RecordingProjectDao(Set.of(2L));
+        queue = new ProjectWriteQueue(dao);
+        CompletableFuture<Void> ok = queue.enqueue(ProjectWriteQueue.Kind.INSERT, project(1L, "成功"));
+        CompletableFuture<Void> failedInsert = queue.enqueue(ProjectWriteQueue.Kind.INSERT, project(2L, "失败"));
+        CompletableFuture<Void> failedUpdate = queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(2L, "失败"));
+
+        queue.flush(5, TimeUnit.SECONDS);
+        assertNull(ok.get(1, TimeUnit.SECONDS));
+        for (CompletableFuture<Void> failed : List.of(failedInsert, failedUpdate)) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, error.getCause());
+        }
+    }
+
+    @Test
+    void enqueueAfterShutdownFails() {
+        queue.enqueue(ProjectWriteQueue.Kind.INSERT, project(1L, "关闭前"));
+        assertTrue(queue.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(List.of("INSERT 1 关闭前"), dao.getCalls());
+
+        CompletableFuture<Void> late = queue.enqueue(ProjectWriteQueue.Kind.UPDATE, project(1L, "关闭后"));
+        assertTrue(late.isCompletedExceptionally());
+    }
+
+    private static Project project(Long id, String name) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName(name);
+        return project;
+    }
+}
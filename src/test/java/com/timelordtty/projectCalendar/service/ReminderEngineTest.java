@@ -0,0 +1,142 @@
+package com.timelordtty.projectCalendar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.dao.RecordingProjectDao;
+
+/**
+ * 提醒引擎测试，项目服务使用不访问数据库的ProjectDao
+ */
+class ReminderEngineTest {
+
+    // 默认的开标和专家评审提前提醒分钟数
+    private static final int LEAD_MINUTES = 30;
+
+    private ReminderEngine engine;
+
+    @AfterEach
+    void closeEngine() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    @Test
+    void windowEndsThisSundayOrNextSundayFromFriday() {
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        LocalDate thisSunday = LocalDate.of(2025, 3, 9);
+        LocalDate nextSunday = LocalDate.of(2025, 3, 16);
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = monday.plusDays(i);
+            assertEquals(i < 4 ? thisSunday : nextSunday, ReminderEngine.getWindowEnd(date), date.getDayOfWeek().toString());
+        }
+    }
+
+    @Test
+    void upcomingProjectsAreThoseWithKeyDatesInWindow() {
+        LocalDate today = LocalDate.now();
+        LocalDate windowEnd = ReminderEngine.getWindowEnd(today);
+        Project registrationToday = project(1L, "今天报名截止");
+        registrationToday.setRegistrationEndDate(today);
+        Project reviewOnLastDay = project(2L, "最后一天开标");
+        reviewOnLastDay.setExpectedReviewTime(windowEnd.atTime(23, 0));
+        Project afterWindow = project(3L, "范围之后评审");
+        afterWindow.setExpertReviewTime(windowEnd.plusDays(1).atTime(9, 0));
+        Project past = project(4L, "昨天报名截止");
+        past.setRegistrationEndDate(today.minusDays(1));
+        Project noDates = project(5L, "没有关键日期");
+
+        ProjectService projectService = projectService(List.of(afterWindow, reviewOnLastDay, past, noDates, registrationToday));
+        engine = new ReminderEngine(projectService);
+
+        assertEquals(List.of(1L, 2L), ids(engine.getUpcomingProjects()));
+    }
+
+    @Test
+    void projectChangesUpdateUpcomingProjects() throws Exception {
+        LocalDate today = LocalDate.now();
+        Project registrationToday = project(1L, "今天报名截止");
+        registrationToday.setRegistrationEndDate(today);
+        ProjectService projectService = projectService(List.of(registrationToday));
+        engine = new ReminderEngine(projectService);
+
+        List<List<Long>> pushed = new CopyOnWriteArrayList<>();
+        engine.addUpcomingListener(projects -> pushed.add(ids(projects)));
+
+        Project added = project(null, "新项目");
+        added.setExpertReviewTime(ReminderEngine.getWindowEnd(today).atTime(10, 0));
+        projectService.saveProjectAsync(added).get(5, TimeUnit.SECONDS);
+        projectService.deleteProjectAsync(registrationToday).get(5, TimeUnit.SECONDS);
+
+        // 范围之外的项目变更不推送
+        Project outside = project(null, "范围之外");
+        outside.setRegistrationEndDate(ReminderEngine.getWindowEnd(today).plusDays(1));
+        projectService.saveProjectAsync(outside).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(List.of(1L, added.getId()), List.of(added.getId())), pushed);
+        assertEquals(List.of(added.getId()), ids(engine.getUpcomingProjects()));
+    }
+
+    @Test
+    void firesDueReminderOnceAndSkipsPastOnes() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        // 提醒时间在启动前已过去，不再提醒
+        Project alreadyDue = project(1L, "已过提醒时间");
+        alreadyDue.setExpectedReviewTime(now.plusMinutes(LEAD_MINUTES - 5));
+        ProjectService projectService = projectService(List.of(alreadyDue));
+        engine = new ReminderEngine(projectService);
+
+        List<ReminderEvent> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch firedLatch = new CountDownLatch(1);
+        engine.addReminderListener(event -> {
+            fired.add(event);
+            firedLatch.countDown();
+        });
+
+        Project soon = project(null, "即将开标");
+        soon.setExpectedReviewTime(LocalDateTime.now().plusMinutes(LEAD_MINUTES).plusSeconds(1));
+        projectService.saveProjectAsync(soon);
+
+        assertTrue(firedLatch.await(10, TimeUnit.SECONDS), "提醒未触发");
+        // 再等一会儿，确认没有重复或多余的提醒
+        Thread.sleep(500);
+        assertEquals(1, fired.size());
+        assertEquals(soon.getId(), fired.get(0).getProjectId());
+        assertEquals(ReminderEvent.Type.EXPECTED_REVIEW, fired.get(0).getType());
+        assertFalse(LocalDateTime.now().isBefore(fired.get(0).getDueTime()));
+    }
+
+    private static ProjectService projectService(List<Project> storedProjects) {
+        return new ProjectService(new RecordingProjectDao(Set.of(), storedProjects));
+    }
+
+    private static Project project(Long id, String name) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName(name);
+        return project;
+    }
+
+    private static List<Long> ids(List<Project> projects) {
+        List<Long> ids = new ArrayList<>();
+        for (Project project : projects) {
+            ids.add(project.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,187 @@
+package com.timelordtty.projectCalendar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.timelordtty.projectCalendar.Project;
+import com.timelordtty.projectCalendar.service.ReviewConflict.Session;
+import com.timelordtty.projectCalendar.service.ReviewConflict.SessionType;
+
+/**
+ * 评审时间冲突索引测试，结果与两两比较所有时段的结果比较
+ */
+class ReviewConflictIndexTest {
+
+    private static final int SESSION_MINUTES = 90;
+    private static final int MIN_GAP_MINUTES = 30;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 3, 3, 8, 0);
+
+    private final Random random = new Random(20250303L);
+
+    @Test
+    void rebuildMatchesPairwiseScan() {
+        Map<Long, Project> projects = randomProjects(150);
+        ReviewConflictIndex index = new ReviewConflictIndex(SESSION_MINUTES, MIN_GAP_MINUTES);
+        index.rebuild(projects.values());
+
+        assertMatchesPairwiseScan(projects, index);
+    }
+
+    @Test
+    void updateAndRemoveMatchPairwiseScan() {
+        Map<Long, Project> projects = randomProjects(150);
+        ReviewConflictIndex index = new ReviewConflictIndex(SESSION_MINUTES, MIN_GAP_MINUTES);
+        index.rebuild(projects.values());
+
+        for (int i = 0; i < 300; i++) {
+            long id = 1 + random.nextInt(180);
+            if (random.nextInt(4) == 0) {
+                projects.remove(id);
+                index.remove(id);
+            } else {
+                Project project = projects.computeIfAbsent(id, this::randomProject);
+                project.setExpectedReviewTime(randomTime());
+                project.setExpertReviewTime(randomTime());
+                index.update(project);
+            }
+            if (i % 50 == 0) {
+                assertMatchesPairwiseScan(projects, index);
+            }
+        }
+        assertMatchesPairwiseScan(projects, index);
+    }
+
+    @Test
+    void gapAtWindowBoundaryIsNotAConflict() {
+        Project first = project(1L, FIRST_DAY, null);
+        Project tooClose = project(2L, FIRST_DAY.plusMinutes(SESSION_MINUTES + MIN_GAP_MINUTES - 1), null);
+        Project farEnough = project(3L, FIRST_DAY.plusMinutes(2L * (SESSION_MINUTES + MIN_GAP_MINUTES)), null);
+        ReviewConflictIndex index = new ReviewConflictIndex(SESSION_MINUTES, MIN_GAP_MINUTES);
+        index.rebuild(List.of(first, tooClose, farEnough));
+
+        List<ReviewConflict> conflicts = index.getConflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals(1L, conflicts.get(0).getFirst().getProjectId());
+        assertEquals(2L, conflicts.get(0).getSecond().getProjectId());
+        assertEquals(MIN_GAP_MINUTES - 1, conflicts.get(0).getGapMinutes());
+
+        // 同一项目的开标和专家评审时间接近不算冲突
+        index.update(project(3L, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1).plusMinutes(10)));
+        assertEquals(1, index.getConflicts().size());
+    }
+
+    private void assertMatchesPairwiseScan(Map<Long, Project> projects, ReviewConflictIndex index) {
+        List<String> expected = pairwiseScan(projects);
+        assertEquals(expected, keys(index.getConflicts()));
+
+        for (Long id : projects.keySet()) {
+            List<String> expectedForProject = new ArrayList<>();
+            for (String key : expected) {
+                if (key.startsWith(id + " ") || key.contains("| " + id + " ")) {
+                    expectedForProject.add(key);
+                }
+            }
+            assertEquals(expectedForProject, keys(index.getConflicts(id)), "项目 " + id);
+        }
+
+        LocalDate day = FIRST_DAY.toLocalDate().plusDays(2);
+        List<String> expectedInRange = new ArrayList<>();
+        for (ReviewConflict conflict : index.getConflicts()) {
+            if (onDay(conflict.getFirst(), day) || onDay(conflict.getSecond(), day)) {
+                expectedInRange.add(key(conflict));
+            }
+        }
+        assertEquals(expectedInRange, keys(index.getConflictsInRange(day, day)));
+    }
+
+    /**
+     * 两两比较所有不同项目的时段，开始时间相差小于"时长+最小间隔"即为冲突
+     */
+    private static List<String> pairwiseScan(Map<Long, Project> projects) {
+        List<Session> sessions = new ArrayList<>();
+        for (Project project : projects.values()) {
+            if (project.getExpectedReviewTime() != null) {
+                sessions.add(new Session(project.getId(), SessionType.EXPECTED_REVIEW, project.getExpectedReviewTime()));
+            }
+            if (project.getExpertReviewTime() != null) {
+                sessions.add(new Session(project.getId(), SessionType.EXPERT_REVIEW, project.getExpertReviewTime()));
+            }
+        }
+        sessions.sort(Session.ORDER);
+
+        List<String> conflicts = new ArrayList<>();
+        for (int i = 0; i < sessions.size(); i++) {
+            for (int j = i + 1; j < sessions.size(); j++) {
+                Session first = sessions.get(i);
+                Session second = sessions.get(j);
+                long minutes = Duration.between(first.getStart(), second.getStart()).toMinutes();
+                if (first.getProjectId() != second.getProjectId() && minutes < SESSION_MINUTES + MIN_GAP_MINUTES) {
+                    conflicts.add(key(first, second, minutes - SESSION_MINUTES));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private static List<String> keys(List<ReviewConflict> conflicts) {
+        List<String> keys = new ArrayList<>();
+        for (ReviewConflict conflict : conflicts) {
+            keys.add(key(conflict));
+        }
+        return keys;
+    }
+
+    private static String key(ReviewConflict conflict) {
+        return key(conflict.getFirst(), conflict.getSecond(), conflict.getGapMinutes());
+    }
+
+    private static String key(Session first, Session second, long gapMinutes) {
+        return first.getProjectId() + " " + first.getType() + " " + first.getStart() + " | "
+                + second.getProjectId() + " " + second.getType() + " " + second.getStart() + " " + gapMinutes;
+    }
+
+    private static boolean onDay(Session session, LocalDate day) {
+        return session.getStart().toLocalDate().equals(day);
+    }
+
+    private Map<Long, Project> randomProjects(int count) {
+        Map<Long, Project> projects = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            projects.put(id, randomProject(id));
+        }
+        return projects;
+    }
+
+    private Project randomProject(Long id) {
+        return project(id, randomTime(), randomTime());
+    }
+
+    /**
+     * 五天内每天8点到18点之间、以15分钟为单位的时间，约五分之一为空
+     */
+    private LocalDateTime randomTime() {
+        if (random.nextInt(5) == 0) {
+            return null;
+        }
+        return FIRST_DAY.plusDays(random.nextInt(5)).plusMinutes(15L * random.nextInt(40));
+    }
+
+    private static Project project(Long id, LocalDateTime expectedReviewTime, LocalDateTime expertReviewTime) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName("项目" + id);
+        project.setExpectedReviewTime(expectedReviewTime);
+        project.setExpertReviewTime(expertReviewTime);
+        return project;
+    }
+}
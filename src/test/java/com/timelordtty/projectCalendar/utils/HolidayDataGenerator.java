@@ -0,0 +1,100 @@
+package com.timelordtty.projectCalendar.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 由文本表生成内置节假日数据文件
+ *
+ * 用法（在项目根目录执行，先编译测试代码）：
+ * java -cp target/classes:target/test-classes com.timelordtty.projectCalendar.utils.HolidayDataGenerator
+ * 可以用两个参数指定文本表和输出文件，默认为src/test/resources/holidays/holidays.txt
+ * 和src/main/resources/holidays/holidays.bin。
+ */
+final class HolidayDataGenerator {
+
+    static final Path DEFAULT_TABLE = Paths.get("src/test/resources/holidays/holidays.txt");
+    static final Path DEFAULT_OUTPUT = Paths.get("src/main/resources/holidays/holidays.bin");
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private HolidayDataGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path table = args.length > 0 ? Paths.get(args[0]) : DEFAULT_TABLE;
+        Path output = args.length > 1 ? Paths.get(args[1]) : DEFAULT_OUTPUT;
+
+        HolidaySnapshot snapshot = parse(table);
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(snapshot, out);
+        }
+        System.out.println("已生成 " + output + "，共 " + snapshot.size() + " 个标记日期");
+    }
+
+    /**
+     * 解析文本表文件
+     * @param table 文本表
+     * @return 节假日数据
+     * @throws IOException 读取失败或格式不正确时抛出
+     */
+    static HolidaySnapshot parse(Path table) throws IOException {
+        return parse(Files.readAllLines(table, StandardCharsets.UTF_8), table.toString());
+    }
+
+    /**
+     * 解析文本表，每行为"日期 类型 名称"，空行和#开头的行忽略
+     * @param lines 文本表的各行
+     * @param source 来源，用于错误信息
+     * @return 节假日数据
+     * @throws IOException 格式不正确时抛出
+     */
+    static HolidaySnapshot parse(List<String> lines, String source) throws IOException {
+        HolidaySnapshot.Builder builder = new HolidaySnapshot.Builder();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+", 3);
+            if (fields.length != 3) {
+                throw new IOException(source + " 第" + lineNumber + "行格式不正确: " + line);
+            }
+            LocalDate date = LocalDate.parse(fields[0]);
+            switch (fields[1]) {
+                case "节假日":
+                    builder.holiday(date, fields[2]);
+                    break;
+                case "调休":
+                    builder.adjustedWorkday(date, fields[2]);
+                    break;
+                case "特殊日期":
+                    builder.specialDate(date, fields[2]);
+                    break;
+                default:
+                    throw new IOException(source + " 第" + lineNumber + "行类型不正确: " + fields[1]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 按内置数据文件的格式写出
+     */
+    static void write(HolidaySnapshot snapshot, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        snapshot.writeTo(data);
+        data.flush();
+    }
+}
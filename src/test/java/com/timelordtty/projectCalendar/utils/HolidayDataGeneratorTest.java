@@ -0,0 +1,37 @@
+package com.timelordtty.projectCalendar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 检查内置节假日数据文件与文本表一致
+ */
+class HolidayDataGeneratorTest {
+
+    @Test
+    void bundledDataMatchesTable() throws IOException {
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                HolidayDataGeneratorTest.class.getResourceAsStream("/holidays/holidays.txt"), StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        HolidayDataGenerator.write(HolidayDataGenerator.parse(lines, "holidays.txt"), expected);
+
+        byte[] bundled;
+        try (InputStream in = HolidayDataGeneratorTest.class.getResourceAsStream(BundledHolidayProvider.RESOURCE)) {
+            bundled = in.readAllBytes();
+        }
+        assertArrayEquals(expected.toByteArray(), bundled, "holidays.bin与holidays.txt不一致，请运行HolidayDataGenerator重新生成");
+    }
+}
@@ -0,0 +1,143 @@
+package com.timelordtty.projectCalendar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 节假日数据快照测试
+ */
+class HolidaySnapshotTest {
+
+    private static final LocalDate QINGMING = LocalDate.of(2025, 4, 6);
+
+    @Test
+    void holidayTakesPrecedenceOverAdjustedWorkday() {
+        // 先设置节假日再设置调休，和先调休后节假日，结果应该一样
+        HolidaySnapshot holidayFirst = new HolidaySnapshot.Builder()
+                .holiday(QINGMING, "清明节")
+                .adjustedWorkday(QINGMING, "清明节调休")
+                .build();
+        HolidaySnapshot workdayFirst = new HolidaySnapshot.Builder()
+                .adjustedWorkday(QINGMING, "清明节调休")
+                .holiday(QINGMING, "清明节")
+                .build();
+
+        for (HolidaySnapshot snapshot : new HolidaySnapshot[] {holidayFirst, workdayFirst}) {
+            assertTrue(snapshot.isHoliday(QINGMING));
+            assertTrue(snapshot.isAdjustedWorkday(QINGMING));
+            assertEquals("清明节", snapshot.getHolidayName(QINGMING));
+        }
+    }
+
+    @Test
+    void adjustedWorkdayKeepsItsOwnName() {
+        LocalDate workday = LocalDate.of(2025, 4, 27);
+        HolidaySnapshot snapshot = new HolidaySnapshot.Builder()
+                .adjustedWorkday(workday, "劳动节调休")
+                .build();
+
+        assertFalse(snapshot.isHoliday(workday));
+        assertTrue(snapshot.isAdjustedWorkday(workday));
+        assertEquals("", snapshot.getHolidayName(workday));
+    }
+
+    @Test
+    void toBuilderKeepsAllFlags() {
+        HolidaySnapshot snapshot = new HolidaySnapshot.Builder()
+                .holiday(QINGMING, "清明节")
+                .adjustedWorkday(QINGMING, "清明节调休")
+                .specialDate(QINGMING, "纪念日")
+                .build();
+        HolidaySnapshot copy = snapshot.toBuilder().build();
+
+        assertTrue(copy.isHoliday(QINGMING));
+        assertTrue(copy.isAdjustedWorkday(QINGMING));
+        assertEquals("清明节", copy.getHolidayName(QINGMING));
+        assertEquals("纪念日", copy.getSpecialDateType(QINGMING));
+    }
+
+    @Test
+    void bundledHolidayOnAdjustedWorkdayIsDayOff() {
+        // 内置数据中2025-04-06（周日）既是清明节假期又在调休表中，按节假日处理
+        assertTrue(HolidayManager.getInstance().isHoliday(QINGMING));
+        assertEquals("清明节", HolidayManager.getInstance().getHolidayName(QINGMING));
+        assertFalse(DateCalculator.isWorkingDay(QINGMING));
+    }
+
+    @Test
+    void binaryRoundTripKeepsAllData() throws IOException {
+        HolidaySnapshot snapshot = new HolidaySnapshot.Builder()
+                .holiday(LocalDate.of(2024, 12, 31), "元旦")
+                .holiday(LocalDate.of(2025, 1, 1), "元旦")
+                .holiday(QINGMING, "清明节")
+                .adjustedWorkday(QINGMING, "清明节调休")
+                .adjustedWorkday(LocalDate.of(2025, 4, 27), "劳动节调休")
+                .specialDate(LocalDate.of(2025, 5, 20), "纪念日")
+                .build();
+
+        HolidaySnapshot copy = roundTrip(snapshot);
+
+        assertEquals(snapshot.size(), copy.size());
+        assertEquals(Set.of(2024, 2025), copy.years());
+        for (LocalDate date = LocalDate.of(2024, 12, 1); date.isBefore(LocalDate.of(2025, 6, 1)); date = date.plusDays(1)) {
+            assertEquals(snapshot.isHoliday(date), copy.isHoliday(date), date.toString());
+            assertEquals(snapshot.getHolidayName(date), copy.getHolidayName(date), date.toString());
+            assertEquals(snapshot.isAdjustedWorkday(date), copy.isAdjustedWorkday(date), date.toString());
+            assertEquals(snapshot.isSpecialDate(date), copy.isSpecialDate(date), date.toString());
+            assertEquals(snapshot.getSpecialDateType(date), copy.getSpecialDateType(date), date.toString());
+        }
+        assertEquals(0, roundTrip(HolidaySnapshot.EMPTY).size());
+    }
+
+    @Test
+    void readFromRejectsOtherData() {
+        byte[] data = "{\"holiday\":{}}".getBytes();
+        assertThrows(IOException.class, () -> HolidaySnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(data))));
+    }
+
+    @Test
+    void replaceYearDropsStaleHolidaysButKeepsSpecialDates() {
+        HolidaySnapshot bundled = new HolidaySnapshot.Builder()
+                .holiday(LocalDate.of(2026, 1, 1), "元旦")
+                .holiday(LocalDate.of(2026, 1, 2), "元旦")
+                .adjustedWorkday(LocalDate.of(2026, 1, 4), "元旦调休")
+                .specialDate(LocalDate.of(2026, 1, 2), "纪念日")
+                .holiday(LocalDate.of(2025, 1, 1), "元旦")
+                .build();
+        HolidaySnapshot refreshed = new HolidaySnapshot.Builder()
+                .holiday(LocalDate.of(2026, 1, 1), "元旦")
+                .build();
+
+        HolidaySnapshot result = bundled.toBuilder().replaceYear(2026, refreshed).build();
+
+        assertTrue(result.isHoliday(LocalDate.of(2026, 1, 1)));
+        assertFalse(result.isHoliday(LocalDate.of(2026, 1, 2)));
+        assertEquals("", result.getHolidayName(LocalDate.of(2026, 1, 2)));
+        assertFalse(result.isAdjustedWorkday(LocalDate.of(2026, 1, 4)));
+        assertTrue(result.isSpecialDate(LocalDate.of(2026, 1, 2)));
+        assertEquals("纪念日", result.getSpecialDateType(LocalDate.of(2026, 1, 2)));
+        // 其他年份不受影响
+        assertTrue(result.isHoliday(LocalDate.of(2025, 1, 1)));
+        assertEquals(3, result.size());
+    }
+
+    private static HolidaySnapshot roundTrip(HolidaySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            snapshot.writeTo(out);
+        }
+        return HolidaySnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,117 @@
+package com.timelordtty.projectCalendar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 数据库结构迁移测试，使用内存数据库
+ */
+class SchemaMigratorTest {
+
+    private static int databaseCounter;
+
+    private Connection conn;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:migrator" + (++databaseCounter) + ";MODE=MySQL");
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void migrateTwiceKeepsLatestVersion() throws SQLException {
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.migrate(conn));
+        List<String> columns = projectColumns();
+
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.migrate(conn));
+        assertEquals(columns, projectColumns());
+        assertEquals(SchemaMigrator.getLatestVersion(), queryInt("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    void upgradesLegacyDatabaseWithoutVersionTable() throws SQLException {
+        // 最早版本的表结构：开标日期为DATE类型，没有专家评审时间
+        execute("CREATE TABLE projects (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL, " +
+                "review_period INTEGER NOT NULL, online_date DATE, registration_period INTEGER NOT NULL, " +
+                "registration_end_date DATE, earliest_review_date DATE, expected_review_date DATE, remark TEXT)");
+        execute("INSERT INTO projects (name, review_period, online_date, registration_period, expected_review_date) " +
+                "VALUES ('旧项目', 20, DATE '2024-03-26', 5, DATE '2024-04-16')");
+
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.migrate(conn));
+
+        List<String> columns = projectColumns();
+        assertTrue(columns.contains("expected_review_time"));
+        assertTrue(columns.contains("expert_review_time"));
+        assertTrue(columns.contains("row_version"));
+        assertFalse(columns.contains("expected_review_date"));
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM projects WHERE name = '旧项目' " +
+                "AND expected_review_time = TIMESTAMP '2024-04-16 00:00:00'"));
+    }
+
+    @Test
+    void rerunsAllStepsSafelyOnCurrentSchemaWithoutVersionTable() throws SQLException {
+        // 迁移工具之前创建的数据库已经有最新的项目表和索引，但没有schema_version表
+        SchemaMigrator.migrate(conn);
+        execute("INSERT INTO projects (name, review_period, registration_period) VALUES ('已有项目', 20, 5)");
+        execute("DROP TABLE schema_version");
+
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.migrate(conn));
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM projects"));
+        assertEquals(SchemaMigrator.getLatestVersion(), queryInt("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    void runsOnlyMissingVersions() throws SQLException {
+        SchemaMigrator.migrate(conn);
+        int latest = SchemaMigrator.getLatestVersion();
+        execute("DELETE FROM schema_version WHERE version = " + latest);
+
+        assertEquals(latest, SchemaMigrator.migrate(conn));
+        assertEquals(latest, queryInt("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(latest, queryInt("SELECT MAX(version) FROM schema_version"));
+    }
+
+    private List<String> projectColumns() throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
+                     "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND UPPER(TABLE_NAME) = 'PROJECTS' ORDER BY ORDINAL_POSITION")) {
+            while (rs.next()) {
+                columns.add(rs.getString(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
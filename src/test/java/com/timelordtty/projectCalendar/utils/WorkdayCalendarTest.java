@@ -0,0 +1,145 @@
+package com.timelordtty.projectCalendar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 工作日位图测试，结果与逐日循环的计算比较
+ */
+class WorkdayCalendarTest {
+
+    // 固定的节假日和调休数据，跨年、闰年和节假日连在周末上的情况都要覆盖
+    private static final Set<LocalDate> HOLIDAYS = Set.of(
+            LocalDate.of(2023, 12, 30), LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 1),
+            LocalDate.of(2024, 2, 10), LocalDate.of(2024, 2, 11), LocalDate.of(2024, 2, 12),
+            LocalDate.of(2024, 2, 13), LocalDate.of(2024, 2, 14), LocalDate.of(2024, 2, 15),
+            LocalDate.of(2024, 2, 16), LocalDate.of(2024, 2, 17),
+            LocalDate.of(2024, 10, 1), LocalDate.of(2024, 10, 2), LocalDate.of(2024, 10, 3),
+            LocalDate.of(2024, 10, 4), LocalDate.of(2024, 10, 7),
+            LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 1),
+            LocalDate.of(2025, 4, 6));
+    private static final Set<LocalDate> ADJUSTED_WORKDAYS = Set.of(
+            LocalDate.of(2024, 2, 4), LocalDate.of(2024, 2, 18),
+            LocalDate.of(2024, 9, 29), LocalDate.of(2024, 10, 12),
+            LocalDate.of(2024, 12, 28),
+            // 同时是节假日，按节假日处理
+            LocalDate.of(2025, 4, 6));
+
+    private static final Predicate<LocalDate> RULE = date -> {
+        if (HOLIDAYS.contains(date)) {
+            return false;
+        }
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return ADJUSTED_WORKDAYS.contains(date);
+        }
+        return true;
+    };
+
+    private static final LocalDate FIRST = LocalDate.of(2023, 12, 1);
+    private static final LocalDate LAST = LocalDate.of(2025, 2, 1);
+
+    @Test
+    void isWorkingDayMatchesRule() {
+        WorkdayCalendar calendar = new WorkdayCalendar(RULE);
+        for (LocalDate date = FIRST; date.isBefore(LAST); date = date.plusDays(1)) {
+            assertEquals(RULE.test(date), calendar.isWorkingDay(date), date.toString());
+        }
+    }
+
+    @Test
+    void nthWorkingDayFromMatchesLoop() {
+        WorkdayCalendar calendar = new WorkdayCalendar(RULE);
+        for (LocalDate from = FIRST; from.isBefore(LAST); from = from.plusDays(1)) {
+            for (int n : new int[] {1, 2, 5, 20, 260}) {
+                assertEquals(nthWorkingDayLoop(from, n), calendar.nthWorkingDayFrom(from, n), from + " 第" + n + "个工作日");
+            }
+        }
+    }
+
+    @Test
+    void countWorkingDaysMatchesLoop() {
+        WorkdayCalendar calendar = new WorkdayCalendar(RULE);
+        for (LocalDate start = FIRST; start.isBefore(LAST); start = start.plusDays(3)) {
+            for (int length : new int[] {0, 1, 7, 31, 64, 65, 400}) {
+                LocalDate end = start.plusDays(length);
+                assertEquals(countLoop(start, end), calendar.countWorkingDays(start, end), start + " ~ " + end);
+            }
+        }
+        assertEquals(0, calendar.countWorkingDays(LAST, FIRST));
+    }
+
+    @Test
+    void calculateDateAfterWorkingDaysMatchesBaselineLoop() {
+        WorkdayCalendar calendar = new WorkdayCalendar(RULE);
+        for (LocalDate start = FIRST; start.isBefore(LAST); start = start.plusDays(1)) {
+            for (int workingDays : new int[] {1, 3, 5, 10, 20}) {
+                assertEquals(dateAfterWorkingDaysLoop(start, workingDays),
+                        DateCalculator.calculateDateAfterWorkingDays(calendar, start, workingDays),
+                        start + " 后" + workingDays + "个工作日");
+            }
+        }
+    }
+
+    @Test
+    void calculateFirstWorkingDayAfterNaturalDaysMatchesLoop() {
+        WorkdayCalendar calendar = new WorkdayCalendar(RULE);
+        for (LocalDate start = FIRST; start.isBefore(LAST); start = start.plusDays(1)) {
+            for (int naturalDays : new int[] {0, 1, 15, 20}) {
+                LocalDate expected = start.plusDays(naturalDays + 1L);
+                while (!RULE.test(expected)) {
+                    expected = expected.plusDays(1);
+                }
+                assertEquals(expected, DateCalculator.calculateFirstWorkingDayAfterNaturalDays(calendar, start, naturalDays),
+                        start + " 后" + naturalDays + "个自然日");
+            }
+        }
+    }
+
+    private static LocalDate nthWorkingDayLoop(LocalDate from, int n) {
+        LocalDate date = from;
+        int count = 0;
+        while (true) {
+            if (RULE.test(date) && ++count == n) {
+                return date;
+            }
+            date = date.plusDays(1);
+        }
+    }
+
+    private static int countLoop(LocalDate start, LocalDate endExclusive) {
+        int count = 0;
+        for (LocalDate date = start; date.isBefore(endExclusive); date = date.plusDays(1)) {
+            if (RULE.test(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 改为位图之前的逐日计算
+     */
+    private static LocalDate dateAfterWorkingDaysLoop(LocalDate startDate, int workingDays) {
+        LocalDate currentDate = startDate.plusDays(1);
+        int count = 0;
+        while (count < workingDays) {
+            if (RULE.test(currentDate)) {
+                count++;
+            }
+            if (count < workingDays) {
+                currentDate = currentDate.plusDays(1);
+            }
+        }
+        currentDate = currentDate.plusDays(1);
+        while (!RULE.test(currentDate)) {
+            currentDate = currentDate.plusDays(1);
+        }
+        return currentDate;
+    }
+}